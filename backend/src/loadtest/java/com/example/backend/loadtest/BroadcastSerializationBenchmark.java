@@ -0,0 +1,169 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.dto.websocket.ChatMessage;
+import com.example.backend.service.NotificationStreamService;
+import com.example.backend.websocket.BroadcastBus;
+import com.example.backend.websocket.EncodedMessageSender;
+import com.example.backend.websocket.LocalBroadcastBus;
+import com.example.backend.websocket.ReplayBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broadcast encoding benchmark: one chat message fanned out to {@code benchmark.subscribers} users,
+ * once with a convertAndSendToUser call per user (one Jackson pass per recipient, the path before the
+ * broadcast bus) and once through {@link BroadcastBus#convertAndSendToUsers} (encoded once, bytes shared).
+ * Both send into a counting channel instead of the broker, so only encoding and message construction
+ * are measured. Each mode runs {@code benchmark.warmup-iterations} untimed and
+ * {@code benchmark.iterations} timed iterations of {@code benchmark.iteration-ms}; the report has
+ * broadcasts/s, deliveries/s, CPU and allocation per broadcast.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.mainClass=com.example.backend.loadtest.BroadcastSerializationBenchmark</pre>
+ */
+@Slf4j
+public final class BroadcastSerializationBenchmark {
+
+    private static final String DESTINATION = "/queue/chat";
+
+    private BroadcastSerializationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = Integer.getInteger("benchmark.subscribers", 1000);
+        int warmupIterations = Integer.getInteger("benchmark.warmup-iterations", 5);
+        int iterations = Integer.getInteger("benchmark.iterations", 10);
+        long iterationMs = Long.getLong("benchmark.iteration-ms", 1000);
+        double minSpeedup = Double.parseDouble(System.getProperty("benchmark.min-speedup", "1.0"));
+
+        int exitCode = 0;
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(args)) {
+            ConfigurableApplicationContext context = environment.context;
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            LongAdder delivered = new LongAdder();
+            MessageChannel sink = (message, timeout) -> {
+                delivered.increment();
+                return true;
+            };
+            SimpMessagingTemplate template = new SimpMessagingTemplate(sink);
+            MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+            converter.setObjectMapper(objectMapper);
+            template.setMessageConverter(converter);
+            BroadcastBus bus = new LocalBroadcastBus(new EncodedMessageSender(template, objectMapper,
+                    context.getBean(ReplayBuffer.class), context.getBean(NotificationStreamService.class)));
+
+            List<String> users = new ArrayList<>(subscribers);
+            for (int i = 0; i < subscribers; i++) {
+                users.add(UUID.randomUUID().toString());
+            }
+            ChatMessage payload = payload();
+
+            Runnable perRecipient = () -> users.forEach(user -> template.convertAndSendToUser(user, DESTINATION, payload));
+            Runnable serializeOnce = () -> bus.convertAndSendToUsers(users, DESTINATION, payload);
+
+            Map<String, Object> perRecipientResult = measure(perRecipient, warmupIterations, iterations, iterationMs, subscribers);
+            Map<String, Object> serializeOnceResult = measure(serializeOnce, warmupIterations, iterations, iterationMs, subscribers);
+            double speedup = (double) serializeOnceResult.get("broadcastsPerSecond")
+                    / (double) perRecipientResult.get("broadcastsPerSecond");
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("subscribers", subscribers);
+            report.put("payloadBytes", objectMapper.writeValueAsBytes(payload).length);
+            report.put("perRecipientEncoding", perRecipientResult);
+            report.put("serializeOnce", serializeOnceResult);
+            report.put("speedup", Math.round(speedup * 100) / 100.0);
+            report.put("minSpeedup", minSpeedup);
+            report.put("passed", speedup >= minSpeedup);
+            LoadTestRunner.writeReport("broadcast-serialization", report);
+            if (speedup < minSpeedup) {
+                log.error("Serialize-once broadcast speedup {} < {}", speedup, minSpeedup);
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            log.error("Broadcast serialization benchmark failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static Map<String, Object> measure(Runnable broadcast, int warmupIterations, int iterations,
+                                               long iterationMs, int subscribers) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < warmupIterations; i++) {
+            runFor(broadcast, iterationMs);
+        }
+
+        List<Double> rates = new ArrayList<>(iterations);
+        long totalBroadcasts = 0;
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long allocatedStart = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            long count = runFor(broadcast, iterationMs);
+            rates.add(count * 1e9 / (System.nanoTime() - start));
+            totalBroadcasts += count;
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedStart;
+
+        double mean = rates.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("broadcastsPerSecond", round(mean));
+        result.put("broadcastsPerSecondMin", round(rates.stream().mapToDouble(Double::doubleValue).min().orElse(0)));
+        result.put("broadcastsPerSecondMax", round(rates.stream().mapToDouble(Double::doubleValue).max().orElse(0)));
+        result.put("deliveriesPerSecond", Math.round(mean * subscribers));
+        result.put("cpuMicrosPerBroadcast", round(cpu / 1000.0 / totalBroadcasts));
+        result.put("allocatedKbPerBroadcast", round(allocated / 1024.0 / totalBroadcasts));
+        return result;
+    }
+
+    private static long runFor(Runnable broadcast, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long count = 0;
+        while (System.nanoTime() < deadline) {
+            broadcast.run();
+            count++;
+        }
+        return count;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    // A typical chat message: a sentence of text and two attachments
+    private static ChatMessage payload() {
+        List<ChatMessage.AttachmentInfo> attachments = List.of(
+                ChatMessage.AttachmentInfo.builder().id(UUID.randomUUID()).fileName("screenshot.png")
+                        .fileType("image/png").fileSize(183_442L).filePath("chat/screenshot.png").build(),
+                ChatMessage.AttachmentInfo.builder().id(UUID.randomUUID()).fileName("notes.txt")
+                        .fileType("text/plain").fileSize(2_048L).filePath("chat/notes.txt").build());
+        return ChatMessage.builder()
+                .type("CREATE")
+                .messageId(UUID.randomUUID())
+                .chatId(UUID.randomUUID())
+                .content("Deploy is done, staging looks good. Can someone double check the board filters before the demo?")
+                .senderId(UUID.randomUUID())
+                .senderName("Load Test User")
+                .senderEmail("lt-user@loadtest.local")
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .version(0L)
+                .attachments(attachments)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.entity.Notification;
+import com.example.backend.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification email throughput against the in-process {@link SmtpStandIn}. Two phases:
+ * <ul>
+ *     <li>throughput: {@code benchmark.emails} templated notification emails spread over enough domains
+ *     that no domain is throttled; every email must arrive and the pool must not open more SMTP
+ *     connections than {@code app.mail.delivery.connections};</li>
+ *     <li>rate limit: {@code benchmark.domain-emails} emails to a single domain, which must not be
+ *     accepted faster than {@code app.mail.delivery.per-domain-per-second} (after the one-second burst).</li>
+ * </ul>
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.mainClass=com.example.backend.loadtest.EmailDeliveryBenchmark</pre>
+ */
+@Slf4j
+public final class EmailDeliveryBenchmark {
+
+    private EmailDeliveryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int emails = Integer.getInteger("benchmark.emails", 2000);
+        int domainEmails = Integer.getInteger("benchmark.domain-emails", 40);
+        double minEmailsPerSecond = Double.parseDouble(System.getProperty("benchmark.min-emails-per-second", "0"));
+
+        int exitCode = 0;
+        try (SmtpStandIn smtp = new SmtpStandIn();
+             LoadTestEnvironment environment = LoadTestEnvironment.start(append(args,
+                     "--spring.mail.host=localhost", "--spring.mail.port=" + smtp.port()))) {
+            EmailService emailService = environment.context.getBean(EmailService.class);
+            Environment properties = environment.context.getEnvironment();
+            int pool = properties.getProperty("app.mail.delivery.connections", Integer.class, 2);
+            double perDomain = properties.getProperty("app.mail.delivery.per-domain-per-second", Double.class, 10.0);
+            // Below the one-second burst per domain, so the throughput phase is never rate limited
+            int domains = (int) Math.ceil(emails / Math.max(1.0, Math.floor(perDomain)));
+
+            // Throughput phase
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> sent = new ArrayList<>(emails);
+            for (int i = 0; i < emails; i++) {
+                sent.add(emailService.sendNotificationEmail("user" + i + "@d" + (i % domains) + ".loadtest.local", notification(i)));
+            }
+            CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+            long elapsed = System.nanoTime() - start;
+            int received = smtp.received.size();
+            int connectionsUsed = smtp.connections.get();
+            double emailsPerSecond = Math.round(emails * 1e9 / elapsed * 10) / 10.0;
+
+            // Rate limit phase
+            smtp.received.clear();
+            long limitStart = System.nanoTime();
+            List<CompletableFuture<Void>> limited = new ArrayList<>(domainEmails);
+            for (int i = 0; i < domainEmails; i++) {
+                limited.add(emailService.sendNotificationEmail("user" + i + "@throttled.loadtest.local", notification(i)));
+            }
+            CompletableFuture.allOf(limited.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+            double limitSeconds = (System.nanoTime() - limitStart) / 1e9;
+            // The bucket starts full (one second of permits), the rest trickle in at perDomain/s
+            double minLimitSeconds = Math.max(0, (domainEmails - Math.max(1.0, perDomain)) / perDomain);
+
+            boolean allReceived = received == emails && smtp.received.size() == domainEmails;
+            boolean pooled = connectionsUsed <= pool;
+            boolean rateLimited = limitSeconds >= minLimitSeconds * 0.9;
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("emails", emails);
+            report.put("domains", domains);
+            report.put("received", received);
+            report.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            report.put("emailsPerSecond", emailsPerSecond);
+            report.put("smtpConnections", connectionsUsed);
+            report.put("poolSize", pool);
+            report.put("rateLimit", Map.of(
+                    "emails", domainEmails,
+                    "perDomainPerSecond", perDomain,
+                    "elapsedSeconds", Math.round(limitSeconds * 100) / 100.0,
+                    "minExpectedSeconds", Math.round(minLimitSeconds * 100) / 100.0));
+            report.put("passed", allReceived && pooled && rateLimited && emailsPerSecond >= minEmailsPerSecond);
+            LoadTestRunner.writeReport("email-delivery", report);
+
+            if (!allReceived) {
+                log.error("SMTP stand-in received {} of {} emails", received + smtp.received.size(), emails + domainEmails);
+                exitCode = 1;
+            } else if (!pooled) {
+                log.error("Delivery opened {} SMTP connections for a pool of {}", connectionsUsed, pool);
+                exitCode = 1;
+            } else if (!rateLimited) {
+                log.error("{} emails to one domain took {} s, expected at least {} s", domainEmails, limitSeconds, minLimitSeconds);
+                exitCode = 1;
+            } else if (emailsPerSecond < minEmailsPerSecond) {
+                log.error("Email throughput {} < {} emails/s", emailsPerSecond, minEmailsPerSecond);
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            log.error("Email delivery benchmark failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static Notification notification(int i) {
+        return Notification.builder()
+                .title("Load test notification " + i)
+                .content("Issue LT-" + i + " was assigned to you")
+                .link("/issues/" + i)
+                .type("ISSUE")
+                .priority("NORMAL")
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+
+    private static String[] append(String[] args, String... extra) {
+        String[] all = Arrays.copyOf(args, args.length + extra.length);
+        System.arraycopy(extra, 0, all, args.length, extra.length);
+        return all;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.BackendApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * The app under test: started with the loadtest profile on a random port, against an embedded Postgres
+ * unless -Dloadtest.datasource.url points at an existing database.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+
+    final ConfigurableApplicationContext context;
+    final int port;
+    private final EmbeddedPostgres postgres;
+
+    private LoadTestEnvironment(ConfigurableApplicationContext context, EmbeddedPostgres postgres) {
+        this.context = context;
+        this.port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.postgres = postgres;
+    }
+
+    static LoadTestEnvironment start(String[] args) throws IOException {
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = System.getProperty("loadtest.datasource.url");
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            System.setProperty("spring.datasource.username", "postgres");
+            System.setProperty("spring.datasource.password", "postgres");
+        }
+        // System properties win over application.yaml, so the app never sees the shared datasource
+        System.setProperty("spring.datasource.url", jdbcUrl);
+        System.setProperty("server.port", "0");
+
+        return new LoadTestEnvironment(run(args), postgres);
+    }
+
+    /**
+     * Starts another instance of the app in this JVM on the same database, for multi-node checks.
+     * Close it before this environment, which owns the database.
+     */
+    LoadTestEnvironment join(String[] args) {
+        // The datasource system properties set by start() still point at this environment's database
+        return new LoadTestEnvironment(run(args), null);
+    }
+
+    private static ConfigurableApplicationContext run(String[] args) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("loadtest")
+                .run(args);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.entity.Chat;
+import com.example.backend.entity.Project;
+import com.example.backend.entity.ProjectMember;
+import com.example.backend.entity.User;
+import com.example.backend.repository.ProjectMemberRepository;
+import com.example.backend.repository.ProjectRepository;
+import com.example.backend.repository.UserRepository;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds one project (with its chat) per load test chat and spreads the session users across them
+ * round-robin. Tokens are signed with the app's own key, the same way AuthenticationService does.
+ */
+final class LoadTestFixture {
+
+    record Member(UUID userId, String token, int chatIndex) {
+    }
+
+    final List<UUID> chatIds = new ArrayList<>();
+    final List<Member> members = new ArrayList<>();
+
+    static LoadTestFixture seed(ConfigurableApplicationContext context, LoadTestProfile profile) {
+        LoadTestFixture fixture = new LoadTestFixture();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        ProjectMemberRepository projectMemberRepository = context.getBean(ProjectMemberRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        Environment environment = context.getEnvironment();
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>(profile.sessions());
+            for (int i = 0; i < profile.sessions(); i++) {
+                User user = new User();
+                user.setEmail("lt-" + run + "-" + i + "@loadtest.local");
+                user.setName("lt-" + run + "-" + i);
+                user.setProvider("LOCAL");
+                users.add(user);
+            }
+            users = userRepository.saveAll(users);
+
+            List<Project> projects = new ArrayList<>(profile.chats());
+            for (int c = 0; c < profile.chats(); c++) {
+                Chat chat = new Chat();
+                chat.setName("Load test chat " + c);
+                Project project = new Project();
+                project.setName("Load test " + run + " #" + c);
+                // projects.key is varchar(10)
+                project.setKey(("L" + run.substring(run.length() - 5) + Integer.toString(c, 36)).toUpperCase());
+                project.setCreator(users.get(c));
+                project.setChat(chat);
+                projects.add(projectRepository.save(project));
+            }
+
+            List<ProjectMember> memberships = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                Project project = projects.get(i % projects.size());
+                ProjectMember member = new ProjectMember();
+                member.setProjectId(project.getId());
+                member.setUserId(users.get(i).getId());
+                member.setRole(i < projects.size() ? "ADMIN" : "MEMBER");
+                member.setJoinedAt(OffsetDateTime.now());
+                memberships.add(member);
+            }
+            projectMemberRepository.saveAll(memberships);
+
+            projects.forEach(project -> fixture.chatIds.add(project.getChat().getId()));
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                fixture.members.add(new Member(user.getId(), token(environment, user), i % projects.size()));
+            }
+        });
+        return fixture;
+    }
+
+    private static String token(Environment environment, User user) {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(user.getId().toString())
+                .issuer(environment.getProperty("app.frontend.url"))
+                .claim("email", user.getEmail())
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .jwtID(UUID.randomUUID().toString())
+                .build();
+        JWSObject jws = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload(claims.toJSONObject()));
+        try {
+            jws.sign(new MACSigner(environment.getRequiredProperty("jwt.signerKey").getBytes()));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot sign load test token", e);
+        }
+        return jws.serialize();
+    }
+}
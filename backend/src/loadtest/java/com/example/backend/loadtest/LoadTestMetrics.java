@@ -0,0 +1,105 @@
+package com.example.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Counters and latency histograms for one run. Client and server share the JVM, so send/receive
+ * timestamps come from the same System.nanoTime clock.
+ */
+final class LoadTestMetrics {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    final Histogram connectLatency = new ConcurrentHistogram(MAX_TRACKED_NANOS, 3);
+    final Histogram sendLatency = new ConcurrentHistogram(MAX_TRACKED_NANOS, 3);
+    final Histogram fanOutLatency = new ConcurrentHistogram(MAX_TRACKED_NANOS, 3);
+
+    final AtomicLong sessionsConnected = new AtomicLong();
+    final AtomicLong sessionsFailed = new AtomicLong();
+    final AtomicLong sessionsClosed = new AtomicLong();
+    final AtomicLong messagesSent = new AtomicLong();
+    final AtomicLong sendErrors = new AtomicLong();
+    final AtomicLong deliveriesExpected = new AtomicLong();
+    final AtomicLong deliveriesReceived = new AtomicLong();
+    final AtomicLong notificationsReceived = new AtomicLong();
+
+    private final LongAccumulator peakHeapUsed = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator peakLiveThreads = new LongAccumulator(Math::max, 0);
+    private volatile boolean recording;
+    private volatile long recordingSince = Long.MAX_VALUE;
+
+    void startRecording() {
+        connectLatency.reset();
+        sendLatency.reset();
+        fanOutLatency.reset();
+        messagesSent.set(0);
+        sendErrors.set(0);
+        deliveriesExpected.set(0);
+        deliveriesReceived.set(0);
+        notificationsReceived.set(0);
+        recordingSince = System.nanoTime();
+        recording = true;
+    }
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    // Frames for messages sent during warmup are still arriving when recording starts
+    void recordFanOut(long sentAtNanos) {
+        if (sentAtNanos < recordingSince) {
+            return;
+        }
+        deliveriesReceived.incrementAndGet();
+        fanOutLatency.recordValue(Math.min(MAX_TRACKED_NANOS, Math.max(0, System.nanoTime() - sentAtNanos)));
+    }
+
+    static void record(Histogram histogram, long startNanos) {
+        histogram.recordValue(Math.min(MAX_TRACKED_NANOS, Math.max(0, System.nanoTime() - startNanos)));
+    }
+
+    void sampleJvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        peakHeapUsed.accumulate(memory.getHeapMemoryUsage().getUsed());
+        peakLiveThreads.accumulate(threads.getThreadCount());
+    }
+
+    Map<String, Object> jvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("heapUsedMb", memory.getHeapMemoryUsage().getUsed() >> 20);
+        jvm.put("heapPeakSampledMb", peakHeapUsed.get() >> 20);
+        jvm.put("heapMaxMb", memory.getHeapMemoryUsage().getMax() >> 20);
+        jvm.put("liveThreads", threads.getThreadCount());
+        jvm.put("peakThreads", Math.max(threads.getPeakThreadCount(), peakLiveThreads.intValue()));
+        jvm.put("daemonThreads", threads.getDaemonThreadCount());
+        return jvm;
+    }
+
+    static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getTotalCount());
+        result.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        result.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+        result.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        result.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        result.put("maxMs", millis(histogram.getMaxValue()));
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * A named, checked-in load shape (src/loadtest/resources/loadtest/profiles/{name}.properties). Any key
+ * can be overridden with -Dloadtest.{key}=... so a run is reproducible from the command line alone.
+ */
+record LoadTestProfile(
+        String name,
+        int sessions,
+        int chats,
+        String transport,
+        int connectRatePerSecond,
+        int messagesPerSecond,
+        int warmupSeconds,
+        int durationSeconds,
+        int drainSeconds) {
+
+    static final String SOCKJS = "sockjs";
+    static final String WEBSOCKET = "websocket";
+
+    static LoadTestProfile load(String name) {
+        Properties properties = new Properties();
+        String resource = "/loadtest/profiles/" + name + ".properties";
+        try (InputStream in = LoadTestProfile.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown load test profile: " + name);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+        LoadTestProfile profile = new LoadTestProfile(
+                name,
+                intValue(properties, "sessions"),
+                intValue(properties, "chats"),
+                value(properties, "transport"),
+                intValue(properties, "connect-rate-per-second"),
+                intValue(properties, "messages-per-second"),
+                intValue(properties, "warmup-seconds"),
+                intValue(properties, "duration-seconds"),
+                intValue(properties, "drain-seconds"));
+        if (!SOCKJS.equals(profile.transport()) && !WEBSOCKET.equals(profile.transport())) {
+            throw new IllegalArgumentException("transport must be " + WEBSOCKET + " or " + SOCKJS);
+        }
+        if (profile.chats() < 1 || profile.sessions() < profile.chats()) {
+            throw new IllegalArgumentException("Need at least one session per chat");
+        }
+        return profile;
+    }
+
+    private static String value(Properties properties, String key) {
+        String value = System.getProperty("loadtest." + key, properties.getProperty(key));
+        if (value == null) {
+            throw new IllegalArgumentException("Missing load test setting: " + key);
+        }
+        return value.trim();
+    }
+
+    private static int intValue(Properties properties, String key) {
+        return Integer.parseInt(value(properties, key));
+    }
+}
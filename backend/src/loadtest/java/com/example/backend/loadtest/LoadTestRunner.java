@@ -0,0 +1,195 @@
+package com.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Capacity run for one node: boots the app against an embedded Postgres (or -Dloadtest.datasource.url),
+ * seeds users/projects/chats, opens the profile's STOMP sessions, drives chat messages through
+ * POST /chats/messages and reports connection counts, fan-out latency percentiles, heap and threads.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.profile=capacity-1k</pre>
+ *
+ * The report is printed and written to target/loadtest/{profile}-{timestamp}.json.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProfile profile = LoadTestProfile.load(System.getProperty("loadtest.profile", "smoke"));
+        log.info("Load test profile: {}", profile);
+
+        int exitCode = 0;
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(args)) {
+            Map<String, Object> report = run(environment.context, profile, environment.port);
+            writeReport(profile.name(), report);
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static Map<String, Object> run(ConfigurableApplicationContext context, LoadTestProfile profile, int port)
+            throws Exception {
+        LoadTestMetrics metrics = new LoadTestMetrics();
+        LoadTestFixture fixture = LoadTestFixture.seed(context, profile);
+        log.info("Seeded {} users across {} chats", fixture.members.size(), fixture.chatIds.size());
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        scheduler.scheduleAtFixedRate(metrics::sampleJvm, 0, 1, TimeUnit.SECONDS);
+
+        // Connect at the profile's rate; count connected sessions per chat for the expected fan-out
+        StompLoadClient client = new StompLoadClient(profile, port, metrics);
+        AtomicIntegerArray subscribersPerChat = new AtomicIntegerArray(fixture.chatIds.size());
+        List<CompletableFuture<?>> connects = new ArrayList<>(fixture.members.size());
+        long connectIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, profile.connectRatePerSecond());
+        long connectStart = System.nanoTime();
+        for (LoadTestFixture.Member member : fixture.members) {
+            connects.add(client.connect(member, fixture.chatIds.get(member.chatIndex()))
+                    .thenRun(() -> subscribersPerChat.incrementAndGet(member.chatIndex())));
+            TimeUnit.NANOSECONDS.sleep(connectIntervalNanos);
+        }
+        try {
+            CompletableFuture.allOf(connects.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Not every session connected: {}", e.getMessage());
+        }
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        Map<String, Object> connectLatency = LoadTestMetrics.percentiles(metrics.connectLatency);
+        log.info("{} sessions connected, {} failed in {} ms",
+                metrics.sessionsConnected.get(), metrics.sessionsFailed.get(), connectMillis);
+        // Subscriptions are sent right after CONNECTED; give the broker a moment to register them
+        Thread.sleep(1000);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI sendUri = URI.create("http://localhost:" + port + "/api/chats/messages");
+        AtomicLong sequence = new AtomicLong();
+        long periodMicros = Math.max(1, TimeUnit.SECONDS.toMicros(1) / Math.max(1, profile.messagesPerSecond()));
+        ScheduledFuture<?> sender = scheduler.scheduleAtFixedRate(() -> {
+            long seq = sequence.getAndIncrement();
+            LoadTestFixture.Member member = fixture.members.get((int) (seq % fixture.members.size()));
+            int chat = member.chatIndex();
+            long sentAt = System.nanoTime();
+            String body = "{\"chatId\":\"" + fixture.chatIds.get(chat) + "\",\"content\":\""
+                    + StompLoadClient.MARKER + sentAt + " " + seq + "\"}";
+            HttpRequest request = HttpRequest.newBuilder(sendUri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + member.token())
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            boolean recording = metrics.isRecording();
+            if (recording) {
+                metrics.messagesSent.incrementAndGet();
+                metrics.deliveriesExpected.addAndGet(subscribersPerChat.get(chat));
+            }
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (!recording) {
+                    return;
+                }
+                LoadTestMetrics.record(metrics.sendLatency, sentAt);
+                if (error != null || response.statusCode() / 100 != 2) {
+                    metrics.sendErrors.incrementAndGet();
+                }
+            });
+        }, 0, periodMicros, TimeUnit.MICROSECONDS);
+
+        log.info("Warming up for {} s", profile.warmupSeconds());
+        Thread.sleep(TimeUnit.SECONDS.toMillis(profile.warmupSeconds()));
+        metrics.startRecording();
+        log.info("Recording for {} s at {} msg/s", profile.durationSeconds(), profile.messagesPerSecond());
+        Thread.sleep(TimeUnit.SECONDS.toMillis(profile.durationSeconds()));
+        sender.cancel(false);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(profile.drainSeconds()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profile", profile);
+
+        Map<String, Object> connections = new LinkedHashMap<>();
+        connections.put("requested", fixture.members.size());
+        connections.put("connected", metrics.sessionsConnected.get());
+        connections.put("failed", metrics.sessionsFailed.get());
+        connections.put("closedDuringRun", metrics.sessionsClosed.get());
+        connections.put("connectPhaseMs", connectMillis);
+        connections.put("connectLatency", connectLatency);
+        report.put("connections", connections);
+
+        Map<String, Object> sends = new LinkedHashMap<>();
+        sends.put("messages", metrics.messagesSent.get());
+        sends.put("errors", metrics.sendErrors.get());
+        sends.put("httpLatency", LoadTestMetrics.percentiles(metrics.sendLatency));
+        report.put("sends", sends);
+
+        Map<String, Object> fanOut = new LinkedHashMap<>();
+        fanOut.put("expected", metrics.deliveriesExpected.get());
+        fanOut.put("received", metrics.deliveriesReceived.get());
+        fanOut.put("notificationsReceived", metrics.notificationsReceived.get());
+        fanOut.put("latency", LoadTestMetrics.percentiles(metrics.fanOutLatency));
+        report.put("fanOut", fanOut);
+
+        report.put("jvm", metrics.jvm());
+        report.put("server", serverMetrics(context.getBean(MeterRegistry.class)));
+
+        scheduler.shutdownNow();
+        client.disconnectAll();
+        return report;
+    }
+
+    private static Map<String, Object> serverMetrics(MeterRegistry registry) {
+        Map<String, Object> server = new LinkedHashMap<>();
+        server.put("framesDropped", registry.find("websocket.outbound.frames.dropped").counters().stream()
+                .mapToDouble(Counter::count).sum());
+        Gauge buffer = registry.find("websocket.outbound.session.buffer.max").gauge();
+        server.put("outboundBufferMaxAtEnd", buffer != null ? buffer.value() : null);
+        Gauge slow = registry.find("websocket.outbound.sessions.slow").gauge();
+        server.put("slowSessionsAtEnd", slow != null ? slow.value() : null);
+        return server;
+    }
+
+    static void writeReport(String name, Map<String, Object> report) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String json = objectMapper.writeValueAsString(report);
+        System.out.println(json);
+
+        Path dir = Path.of("target", "loadtest");
+        Files.createDirectories(dir);
+        Path file = dir.resolve(name + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Files.writeString(file, json);
+        log.info("Report written to {}", file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.entity.Message;
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.service.MessageIngestionService;
+import com.example.backend.service.MessageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Burst benchmark for chat sends: {@code benchmark.senders} concurrent senders spread over a few chats
+ * each send {@code benchmark.per-sender} messages, once with one transaction per message
+ * (MessageService.sendMessage) and once through the group-commit pipeline (MessageIngestionService).
+ * Both runs must keep every sender's messages in order and chats.message_count exact; the pipeline must
+ * also publish each chat's events in stored order and reach {@code benchmark.min-speedup} times the
+ * throughput of the per-message path.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.mainClass=com.example.backend.loadtest.MessageIngestionBenchmark</pre>
+ */
+@Slf4j
+public final class MessageIngestionBenchmark {
+
+    private static final int CHATS = 4;
+
+    private MessageIngestionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int senders = Integer.getInteger("benchmark.senders", 64);
+        int perSender = Integer.getInteger("benchmark.per-sender", 50);
+        double minSpeedup = Double.parseDouble(System.getProperty("benchmark.min-speedup", "1.0"));
+
+        int exitCode = 0;
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(args)) {
+            ConfigurableApplicationContext context = environment.context;
+            LoadTestFixture fixture = LoadTestFixture.seed(context,
+                    new LoadTestProfile("ingestion", senders, CHATS * 2, LoadTestProfile.WEBSOCKET, 1, 1, 0, 0, 0));
+            // Each run gets its own chats, so ordering and counters are checked per run
+            List<LoadTestFixture.Member> directMembers = fixture.members.stream().filter(m -> m.chatIndex() < CHATS).toList();
+            List<LoadTestFixture.Member> pipelineMembers = fixture.members.stream().filter(m -> m.chatIndex() >= CHATS).toList();
+
+            Queue<MessageSentEvent> events = new ConcurrentLinkedQueue<>();
+            context.addApplicationListener(event -> {
+                if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof MessageSentEvent sent) {
+                    events.add(sent);
+                }
+            });
+
+            MessageService messageService = context.getBean(MessageService.class);
+            MessageIngestionService ingestionService = context.getBean(MessageIngestionService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            Map<String, Object> direct = run(directMembers, perSender, fixture, events, jdbcTemplate,
+                    (member, content) -> messageService.sendMessage(member.userId(), fixture.chatIds.get(member.chatIndex()), content, List.of()));
+            Map<String, Object> pipeline = run(pipelineMembers, perSender, fixture, events, jdbcTemplate,
+                    (member, content) -> ingestionService.send(member.userId(), fixture.chatIds.get(member.chatIndex()), null, content, List.of(), null));
+
+            double speedup = (double) pipeline.get("messagesPerSecond") / (double) direct.get("messagesPerSecond");
+            boolean ordered = (boolean) direct.get("senderOrder") && (boolean) direct.get("countersExact")
+                    && (boolean) pipeline.get("senderOrder") && (boolean) pipeline.get("countersExact")
+                    && (boolean) pipeline.get("publishedInStoredOrder");
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("senders", senders);
+            report.put("perSender", perSender);
+            report.put("direct", direct);
+            report.put("groupCommit", pipeline);
+            report.put("batchSizeMean", context.getBean(MeterRegistry.class).summary("chat.ingestion.batch.size").mean());
+            report.put("speedup", Math.round(speedup * 100) / 100.0);
+            report.put("minSpeedup", minSpeedup);
+            report.put("passed", ordered && speedup >= minSpeedup);
+            LoadTestRunner.writeReport("message-ingestion", report);
+
+            if (!ordered) {
+                log.error("Messages were committed or published out of order, or counters drifted");
+                exitCode = 1;
+            } else if (speedup < minSpeedup) {
+                log.error("Group commit throughput speedup {} < {}", speedup, minSpeedup);
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            log.error("Benchmark failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static Map<String, Object> run(List<LoadTestFixture.Member> members, int perSender, LoadTestFixture fixture,
+                                           Queue<MessageSentEvent> events, JdbcTemplate jdbcTemplate,
+                                           BiFunction<LoadTestFixture.Member, String, Message> send) throws Exception {
+        events.clear();
+        Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (LoadTestFixture.Member member : members) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perSender; i++) {
+                        long sentAt = System.nanoTime();
+                        send.apply(member, member.userId() + ":" + i);
+                        LoadTestMetrics.record(latency, sentAt);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        int total = members.size() * perSender;
+
+        boolean senderOrder = true;
+        boolean countersExact = true;
+        boolean publishedInStoredOrder = true;
+        List<UUID> chatIds = members.stream().map(m -> fixture.chatIds.get(m.chatIndex())).distinct().toList();
+        for (UUID chatId : chatIds) {
+            List<String> stored = jdbcTemplate.queryForList(
+                    "SELECT content FROM messages WHERE chat_id = ? ORDER BY created_at, id", String.class, chatId);
+            List<String> published = events.stream().filter(e -> e.chatId().equals(chatId))
+                    .map(e -> e.payload().getContent()).toList();
+            Long counted = jdbcTemplate.queryForObject("SELECT message_count FROM chats WHERE id = ?", Long.class, chatId);
+            senderOrder &= inSenderOrder(stored);
+            countersExact &= counted != null && counted == stored.size();
+            publishedInStoredOrder &= stored.equals(published);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("messages", total);
+        result.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.put("messagesPerSecond", Math.round(total * 1e9 / elapsed * 10) / 10.0);
+        result.put("latency", LoadTestMetrics.percentiles(latency));
+        result.put("senderOrder", senderOrder);
+        result.put("countersExact", countersExact);
+        result.put("publishedInStoredOrder", publishedInStoredOrder);
+        return result;
+    }
+
+    // Contents are "<senderId>:<seq>"; every sender's sequence must be increasing in chat order
+    private static boolean inSenderOrder(List<String> contents) {
+        Map<String, Integer> last = new HashMap<>();
+        for (String content : contents) {
+            int separator = content.lastIndexOf(':');
+            int seq = Integer.parseInt(content.substring(separator + 1));
+            Integer previous = last.put(content.substring(0, separator), seq);
+            if (previous != null && previous >= seq) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.service.MessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression check for the chat send path: times MessageService.sendMessage on an empty chat and on a
+ * chat with {@code benchmark.history} (default 100k) existing messages. Sends must not get slower with
+ * history, so the run fails when the median ratio exceeds {@code benchmark.max-ratio}.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.mainClass=com.example.backend.loadtest.MessageSendBenchmark</pre>
+ */
+@Slf4j
+public final class MessageSendBenchmark {
+
+    private MessageSendBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int history = Integer.getInteger("benchmark.history", 100_000);
+        int warmup = Integer.getInteger("benchmark.warmup", 200);
+        int sends = Integer.getInteger("benchmark.sends", 1_000);
+        double maxRatio = Double.parseDouble(System.getProperty("benchmark.max-ratio", "1.5"));
+
+        int exitCode = 0;
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(args)) {
+            ConfigurableApplicationContext context = environment.context;
+            LoadTestFixture fixture = LoadTestFixture.seed(context,
+                    new LoadTestProfile("send-path", 2, 2, LoadTestProfile.WEBSOCKET, 1, 1, 0, 0, 0));
+            LoadTestFixture.Member emptyChatMember = fixture.members.get(0);
+            LoadTestFixture.Member historyChatMember = fixture.members.get(1);
+            UUID emptyChat = fixture.chatIds.get(emptyChatMember.chatIndex());
+            UUID historyChat = fixture.chatIds.get(historyChatMember.chatIndex());
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long seedStart = System.nanoTime();
+            jdbcTemplate.update("INSERT INTO messages (id, content, chat_id, sender_id, created_at, updated_at) "
+                            + "SELECT gen_random_uuid(), 'history ' || g, ?, ?, now() - make_interval(secs => g), now() "
+                            + "FROM generate_series(1, ?) g",
+                    historyChat, historyChatMember.userId(), history);
+            jdbcTemplate.update("UPDATE chats SET message_count = ?, last_message_at = now() WHERE id = ?", history, historyChat);
+            jdbcTemplate.execute("ANALYZE messages");
+            log.info("Seeded {} messages in {} ms", history, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            MessageService messageService = context.getBean(MessageService.class);
+            Histogram empty = measure(messageService, emptyChatMember, emptyChat, warmup, sends);
+            Histogram loaded = measure(messageService, historyChatMember, historyChat, warmup, sends);
+
+            double ratio = (double) loaded.getValueAtPercentile(50) / Math.max(1, empty.getValueAtPercentile(50));
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("history", history);
+            report.put("sends", sends);
+            report.put("emptyChat", LoadTestMetrics.percentiles(empty));
+            report.put("historyChat", LoadTestMetrics.percentiles(loaded));
+            report.put("p50Ratio", Math.round(ratio * 100) / 100.0);
+            report.put("maxRatio", maxRatio);
+            report.put("passed", ratio <= maxRatio);
+            LoadTestRunner.writeReport("message-send", report);
+
+            if (ratio > maxRatio) {
+                log.error("Send latency grows with chat history: p50 ratio {} > {}", ratio, maxRatio);
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            log.error("Benchmark failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static Histogram measure(MessageService messageService, LoadTestFixture.Member member, UUID chatId,
+                                     int warmup, int sends) {
+        Histogram histogram = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        for (int i = 0; i < warmup + sends; i++) {
+            long start = System.nanoTime();
+            messageService.sendMessage(member.userId(), chatId, "benchmark " + i, List.of());
+            if (i >= warmup) {
+                LoadTestMetrics.record(histogram, start);
+            }
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.backend.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node fan-out check: starts {@code check.nodes} app instances in this JVM on one database with
+ * the given broker mode (default POSTGRES), connects the STOMP sessions round-robin across the nodes and
+ * sends chat messages round-robin through every node's REST API. Every subscriber must receive every
+ * message of its chat, whichever node it is connected to and whichever node accepted the message.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.mainClass=com.example.backend.loadtest.MultiNodeBroadcastCheck</pre>
+ */
+@Slf4j
+public final class MultiNodeBroadcastCheck {
+
+    private MultiNodeBroadcastCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nodeCount = Integer.getInteger("check.nodes", 2);
+        int sessions = Integer.getInteger("check.sessions", 40);
+        int chats = Integer.getInteger("check.chats", 4);
+        int messages = Integer.getInteger("check.messages", 100);
+        String broker = System.getProperty("check.broker", "POSTGRES");
+        String[] nodeArgs = append(args, "--app.websocket.broker=" + broker);
+
+        int exitCode = 0;
+        List<LoadTestEnvironment> nodes = new ArrayList<>();
+        List<StompLoadClient> clients = new ArrayList<>();
+        try {
+            nodes.add(LoadTestEnvironment.start(nodeArgs));
+            for (int n = 1; n < nodeCount; n++) {
+                nodes.add(nodes.get(0).join(nodeArgs));
+            }
+            LoadTestProfile profile = new LoadTestProfile("multi-node", sessions, chats, LoadTestProfile.WEBSOCKET, 1, 1, 0, 0, 0);
+            LoadTestFixture fixture = LoadTestFixture.seed(nodes.get(0).context, profile);
+
+            // Members are assigned to chats round-robin; spreading them over nodes by i / chats puts every
+            // chat's subscribers on every node. subscribers[node][chat] is the expected fan-out
+            List<LoadTestMetrics> metrics = new ArrayList<>();
+            int[][] subscribers = new int[nodeCount][chats];
+            List<CompletableFuture<?>> connects = new ArrayList<>();
+            for (LoadTestEnvironment node : nodes) {
+                LoadTestMetrics nodeMetrics = new LoadTestMetrics();
+                metrics.add(nodeMetrics);
+                clients.add(new StompLoadClient(profile, node.port, nodeMetrics));
+            }
+            for (int i = 0; i < fixture.members.size(); i++) {
+                LoadTestFixture.Member member = fixture.members.get(i);
+                int node = (i / chats) % nodeCount;
+                subscribers[node][member.chatIndex()]++;
+                connects.add(clients.get(node).connect(member, fixture.chatIds.get(member.chatIndex())));
+            }
+            CompletableFuture.allOf(connects.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+            // Subscriptions are sent right after CONNECTED; give the brokers a moment to register them
+            Thread.sleep(1000);
+            metrics.forEach(LoadTestMetrics::startRecording);
+
+            HttpClient httpClient = HttpClient.newHttpClient();
+            long[] expected = new long[nodeCount];
+            int[] sentThrough = new int[nodeCount];
+            for (int m = 0; m < messages; m++) {
+                LoadTestFixture.Member sender = fixture.members.get(m % fixture.members.size());
+                // Independent of the sender's chat, so every chat gets messages through every node
+                int via = (m / chats) % nodeCount;
+                String body = "{\"chatId\":\"" + fixture.chatIds.get(sender.chatIndex()) + "\",\"content\":\""
+                        + StompLoadClient.MARKER + System.nanoTime() + " " + m + "\"}";
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + nodes.get(via).port + "/api/chats/messages"))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + sender.token())
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("Send through node " + via + " returned " + response.statusCode() + ": " + response.body());
+                }
+                sentThrough[via]++;
+                for (int n = 0; n < nodeCount; n++) {
+                    expected[n] += subscribers[n][sender.chatIndex()];
+                }
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+            while (System.nanoTime() < deadline && !allReceived(metrics, expected)) {
+                Thread.sleep(100);
+            }
+
+            List<Map<String, Object>> perNode = new ArrayList<>();
+            for (int n = 0; n < nodeCount; n++) {
+                Map<String, Object> node = new LinkedHashMap<>();
+                node.put("port", nodes.get(n).port);
+                node.put("sessions", metrics.get(n).sessionsConnected.get());
+                node.put("messagesSentThrough", sentThrough[n]);
+                node.put("deliveriesExpected", expected[n]);
+                node.put("deliveriesReceived", metrics.get(n).deliveriesReceived.get());
+                node.put("fanOutLatency", LoadTestMetrics.percentiles(metrics.get(n).fanOutLatency));
+                perNode.add(node);
+            }
+            boolean passed = allReceived(metrics, expected)
+                    && metrics.stream().mapToLong(m -> m.sessionsConnected.get()).sum() == sessions;
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("broker", broker);
+            report.put("nodes", perNode);
+            report.put("messages", messages);
+            report.put("passed", passed);
+            LoadTestRunner.writeReport("multi-node-" + broker.toLowerCase(), report);
+            if (!passed) {
+                log.error("Not every subscriber received every message of its chat across {} nodes", nodeCount);
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            log.error("Multi-node check failed", e);
+            exitCode = 1;
+        } finally {
+            clients.forEach(StompLoadClient::disconnectAll);
+            // Joined nodes first: the first one owns the embedded database
+            for (int n = nodes.size() - 1; n >= 0; n--) {
+                nodes.get(n).close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    // Exact match: a node receiving a message twice (local delivery plus its own NOTIFY) also fails
+    private static boolean allReceived(List<LoadTestMetrics> metrics, long[] expected) {
+        for (int n = 0; n < expected.length; n++) {
+            if (metrics.get(n).deliveriesReceived.get() != expected[n]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] append(String[] args, String... extra) {
+        String[] all = Arrays.copyOf(args, args.length + extra.length);
+        System.arraycopy(extra, 0, all, args.length, extra.length);
+        return all;
+    }
+}
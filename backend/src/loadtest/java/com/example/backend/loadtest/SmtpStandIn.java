@@ -0,0 +1,139 @@
+package com.example.backend.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for the email delivery checks: accepts any AUTH, stores nothing but
+ * counts connections and records when each recipient's message was accepted. Enough of RFC 5321 for
+ * JavaMail (EHLO, AUTH PLAIN/LOGIN, MAIL, RCPT, DATA, RSET, NOOP, QUIT).
+ */
+@Slf4j
+final class SmtpStandIn implements AutoCloseable {
+
+    record Received(String recipient, long acceptedAtNanos) {
+    }
+
+    final AtomicInteger connections = new AtomicInteger();
+    final ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+    private final Map<Socket, Boolean> open = new ConcurrentHashMap<>();
+    private final ServerSocket serverSocket;
+    private volatile boolean running = true;
+
+    SmtpStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().name("smtp-stand-in").daemon(true).start(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                open.put(socket, Boolean.TRUE);
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("SMTP stand-in accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 localhost ESMTP stand-in");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-AUTH PLAIN LOGIN\r\n250-8BITMIME\r\n250 OK");
+                    case "HELO", "NOOP" -> reply(out, "250 OK");
+                    case "AUTH" -> authenticate(line, in, out);
+                    case "MAIL" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf('<') + 1, line.lastIndexOf('>')));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data;
+                        while ((data = in.readLine()) != null && !data.equals(".")) {
+                            // message body is discarded
+                        }
+                        long now = System.nanoTime();
+                        recipients.forEach(recipient -> received.add(new Received(recipient, now)));
+                        reply(out, "250 OK queued");
+                    }
+                    case "RSET" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                log.debug("SMTP stand-in connection closed: {}", e.getMessage());
+            }
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private static void authenticate(String line, BufferedReader in, OutputStream out) throws IOException {
+        String[] parts = line.split(" ");
+        if (parts.length > 1 && parts[1].equalsIgnoreCase("LOGIN")) {
+            reply(out, "334 VXNlcm5hbWU6");
+            in.readLine();
+            reply(out, "334 UGFzc3dvcmQ6");
+            in.readLine();
+        } else if (parts.length < 3) {
+            reply(out, "334 ");
+            in.readLine();
+        }
+        reply(out, "235 Authentication successful");
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (Socket socket : open.keySet()) {
+            socket.close();
+        }
+    }
+}
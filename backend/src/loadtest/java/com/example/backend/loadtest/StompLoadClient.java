@@ -0,0 +1,139 @@
+package com.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Opens the load test STOMP sessions. Each one subscribes to its chat topic and to
+ * /user/queue/notifications, and timestamps every chat frame that carries a load test marker.
+ */
+@Slf4j
+final class StompLoadClient {
+
+    static final String MARKER = "lt ";
+
+    private final WebSocketStompClient stompClient;
+    private final String url;
+    private final LoadTestMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<StompSession> sessions = new ConcurrentLinkedQueue<>();
+
+    StompLoadClient(LoadTestProfile profile, int port, LoadTestMetrics metrics) {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        WebSocketClient client = LoadTestProfile.SOCKJS.equals(profile.transport())
+                ? new SockJsClient(List.of(new WebSocketTransport(webSocketClient)))
+                : webSocketClient;
+        this.url = LoadTestProfile.SOCKJS.equals(profile.transport())
+                ? "http://localhost:" + port + "/api/ws"
+                : "ws://localhost:" + port + "/api/ws-native";
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("lt-stomp-heartbeat-");
+        scheduler.initialize();
+
+        this.stompClient = new WebSocketStompClient(client);
+        this.stompClient.setTaskScheduler(scheduler);
+        this.stompClient.setDefaultHeartbeat(new long[]{10_000, 10_000});
+        this.stompClient.setInboundMessageSizeLimit(256 * 1024);
+        this.metrics = metrics;
+    }
+
+    CompletableFuture<StompSession> connect(LoadTestFixture.Member member, UUID chatId) {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + member.token());
+        long start = System.nanoTime();
+        return stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                        LoadTestMetrics.record(metrics.connectLatency, start);
+                        session.subscribe("/topic/chat/" + chatId + "/messages", new FrameHandler(false));
+                        session.subscribe("/user/queue/notifications", new FrameHandler(true));
+                    }
+
+                    @Override
+                    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                                byte[] payload, Throwable exception) {
+                        log.debug("STOMP session {} error: {}", session.getSessionId(), exception.getMessage());
+                    }
+
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        metrics.sessionsClosed.incrementAndGet();
+                    }
+                })
+                .whenComplete((session, error) -> {
+                    if (error != null) {
+                        metrics.sessionsFailed.incrementAndGet();
+                    } else {
+                        metrics.sessionsConnected.incrementAndGet();
+                        sessions.add(session);
+                    }
+                });
+    }
+
+    void disconnectAll() {
+        sessions.forEach(session -> {
+            try {
+                session.disconnect();
+            } catch (Exception ignored) {
+                // already gone
+            }
+        });
+        stompClient.stop();
+    }
+
+    private final class FrameHandler implements StompFrameHandler {
+        private final boolean notifications;
+
+        FrameHandler(boolean notifications) {
+            this.notifications = notifications;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            if (!metrics.isRecording()) {
+                return;
+            }
+            if (notifications) {
+                metrics.notificationsReceived.incrementAndGet();
+                return;
+            }
+            try {
+                JsonNode message = objectMapper.readTree((byte[]) payload);
+                String content = message.path("content").asText("");
+                if ("CREATE".equals(message.path("type").asText()) && content.startsWith(MARKER)) {
+                    int end = content.indexOf(' ', MARKER.length());
+                    metrics.recordFanOut(Long.parseLong(content.substring(MARKER.length(), end < 0 ? content.length() : end)));
+                }
+            } catch (Exception e) {
+                log.debug("Unreadable chat frame: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wire size and server send CPU of chat broadcasts on /ws-native, for the four combinations of payload
+ * format (JSON, or CBOR via {@code x-payload-format: cbor}) and permessage-deflate (requested or not in
+ * the handshake). Each mode gets its own chat with {@code benchmark.subscribers} sessions connected through
+ * a byte-counting TCP proxy, then {@code benchmark.messages} messages are posted to that chat. The report
+ * has, per mode, the server-to-client bytes on the wire and the STOMP body bytes per delivery, and the CPU
+ * time of the client outbound channel threads (STOMP encoding, CBOR transcoding, deflate) per delivery.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:java -Dloadtest.mainClass=com.example.backend.loadtest.WirePayloadBenchmark</pre>
+ */
+@Slf4j
+public final class WirePayloadBenchmark {
+
+    private static final String OUTBOUND_THREAD_PREFIX = "clientOutboundChannel";
+
+    private record Mode(String name, boolean cbor, boolean deflate) {
+    }
+
+    private static final List<Mode> MODES = List.of(
+            new Mode("json", false, false),
+            new Mode("json-deflate", false, true),
+            new Mode("cbor", true, false),
+            new Mode("cbor-deflate", true, true));
+
+    private WirePayloadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = Integer.getInteger("benchmark.subscribers", 50);
+        int messages = Integer.getInteger("benchmark.messages", 200);
+
+        int exitCode = 0;
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(args)) {
+            LoadTestProfile profile = new LoadTestProfile("wire-payload", subscribers * MODES.size(), MODES.size(),
+                    LoadTestProfile.WEBSOCKET, 1, 1, 0, 0, 0);
+            LoadTestFixture fixture = LoadTestFixture.seed(environment.context, profile);
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            boolean allDelivered = true;
+            for (int chat = 0; chat < MODES.size(); chat++) {
+                Mode mode = MODES.get(chat);
+                List<LoadTestFixture.Member> members = new ArrayList<>();
+                for (LoadTestFixture.Member member : fixture.members) {
+                    if (member.chatIndex() == chat) {
+                        members.add(member);
+                    }
+                }
+                Map<String, Object> result = run(environment.port, mode, members, fixture.chatIds.get(chat), messages);
+                allDelivered &= (boolean) result.remove("delivered");
+                results.put(mode.name(), result);
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("subscribersPerMode", subscribers);
+            report.put("messagesPerMode", messages);
+            report.put("modes", results);
+            report.put("passed", allDelivered);
+            LoadTestRunner.writeReport("wire-payload", report);
+            if (!allDelivered) {
+                log.error("Not every subscriber received every message in every mode");
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            log.error("Wire payload benchmark failed", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static Map<String, Object> run(int port, Mode mode, List<LoadTestFixture.Member> members,
+                                           UUID chatId, int messages) throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        ObjectMapper jsonMapper = new ObjectMapper();
+        LongAdder frames = new LongAdder();
+        LongAdder bodyBytes = new LongAdder();
+        LongAdder undecodable = new LongAdder();
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("lt-wire-heartbeat-");
+        scheduler.initialize();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setTaskScheduler(scheduler);
+        stompClient.setInboundMessageSizeLimit(256 * 1024);
+
+        List<StompSession> sessions = new ArrayList<>();
+        try (ByteCountingProxy proxy = new ByteCountingProxy(port)) {
+            WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+            if (mode.deflate()) {
+                handshakeHeaders.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+            }
+            List<CompletableFuture<StompSession>> connects = new ArrayList<>();
+            for (LoadTestFixture.Member member : members) {
+                StompHeaders connectHeaders = new StompHeaders();
+                connectHeaders.add("Authorization", "Bearer " + member.token());
+                if (mode.cbor()) {
+                    connectHeaders.add("x-payload-format", "cbor");
+                }
+                connects.add(stompClient.connectAsync("ws://localhost:" + proxy.port() + "/api/ws-native",
+                        handshakeHeaders, connectHeaders, new StompSessionHandlerAdapter() {
+                            @Override
+                            public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                                session.subscribe("/topic/chat/" + chatId + "/messages", new StompFrameHandler() {
+                                    @Override
+                                    public Type getPayloadType(StompHeaders headers) {
+                                        return byte[].class;
+                                    }
+
+                                    @Override
+                                    public void handleFrame(StompHeaders headers, Object payload) {
+                                        byte[] body = (byte[]) payload;
+                                        bodyBytes.add(body.length);
+                                        boolean cbor = "cbor".equals(headers.getFirst("x-payload-format"));
+                                        try {
+                                            (cbor ? cborMapper : jsonMapper).readTree(body);
+                                            if (cbor != mode.cbor()) {
+                                                undecodable.increment();
+                                            }
+                                        } catch (IOException e) {
+                                            undecodable.increment();
+                                        }
+                                        frames.increment();
+                                    }
+                                });
+                            }
+                        }));
+            }
+            for (CompletableFuture<StompSession> connect : connects) {
+                sessions.add(connect.get(60, TimeUnit.SECONDS));
+            }
+            // Subscriptions are sent right after CONNECTED; give the broker a moment to register them
+            Thread.sleep(1000);
+
+            long wireStart = proxy.downstreamBytes.get();
+            long cpuStart = outboundCpuNanos();
+            HttpClient httpClient = HttpClient.newHttpClient();
+            for (int m = 0; m < messages; m++) {
+                LoadTestFixture.Member sender = members.get(m % members.size());
+                String body = "{\"chatId\":\"" + chatId + "\",\"content\":\"Message " + m
+                        + ": deploy is done, staging looks good. Can someone double check the board filters before the demo?\"}";
+                HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/chats/messages"))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + sender.token())
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("Send returned " + response.statusCode() + ": " + response.body());
+                }
+            }
+            long expected = (long) messages * members.size();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (System.nanoTime() < deadline && frames.sum() < expected) {
+                Thread.sleep(50);
+            }
+            // Let trailing bytes of the last frames pass the proxy
+            Thread.sleep(200);
+            long wire = proxy.downstreamBytes.get() - wireStart;
+            long cpu = outboundCpuNanos() - cpuStart;
+            long received = frames.sum();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("deliveriesExpected", expected);
+            result.put("deliveriesReceived", received);
+            result.put("undecodableFrames", undecodable.sum());
+            result.put("wireBytesPerDelivery", round((double) wire / Math.max(1, received)));
+            result.put("bodyBytesPerDelivery", round((double) bodyBytes.sum() / Math.max(1, received)));
+            result.put("outboundCpuMicrosPerDelivery", round(cpu / 1000.0 / Math.max(1, received)));
+            result.put("delivered", received == expected && undecodable.sum() == 0);
+            return result;
+        } finally {
+            sessions.forEach(session -> {
+                try {
+                    session.disconnect();
+                } catch (Exception ignored) {
+                    // already gone
+                }
+            });
+            stompClient.stop();
+            scheduler.shutdown();
+        }
+    }
+
+    // CPU of the threads that encode and write outbound frames; deflate runs in the writing thread
+    private static long outboundCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith(OUTBOUND_THREAD_PREFIX)) {
+                total += Math.max(0, threads.getThreadCpuTime(info.getThreadId()));
+            }
+        }
+        return total;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /** Forwards localhost connections to the app and counts the bytes sent back to the clients. */
+    private static final class ByteCountingProxy implements AutoCloseable {
+
+        final AtomicLong downstreamBytes = new AtomicLong();
+        private final ServerSocket serverSocket;
+        private final int targetPort;
+        private final List<Socket> open = new CopyOnWriteArrayList<>();
+        private volatile boolean running = true;
+
+        ByteCountingProxy(int targetPort) throws IOException {
+            this.targetPort = targetPort;
+            this.serverSocket = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+            Thread.ofPlatform().name("lt-wire-proxy").daemon(true).start(this::accept);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (running) {
+                try {
+                    Socket client = serverSocket.accept();
+                    Socket server = new Socket(InetAddress.getLoopbackAddress(), targetPort);
+                    open.add(client);
+                    open.add(server);
+                    Thread.ofVirtual().start(() -> pipe(client, server, null));
+                    Thread.ofVirtual().start(() -> pipe(server, client, downstreamBytes));
+                } catch (IOException e) {
+                    if (running) {
+                        log.warn("Proxy accept failed: {}", e.getMessage());
+                    }
+                }
+            }
+        }
+
+        private static void pipe(Socket from, Socket to, AtomicLong counter) {
+            byte[] buffer = new byte[16 * 1024];
+            try (InputStream in = from.getInputStream()) {
+                OutputStream out = to.getOutputStream();
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                    if (counter != null) {
+                        counter.addAndGet(read);
+                    }
+                }
+            } catch (IOException e) {
+                // connection closed by either side
+            } finally {
+                try {
+                    to.shutdownOutput();
+                } catch (IOException ignored) {
+                    // already closed
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            running = false;
+            serverSocket.close();
+            for (Socket socket : open) {
+                socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${app.async.side-effects.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${app.async.side-effects.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.async.side-effects.rejection-policy:CALLER_RUNS}")
+    private SideEffectExecutor.RejectionPolicy rejectionPolicy;
+
+    // Shared executor for notification/broadcast side effects (replaces ForkJoinPool.commonPool())
+    @Bean
+    public SideEffectExecutor sideEffectExecutor(MeterRegistry meterRegistry) {
+        return new SideEffectExecutor("side-effect", maxConcurrency, queueCapacity, rejectionPolicy, meterRegistry);
+    }
+}
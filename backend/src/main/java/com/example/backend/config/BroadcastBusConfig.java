@@ -0,0 +1,38 @@
+package com.example.backend.config;
+
+import com.example.backend.service.NotificationStreamService;
+import com.example.backend.websocket.BroadcastBus;
+import com.example.backend.websocket.BrokerMode;
+import com.example.backend.websocket.EncodedMessageSender;
+import com.example.backend.websocket.LocalBroadcastBus;
+import com.example.backend.websocket.PostgresBroadcastBus;
+import com.example.backend.websocket.ReplayBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class BroadcastBusConfig {
+
+    @Value("${app.websocket.broker:SIMPLE}")
+    private BrokerMode brokerMode;
+
+    @Value("${app.websocket.postgres.channel:ws_broadcast}")
+    private String channel;
+
+    @Bean
+    public BroadcastBus broadcastBus(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                     DataSource dataSource, MeterRegistry meterRegistry, ReplayBuffer replayBuffer,
+                                     NotificationStreamService notificationStreams) {
+        EncodedMessageSender sender = new EncodedMessageSender(messagingTemplate, objectMapper, replayBuffer, notificationStreams);
+        if (brokerMode == BrokerMode.POSTGRES) {
+            return new PostgresBroadcastBus(sender, dataSource, channel, meterRegistry);
+        }
+        return new LocalBroadcastBus(sender);
+    }
+}
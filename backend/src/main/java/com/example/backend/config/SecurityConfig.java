@@ -2,6 +2,7 @@ package com.example.backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import jakarta.servlet.DispatcherType;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.Customizer;
@@ -10,6 +11,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.web.cors.CorsConfiguration;
@@ -27,7 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 public class SecurityConfig {
     private CustomJWTDecoder customJwtDecoder;
 
-    public final String[] PUBLIC_ENDPOINTS = {"/auth/**", "/health", "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/webjars/**", "/actuator/**", "/", "/ws/**"};
+    public final String[] PUBLIC_ENDPOINTS = {"/auth/**", "/health", "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/webjars/**", "/actuator/**", "/", "/ws/**", "/ws-native"};
 
     public SecurityConfig(CustomJWTDecoder customJwtDecoder) {
         this.customJwtDecoder = customJwtDecoder;
@@ -38,11 +41,15 @@ public class SecurityConfig {
         http.cors(Customizer.withDefaults())
                 .sessionManagement(Management -> Management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(request -> request.requestMatchers(PUBLIC_ENDPOINTS)
+                        .permitAll()
+                        // SSE streams complete on an async dispatch; the request was authorized when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
                         .permitAll()
                         .anyRequest()
                         .authenticated())
                 .oauth2ResourceServer(oauth2 -> {
                     oauth2.jwt(jwtConfigurer -> jwtConfigurer.decoder(customJwtDecoder));
+                    oauth2.bearerTokenResolver(bearerTokenResolver());
                 })
                 .csrf(AbstractHttpConfigurer::disable)
                 .exceptionHandling(c -> c.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
@@ -50,6 +57,16 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // EventSource cannot set headers, so the notification stream also accepts ?access_token=
+    private BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerResolver = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver queryResolver = new DefaultBearerTokenResolver();
+        queryResolver.setAllowUriQueryParameter(true);
+        return request -> "/notifications/stream".equals(request.getServletPath())
+                ? queryResolver.resolve(request)
+                : headerResolver.resolve(request);
+    }
+
     @Bean
     public CorsFilter corsFilter() {
         CorsConfiguration corsConfiguration = new CorsConfiguration();
@@ -0,0 +1,152 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for fire-and-forget side effects (notifications, emails, broadcasts).
+ * Each task runs on its own virtual thread, at most {@code maxConcurrency} at a time; extra tasks
+ * wait in a bounded queue and are handled by the rejection policy once that queue is full.
+ * MDC and the Spring Security context of the submitting thread are propagated to the task.
+ */
+@Slf4j
+public class SideEffectExecutor implements Executor {
+
+    public enum RejectionPolicy {
+        CALLER_RUNS, DISCARD, ABORT
+    }
+
+    private final Semaphore permits;
+    private final BlockingQueue<Runnable> pending;
+    private final RejectionPolicy rejectionPolicy;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private final Timer taskTimer;
+
+    public SideEffectExecutor(String name, int maxConcurrency, int queueCapacity,
+                              RejectionPolicy rejectionPolicy, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.rejectionPolicy = rejectionPolicy;
+        this.threadFactory = Thread.ofVirtual().name(name + "-", 0).factory();
+
+        Gauge.builder("executor.side_effect.active", active, AtomicInteger::get)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("executor.side_effect.queued", pending, BlockingQueue::size)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("executor.side_effect.max_concurrency", () -> maxConcurrency)
+                .tag("name", name).register(meterRegistry);
+        this.rejectedCounter = Counter.builder("executor.side_effect.rejected")
+                .tag("name", name).register(meterRegistry);
+        this.taskTimer = Timer.builder("executor.side_effect.task")
+                .tag("name", name).register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        execute(command, rejectionPolicy);
+    }
+
+    /**
+     * Like {@link #execute}, but a saturated executor runs the task on the caller whatever the configured
+     * rejection policy, so the task is never lost. For tasks other queued work waits on, such as the
+     * domain event listener drainers.
+     */
+    public void executeOrRun(Runnable command) {
+        execute(command, RejectionPolicy.CALLER_RUNS);
+    }
+
+    private void execute(Runnable command, RejectionPolicy policy) {
+        Runnable task = withCallerContext(command);
+        if (permits.tryAcquire()) {
+            start(task);
+        } else if (!pending.offer(task)) {
+            reject(task, policy);
+        } else if (permits.tryAcquire()) {
+            // A running task may have finished between tryAcquire and offer
+            startNextOrRelease();
+        }
+    }
+
+    private void start(Runnable task) {
+        active.incrementAndGet();
+        threadFactory.newThread(() -> {
+            try {
+                taskTimer.record(task);
+            } catch (Throwable t) {
+                log.warn("Side-effect task failed: {}", t.getMessage());
+            } finally {
+                active.decrementAndGet();
+                startNextOrRelease();
+            }
+        }).start();
+    }
+
+    // Called while holding a permit: hand it to the next queued task or give it back
+    private void startNextOrRelease() {
+        Runnable next = pending.poll();
+        if (next != null) {
+            start(next);
+            return;
+        }
+        permits.release();
+        // Re-check: a task may have been queued after poll() but before release()
+        if (!pending.isEmpty() && permits.tryAcquire()) {
+            startNextOrRelease();
+        }
+    }
+
+    private void reject(Runnable task, RejectionPolicy policy) {
+        rejectedCounter.increment();
+        switch (policy) {
+            case CALLER_RUNS -> {
+                log.warn("Side-effect executor saturated, running task on caller thread");
+                task.run();
+            }
+            case DISCARD -> log.warn("Side-effect executor saturated, task discarded");
+            case ABORT -> throw new RejectedExecutionException("Side-effect executor saturated");
+        }
+    }
+
+    /** Wraps a task so it runs with the MDC and security context of the calling thread. */
+    public static Runnable withCallerContext(Runnable command) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            try {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                } else {
+                    MDC.clear();
+                }
+                SecurityContextHolder.setContext(securityContext);
+                command.run();
+            } finally {
+                if (previousMdc != null) {
+                    MDC.setContextMap(previousMdc);
+                } else {
+                    MDC.clear();
+                }
+                SecurityContextHolder.setContext(previousContext);
+            }
+        };
+    }
+}
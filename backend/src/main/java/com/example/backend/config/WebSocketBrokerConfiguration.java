@@ -0,0 +1,39 @@
+package com.example.backend.config;
+
+import com.example.backend.websocket.OutboundBackpressureInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * What {@code @EnableWebSocketMessageBroker} imports (the {@link WebSocketConfig} configurer still applies),
+ * with the session handler exposing each session's {@link ConcurrentWebSocketSessionDecorator} to the
+ * {@link OutboundBackpressureInterceptor}. The decorator is created inside {@link SubProtocolWebSocketHandler},
+ * underneath any handler added through {@code addDecoratorFactory}, so it can only be reached here.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                        AbstractSubscribableChannel clientOutboundChannel) {
+        return new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                WebSocketSession decorated = super.decorateSession(session);
+                outboundBackpressureInterceptor.track((ConcurrentWebSocketSessionDecorator) decorated);
+                return decorated;
+            }
+        };
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.request.ChatMessageEditRequest;
 import com.example.backend.dto.request.ChatMessageRequest;
+import com.example.backend.dto.request.ChatReactionRequest;
+import com.example.backend.dto.request.ChatReadRequest;
 import com.example.backend.dto.response.ApiResponse;
+import com.example.backend.dto.response.ChatMessagePageResponse;
 import com.example.backend.dto.response.ChatMessageResponse;
+import com.example.backend.dto.response.ChatReactionResponse;
+import com.example.backend.dto.response.ChatSearchResponse;
+import com.example.backend.dto.response.ChatUnreadResponse;
+import com.example.backend.dto.response.MessageEditResponse;
 import com.example.backend.entity.Chat;
+import com.example.backend.entity.ChatReadCursor;
 import com.example.backend.entity.User;
 import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.service.ChatReadService;
 import com.example.backend.service.ChatService;
+import com.example.backend.service.RoomAccessService;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.utils.JwtUtils;
 import jakarta.validation.Valid;
@@ -28,7 +40,9 @@ import java.util.UUID;
 public class ChatController {
     
     ChatService chatService;
+    ChatReadService chatReadService;
     UserRepository userRepository;
+    RoomAccessService roomAccessService;
     
     /**
      * Create a new chat
@@ -54,6 +68,50 @@ public class ChatController {
                 .build();
     }
     
+    /**
+     * Get unread message counts for every chat the current user can see
+     */
+    @GetMapping("/unread")
+    public ApiResponse<List<ChatUnreadResponse>> getUnreadCounts() {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        return ApiResponse.<List<ChatUnreadResponse>>builder()
+                .message("Unread counts fetched successfully")
+                .result(chatReadService.getUnreadCounts(userId))
+                .build();
+    }
+
+    /**
+     * Search messages in the current user's chats, optionally limited to one chat
+     */
+    @GetMapping("/search")
+    public ApiResponse<ChatSearchResponse> searchMessages(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) UUID chatId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) throws AppException {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        return ApiResponse.<ChatSearchResponse>builder()
+                .message("Messages searched successfully")
+                .result(chatService.searchMessages(userId, query, chatId, cursor, limit))
+                .build();
+    }
+
+    /**
+     * Mark a chat as read up to a message
+     */
+    @PostMapping("/{chatId}/read")
+    public ApiResponse<ChatReadCursor> markRead(@PathVariable UUID chatId, @Valid @RequestBody ChatReadRequest request) throws AppException {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        if (!roomAccessService.canAccess(userId, "chat:" + chatId)) {
+            throw new AppException(ErrorCode.FORBIDDEN);
+        }
+        return ApiResponse.<ChatReadCursor>builder()
+                .message("Chat marked as read")
+                .result(chatReadService.markRead(chatId, userId, request.getMessageId())
+                        .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND)))
+                .build();
+    }
+
     /**
      * Get chat by ID
      */
@@ -96,9 +154,31 @@ public class ChatController {
                 .build();
     }
     
+    /**
+     * Get a page of messages before/after a cursor (latest page when no cursor is given)
+     */
+    @GetMapping("/{chatId}/messages/cursor")
+    public ApiResponse<ChatMessagePageResponse> getChatMessagesByCursor(
+            @PathVariable UUID chatId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) throws AppException {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        if (!roomAccessService.canAccess(userId, "chat:" + chatId)) {
+            throw new AppException(ErrorCode.FORBIDDEN);
+        }
+        return ApiResponse.<ChatMessagePageResponse>builder()
+                .message("Messages fetched successfully")
+                .result(chatService.getChatMessagesByCursor(chatId, before, after, limit))
+                .build();
+    }
+
     /**
      * Get all messages for a chat
+     *
+     * @deprecated use {@code GET /chats/{chatId}/messages/cursor}
      */
+    @Deprecated
     @GetMapping("/{chatId}/messages/all")
     public ApiResponse<List<ChatMessageResponse>> getAllChatMessages(@PathVariable UUID chatId) throws AppException {
         log.info("Getting all messages for chat with ID: {}", chatId);
@@ -108,6 +188,69 @@ public class ChatController {
                 .build();
     }
     
+    /**
+     * Edit a message; the body carries the version the client is editing
+     */
+    @PutMapping("/messages/{messageId}")
+    public ApiResponse<ChatMessageResponse> editMessage(@PathVariable UUID messageId,
+                                                        @Valid @RequestBody ChatMessageEditRequest request) throws AppException {
+        log.info("Editing message with ID: {}", messageId);
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        return ApiResponse.<ChatMessageResponse>builder()
+                .message("Message updated successfully")
+                .result(chatService.editMessage(messageId, userId, request))
+                .build();
+    }
+
+    /**
+     * Get the replies of a thread
+     */
+    @GetMapping("/messages/{messageId}/replies")
+    public ApiResponse<ChatMessagePageResponse> getReplies(
+            @PathVariable UUID messageId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) throws AppException {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        if (!roomAccessService.canAccess(userId, "chat:" + chatService.getMessageChatId(messageId))) {
+            throw new AppException(ErrorCode.FORBIDDEN);
+        }
+        return ApiResponse.<ChatMessagePageResponse>builder()
+                .message("Replies fetched successfully")
+                .result(chatService.getReplies(messageId, after, limit))
+                .build();
+    }
+
+    /**
+     * Add the current user's reaction to a message, or remove it if already present
+     */
+    @PostMapping("/messages/{messageId}/reactions")
+    public ApiResponse<ChatReactionResponse> toggleReaction(@PathVariable UUID messageId,
+                                                            @Valid @RequestBody ChatReactionRequest request) throws AppException {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        if (!roomAccessService.canAccess(userId, "chat:" + chatService.getMessageChatId(messageId))) {
+            throw new AppException(ErrorCode.FORBIDDEN);
+        }
+        return ApiResponse.<ChatReactionResponse>builder()
+                .message("Reaction updated successfully")
+                .result(chatService.toggleReaction(messageId, userId, request.getEmoji()))
+                .build();
+    }
+
+    /**
+     * Get the edit history of a message
+     */
+    @GetMapping("/messages/{messageId}/edits")
+    public ApiResponse<List<MessageEditResponse>> getMessageEdits(@PathVariable UUID messageId) throws AppException {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        if (!roomAccessService.canAccess(userId, "chat:" + chatService.getMessageChatId(messageId))) {
+            throw new AppException(ErrorCode.FORBIDDEN);
+        }
+        return ApiResponse.<List<MessageEditResponse>>builder()
+                .message("Message edits fetched successfully")
+                .result(chatService.getMessageEdits(messageId))
+                .build();
+    }
+
     /**
      * Delete a message
      */
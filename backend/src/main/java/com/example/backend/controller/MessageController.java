@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 import com.example.backend.dto.request.MessageCreationRequest;
 import com.example.backend.dto.response.ApiResponse;
 import com.example.backend.entity.Message;
+import com.example.backend.service.MessageIngestionService;
 import com.example.backend.service.MessageService;
 import com.example.backend.service.UserService;
 import com.example.backend.service.ChatService;
@@ -26,19 +27,25 @@ import lombok.extern.slf4j.Slf4j;
 public class MessageController {
 
     final MessageService messageService;
+    final MessageIngestionService messageIngestionService;
     final UserService userService;
     final ChatService chatService;
 
     @PostMapping("/send")
     public ApiResponse<Message> sendMessage(@RequestBody MessageCreationRequest request) {
         UUID senderId = JwtUtils.getSubjectFromJwt();
-        Message message = messageService.sendMessage(senderId, request.getChatId(), request.getContent(), request.getAttachments());
+        Message message = messageIngestionService.send(senderId, request.getChatId(), null, request.getContent(), request.getAttachments(),
+                request.getClientMessageId());
         return ApiResponse.<Message>builder()
                 .message("Message sent successfully")
                 .result(message)
                 .build();
     }
 
+    /**
+     * @deprecated loads the whole history; use {@code GET /chats/{chatId}/messages/cursor}
+     */
+    @Deprecated
     @GetMapping("/{chatId}")
     public ApiResponse<List<Message>> getMessagesByChatId(@PathVariable UUID chatId) {
         return ApiResponse.<List<Message>>builder()
@@ -1,6 +1,8 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.request.NotificationCreationRequest;
+import com.example.backend.dto.request.NotificationPreferenceRequest;
+import com.example.backend.dto.response.NotificationPreferenceResponse;
 import com.example.backend.dto.response.ApiResponse;
 import com.example.backend.dto.response.NotificationRecipientResponse;
 import com.example.backend.entity.NotificationRecipient;
@@ -9,14 +11,18 @@ import com.example.backend.exception.AppException;
 import com.example.backend.exception.ErrorCode;
 import com.example.backend.mapper.NotificationMapper;
 import com.example.backend.repository.NotificationRecipientRepository;
+import com.example.backend.service.NotificationPreferenceService;
 import com.example.backend.service.NotificationService;
+import com.example.backend.service.NotificationStreamService;
 import com.example.backend.utils.JwtUtils;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +38,8 @@ public class NotificationController {
     NotificationRecipientRepository notificationRecipientRepository;
     NotificationMapper notificationMapper;
     NotificationService notificationService;
+    NotificationPreferenceService notificationPreferenceService;
+    NotificationStreamService notificationStreamService;
 
     @GetMapping
     public ApiResponse<List<NotificationRecipientResponse>> getNotifications() {
@@ -62,6 +70,15 @@ public class NotificationController {
                 .build();
     }
 
+    // SSE cho client không dùng được WebSocket; EventSource có thể gửi token qua ?access_token=
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        log.info("Opening notification stream for user: {}", userId);
+
+        return notificationStreamService.open(userId, lastEventId, JwtUtils.getCurrentJwt().getExpiresAt());
+    }
+
     @PutMapping("/mark-all-read")
     public ApiResponse<Void> markAllAsRead() {
         UUID userId = JwtUtils.getSubjectFromJwt();
@@ -91,8 +108,11 @@ public class NotificationController {
         log.info("Creating notification for {} users", request.getUserIds().size());
 
         // Tạo notification và lấy recipient đầu tiên để trả về
+        // notification == null khi tất cả người nhận đã tắt loại thông báo này
         Notification notification = notificationService.createNotification(request);
-        List<NotificationRecipient> recipients = notificationRecipientRepository.findByNotificationId(notification.getId());
+        List<NotificationRecipient> recipients = notification == null
+                ? List.of()
+                : notificationRecipientRepository.findByNotificationId(notification.getId());
 
         NotificationRecipientResponse response = recipients.isEmpty()
                 ? null
@@ -104,6 +124,28 @@ public class NotificationController {
                 .build();
     }
 
+    @GetMapping("/preferences")
+    public ApiResponse<List<NotificationPreferenceResponse>> getPreferences() {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        log.info("Fetching notification preferences for user: {}", userId);
+
+        return ApiResponse.<List<NotificationPreferenceResponse>>builder()
+                .message("Notification preferences fetched successfully")
+                .result(notificationPreferenceService.getPreferences(userId))
+                .build();
+    }
+
+    @PutMapping("/preferences")
+    public ApiResponse<NotificationPreferenceResponse> updatePreference(@RequestBody @Valid NotificationPreferenceRequest request) {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        log.info("Updating notification preference for user: {}", userId);
+
+        return ApiResponse.<NotificationPreferenceResponse>builder()
+                .message("Notification preference updated successfully")
+                .result(notificationPreferenceService.updatePreference(userId, request))
+                .build();
+    }
+
     @DeleteMapping("/{id}")
     public ApiResponse<Void> deleteNotification(@PathVariable("id") UUID id) {
         UUID userId = JwtUtils.getSubjectFromJwt();
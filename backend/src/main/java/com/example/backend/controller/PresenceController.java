@@ -0,0 +1,65 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.response.ApiResponse;
+import com.example.backend.dto.response.PresenceResponse;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.service.RoomAccessService;
+import com.example.backend.utils.JwtUtils;
+import com.example.backend.websocket.BrokerMode;
+import com.example.backend.websocket.PresenceRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/presence")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PresenceController {
+
+    PresenceRegistry presenceRegistry;
+    RoomAccessService roomAccessService;
+
+    @NonFinal
+    @Value("${app.websocket.broker:SIMPLE}")
+    BrokerMode brokerMode;
+
+    /**
+     * Snapshot of who is in a room, for single-node deployments only. PresenceRegistry only knows the
+     * sessions connected to this instance, so with a RELAY or POSTGRES broker the answer would depend on
+     * which node served the request; there the call is rejected and clients build presence from the
+     * per-node /topic/{kind}/{id}/presence broadcasts instead.
+     */
+    @GetMapping("/{kind}/{id}")
+    public ApiResponse<PresenceResponse> getPresence(@PathVariable("kind") String kind, @PathVariable("id") UUID id) {
+        if (brokerMode != BrokerMode.SIMPLE) {
+            throw new AppException(ErrorCode.NOT_SUPPORTED);
+        }
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        String room = PresenceRegistry.roomOf("/topic/" + kind + "/" + id);
+        if (room == null) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+        if (!roomAccessService.canAccess(userId, room)) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+
+        return ApiResponse.<PresenceResponse>builder()
+                .message("Presence fetched successfully")
+                .result(PresenceResponse.builder()
+                        .room(room)
+                        .nodeId(presenceRegistry.getNodeId())
+                        .userIds(presenceRegistry.getPresentUsers(room))
+                        .typingUserIds(presenceRegistry.getTypingUsers(room))
+                        .build())
+                .build();
+    }
+}
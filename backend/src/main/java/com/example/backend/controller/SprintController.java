@@ -24,13 +24,17 @@ import lombok.AccessLevel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.time.OffsetDateTime;
 import com.example.backend.repository.IssueRepository;
 import com.example.backend.entity.Issue;
 import com.example.backend.service.ProjectService;
-import com.example.backend.service.NotificationService;
+import com.example.backend.event.IssueChangedEvent;
+import com.example.backend.event.SprintStateChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
 
 @RestController
 @RequestMapping("/sprints")
@@ -46,7 +50,7 @@ public class SprintController {
     SprintMapper sprintMapper;
     IssueMapper issueMapper;
     ProjectService projectService;
-    NotificationService notificationService;
+    ApplicationEventPublisher eventPublisher;
 
     private void checkProjectManagerOrAdmin(UUID projectId, UUID userId) {
         ProjectMember member = projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
@@ -101,6 +105,7 @@ public class SprintController {
     }
 
     @PutMapping("/{sprintId}")
+    @Transactional
     public ApiResponse<SprintResponse> updateSprint(@PathVariable UUID sprintId, @RequestBody SprintUpdateRequest request) {
         UUID userId = JwtUtils.getSubjectFromJwt();
         log.info("Updating sprint: {} by user: {}", sprintId, userId);
@@ -125,18 +130,9 @@ public class SprintController {
         Sprint saved = sprintRepository.save(existing);
         SprintResponse response = sprintMapper.toResponse(saved);
 
-        // Notify members about sprint update - async để không block
-        try {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    notificationService.notifySprintUpdated(saved.getProject().getId(), saved.getName(), "UPDATED", userId);
-                } catch (Exception e) {
-                    log.warn("Failed to notify sprint update async: {}", e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("Failed to start sprint update notification: {}", e.getMessage());
-        }
+        // Notify members about sprint update - handled by listeners after the response path
+        eventPublisher.publishEvent(new SprintStateChangedEvent(saved.getId(), saved.getName(),
+                saved.getProject().getId(), "UPDATED", saved.getStatus(), userId, OffsetDateTime.now()));
         
         return ApiResponse.<SprintResponse>builder()
                 .result(response)
@@ -145,6 +141,7 @@ public class SprintController {
     }
 
     @DeleteMapping("/{sprintId}")
+    @Transactional
     public ApiResponse<Void> deleteSprint(@PathVariable UUID sprintId) {
         UUID userId = JwtUtils.getSubjectFromJwt();
         log.info("Deleting sprint: {} by user: {}", sprintId, userId);
@@ -158,6 +155,8 @@ public class SprintController {
         for (Issue issue : sprintIssues) {
             issue.setSprint(null);
             issueRepository.save(issue);
+            eventPublisher.publishEvent(new IssueChangedEvent(issue.getId(), existing.getProject().getId(), "UPDATED",
+                    Collections.singletonMap("sprintId", null), userId, OffsetDateTime.now()));
         }
         
         // Delete the sprint
@@ -169,6 +168,7 @@ public class SprintController {
     }
 
     @PostMapping("/{sprintId}/start")
+    @Transactional
     public ApiResponse<SprintResponse> startSprint(@PathVariable UUID sprintId) {
         UUID userId = JwtUtils.getSubjectFromJwt();
         Sprint sprint = sprintRepository.findById(sprintId)
@@ -184,17 +184,8 @@ public class SprintController {
         sprint.setStartDate(java.time.OffsetDateTime.now());
         Sprint saved = sprintRepository.save(sprint);
         SprintResponse response = sprintMapper.toResponse(saved);
-        try {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    notificationService.notifySprintUpdated(saved.getProject().getId(), saved.getName(), "STARTED", userId);
-                } catch (Exception e) {
-                    log.warn("Failed to notify sprint start async: {}", e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("Failed to start sprint start notification: {}", e.getMessage());
-        }
+        eventPublisher.publishEvent(new SprintStateChangedEvent(saved.getId(), saved.getName(),
+                saved.getProject().getId(), "STARTED", saved.getStatus(), userId, OffsetDateTime.now()));
         return ApiResponse.<SprintResponse>builder()
                 .result(response)
                 .message("Sprint started successfully")
@@ -202,6 +193,7 @@ public class SprintController {
     }
 
     @PostMapping("/{sprintId}/end")
+    @Transactional
     public ApiResponse<SprintResponse> endSprint(@PathVariable UUID sprintId) {
         UUID userId = JwtUtils.getSubjectFromJwt();
         Sprint sprint = sprintRepository.findById(sprintId)
@@ -213,17 +205,8 @@ public class SprintController {
         sprint.setEndDate(java.time.OffsetDateTime.now());
         Sprint saved = sprintRepository.save(sprint);
         SprintResponse response = sprintMapper.toResponse(saved);
-        try {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    notificationService.notifySprintUpdated(saved.getProject().getId(), saved.getName(), "ENDED", userId);
-                } catch (Exception e) {
-                    log.warn("Failed to notify sprint end async: {}", e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("Failed to start sprint end notification: {}", e.getMessage());
-        }
+        eventPublisher.publishEvent(new SprintStateChangedEvent(saved.getId(), saved.getName(),
+                saved.getProject().getId(), "ENDED", saved.getStatus(), userId, OffsetDateTime.now()));
         return ApiResponse.<SprintResponse>builder()
                 .result(response)
                 .message("Sprint ended successfully")
@@ -231,6 +214,7 @@ public class SprintController {
     }
 
     @PostMapping("/{sprintId}/cancel")
+    @Transactional
     public ApiResponse<SprintResponse> cancelSprint(@PathVariable UUID sprintId) {
         UUID userId = JwtUtils.getSubjectFromJwt();
         Sprint sprint = sprintRepository.findById(sprintId)
@@ -241,17 +225,8 @@ public class SprintController {
         sprint.setStatus("CANCELLED");
         Sprint saved = sprintRepository.save(sprint);
         SprintResponse response = sprintMapper.toResponse(saved);
-        try {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    notificationService.notifySprintUpdated(saved.getProject().getId(), saved.getName(), "CANCELLED", userId);
-                } catch (Exception e) {
-                    log.warn("Failed to notify sprint cancel async: {}", e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("Failed to start sprint cancel notification: {}", e.getMessage());
-        }
+        eventPublisher.publishEvent(new SprintStateChangedEvent(saved.getId(), saved.getName(),
+                saved.getProject().getId(), "CANCELLED", saved.getStatus(), userId, OffsetDateTime.now()));
         return ApiResponse.<SprintResponse>builder()
                 .result(response)
                 .message("Sprint cancelled successfully")
@@ -1,27 +1,86 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.websocket.ReplayMessage;
+import com.example.backend.dto.websocket.ResumeRequest;
+import com.example.backend.dto.websocket.TypingEvent;
+import com.example.backend.service.RoomAccessService;
+import com.example.backend.websocket.PresenceRegistry;
+import com.example.backend.websocket.ReplayBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
 @Controller
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketController {
 
-    @MessageMapping("/comment/join")
-    @SendTo("/topic/comment/joined")
-    public String handleJoin(String message) {
-        log.info("User joined comment room: {}", message);
-        return "User joined: " + message;
+    private static final int MAX_RESUME_STREAMS = 50;
+
+    private final PresenceRegistry presenceRegistry;
+    private final ReplayBuffer replayBuffer;
+    private final RoomAccessService roomAccessService;
+
+    // Client gửi tới /app/{chat|issue|project}/{id}/typing; server gộp và phát lại ở /topic/.../typing
+    @MessageMapping("/{kind}/{id}/typing")
+    public void handleTyping(@DestinationVariable("kind") String kind, @DestinationVariable("id") String id,
+                             TypingEvent event, Principal principal) {
+        String room = PresenceRegistry.roomOf("/topic/" + kind + "/" + id);
+        if (room == null || principal == null) {
+            return;
+        }
+        // Chỉ user đang subscribe phòng này mới được báo typing
+        if (!presenceRegistry.getPresentUsers(room).contains(principal.getName())) {
+            return;
+        }
+        presenceRegistry.setTyping(room, principal.getName(), Boolean.TRUE.equals(event.getTyping()));
+    }
+
+    // Sau khi reconnect và subscribe lại, client gửi seq cuối cùng của từng topic tới /app/resume;
+    // phần bị lỡ được trả về /user/queue/replay (client bỏ qua seq đã nhận qua subscription mới)
+    @MessageMapping("/resume")
+    @SendToUser(destinations = "/queue/replay", broadcast = false)
+    public List<ReplayMessage> handleResume(ResumeRequest request, Principal principal) {
+        if (principal == null || request.getStreams() == null) {
+            return List.of();
+        }
+        boolean sameEpoch = replayBuffer.getEpoch().equals(request.getEpoch());
+        return request.getStreams().entrySet().stream()
+                .limit(MAX_RESUME_STREAMS)
+                .filter(stream -> replayBuffer.isReplayable(stream.getKey()) && canAccess(principal, stream.getKey()))
+                .map(stream -> replay(stream.getKey(), sameEpoch ? stream.getValue() : null))
+                .toList();
+    }
+
+    private ReplayMessage replay(String destination, Long lastSeq) {
+        long head = replayBuffer.head(destination);
+        List<ReplayBuffer.Entry> missed = lastSeq != null
+                ? replayBuffer.since(destination, lastSeq).orElse(null)
+                : null;
+        return ReplayMessage.builder()
+                .destination(destination)
+                .status(missed != null ? "REPLAY" : "RESET")
+                .epoch(replayBuffer.getEpoch())
+                .headSeq(head)
+                .messages(missed == null ? List.of() : missed.stream()
+                        .map(entry -> ReplayMessage.Entry.builder().seq(entry.seq()).payload(entry.json()).build())
+                        .toList())
+                .build();
     }
 
-    @MessageMapping("/comment/leave")
-    @SendTo("/topic/comment/left")
-    public String handleLeave(String message) {
-        log.info("User left comment room: {}", message);
-        return "User left: " + message;
+    private boolean canAccess(Principal principal, String destination) {
+        String room = PresenceRegistry.roomOf(destination);
+        try {
+            return room != null && roomAccessService.canAccess(UUID.fromString(principal.getName()), room);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
-} 
\ No newline at end of file
+}
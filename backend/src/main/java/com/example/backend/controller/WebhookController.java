@@ -0,0 +1,74 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.request.WebhookSubscriptionRequest;
+import com.example.backend.dto.response.ApiResponse;
+import com.example.backend.dto.response.WebhookDeliveryResponse;
+import com.example.backend.dto.response.WebhookSubscriptionResponse;
+import com.example.backend.service.WebhookService;
+import com.example.backend.utils.JwtUtils;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/projects/{projectId}/webhooks")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class WebhookController {
+
+    WebhookService webhookService;
+
+    @GetMapping
+    public ApiResponse<List<WebhookSubscriptionResponse>> getWebhooks(@PathVariable("projectId") UUID projectId) {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        log.info("Fetching webhooks of project {} for user {}", projectId, userId);
+
+        return ApiResponse.<List<WebhookSubscriptionResponse>>builder()
+                .message("Webhooks fetched successfully")
+                .result(webhookService.getSubscriptions(projectId, userId))
+                .build();
+    }
+
+    @PostMapping
+    public ApiResponse<WebhookSubscriptionResponse> createWebhook(@PathVariable("projectId") UUID projectId,
+                                                                  @RequestBody @Valid WebhookSubscriptionRequest request) {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        log.info("Creating webhook for project {} by user {}", projectId, userId);
+
+        return ApiResponse.<WebhookSubscriptionResponse>builder()
+                .message("Webhook created successfully")
+                .result(webhookService.createSubscription(projectId, userId, request))
+                .build();
+    }
+
+    @DeleteMapping("/{webhookId}")
+    public ApiResponse<Void> deleteWebhook(@PathVariable("projectId") UUID projectId,
+                                           @PathVariable("webhookId") UUID webhookId) {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+        log.info("Deleting webhook {} of project {} by user {}", webhookId, projectId, userId);
+
+        webhookService.deleteSubscription(projectId, webhookId, userId);
+        return ApiResponse.<Void>builder()
+                .message("Webhook deleted successfully")
+                .build();
+    }
+
+    @GetMapping("/{webhookId}/deliveries")
+    public ApiResponse<List<WebhookDeliveryResponse>> getDeliveries(@PathVariable("projectId") UUID projectId,
+                                                                    @PathVariable("webhookId") UUID webhookId,
+                                                                    @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        UUID userId = JwtUtils.getSubjectFromJwt();
+
+        return ApiResponse.<List<WebhookDeliveryResponse>>builder()
+                .message("Webhook deliveries fetched successfully")
+                .result(webhookService.getRecentDeliveries(projectId, webhookId, userId, Math.min(Math.max(limit, 1), 200)))
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageEditRequest {
+
+    @NotBlank(message = "Message content cannot be empty")
+    private String content;
+
+    // Phiên bản client đang hiển thị; lệch với server thì trả 409 thay vì ghi đè bản sửa khác
+    @NotNull(message = "Message version is required")
+    private Long version;
+}
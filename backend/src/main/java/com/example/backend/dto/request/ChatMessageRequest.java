@@ -23,4 +23,10 @@ public class ChatMessageRequest {
     private UUID chatId;
     
     private List<AttachmentMeta> attachments;
+
+    // Tin nhắn được trả lời (thread); null với tin nhắn thường
+    private UUID parentId;
+
+    // Khóa idempotency do client sinh; gửi lại với cùng khóa trả về tin đã lưu thay vì tạo tin mới
+    private UUID clientMessageId;
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReactionRequest {
+
+    @NotBlank(message = "Emoji cannot be empty")
+    @Size(max = 32, message = "Emoji is too long")
+    private String emoji;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReadRequest {
+    // Tin nhắn mới nhất mà client đã hiển thị
+    @NotNull(message = "Message ID is required")
+    private UUID messageId;
+}
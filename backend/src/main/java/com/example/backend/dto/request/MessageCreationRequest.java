@@ -14,4 +14,6 @@ public class MessageCreationRequest {
     private UUID chatId;
     private String content;
     private List<AttachmentMeta> attachments;
+    // Khóa idempotency do client sinh, xem ChatMessageRequest
+    private UUID clientMessageId;
 }
@@ -45,6 +45,8 @@ public class NotificationCreationRequest {
 
     private UUID createdBy; // User tạo notification (optional, sẽ dùng JWT nếu null)
 
+    private UUID projectId; // Project liên quan (optional), dùng để áp dụng tùy chọn theo project
+
     // Constructor để backward compatibility với single user
     public NotificationCreationRequest(UUID userId, String title, String content, String link, String type, String entityType, UUID entityId, String priority) {
         this.userIds = List.of(userId);
@@ -0,0 +1,28 @@
+package com.example.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreferenceRequest {
+
+    private UUID projectId; // null = áp dụng cho mọi project
+
+    @NotBlank(message = "Channel is required")
+    private String channel; // IN_APP, EMAIL
+
+    @NotBlank(message = "Type is required")
+    private String type; // ISSUE, COMMENT, CHAT, SPRINT, OTHER
+
+    @NotNull(message = "Enabled flag is required")
+    private Boolean enabled;
+}
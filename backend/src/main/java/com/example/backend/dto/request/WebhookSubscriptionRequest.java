@@ -0,0 +1,25 @@
+package com.example.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookSubscriptionRequest {
+
+    @NotBlank(message = "Url is required")
+    private String url;
+
+    @NotEmpty(message = "Event types are required")
+    private List<String> eventTypes; // issue, comment, sprint, chat
+
+    private String secret; // để trống thì server tự sinh
+}
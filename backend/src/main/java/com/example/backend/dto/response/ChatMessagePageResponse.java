@@ -0,0 +1,23 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessagePageResponse {
+    // Cũ nhất ở đầu, mới nhất ở cuối (giống /messages/all)
+    private List<ChatMessageResponse> messages;
+    // Truyền vào ?before= để tải trang cũ hơn; null khi không còn tin nhắn cũ hơn
+    private String beforeCursor;
+    // Truyền vào ?after= để tải trang mới hơn; null khi trang đã chạm tin nhắn mới nhất
+    private String afterCursor;
+    private boolean hasMoreBefore;
+    private boolean hasMoreAfter;
+}
@@ -1,11 +1,14 @@
 package com.example.backend.dto.response;
 
+import com.example.backend.dto.websocket.ChatMessage;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -16,7 +19,18 @@ public class ChatMessageResponse {
     private UUID id;
     private String content;
     private UUID chatId;
-    private UserResponse sender;
+    private UserMinimalResponse sender;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    // > 0 nghĩa là tin nhắn đã được sửa; client gửi lại giá trị này khi sửa tiếp
+    private Long version;
+    // Tin gốc khi đây là reply trong thread
+    private UUID parentId;
+    private Integer replyCount;
+    private OffsetDateTime lastReplyAt;
+    // Số reaction theo emoji, đếm sẵn trên dòng message nên trang tin nhắn không cần query thêm
+    private Map<String, Integer> reactionCounts;
+    private List<ChatMessage.AttachmentInfo> attachments;
+    // Tin nhắn đọc từ segment lưu trữ: chỉ xem, không sửa/xóa/trả lời/react được
+    private boolean archived;
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReactionResponse {
+    private UUID messageId;
+    private Map<String, Integer> reactionCounts;
+    // true: vừa thêm reaction của user hiện tại, false: vừa bỏ
+    private boolean reacted;
+}
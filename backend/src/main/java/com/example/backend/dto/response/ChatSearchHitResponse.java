@@ -0,0 +1,24 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSearchHitResponse {
+    private UUID messageId;
+    private UUID chatId;
+    private UUID senderId;
+    private String senderName;
+    private OffsetDateTime createdAt;
+    // Đoạn trích từ content; từ khớp được bọc bởi \u0002 ... \u0003 (client tự render highlight, không có HTML)
+    private String snippet;
+    private float rank;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSearchResponse {
+    // Sắp xếp theo độ liên quan giảm dần, rồi mới nhất trước
+    private List<ChatSearchHitResponse> hits;
+    // Truyền vào ?cursor= để lấy trang tiếp theo; null khi hết kết quả
+    private String nextCursor;
+    private boolean hasMore;
+}
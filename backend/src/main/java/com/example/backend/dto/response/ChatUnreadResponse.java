@@ -0,0 +1,18 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatUnreadResponse {
+    private UUID chatId;
+    private long unreadCount; // chats.message_count - read_count, không đếm lại các dòng messages
+    private UUID lastReadMessageId;
+}
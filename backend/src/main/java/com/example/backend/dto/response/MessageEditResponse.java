@@ -0,0 +1,21 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageEditResponse {
+    // Phiên bản bị thay thế bởi lần sửa này
+    private Long version;
+    private String previousContent;
+    private UUID editorId;
+    private OffsetDateTime editedAt;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreferenceResponse {
+
+    private UUID projectId; // null = tùy chọn mặc định
+    private Integer enabledMask;
+
+    // channel -> (type -> enabled)
+    private Map<String, Map<String, Boolean>> settings;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceResponse {
+
+    private String room;
+    private String nodeId; // snapshot chỉ gồm session kết nối vào node này
+    private Set<String> userIds;
+    private Set<String> typingUserIds;
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDeliveryResponse {
+
+    private UUID id;
+    private String eventType;
+    private String status;
+    private Integer attempts;
+    private String lastError;
+    private OffsetDateTime nextAttemptAt;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime deliveredAt;
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookSubscriptionResponse {
+
+    private UUID id;
+    private UUID projectId;
+    private String url;
+    private Set<String> eventTypes;
+    private Boolean active;
+    private String secret; // chỉ trả về khi tạo mới
+    private OffsetDateTime createdAt;
+}
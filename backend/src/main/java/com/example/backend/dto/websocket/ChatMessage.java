@@ -1,5 +1,7 @@
 package com.example.backend.dto.websocket;
 
+import com.example.backend.entity.Message;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
@@ -7,11 +9,13 @@ import lombok.experimental.FieldDefaults;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ChatMessage {
     String type;
     UUID messageId;
@@ -23,7 +27,66 @@ public class ChatMessage {
     String senderAvatarUrl;
     OffsetDateTime createdAt;
     OffsetDateTime updatedAt;
+    Long version;
+    UUID parentId;
+    // reply_count of parentId after this reply was added (CREATE) or removed (DELETE)
+    Integer parentReplyCount;
+    Map<String, Integer> reactionCounts;
     List<AttachmentInfo> attachments;
+
+    public static ChatMessage from(Message message, String type) {
+        List<AttachmentInfo> attachments = message.getAttachments() != null ?
+                message.getAttachments().stream()
+                        .map(att -> AttachmentInfo.builder()
+                                .id(att.getId())
+                                .fileName(att.getFileName())
+                                .fileType(att.getFileType())
+                                .fileSize(att.getFileSize())
+                                .filePath(att.getFilePath())
+                                .build())
+                        .toList() :
+                List.of();
+
+        return ChatMessage.builder()
+                .type(type)
+                .messageId(message.getId())
+                .chatId(message.getChat().getId())
+                .content(message.getContent())
+                .senderId(message.getSender().getId())
+                .senderName(message.getSender().getName())
+                .senderEmail(message.getSender().getEmail())
+                .senderAvatarUrl(message.getSender().getAvatarUrl())
+                .createdAt(message.getCreatedAt())
+                .updatedAt(message.getUpdatedAt())
+                .version(message.getVersion())
+                .parentId(message.getParentId())
+                .attachments(attachments)
+                .build();
+    }
+
+    /**
+     * Delta for an edit: clients already hold sender and attachments, so only content and version are sent.
+     */
+    public static ChatMessage deleted(UUID messageId, UUID chatId, UUID parentId, Integer parentReplyCount) {
+        return ChatMessage.builder()
+                .type("DELETE")
+                .messageId(messageId)
+                .chatId(chatId)
+                .parentId(parentId)
+                .parentReplyCount(parentReplyCount)
+                .build();
+    }
+
+    public static ChatMessage edited(Message message) {
+        return ChatMessage.builder()
+                .type("UPDATE")
+                .messageId(message.getId())
+                .chatId(message.getChat().getId())
+                .content(message.getContent())
+                .updatedAt(message.getUpdatedAt())
+                .version(message.getVersion())
+                .build();
+    }
     
     @Builder
     @Getter
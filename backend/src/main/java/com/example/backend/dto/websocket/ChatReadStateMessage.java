@@ -0,0 +1,20 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Builder
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ChatReadStateMessage {
+    UUID chatId;
+    UUID userId;
+    UUID lastReadMessageId;
+    OffsetDateTime lastReadMessageAt; // client so sánh với createdAt của tin nhắn để hiện "đã xem"
+    OffsetDateTime readAt;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Gửi tới /user/queue/chat-unread của các thành viên (trừ người gửi); client tăng badge của chat lên 1
+@Builder
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ChatUnreadMessage {
+    UUID chatId;
+    UUID messageId;
+    UUID senderId;
+    OffsetDateTime createdAt;
+}
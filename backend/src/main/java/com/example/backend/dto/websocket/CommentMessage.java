@@ -1,5 +1,6 @@
 package com.example.backend.dto.websocket;
 
+import com.example.backend.entity.Comment;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
@@ -22,4 +23,19 @@ public class CommentMessage {
      String userAvatarUrl;
      OffsetDateTime createdAt;
      OffsetDateTime updatedAt;
+
+     public static CommentMessage from(Comment comment, String type) {
+          return CommentMessage.builder()
+                    .type(type)
+                    .commentId(comment.getId())
+                    .issueId(comment.getIssue().getId())
+                    .content(comment.getContent())
+                    .userId(comment.getUser().getId())
+                    .userName(comment.getUser().getName())
+                    .userEmail(comment.getUser().getEmail())
+                    .userAvatarUrl(comment.getUser().getAvatarUrl())
+                    .createdAt(comment.getCreatedAt())
+                    .updatedAt(comment.getUpdatedAt())
+                    .build();
+     }
 } 
\ No newline at end of file
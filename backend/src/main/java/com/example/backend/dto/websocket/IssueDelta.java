@@ -0,0 +1,20 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Builder
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class IssueDelta {
+    String action; // CREATED, UPDATED, DELETED
+    UUID issueId;
+    Map<String, Object> fields; // field -> giá trị mới; null khi DELETED
+    OffsetDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class IssueDeltaBatch {
+    UUID projectId;
+    List<IssueDelta> deltas; // mỗi issue tối đa một delta trong một batch, theo thứ tự thay đổi
+    OffsetDateTime timestamp;
+}
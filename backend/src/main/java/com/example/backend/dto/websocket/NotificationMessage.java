@@ -1,5 +1,6 @@
 package com.example.backend.dto.websocket;
 
+import com.example.backend.entity.Notification;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,4 +23,17 @@ public class NotificationMessage {
     private String notificationType; // ISSUE, COMMENT, CHAT, etc.
     private String priority;
     private OffsetDateTime createdAt;
-} 
\ No newline at end of file
+
+    public static NotificationMessage from(Notification notification, String type) {
+        return NotificationMessage.builder()
+                .type(type)
+                .notificationId(notification.getId())
+                .title(notification.getTitle())
+                .content(notification.getContent())
+                .link(notification.getLink())
+                .notificationType(notification.getType())
+                .priority(notification.getPriority())
+                .createdAt(notification.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+@Builder
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PresenceMessage {
+    String type; // PRESENCE, TYPING
+    String room; // chat:{id}, issue:{id}, project:{id}
+    // Mỗi node chỉ gửi user kết nối vào chính nó; client gộp theo nodeId và bỏ node quá hạn (không có heartbeat)
+    String nodeId;
+    Set<String> userIds;
+    OffsetDateTime timestamp;
+}
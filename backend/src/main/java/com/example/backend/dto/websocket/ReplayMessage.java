@@ -0,0 +1,29 @@
+package com.example.backend.dto.websocket;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Builder
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReplayMessage {
+    String destination;
+    String status; // REPLAY: messages là phần bị lỡ; RESET: buffer đã bị ghi đè hoặc khác epoch, client phải tải lại
+    String epoch;
+    Long headSeq; // seq mới nhất của destination trên node này
+    List<Entry> messages;
+
+    @Builder
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class Entry {
+        Long seq;
+        @JsonRawValue
+        String payload; // nguyên văn body đã broadcast (CommentMessage, ChatMessage, ...)
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeRequest {
+
+    private String epoch; // x-stream-epoch của frame cuối cùng client nhận được
+    private Map<String, Long> streams; // destination -> x-seq cuối cùng đã xử lý
+}
@@ -0,0 +1,13 @@
+package com.example.backend.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingEvent {
+
+    private Boolean typing; // true khi đang gõ, false khi dừng/gửi
+}
@@ -34,6 +34,17 @@ public class Chat {
     @Column(name = "updated_at")
     OffsetDateTime updatedAt;
 
+    // Maintained only by ChatRepository's atomic updates, never written from the entity
+    @Column(name = "last_message_at", insertable = false, updatable = false)
+    OffsetDateTime lastMessageAt;
+
+    @Column(name = "message_count", insertable = false, updatable = false)
+    Long messageCount;
+
+    // Set by ChatArchiveService: every message created before this instant lives in an archive segment
+    @Column(name = "archived_until", insertable = false, updatable = false)
+    OffsetDateTime archivedUntil;
+
     @JsonIgnore
     @OneToMany(mappedBy = "chat", cascade = CascadeType.ALL, orphanRemoval = true)
     List<Message> messages = new ArrayList<>();
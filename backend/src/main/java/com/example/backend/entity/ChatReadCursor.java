@@ -0,0 +1,44 @@
+package com.example.backend.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * How far a user has read in a chat. Rows are only written by the upserts in ChatReadCursorRepository.
+ */
+@Entity
+@Table(name = "chat_read_cursors")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ChatReadCursorId.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ChatReadCursor {
+    @Id
+    @Column(name = "chat_id")
+    UUID chatId;
+
+    @Id
+    @Column(name = "user_id")
+    UUID userId;
+
+    @Column(name = "last_read_message_id")
+    UUID lastReadMessageId;
+
+    @Column(name = "last_read_message_at")
+    OffsetDateTime lastReadMessageAt;
+
+    // Number of messages up to and including lastReadMessageId; unread = chats.message_count - readCount
+    @Column(name = "read_count")
+    Long readCount;
+
+    @Column(name = "updated_at")
+    OffsetDateTime updatedAt;
+}
@@ -4,12 +4,13 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -28,7 +29,7 @@ public class Message {
 
     String content;
 
-    @CreationTimestamp
+    // Assigned by MessageService, strictly increasing in the order sends are accepted
     @Column(name = "created_at")
     OffsetDateTime createdAt;
 
@@ -36,11 +37,36 @@ public class Message {
     @Column(name = "updated_at")
     OffsetDateTime updatedAt;
 
+    // Read paths only need chat_id, which the proxy carries without a query
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "chat_id")
     Chat chat;
 
+    // Bumped by Hibernate on every edit; an UPDATE against a stale version fails instead of overwriting
+    @Version
+    Long version;
+
+    // Idempotency key sent by the client; unique per sender, so a retried send returns the stored message
+    @Column(name = "client_message_id", updatable = false)
+    UUID clientMessageId;
+
+    // Root message of the thread this message replies to; null for top-level messages
+    @Column(name = "parent_id")
+    UUID parentId;
+
+    // Maintained by MessageRepository/MessageReactionRepository statements; never written from the entity,
+    // so an edit cannot overwrite counts that changed after the message was loaded
+    @Column(name = "reply_count", insertable = false, updatable = false)
+    Integer replyCount;
+
+    @Column(name = "last_reply_at", insertable = false, updatable = false)
+    OffsetDateTime lastReplyAt;
+
+    @Column(name = "reaction_counts", columnDefinition = "jsonb", insertable = false, updatable = false)
+    @Type(com.vladmihalcea.hibernate.type.json.JsonType.class)
+    Map<String, Integer> reactionCounts;
+
     @ManyToOne
     @JoinColumn(name = "sender_id")
     User sender;
@@ -0,0 +1,56 @@
+package com.example.backend.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One UTC month of a chat's history moved out of the messages table. {@code data} is the gzipped JSON
+ * array of those messages, oldest first; a segment never changes once written.
+ */
+@Entity
+@Table(name = "message_archive_segments")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(MessageArchiveSegmentId.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MessageArchiveSegment {
+    @Id
+    @Column(name = "chat_id")
+    UUID chatId;
+
+    @Id
+    @Column(name = "period_start")
+    OffsetDateTime periodStart;
+
+    @Column(name = "period_end")
+    OffsetDateTime periodEnd;
+
+    @Column(name = "message_count")
+    Integer messageCount;
+
+    @Column(name = "first_created_at")
+    OffsetDateTime firstCreatedAt;
+
+    @Column(name = "last_created_at")
+    OffsetDateTime lastCreatedAt;
+
+    @Column(name = "format_version")
+    Short formatVersion;
+
+    @Column(name = "raw_bytes")
+    Integer rawBytes;
+
+    @Column(name = "data")
+    byte[] data;
+
+    @Column(name = "archived_at")
+    OffsetDateTime archivedAt;
+}
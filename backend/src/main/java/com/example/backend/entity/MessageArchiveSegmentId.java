@@ -0,0 +1,20 @@
+package com.example.backend.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MessageArchiveSegmentId implements Serializable {
+    UUID chatId;
+    OffsetDateTime periodStart;
+}
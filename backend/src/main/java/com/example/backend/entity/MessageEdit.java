@@ -0,0 +1,40 @@
+package com.example.backend.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Content a message had before one edit. {@code version} is the message version that edit replaced.
+ */
+@Entity
+@Table(name = "message_edits")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(MessageEditId.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MessageEdit {
+    @Id
+    @Column(name = "message_id")
+    UUID messageId;
+
+    @Id
+    @Column(name = "version")
+    Long version;
+
+    @Column(name = "previous_content")
+    String previousContent;
+
+    @Column(name = "editor_id")
+    UUID editorId;
+
+    @Column(name = "edited_at")
+    OffsetDateTime editedAt;
+}
@@ -0,0 +1,39 @@
+package com.example.backend.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One user's reaction to a message. Rows are only written by MessageReactionRepository, together with
+ * messages.reaction_counts.
+ */
+@Entity
+@Table(name = "message_reactions")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(MessageReactionId.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MessageReaction {
+    @Id
+    @Column(name = "message_id")
+    UUID messageId;
+
+    @Id
+    @Column(name = "user_id")
+    UUID userId;
+
+    @Id
+    @Column(name = "emoji")
+    String emoji;
+
+    @Column(name = "created_at")
+    OffsetDateTime createdAt;
+}
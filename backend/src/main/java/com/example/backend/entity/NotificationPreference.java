@@ -0,0 +1,74 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "notification_preferences")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class NotificationPreference {
+
+    public enum Channel {
+        IN_APP, EMAIL
+    }
+
+    public enum EventType {
+        ISSUE, COMMENT, CHAT, SPRINT, OTHER;
+
+        public static EventType from(String type) {
+            if (type == null) {
+                return OTHER;
+            }
+            try {
+                return valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return OTHER;
+            }
+        }
+    }
+
+    // Mặc định: bật tất cả, trừ email cho COMMENT và CHAT (giữ hành vi cũ)
+    public static final int DEFAULT_MASK = ~(bit(Channel.EMAIL, EventType.COMMENT) | bit(Channel.EMAIL, EventType.CHAT))
+            & ((1 << (Channel.values().length * EventType.values().length)) - 1);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    UUID userId;
+
+    // null = tùy chọn mặc định cho mọi project
+    @Column(name = "project_id")
+    UUID projectId;
+
+    @Column(name = "enabled_mask", nullable = false)
+    Integer enabledMask;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    OffsetDateTime updatedAt;
+
+    public static int bit(Channel channel, EventType type) {
+        return 1 << (channel.ordinal() * EventType.values().length + type.ordinal());
+    }
+
+    public static boolean isEnabled(int mask, Channel channel, EventType type) {
+        return (mask & bit(channel, type)) != 0;
+    }
+}
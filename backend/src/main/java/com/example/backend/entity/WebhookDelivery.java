@@ -0,0 +1,62 @@
+package com.example.backend.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "webhook_deliveries")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class WebhookDelivery {
+
+    public enum Status {
+        PENDING, DELIVERED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "subscription_id", nullable = false)
+    UUID subscriptionId;
+
+    @Column(name = "event_type", nullable = false)
+    String eventType;
+
+    @Column(name = "payload", columnDefinition = "jsonb", nullable = false)
+    @Type(com.vladmihalcea.hibernate.type.json.JsonType.class)
+    JsonNode payload;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    Status status = Status.PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    OffsetDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    OffsetDateTime deliveredAt;
+}
@@ -0,0 +1,71 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Entity
+@Table(name = "webhook_subscriptions")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class WebhookSubscription {
+
+    public static final Set<String> EVENT_GROUPS = Set.of("issue", "comment", "sprint", "chat");
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "project_id", nullable = false)
+    UUID projectId;
+
+    @Column(name = "url", nullable = false)
+    String url;
+
+    @Column(name = "secret", nullable = false)
+    String secret;
+
+    // Danh sách nhóm sự kiện, phân tách bởi dấu phẩy (issue,comment,sprint,chat)
+    @Column(name = "event_types", nullable = false)
+    String eventTypes;
+
+    @Builder.Default
+    @Column(name = "active", nullable = false)
+    Boolean active = true;
+
+    @Column(name = "created_by")
+    UUID createdBy;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    OffsetDateTime updatedAt;
+
+    public Set<String> getEventGroups() {
+        return Arrays.stream(eventTypes.split(","))
+                .map(String::trim)
+                .filter(group -> !group.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /** Event type "issue.assigned" matches subscription group "issue". */
+    public boolean accepts(String eventType) {
+        int dot = eventType.indexOf('.');
+        return getEventGroups().contains(dot < 0 ? eventType : eventType.substring(0, dot));
+    }
+}
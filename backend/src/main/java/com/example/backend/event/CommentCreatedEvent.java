@@ -0,0 +1,22 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.websocket.CommentMessage;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// payload is snapshotted at publish time so async listeners never touch lazy entity state
+public record CommentCreatedEvent(
+        UUID issueId,
+        String issueTitle,
+        UUID projectId,
+        UUID authorId,
+        String authorName,
+        CommentMessage payload,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "comment.created";
+    }
+}
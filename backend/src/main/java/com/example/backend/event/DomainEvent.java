@@ -0,0 +1,18 @@
+package com.example.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Event published by a write path after its change is committed.
+ * Consumers subscribe with @TransactionalEventListener and hand work to DomainEventDispatcher.
+ */
+public interface DomainEvent {
+
+    /** Stable name used by external consumers (e.g. "issue.assigned"). */
+    String type();
+
+    UUID projectId();
+
+    OffsetDateTime occurredAt();
+}
@@ -0,0 +1,127 @@
+package com.example.backend.event;
+
+import com.example.backend.config.SideEffectExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands domain event work to per-listener bounded queues, each drained by at most {@code concurrency}
+ * tasks on the shared {@link SideEffectExecutor}.
+ * A slow listener only fills its own queue; once full, publishers wait up to the offer timeout
+ * (backpressure). After that a {@link Overflow#DROP} listener loses the event, a {@link Overflow#BLOCK}
+ * listener (realtime broadcasts) keeps the publisher waiting until there is room. Every wait past the
+ * timeout and every drop is counted and logged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DomainEventDispatcher {
+
+    private final MeterRegistry meterRegistry;
+    private final SideEffectExecutor sideEffectExecutor;
+
+    @Value("${app.events.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.events.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private final Map<String, ListenerQueue> queues = new ConcurrentHashMap<>();
+
+    /** What a listener does with an event once its queue stays full past the offer timeout. */
+    public enum Overflow {
+        DROP, BLOCK
+    }
+
+    /**
+     * Queue a task for the named listener. Tasks of a listener with concurrency 1 run in publish order.
+     * Returns false if the event was dropped.
+     */
+    public boolean dispatch(String listener, int concurrency, Overflow overflow, Runnable task) {
+        ListenerQueue queue = queues.computeIfAbsent(listener, name -> new ListenerQueue(name, concurrency, overflow));
+        return queue.submit(SideEffectExecutor.withCallerContext(task));
+    }
+
+    private final class ListenerQueue {
+        private final String name;
+        private final Overflow overflow;
+        private final BlockingQueue<Runnable> tasks;
+        private final Semaphore drainers;
+        private final Counter droppedCounter;
+        private final Counter blockedCounter;
+
+        ListenerQueue(String name, int concurrency, Overflow overflow) {
+            this.name = name;
+            this.overflow = overflow;
+            this.tasks = new ArrayBlockingQueue<>(queueCapacity);
+            this.drainers = new Semaphore(concurrency);
+            this.droppedCounter = Counter.builder("events.listener.dropped")
+                    .tag("listener", name).register(meterRegistry);
+            this.blockedCounter = Counter.builder("events.listener.blocked")
+                    .tag("listener", name).register(meterRegistry);
+            Gauge.builder("events.listener.queue.depth", tasks, BlockingQueue::size)
+                    .tag("listener", name).register(meterRegistry);
+        }
+
+        boolean submit(Runnable task) {
+            try {
+                if (!tasks.offer(task, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    if (overflow == Overflow.DROP) {
+                        droppedCounter.increment();
+                        log.warn("Event listener '{}' is saturated, dropping event", name);
+                        return false;
+                    }
+                    blockedCounter.increment();
+                    log.warn("Event listener '{}' is saturated, publisher waits for room", name);
+                    // Make sure a drainer is running before waiting on it
+                    scheduleDrain();
+                    tasks.put(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCounter.increment();
+                log.error("Interrupted while queueing event for listener '{}', event dropped", name);
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (drainers.tryAcquire()) {
+                // Never rejected: if the executor is saturated the drainer runs on the publisher thread
+                sideEffectExecutor.executeOrRun(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.warn("Event listener '{}' failed: {}", name, e.getMessage());
+                    }
+                }
+            } finally {
+                drainers.release();
+                if (!tasks.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record IssueAssignedEvent(
+        UUID issueId,
+        String issueTitle,
+        UUID projectId,
+        String projectName,
+        UUID assigneeId,
+        UUID actorId,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "issue.assigned";
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public record IssueChangedEvent(
+        UUID issueId,
+        UUID projectId,
+        String action, // CREATED, UPDATED, DELETED
+        Map<String, Object> fields, // chỉ các field đã đổi (CREATED: toàn bộ field hiển thị trên board)
+        UUID actorId,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "issue." + action.toLowerCase();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record IssueStatusChangedEvent(
+        UUID issueId,
+        String issueTitle,
+        UUID projectId,
+        UUID assigneeId,
+        String oldStatus,
+        String newStatus,
+        UUID actorId,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "issue.status_changed";
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.websocket.ChatMessage;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// payload carries the ids only, plus the parent's new reply count for thread replies
+public record MessageDeletedEvent(
+        UUID chatId,
+        UUID projectId,
+        UUID userId,
+        ChatMessage payload,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "chat.message_deleted";
+    }
+}
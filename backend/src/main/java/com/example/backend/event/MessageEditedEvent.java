@@ -0,0 +1,20 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.websocket.ChatMessage;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// payload only carries the changed content and the new version, never sender or attachments
+public record MessageEditedEvent(
+        UUID chatId,
+        UUID projectId,
+        UUID editorId,
+        ChatMessage payload,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "chat.message_edited";
+    }
+}
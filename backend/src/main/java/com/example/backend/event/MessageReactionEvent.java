@@ -0,0 +1,22 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.websocket.ChatMessage;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// payload carries the message's reaction counts only
+public record MessageReactionEvent(
+        UUID chatId,
+        UUID projectId,
+        UUID userId,
+        String emoji,
+        boolean added,
+        ChatMessage payload,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "chat.reaction_changed";
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.websocket.ChatMessage;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// payload is snapshotted at publish time so async listeners never touch lazy entity state
+public record MessageSentEvent(
+        UUID chatId,
+        UUID projectId,
+        String projectName,
+        UUID senderId,
+        String senderName,
+        ChatMessage payload,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "chat.message_sent";
+    }
+}
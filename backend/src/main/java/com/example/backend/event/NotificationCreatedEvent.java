@@ -0,0 +1,16 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.Notification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Not a DomainEvent: notifications are derived from domain events and must not reach webhooks again.
+// recipientIds maps an in-app user to their notification_recipients row, for marking the email as sent
+public record NotificationCreatedEvent(
+        Notification notification,
+        List<UUID> inAppUserIds,
+        List<UUID> emailUserIds,
+        Map<UUID, UUID> recipientIds) {
+}
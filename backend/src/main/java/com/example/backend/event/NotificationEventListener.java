@@ -0,0 +1,70 @@
+package com.example.backend.event;
+
+import com.example.backend.service.ChatReadService;
+import com.example.backend.service.NotificationService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Turns domain events into notifications (DB rows, real-time push, email) off the write path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationEventListener {
+
+    static final String LISTENER = "notifications";
+    static final int CONCURRENCY = 4;
+
+    DomainEventDispatcher dispatcher;
+    NotificationService notificationService;
+    ChatReadService chatReadService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueAssigned(IssueAssignedEvent event) {
+        dispatcher.dispatch(LISTENER, CONCURRENCY, DomainEventDispatcher.Overflow.DROP, () -> notificationService.notifyIssueAssigned(
+                event.assigneeId(), event.issueTitle(), event.issueId(), event.projectId(), event.projectName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueStatusChanged(IssueStatusChangedEvent event) {
+        if (event.assigneeId() == null) {
+            return;
+        }
+        dispatcher.dispatch(LISTENER, CONCURRENCY, DomainEventDispatcher.Overflow.DROP, () -> notificationService.notifyIssueStatusChanged(
+                event.assigneeId(), event.issueTitle(), event.oldStatus(), event.newStatus(), event.issueId(), event.projectId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        dispatcher.dispatch(LISTENER, CONCURRENCY, DomainEventDispatcher.Overflow.DROP, () -> notificationService.notifyNewComment(
+                event.issueId(), event.authorName(), event.issueTitle(), event.authorId()));
+    }
+
+    // Chat messages no longer create notification rows; members get an unread badge push instead
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        if (event.projectId() == null) {
+            return;
+        }
+        dispatcher.dispatch(LISTENER, CONCURRENCY, DomainEventDispatcher.Overflow.DROP, () -> chatReadService.pushUnread(event));
+    }
+
+    // Emails are queued only once the notification rows are committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        dispatcher.dispatch(LISTENER, CONCURRENCY, DomainEventDispatcher.Overflow.DROP,
+                () -> notificationService.sendNotificationEmails(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSprintStateChanged(SprintStateChangedEvent event) {
+        dispatcher.dispatch(LISTENER, CONCURRENCY, DomainEventDispatcher.Overflow.DROP, () -> notificationService.notifySprintUpdated(
+                event.projectId(), event.sprintName(), event.action(), event.actorId()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.event;
+
+import com.example.backend.service.WebSocketService;
+import com.example.backend.websocket.IssueDeltaBatcher;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Pushes snapshotted payloads to WebSocket subscribers. Single drainer so broadcasts keep publish order;
+ * never drops a broadcast, a full queue makes the publisher wait instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RealtimeEventListener {
+
+    static final String LISTENER = "realtime";
+
+    DomainEventDispatcher dispatcher;
+    WebSocketService webSocketService;
+    IssueDeltaBatcher issueDeltaBatcher;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        dispatcher.dispatch(LISTENER, 1, DomainEventDispatcher.Overflow.BLOCK, () -> webSocketService.broadcastComment(event.payload()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        dispatcher.dispatch(LISTENER, 1, DomainEventDispatcher.Overflow.BLOCK, () -> webSocketService.broadcastChatMessage(event.payload()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageEdited(MessageEditedEvent event) {
+        dispatcher.dispatch(LISTENER, 1, DomainEventDispatcher.Overflow.BLOCK, () -> webSocketService.broadcastChatMessage(event.payload()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageDeleted(MessageDeletedEvent event) {
+        dispatcher.dispatch(LISTENER, 1, DomainEventDispatcher.Overflow.BLOCK, () -> webSocketService.broadcastChatMessage(event.payload()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageReaction(MessageReactionEvent event) {
+        dispatcher.dispatch(LISTENER, 1, DomainEventDispatcher.Overflow.BLOCK, () -> webSocketService.broadcastChatMessage(event.payload()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        dispatcher.dispatch(LISTENER, 1, DomainEventDispatcher.Overflow.BLOCK,
+                () -> webSocketService.broadcastNotificationToUsers(event.notification(), event.inAppUserIds()));
+    }
+
+    // Only buffers the delta; the batcher broadcasts once per window
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        issueDeltaBatcher.add(event);
+    }
+}
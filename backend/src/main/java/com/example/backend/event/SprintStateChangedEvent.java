@@ -0,0 +1,19 @@
+package com.example.backend.event;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record SprintStateChangedEvent(
+        UUID sprintId,
+        String sprintName,
+        UUID projectId,
+        String action, // UPDATED, STARTED, ENDED, CANCELLED
+        String status,
+        UUID actorId,
+        OffsetDateTime occurredAt) implements DomainEvent {
+
+    @Override
+    public String type() {
+        return "sprint." + action.toLowerCase();
+    }
+}
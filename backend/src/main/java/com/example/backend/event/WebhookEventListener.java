@@ -0,0 +1,28 @@
+package com.example.backend.event;
+
+import com.example.backend.service.WebhookService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Writes every project-scoped domain event to the webhook delivery queue of matching subscriptions,
+ * before the publishing transaction commits (outbox): the delivery rows exist exactly when the change
+ * does, and nothing is held in memory between commit and enqueue.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WebhookEventListener {
+
+    WebhookService webhookService;
+
+    // Publishers without a transaction fall back to an immediate insert in its own transaction
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        webhookService.enqueue(event);
+    }
+}
@@ -36,7 +36,9 @@ public enum ErrorCode {
     INVALID_FILE_TYPE(HttpStatus.BAD_REQUEST, 17, "Invalid file type"),
     FILE_TOO_LARGE(HttpStatus.BAD_REQUEST, 18, "File size too large"),
     UPLOAD_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, 19, "File upload failed"),
-    INVALID_PASSWORD(HttpStatus.BAD_REQUEST, 20, "Current password is incorrect");
+    INVALID_PASSWORD(HttpStatus.BAD_REQUEST, 20, "Current password is incorrect"),
+    CONFLICT(HttpStatus.CONFLICT, 21, "Resource was modified by another request"),
+    NOT_SUPPORTED(HttpStatus.NOT_IMPLEMENTED, 22, "Not supported in this deployment");
 
     HttpStatusCode httpStatusCode;
     int code;
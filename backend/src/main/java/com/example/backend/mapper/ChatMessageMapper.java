@@ -1,6 +1,8 @@
 package com.example.backend.mapper;
 
 import com.example.backend.dto.response.ChatMessageResponse;
+import com.example.backend.dto.websocket.ChatMessage;
+import com.example.backend.entity.Attachment;
 import com.example.backend.entity.Message;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -15,7 +17,20 @@ public interface ChatMessageMapper {
     
     @Mapping(source = "sender", target = "sender")
     @Mapping(source = "chat.id", target = "chatId")
+    // Filled by ChatService from one query per page, so mapping never walks message.attachments
+    @Mapping(target = "attachments", ignore = true)
+    @Mapping(target = "archived", ignore = true)
     ChatMessageResponse toResponse(Message message);
     
     List<ChatMessageResponse> toResponseList(List<Message> messages);
+
+    default ChatMessage.AttachmentInfo toAttachmentInfo(Attachment attachment) {
+        return ChatMessage.AttachmentInfo.builder()
+                .id(attachment.getId())
+                .fileName(attachment.getFileName())
+                .fileType(attachment.getFileType())
+                .fileSize(attachment.getFileSize())
+                .filePath(attachment.getFilePath())
+                .build();
+    }
 } 
\ No newline at end of file
@@ -2,9 +2,13 @@ package com.example.backend.repository;
 
 import com.example.backend.entity.Attachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +24,30 @@ public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
     @Query("SELECT a FROM Attachment a WHERE a.message.id = :messageId ORDER BY a.uploadedAt DESC")
     List<Attachment> findByMessageId(@org.springframework.data.repository.query.Param("messageId") UUID messageId);
     
+    // Chỉ select các field hiển thị trong chat, cho cả trang tin nhắn trong một query (không load issue/project/uploader)
+    @Query("SELECT a.message.id, a.id, a.fileName, a.fileType, a.fileSize, a.filePath FROM Attachment a " +
+           "WHERE a.message.id IN :messageIds ORDER BY a.uploadedAt ASC")
+    List<Object[]> findInfoByMessageIds(@org.springframework.data.repository.query.Param("messageIds") Collection<UUID> messageIds);
+
+    // Attachment của các tin nhắn sắp lưu trữ; thông tin hiển thị được chép vào segment
+    @Query("SELECT a.message.id, a.id, a.fileName, a.fileType, a.fileSize, a.filePath FROM Attachment a " +
+           "WHERE a.message.chat.id = :chatId AND a.message.createdAt >= :from AND a.message.createdAt < :to " +
+           "ORDER BY a.uploadedAt ASC")
+    List<Object[]> findInfoByChatIdAndCreatedAtRange(@org.springframework.data.repository.query.Param("chatId") UUID chatId,
+                                                     @org.springframework.data.repository.query.Param("from") OffsetDateTime from,
+                                                     @org.springframework.data.repository.query.Param("to") OffsetDateTime to);
+
+    // Gỡ khỏi tin nhắn trước khi tin nhắn được lưu trữ: file vẫn còn trong danh sách attachment của project
+    // (ON DELETE CASCADE sẽ xóa dòng attachment cùng tin nhắn)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE attachments SET message_id = NULL WHERE message_id IN " +
+           "(SELECT id FROM messages WHERE chat_id = :chatId AND created_at >= :from AND created_at < :to)",
+           nativeQuery = true)
+    int detachFromChatMessages(@org.springframework.data.repository.query.Param("chatId") UUID chatId,
+                               @org.springframework.data.repository.query.Param("from") OffsetDateTime from,
+                               @org.springframework.data.repository.query.Param("to") OffsetDateTime to);
+
     @Query("SELECT a FROM Attachment a WHERE a.project.id = :projectId ORDER BY a.uploadedAt DESC")
     List<Attachment> findByProjectId(@org.springframework.data.repository.query.Param("projectId") UUID projectId);
 } 
\ No newline at end of file
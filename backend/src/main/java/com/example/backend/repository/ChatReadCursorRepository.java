@@ -0,0 +1,57 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.ChatReadCursor;
+import com.example.backend.entity.ChatReadCursorId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChatReadCursorRepository extends JpaRepository<ChatReadCursor, ChatReadCursorId> {
+
+    // Một upsert duy nhất: vị trí = message_count trừ số tin nhắn mới hơn message đã đọc (chỉ đếm phần đuôi qua
+    // idx_messages_chat_created_id). Cursor chỉ tiến lên; trả về 0 khi không đổi hoặc message không thuộc chat.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_cursors AS r "
+            + "(chat_id, user_id, last_read_message_id, last_read_message_at, read_count, updated_at) "
+            + "SELECT m.chat_id, :userId, m.id, m.created_at, GREATEST(c.message_count - ("
+            + "    SELECT count(*) FROM messages newer WHERE newer.chat_id = m.chat_id "
+            + "    AND (newer.created_at, newer.id) > (m.created_at, m.id)), 0), now() "
+            + "FROM messages m JOIN chats c ON c.id = m.chat_id "
+            + "WHERE m.id = :messageId AND m.chat_id = :chatId "
+            + "ON CONFLICT (chat_id, user_id) DO UPDATE SET "
+            + "last_read_message_id = EXCLUDED.last_read_message_id, "
+            + "last_read_message_at = EXCLUDED.last_read_message_at, "
+            + "read_count = EXCLUDED.read_count, updated_at = EXCLUDED.updated_at "
+            + "WHERE r.last_read_message_at IS NULL "
+            + "OR (r.last_read_message_at, r.last_read_message_id) < (EXCLUDED.last_read_message_at, EXCLUDED.last_read_message_id)",
+            nativeQuery = true)
+    int advance(@Param("chatId") UUID chatId, @Param("userId") UUID userId, @Param("messageId") UUID messageId);
+
+    // Tin nhắn bị xóa nằm trước cursor thì read_count giảm theo chats.message_count
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chat_read_cursors SET read_count = GREATEST(read_count - 1, 0) "
+            + "WHERE chat_id = :chatId AND (last_read_message_at, last_read_message_id) >= (:createdAt, :messageId)",
+            nativeQuery = true)
+    int recordMessageDeleted(@Param("chatId") UUID chatId, @Param("createdAt") OffsetDateTime createdAt,
+                             @Param("messageId") UUID messageId);
+
+    // chat_id, unread, last_read_message_id cho mọi chat của các project mà user là thành viên
+    @Query(value = "SELECT c.id, GREATEST(c.message_count - COALESCE(r.read_count, 0), 0), r.last_read_message_id "
+            + "FROM project_members pm "
+            + "JOIN projects p ON p.id = pm.project_id "
+            + "JOIN chats c ON c.id = p.chat_id "
+            + "LEFT JOIN chat_read_cursors r ON r.chat_id = c.id AND r.user_id = pm.user_id "
+            + "WHERE pm.user_id = :userId",
+            nativeQuery = true)
+    List<Object[]> findUnreadByUserId(@Param("userId") UUID userId);
+}
@@ -2,12 +2,43 @@ package com.example.backend.repository;
 
 import com.example.backend.entity.Chat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, UUID> {
-    // Basic CRUD operations are provided by JpaRepository
-    // Add custom query methods if needed
+
+    // Counter trên chats thay cho chat.getMessages().add(...) (vốn load toàn bộ lịch sử chat)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chats SET message_count = message_count + :count, "
+            + "last_message_at = GREATEST(COALESCE(last_message_at, :sentAt), :sentAt) WHERE id = :chatId",
+            nativeQuery = true)
+    int recordMessagesSent(@Param("chatId") UUID chatId, @Param("count") int count, @Param("sentAt") OffsetDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chats SET message_count = GREATEST(message_count - 1, 0) WHERE id = :chatId",
+            nativeQuery = true)
+    int recordMessageDeleted(@Param("chatId") UUID chatId);
+
+    // message_count giữ nguyên: tin nhắn đã lưu trữ vẫn thuộc lịch sử chat (unread = message_count - read_count)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chats SET archived_until = GREATEST(COALESCE(archived_until, :until), :until) WHERE id = :chatId",
+            nativeQuery = true)
+    int recordArchived(@Param("chatId") UUID chatId, @Param("until") OffsetDateTime until);
+
+    // Chat còn tin nhắn cũ hơn mốc; EXISTS chỉ quét đầu range (chat_id, created_at) của idx_messages_chat_created_id
+    @Query(value = "SELECT c.id FROM chats c WHERE EXISTS "
+            + "(SELECT 1 FROM messages m WHERE m.chat_id = c.id AND m.created_at < :cutoff) LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findIdsWithMessagesBefore(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
 }
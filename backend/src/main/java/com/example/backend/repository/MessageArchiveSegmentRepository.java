@@ -0,0 +1,50 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.MessageArchiveSegment;
+import com.example.backend.entity.MessageArchiveSegmentId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MessageArchiveSegmentRepository extends JpaRepository<MessageArchiveSegment, MessageArchiveSegmentId> {
+
+    // Chỉ trả về period_start để chọn segment theo cursor; data chỉ được đọc khi segment chưa có trong cache
+    @Query("SELECT s.periodStart FROM MessageArchiveSegment s WHERE s.chatId = :chatId "
+            + "AND s.firstCreatedAt <= :createdAt ORDER BY s.periodStart DESC")
+    List<OffsetDateTime> findPeriodAtOrBefore(@Param("chatId") UUID chatId, @Param("createdAt") OffsetDateTime createdAt, Limit limit);
+
+    @Query("SELECT s.periodStart FROM MessageArchiveSegment s WHERE s.chatId = :chatId "
+            + "AND s.periodStart < :periodStart ORDER BY s.periodStart DESC")
+    List<OffsetDateTime> findPeriodBefore(@Param("chatId") UUID chatId, @Param("periodStart") OffsetDateTime periodStart, Limit limit);
+
+    @Query("SELECT s.periodStart FROM MessageArchiveSegment s WHERE s.chatId = :chatId "
+            + "AND s.lastCreatedAt >= :createdAt ORDER BY s.periodStart ASC")
+    List<OffsetDateTime> findPeriodAtOrAfter(@Param("chatId") UUID chatId, @Param("createdAt") OffsetDateTime createdAt, Limit limit);
+
+    @Query("SELECT s.periodStart FROM MessageArchiveSegment s WHERE s.chatId = :chatId "
+            + "AND s.periodStart > :periodStart ORDER BY s.periodStart ASC")
+    List<OffsetDateTime> findPeriodAfter(@Param("chatId") UUID chatId, @Param("periodStart") OffsetDateTime periodStart, Limit limit);
+
+    // Hai job cùng lưu trữ một tháng: job sau không ghi gì (0) và rollback, không xóa tin nhắn lần nữa
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO message_archive_segments (chat_id, period_start, period_end, message_count, "
+            + "first_created_at, last_created_at, format_version, raw_bytes, data) "
+            + "VALUES (:chatId, :periodStart, :periodEnd, :messageCount, :firstCreatedAt, :lastCreatedAt, "
+            + ":formatVersion, :rawBytes, :data) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("chatId") UUID chatId, @Param("periodStart") OffsetDateTime periodStart,
+                       @Param("periodEnd") OffsetDateTime periodEnd, @Param("messageCount") int messageCount,
+                       @Param("firstCreatedAt") OffsetDateTime firstCreatedAt,
+                       @Param("lastCreatedAt") OffsetDateTime lastCreatedAt, @Param("formatVersion") short formatVersion,
+                       @Param("rawBytes") int rawBytes, @Param("data") byte[] data);
+}
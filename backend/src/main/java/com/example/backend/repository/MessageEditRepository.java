@@ -0,0 +1,15 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.MessageEdit;
+import com.example.backend.entity.MessageEditId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MessageEditRepository extends JpaRepository<MessageEdit, MessageEditId> {
+
+    List<MessageEdit> findByMessageIdOrderByVersionDesc(UUID messageId);
+}
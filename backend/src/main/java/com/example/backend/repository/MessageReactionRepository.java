@@ -0,0 +1,44 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.MessageReaction;
+import com.example.backend.entity.MessageReactionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MessageReactionRepository extends JpaRepository<MessageReaction, MessageReactionId> {
+
+    // Một câu lệnh: ghi dòng reaction và cộng 1 vào reaction_counts của message. Khi user đã react emoji này
+    // thì INSERT không ghi gì, UPDATE không chạy và không trả về dòng nào. Trả về {chat_id, reaction_counts}.
+    @Transactional
+    @Query(value = "WITH added AS ("
+            + "  INSERT INTO message_reactions (message_id, user_id, emoji) VALUES (:messageId, :userId, :emoji) "
+            + "  ON CONFLICT DO NOTHING RETURNING message_id) "
+            + "UPDATE messages m SET reaction_counts = jsonb_set(m.reaction_counts, ARRAY[CAST(:emoji AS text)], "
+            + "  to_jsonb(COALESCE(CAST(m.reaction_counts ->> CAST(:emoji AS text) AS integer), 0) + 1)) "
+            + "FROM added WHERE m.id = added.message_id "
+            + "RETURNING m.chat_id, CAST(m.reaction_counts AS text)",
+            nativeQuery = true)
+    List<Object[]> add(@Param("messageId") UUID messageId, @Param("userId") UUID userId, @Param("emoji") String emoji);
+
+    // Ngược lại với add: xóa dòng reaction và trừ 1, emoji về 0 thì bỏ khỏi reaction_counts
+    @Transactional
+    @Query(value = "WITH removed AS ("
+            + "  DELETE FROM message_reactions WHERE message_id = :messageId AND user_id = :userId AND emoji = :emoji "
+            + "  RETURNING message_id) "
+            + "UPDATE messages m SET reaction_counts = CASE "
+            + "  WHEN COALESCE(CAST(m.reaction_counts ->> CAST(:emoji AS text) AS integer), 0) <= 1 "
+            + "  THEN m.reaction_counts - CAST(:emoji AS text) "
+            + "  ELSE jsonb_set(m.reaction_counts, ARRAY[CAST(:emoji AS text)], "
+            + "    to_jsonb(CAST(m.reaction_counts ->> CAST(:emoji AS text) AS integer) - 1)) END "
+            + "FROM removed WHERE m.id = removed.message_id "
+            + "RETURNING m.chat_id, CAST(m.reaction_counts AS text)",
+            nativeQuery = true)
+    List<Object[]> remove(@Param("messageId") UUID messageId, @Param("userId") UUID userId, @Param("emoji") String emoji);
+}
@@ -1,20 +1,138 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
-    // For pagination support
+    // For pagination support (sender is fetched in the same query on every chat read path)
+    @EntityGraph(attributePaths = "sender")
     Page<Message> findByChatIdOrderByCreatedAtDesc(UUID chatId, Pageable pageable);
     
     // For chat app - newest messages at bottom
+    @EntityGraph(attributePaths = "sender")
     List<Message> findByChatIdOrderByCreatedAtAsc(UUID chatId);
     
     // Count messages in a chat
     long countByChatId(UUID chatId);
+
+    @Query("SELECT m.chat.id FROM Message m WHERE m.id = :id")
+    Optional<UUID> findChatIdById(@Param("id") UUID id);
+
+    // id, chat_id, parent_id của các tin được trả lời trong một batch gửi
+    @Query("SELECT m.id, m.chat.id, m.parentId FROM Message m WHERE m.id IN :ids")
+    List<Object[]> findThreadInfoByIds(@Param("ids") Collection<UUID> ids);
+
+    // Tin đã lưu theo khóa idempotency của client (gửi lại sau timeout), kèm attachment để trả về như lúc gửi;
+    // lọc cặp (sender, khóa) ở service
+    @Query("SELECT DISTINCT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.attachments "
+            + "WHERE m.sender.id IN :senderIds AND m.clientMessageId IN :clientMessageIds")
+    List<Message> findByClientMessageIds(@Param("senderIds") Collection<UUID> senderIds,
+                                         @Param("clientMessageIds") Collection<UUID> clientMessageIds);
+
+    // Replies of a thread, oldest first, keyset on (created_at, id) over idx_messages_parent_created_id
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.parentId = :parentId "
+            + "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findFirstReplies(@Param("parentId") UUID parentId, Limit limit);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.parentId = :parentId "
+            + "AND (m.createdAt, m.id) > (:createdAt, :id) ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findRepliesAfter(@Param("parentId") UUID parentId, @Param("createdAt") OffsetDateTime createdAt,
+                                   @Param("id") UUID id, Limit limit);
+
+    // Cộng count reply vào tin gốc và trả về reply_count mới, trong transaction của batch gửi
+    @Transactional
+    @Query(value = "UPDATE messages SET reply_count = reply_count + :count, "
+            + "last_reply_at = GREATEST(COALESCE(last_reply_at, :repliedAt), :repliedAt) WHERE id = :parentId "
+            + "RETURNING reply_count", nativeQuery = true)
+    Integer recordRepliesSent(@Param("parentId") UUID parentId, @Param("count") int count,
+                              @Param("repliedAt") OffsetDateTime repliedAt);
+
+    @Transactional
+    @Query(value = "UPDATE messages SET reply_count = GREATEST(reply_count - 1, 0) WHERE id = :parentId "
+            + "RETURNING reply_count", nativeQuery = true)
+    Integer recordReplyDeleted(@Param("parentId") UUID parentId);
+
+    // Tin gốc bị xóa: reply thành tin nhắn thường (parent_id không còn FK vì tin gốc có thể đã được lưu trữ)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE messages SET parent_id = NULL WHERE parent_id = :parentId", nativeQuery = true)
+    int detachReplies(@Param("parentId") UUID parentId);
+
+    @Query("SELECT MIN(m.createdAt) FROM Message m WHERE m.chat.id = :chatId")
+    OffsetDateTime findOldestCreatedAt(@Param("chatId") UUID chatId);
+
+    // Một tháng của chat để lưu trữ, cũ nhất trước. FOR UPDATE: sửa/react đồng thời chờ tới khi lưu trữ xong
+    // (rồi không thấy tin nhắn nữa), nên segment không chứa nội dung cũ
+    @Query(value = "SELECT id, sender_id, content, created_at, updated_at, version, parent_id, reply_count, "
+            + "last_reply_at, CAST(reaction_counts AS text) FROM messages "
+            + "WHERE chat_id = :chatId AND created_at >= :from AND created_at < :to "
+            + "ORDER BY created_at, id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockRangeForArchive(@Param("chatId") UUID chatId, @Param("from") OffsetDateTime from,
+                                       @Param("to") OffsetDateTime to);
+
+    // message_edits và message_reactions đi theo ON DELETE CASCADE; số reaction đã được chép vào segment
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM messages WHERE chat_id = :chatId AND created_at >= :from AND created_at < :to",
+            nativeQuery = true)
+    int deleteRange(@Param("chatId") UUID chatId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    // Keyset pagination on (chat_id, created_at, id); row comparisons walk idx_messages_chat_created_id
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chat.id = :chatId "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestByChatId(@Param("chatId") UUID chatId, Limit limit);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chat.id = :chatId "
+            + "AND (m.createdAt, m.id) < (:createdAt, :id) ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findBeforeCursor(@Param("chatId") UUID chatId, @Param("createdAt") OffsetDateTime createdAt,
+                                   @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chat.id = :chatId "
+            + "AND (m.createdAt, m.id) > (:createdAt, :id) ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findAfterCursor(@Param("chatId") UUID chatId, @Param("createdAt") OffsetDateTime createdAt,
+                                  @Param("id") UUID id, Limit limit);
+
+    // Full-text search scoped to the chats of the user's projects. Keyset on (rank, created_at, id); the
+    // first page passes rank = +Infinity. ts_headline only runs on the rows of the returned page.
+    String SEARCH_HEAD = "WITH query AS (SELECT websearch_to_tsquery('simple', :query) AS q), "
+            + "page AS ("
+            + "  SELECT m.id, m.chat_id, m.sender_id, m.content, m.created_at, ts_rank(m.content_tsv, query.q) AS rank "
+            + "  FROM messages m CROSS JOIN query "
+            + "  WHERE m.content_tsv @@ query.q "
+            + "  AND m.chat_id IN (SELECT p.chat_id FROM projects p JOIN project_members pm ON pm.project_id = p.id "
+            + "                    WHERE pm.user_id = :userId";
+    String SEARCH_TAIL = ") "
+            + "  AND (ts_rank(m.content_tsv, query.q), m.created_at, m.id) < (CAST(:rank AS real), :createdAt, :id) "
+            + "  ORDER BY rank DESC, m.created_at DESC, m.id DESC "
+            + "  LIMIT :limit) "
+            + "SELECT page.id, page.chat_id, page.sender_id, u.name, page.created_at, page.rank, "
+            + "  ts_headline('simple', page.content, query.q, "
+            + "    'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=2, MaxWords=24, MinWords=8') "
+            + "FROM page CROSS JOIN query LEFT JOIN users u ON u.id = page.sender_id "
+            + "ORDER BY page.rank DESC, page.created_at DESC, page.id DESC";
+
+    @Query(value = SEARCH_HEAD + SEARCH_TAIL, nativeQuery = true)
+    List<Object[]> search(@Param("userId") UUID userId, @Param("query") String query, @Param("rank") float rank,
+                          @Param("createdAt") OffsetDateTime createdAt, @Param("id") UUID id, @Param("limit") int limit);
+
+    @Query(value = SEARCH_HEAD + " AND p.chat_id = :chatId" + SEARCH_TAIL, nativeQuery = true)
+    List<Object[]> searchInChat(@Param("userId") UUID userId, @Param("chatId") UUID chatId, @Param("query") String query,
+                                @Param("rank") float rank, @Param("createdAt") OffsetDateTime createdAt,
+                                @Param("id") UUID id, @Param("limit") int limit);
 }
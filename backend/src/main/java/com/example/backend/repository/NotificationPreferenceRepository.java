@@ -0,0 +1,23 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, UUID> {
+
+    // Load tùy chọn của nhiều user trong một query (dùng khi fan-out notification)
+    List<NotificationPreference> findByUserIdIn(Collection<UUID> userIds);
+
+    List<NotificationPreference> findByUserId(UUID userId);
+
+    Optional<NotificationPreference> findByUserIdAndProjectIdIsNull(UUID userId);
+
+    Optional<NotificationPreference> findByUserIdAndProjectId(UUID userId, UUID projectId);
+}
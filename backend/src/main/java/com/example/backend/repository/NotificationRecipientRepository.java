@@ -1,6 +1,7 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.NotificationRecipient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,4 +46,11 @@ public interface NotificationRecipientRepository extends JpaRepository<Notificat
 
     @Query("SELECT nr FROM NotificationRecipient nr WHERE nr.user.id = :userId AND nr.notification.entityType = :entityType AND nr.notification.entityId = :entityId")
     List<NotificationRecipient> findByUserIdAndEntity(@Param("userId") UUID userId, @Param("entityType") String entityType, @Param("entityId") UUID entityId);
-} 
\ No newline at end of file
+
+    // Resume SSE theo Last-Event-ID: các thông báo đứng sau (created_at, id) của thông báo cuối cùng client đã nhận,
+    // nên thông báo tạo cùng thời điểm với nó không bị lặp lại hay bỏ sót
+    @Query("SELECT nr FROM NotificationRecipient nr JOIN FETCH nr.notification n WHERE nr.user.id = :userId "
+            + "AND (n.createdAt > :since OR (n.createdAt = :since AND n.id > :lastId)) ORDER BY n.createdAt ASC, n.id ASC")
+    List<NotificationRecipient> findByUserIdAndNotificationAfter(@Param("userId") UUID userId, @Param("since") OffsetDateTime since,
+                                                                 @Param("lastId") UUID lastId, Pageable pageable);
+}
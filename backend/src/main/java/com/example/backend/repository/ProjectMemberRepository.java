@@ -38,6 +38,9 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Pr
            "WHERE p.team.id = :teamId")
     List<UUID> findDistinctUserIdsByTeamId(@Param("teamId") UUID teamId);
 
+    @Query("SELECT pm.userId FROM ProjectMember pm WHERE pm.projectId = :projectId")
+    List<UUID> findUserIdsByProjectId(@Param("projectId") UUID projectId);
+
     @Query("SELECT pm FROM ProjectMember pm " +
            "LEFT JOIN FETCH pm.project p " +
            "LEFT JOIN FETCH p.chat " +
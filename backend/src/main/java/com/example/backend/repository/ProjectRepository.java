@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,4 +54,8 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
     @Query("SELECT p FROM Project p WHERE p.chat.id = :chatId")
     Optional<Project> findByChatId(@Param("chatId") UUID chatId);
+
+    // Chỉ lấy chatId, id, name của project cho cả batch tin nhắn trong một query
+    @Query("SELECT p.chat.id, p.id, p.name FROM Project p WHERE p.chat.id IN :chatIds")
+    List<Object[]> findMinimalByChatIdIn(@Param("chatIds") Collection<UUID> chatIds);
 }
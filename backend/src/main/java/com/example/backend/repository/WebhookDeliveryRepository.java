@@ -0,0 +1,49 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.WebhookDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, UUID> {
+
+    // SKIP LOCKED để nhiều instance có thể lấy việc song song mà không gửi trùng
+    @Query(value = "SELECT * FROM webhook_deliveries WHERE status = 'PENDING' AND next_attempt_at <= now() " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<WebhookDelivery> findDueForUpdate(@Param("limit") int limit);
+
+    // Outbox: chạy trong transaction của thay đổi nghiệp vụ; một câu lệnh cho mọi subscription active của project
+    // có nhóm sự kiện khớp (event_types là danh sách nhóm phân tách bởi dấu phẩy)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO webhook_deliveries (subscription_id, event_type, payload, next_attempt_at) " +
+            "SELECT s.id, :eventType, CAST(:payload AS jsonb), now() FROM webhook_subscriptions s " +
+            "WHERE s.project_id = :projectId AND s.active " +
+            "AND :eventGroup = ANY(string_to_array(replace(s.event_types, ' ', ''), ','))", nativeQuery = true)
+    int insertForSubscribers(@Param("projectId") UUID projectId, @Param("eventGroup") String eventGroup,
+                             @Param("eventType") String eventType, @Param("payload") String payload);
+
+    List<WebhookDelivery> findBySubscriptionIdOrderByCreatedAtDesc(UUID subscriptionId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = :status, d.attempts = d.attempts + 1, " +
+            "d.deliveredAt = :deliveredAt, d.lastError = null WHERE d.id IN :ids")
+    void markDelivered(@Param("ids") Collection<UUID> ids, @Param("status") WebhookDelivery.Status status,
+                       @Param("deliveredAt") OffsetDateTime deliveredAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.status = :status AND d.deliveredAt < :before")
+    int purgeByStatusBefore(@Param("status") WebhookDelivery.Status status, @Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,16 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, UUID> {
+
+    List<WebhookSubscription> findByProjectIdOrderByCreatedAtDesc(UUID projectId);
+
+    List<WebhookSubscription> findByProjectIdAndActiveTrue(UUID projectId);
+}
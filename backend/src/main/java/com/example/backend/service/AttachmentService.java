@@ -47,6 +47,7 @@ public class AttachmentService {
     private final CommentRepository commentRepository;
     private final MessageRepository messageRepository;
     private final ProjectMemberRepository projectMemberRepository;
+    private final ChatProjectCache chatProjectCache;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
@@ -239,10 +240,8 @@ public class AttachmentService {
             attachment.setMessage(message);
             // Set project from message's chat if not already set
             if (attachment.getProject() == null) {
-                var projectOpt = projectRepository.findByChatId(message.getChat().getId());
-                if (projectOpt.isPresent()) {
-                    attachment.setProject(projectOpt.get());
-                }
+                chatProjectCache.get(message.getChat().getId())
+                        .ifPresent(project -> attachment.setProject(projectRepository.getReferenceById(project.projectId())));
             }
         }
 
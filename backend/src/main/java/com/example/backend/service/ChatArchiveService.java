@@ -0,0 +1,339 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.ChatMessageResponse;
+import com.example.backend.dto.response.UserMinimalResponse;
+import com.example.backend.dto.websocket.ChatMessage;
+import com.example.backend.entity.MessageArchiveSegment;
+import com.example.backend.entity.MessageArchiveSegmentId;
+import com.example.backend.mapper.UserMapper;
+import com.example.backend.repository.AttachmentRepository;
+import com.example.backend.repository.ChatRepository;
+import com.example.backend.repository.MessageArchiveSegmentRepository;
+import com.example.backend.repository.MessageRepository;
+import com.example.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves chat history older than {@code afterDays} out of the messages table into compressed segments,
+ * one per chat and UTC month, and reads them back for the history API. A month is archived in one
+ * transaction (segment written, attachments detached, rows deleted) and only once it is entirely older
+ * than the cutoff, oldest month first, so within a chat every archived message is older than every hot
+ * one and {@code chats.archived_until} is the boundary between the two.
+ * <p>
+ * Archived messages are read-only: edit history and per-user reaction rows go with the deleted rows
+ * (reaction counts are kept), and they leave full-text search.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatArchiveService {
+
+    static final short FORMAT_VERSION = 1;
+    private static final TypeReference<List<ArchivedMessage>> SEGMENT_TYPE = new TypeReference<>() {
+    };
+
+    private final MessageArchiveSegmentRepository segmentRepository;
+    private final MessageRepository messageRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final ChatRepository chatRepository;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.archive.enabled:true}")
+    private boolean enabled;
+    @Value("${app.chat.archive.after-days:365}")
+    private long afterDays;
+    @Value("${app.chat.archive.max-segments-per-run:200}")
+    private int maxSegmentsPerRun;
+    @Value("${app.chat.archive.cache-segments:32}")
+    private int cacheSegments;
+
+    private Map<MessageArchiveSegmentId, List<ArchivedMessage>> segmentCache;
+    private Counter segmentsCounter;
+    private Counter messagesCounter;
+
+    @PostConstruct
+    public void init() {
+        // Segments never change, so decoded ones can be kept until evicted; deep scrolling through one
+        // month then decompresses it once instead of once per page
+        segmentCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MessageArchiveSegmentId, List<ArchivedMessage>> eldest) {
+                return size() > cacheSegments;
+            }
+        });
+        segmentsCounter = meterRegistry.counter("chat.archive.segments");
+        messagesCounter = meterRegistry.counter("chat.archive.messages");
+    }
+
+    @Scheduled(cron = "${app.chat.archive.cron:0 45 3 * * *}")
+    public void archiveOldMessages() {
+        if (enabled) {
+            archiveBefore(OffsetDateTime.now(ZoneOffset.UTC).minusDays(afterDays), maxSegmentsPerRun);
+        }
+    }
+
+    /**
+     * Archives every whole month that ends at or before {@code cutoff}, up to {@code maxSegments}
+     * segments. Returns the number of segments written.
+     */
+    public int archiveBefore(OffsetDateTime cutoff, int maxSegments) {
+        int written = 0;
+        for (UUID chatId : chatRepository.findIdsWithMessagesBefore(cutoff, maxSegments)) {
+            while (written < maxSegments) {
+                OffsetDateTime oldest = messageRepository.findOldestCreatedAt(chatId);
+                if (oldest == null) {
+                    break;
+                }
+                OffsetDateTime periodStart = oldest.withOffsetSameInstant(ZoneOffset.UTC)
+                        .truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                OffsetDateTime periodEnd = periodStart.plusMonths(1);
+                if (periodEnd.isAfter(cutoff)) {
+                    break;
+                }
+                try {
+                    Boolean archived = transactionTemplate.execute(status -> archiveMonth(chatId, periodStart, periodEnd));
+                    if (!Boolean.TRUE.equals(archived)) {
+                        break;
+                    }
+                    written++;
+                } catch (RuntimeException e) {
+                    // Later months of this chat stay hot, so archived messages remain older than hot ones
+                    log.error("Failed to archive chat {} month {}: {}", chatId, periodStart, e.getMessage());
+                    break;
+                }
+            }
+        }
+        if (written > 0) {
+            log.info("Archived {} chat history segments older than {}", written, cutoff);
+        }
+        return written;
+    }
+
+    private boolean archiveMonth(UUID chatId, OffsetDateTime periodStart, OffsetDateTime periodEnd) {
+        List<Object[]> rows = messageRepository.lockRangeForArchive(chatId, periodStart, periodEnd);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Map<UUID, List<ArchivedAttachment>> attachments = new HashMap<>();
+        for (Object[] row : attachmentRepository.findInfoByChatIdAndCreatedAtRange(chatId, periodStart, periodEnd)) {
+            attachments.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add(new ArchivedAttachment(
+                    (UUID) row[1], (String) row[2], (String) row[3], (Long) row[4], (String) row[5]));
+        }
+
+        List<ArchivedMessage> messages = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UUID id = (UUID) row[0];
+            messages.add(new ArchivedMessage(
+                    id,
+                    (UUID) row[1],
+                    (String) row[2],
+                    ChatService.toOffsetDateTime(row[3]),
+                    row[4] != null ? ChatService.toOffsetDateTime(row[4]) : null,
+                    ((Number) row[5]).longValue(),
+                    (UUID) row[6],
+                    ((Number) row[7]).intValue(),
+                    row[8] != null ? ChatService.toOffsetDateTime(row[8]) : null,
+                    readReactionCounts((String) row[9]),
+                    attachments.getOrDefault(id, List.of())));
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int inserted = segmentRepository.insertIfAbsent(chatId, periodStart, periodEnd, messages.size(),
+                messages.getFirst().createdAt(), messages.getLast().createdAt(), FORMAT_VERSION, json.length, gzip(json));
+        if (inserted == 0) {
+            // Another instance archived this month first and already deleted the rows
+            return false;
+        }
+        attachmentRepository.detachFromChatMessages(chatId, periodStart, periodEnd);
+        messageRepository.deleteRange(chatId, periodStart, periodEnd);
+        chatRepository.recordArchived(chatId, periodEnd);
+
+        segmentsCounter.increment();
+        messagesCounter.increment(messages.size());
+        log.info("Archived {} messages of chat {} for {} ({} bytes raw)", messages.size(), chatId, periodStart, json.length);
+        return true;
+    }
+
+    /**
+     * Archived messages of a chat strictly before ({@code createdAt}, {@code id}), newest first.
+     */
+    public List<ChatMessageResponse> findBefore(UUID chatId, OffsetDateTime createdAt, UUID id, int limit) {
+        List<ArchivedMessage> result = new ArrayList<>(limit);
+        List<OffsetDateTime> period = segmentRepository.findPeriodAtOrBefore(chatId, createdAt, Limit.of(1));
+        while (!period.isEmpty() && result.size() < limit) {
+            List<ArchivedMessage> segment = loadSegment(chatId, period.getFirst());
+            for (int i = segment.size() - 1; i >= 0 && result.size() < limit; i--) {
+                if (segment.get(i).isBefore(createdAt, id)) {
+                    result.add(segment.get(i));
+                }
+            }
+            period = segmentRepository.findPeriodBefore(chatId, period.getFirst(), Limit.of(1));
+        }
+        return toResponses(chatId, result);
+    }
+
+    /**
+     * Archived messages of a chat strictly after ({@code createdAt}, {@code id}), oldest first.
+     */
+    public List<ChatMessageResponse> findAfter(UUID chatId, OffsetDateTime createdAt, UUID id, int limit) {
+        List<ArchivedMessage> result = new ArrayList<>(limit);
+        List<OffsetDateTime> period = segmentRepository.findPeriodAtOrAfter(chatId, createdAt, Limit.of(1));
+        while (!period.isEmpty() && result.size() < limit) {
+            for (ArchivedMessage message : loadSegment(chatId, period.getFirst())) {
+                if (result.size() < limit && message.isAfter(createdAt, id)) {
+                    result.add(message);
+                }
+            }
+            period = segmentRepository.findPeriodAfter(chatId, period.getFirst(), Limit.of(1));
+        }
+        return toResponses(chatId, result);
+    }
+
+    private List<ArchivedMessage> loadSegment(UUID chatId, OffsetDateTime periodStart) {
+        MessageArchiveSegmentId key = new MessageArchiveSegmentId(chatId, periodStart);
+        List<ArchivedMessage> cached = segmentCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        MessageArchiveSegment segment = segmentRepository.findById(key)
+                .orElseThrow(() -> new IllegalStateException("Archive segment disappeared: " + key));
+        if (segment.getFormatVersion() != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported archive segment format " + segment.getFormatVersion());
+        }
+        try {
+            List<ArchivedMessage> messages = objectMapper.readValue(gunzip(segment.getData()), SEGMENT_TYPE);
+            segmentCache.put(key, messages);
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Senders are resolved at read time (one query per page), so renamed users show their current name
+    private List<ChatMessageResponse> toResponses(UUID chatId, List<ArchivedMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> senderIds = messages.stream().map(ArchivedMessage::senderId).collect(Collectors.toSet());
+        Map<UUID, UserMinimalResponse> senders = userRepository.findAllById(senderIds).stream()
+                .map(userMapper::toUserMinimalResponse)
+                .collect(Collectors.toMap(UserMinimalResponse::getId, Function.identity()));
+
+        return messages.stream().map(message -> ChatMessageResponse.builder()
+                        .id(message.id())
+                        .content(message.content())
+                        .chatId(chatId)
+                        .sender(senders.getOrDefault(message.senderId(),
+                                UserMinimalResponse.builder().id(message.senderId()).name("").build()))
+                        .createdAt(message.createdAt())
+                        .updatedAt(message.updatedAt())
+                        .version(message.version())
+                        .parentId(message.parentId())
+                        .replyCount(message.replyCount())
+                        .lastReplyAt(message.lastReplyAt())
+                        .reactionCounts(message.reactionCounts())
+                        .attachments(message.attachments().stream()
+                                .map(att -> ChatMessage.AttachmentInfo.builder()
+                                        .id(att.id())
+                                        .fileName(att.fileName())
+                                        .fileType(att.fileType())
+                                        .fileSize(att.fileSize())
+                                        .filePath(att.filePath())
+                                        .build())
+                                .toList())
+                        .archived(true)
+                        .build())
+                .toList();
+    }
+
+    private Map<String, Integer> readReactionCounts(String json) {
+        try {
+            return json != null ? objectMapper.readValue(json, ChatService.REACTION_COUNTS_TYPE) : Map.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    // Segment format (FORMAT_VERSION 1): one JSON object per message, oldest first
+    record ArchivedMessage(UUID id, UUID senderId, String content, OffsetDateTime createdAt, OffsetDateTime updatedAt,
+                           Long version, UUID parentId, Integer replyCount, OffsetDateTime lastReplyAt,
+                           Map<String, Integer> reactionCounts, List<ArchivedAttachment> attachments) {
+
+        boolean isBefore(OffsetDateTime otherCreatedAt, UUID otherId) {
+            return compareTo(otherCreatedAt, otherId) < 0;
+        }
+
+        boolean isAfter(OffsetDateTime otherCreatedAt, UUID otherId) {
+            return compareTo(otherCreatedAt, otherId) > 0;
+        }
+
+        // Same order as Postgres' (created_at, id): uuids compare as unsigned bytes, unlike UUID.compareTo
+        private int compareTo(OffsetDateTime otherCreatedAt, UUID otherId) {
+            int byTime = createdAt.toInstant().compareTo(otherCreatedAt.toInstant());
+            if (byTime != 0) {
+                return byTime;
+            }
+            int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), otherId.getMostSignificantBits());
+            return byHigh != 0 ? byHigh : Long.compareUnsigned(id.getLeastSignificantBits(), otherId.getLeastSignificantBits());
+        }
+    }
+
+    record ArchivedAttachment(UUID id, String fileName, String fileType, Long fileSize, String filePath) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Project;
+import com.example.backend.repository.ProjectRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * chat id -> owning project, for the chat hot paths (send, edit, react, room checks). A chat belongs to
+ * one project for its whole life, so only the project name can change; ProjectService updates the entry
+ * on create/rename/delete, and entries expire {@code ttlSeconds} after they were written so a rename made
+ * on another instance shows up here too. At most {@code maxSize} chats are kept. Chats without a project
+ * are cached as well.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatProjectCache {
+
+    private final ProjectRepository projectRepository;
+
+    @Value("${app.chat.project-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    @Value("${app.chat.project-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<UUID, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<ProjectRef> get(UUID chatId) {
+        return Optional.ofNullable(getAll(List.of(chatId)).get(chatId));
+    }
+
+    /**
+     * Projects of the given chats; chats without a project are left out. Only chats that are not cached
+     * (or expired) are loaded, with one query for all of them.
+     */
+    public Map<UUID, ProjectRef> getAll(Collection<UUID> chatIds) {
+        Map<UUID, ProjectRef> result = new HashMap<>();
+        cache.getAll(new LinkedHashSet<>(chatIds), this::load).forEach((chatId, entry) -> {
+            if (entry.project() != null) {
+                result.put(chatId, entry.project());
+            }
+        });
+        return result;
+    }
+
+    public void put(Project project) {
+        if (project.getChat() != null) {
+            cache.put(project.getChat().getId(), new Entry(new ProjectRef(project.getId(), project.getName())));
+        }
+    }
+
+    public void evict(UUID chatId) {
+        cache.invalidate(chatId);
+    }
+
+    // Every requested chat gets an entry, so chats without a project are not looked up again until they expire
+    private Map<UUID, Entry> load(Set<? extends UUID> chatIds) {
+        Map<UUID, Entry> loaded = new HashMap<>();
+        for (Object[] row : projectRepository.findMinimalByChatIdIn(List.copyOf(chatIds))) {
+            loaded.put((UUID) row[0], new Entry(new ProjectRef((UUID) row[1], (String) row[2])));
+        }
+        chatIds.forEach(chatId -> loaded.putIfAbsent(chatId, new Entry(null)));
+        return loaded;
+    }
+
+    public record ProjectRef(UUID projectId, String projectName) {
+    }
+
+    // project is null for a chat that has no project; Caffeine does not store null values
+    private record Entry(ProjectRef project) {
+    }
+}
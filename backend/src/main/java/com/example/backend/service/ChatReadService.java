@@ -0,0 +1,83 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.ChatUnreadResponse;
+import com.example.backend.dto.websocket.ChatReadStateMessage;
+import com.example.backend.dto.websocket.ChatUnreadMessage;
+import com.example.backend.entity.ChatReadCursor;
+import com.example.backend.entity.ChatReadCursorId;
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.repository.ChatReadCursorRepository;
+import com.example.backend.repository.ProjectMemberRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-user read cursors for chats. A cursor stores the position of the last read message in units of
+ * chats.message_count, so unread counts are a subtraction rather than a COUNT over messages. Members
+ * get a lightweight /user/queue/chat-unread push per new message instead of a notification row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ChatReadService {
+
+    ChatReadCursorRepository chatReadCursorRepository;
+    ProjectMemberRepository projectMemberRepository;
+    WebSocketService webSocketService;
+
+    /**
+     * Moves the user's cursor forward to {@code messageId} and broadcasts the new read state. Returns
+     * the current cursor; moving backwards (an older message) leaves it unchanged and broadcasts nothing.
+     */
+    public Optional<ChatReadCursor> markRead(UUID chatId, UUID userId, UUID messageId) {
+        // The upsert commits on its own, so subscribers never see a read state that was rolled back
+        boolean advanced = chatReadCursorRepository.advance(chatId, userId, messageId) > 0;
+        Optional<ChatReadCursor> cursor = chatReadCursorRepository.findById(new ChatReadCursorId(chatId, userId));
+        if (advanced) {
+            cursor.ifPresent(current -> webSocketService.broadcastChatReadState(ChatReadStateMessage.builder()
+                    .chatId(chatId)
+                    .userId(userId)
+                    .lastReadMessageId(current.getLastReadMessageId())
+                    .lastReadMessageAt(current.getLastReadMessageAt())
+                    .readAt(current.getUpdatedAt())
+                    .build()));
+        }
+        return cursor;
+    }
+
+    public List<ChatUnreadResponse> getUnreadCounts(UUID userId) {
+        return chatReadCursorRepository.findUnreadByUserId(userId).stream()
+                .map(row -> ChatUnreadResponse.builder()
+                        .chatId((UUID) row[0])
+                        .unreadCount(((Number) row[1]).longValue())
+                        .lastReadMessageId((UUID) row[2])
+                        .build())
+                .toList();
+    }
+
+    // Replaces the per-member "new message" notification rows: one push, the client bumps its badge
+    public void pushUnread(MessageSentEvent event) {
+        if (event.projectId() == null) {
+            return;
+        }
+        List<UUID> recipients = projectMemberRepository.findUserIdsByProjectId(event.projectId()).stream()
+                .filter(id -> !id.equals(event.senderId()))
+                .toList();
+        OffsetDateTime createdAt = event.payload().getCreatedAt();
+        webSocketService.broadcastChatUnread(recipients, ChatUnreadMessage.builder()
+                .chatId(event.chatId())
+                .messageId(event.payload().getMessageId())
+                .senderId(event.senderId())
+                .createdAt(createdAt != null ? createdAt : event.occurredAt())
+                .build());
+    }
+}
@@ -1,27 +1,61 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.request.ChatMessageEditRequest;
 import com.example.backend.dto.request.ChatMessageRequest;
 import com.example.backend.dto.request.AttachmentMeta;
+import com.example.backend.dto.response.ChatMessagePageResponse;
 import com.example.backend.dto.response.ChatMessageResponse;
+import com.example.backend.dto.response.ChatReactionResponse;
+import com.example.backend.dto.response.ChatSearchHitResponse;
+import com.example.backend.dto.response.ChatSearchResponse;
+import com.example.backend.dto.response.MessageEditResponse;
+import com.example.backend.dto.websocket.ChatMessage;
 import com.example.backend.entity.Chat;
 import com.example.backend.entity.Message;
+import com.example.backend.entity.MessageEdit;
 import com.example.backend.entity.User;
 import com.example.backend.exception.AppException;
+import com.example.backend.event.MessageDeletedEvent;
+import com.example.backend.event.MessageEditedEvent;
+import com.example.backend.event.MessageReactionEvent;
 import com.example.backend.exception.ErrorCode;
 import com.example.backend.mapper.ChatMessageMapper;
+import com.example.backend.repository.AttachmentRepository;
+import com.example.backend.repository.ChatReadCursorRepository;
 import com.example.backend.repository.ChatRepository;
+import com.example.backend.repository.MessageEditRepository;
+import com.example.backend.repository.MessageReactionRepository;
 import com.example.backend.repository.MessageRepository;
 import com.example.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,13 +64,26 @@ import java.util.UUID;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class ChatService {
+
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_PAGE_SIZE = 50;
+    static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    static final TypeReference<Map<String, Integer>> REACTION_COUNTS_TYPE = new TypeReference<>() {
+    };
     
     ChatRepository chatRepository;
+    ChatReadCursorRepository chatReadCursorRepository;
     MessageRepository messageRepository;
+    MessageEditRepository messageEditRepository;
+    MessageReactionRepository messageReactionRepository;
+    ChatProjectCache chatProjectCache;
+    AttachmentRepository attachmentRepository;
     UserRepository userRepository;
     ChatMessageMapper chatMessageMapper;
-    WebSocketService webSocketService;
-    MessageService messageService;
+    MessageIngestionService messageIngestionService;
+    ChatArchiveService chatArchiveService;
+    ApplicationEventPublisher eventPublisher;
+    ObjectMapper objectMapper;
     
     /**
      * Create a new chat with name
@@ -82,25 +129,15 @@ public class ChatService {
      * Create a new message in a chat
      */
     public ChatMessageResponse createMessage(ChatMessageRequest request, UUID userId) throws AppException {
-        // Validate chat exists
-        Chat chat = getChatById(request.getChatId());
-        
-        // Validate user exists
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isEmpty()) {
-            throw new AppException(ErrorCode.NOT_FOUND);
-        }
+        // Chat and sender are validated by the ingestion batch (NOT_FOUND), with one lookup per batch
+        Message savedMessage = messageIngestionService.send(userId, request.getChatId(), request.getParentId(),
+                request.getContent(), request.getAttachments(), request.getClientMessageId());
+        log.info("Created message with id: {} in chat: {}", savedMessage.getId(), request.getChatId());
         
-        // Create message using MessageService (which handles attachments)
-        Message savedMessage = messageService.sendMessage(userId, request.getChatId(), request.getContent(), request.getAttachments());
-        log.info("Created message with id: {} in chat: {}", savedMessage.getId(), chat.getId());
-        
-        // Broadcast message via WebSocket
-        log.info("Broadcasting message via WebSocket for messageId: {}", savedMessage.getId());
-        webSocketService.broadcastChatMessageCreated(savedMessage);
-        log.info("WebSocket broadcast completed for messageId: {}", savedMessage.getId());
-        
-        return chatMessageMapper.toResponse(savedMessage);
+        // WebSocket broadcast is published by MessageService as a MessageSentEvent
+        ChatMessageResponse response = chatMessageMapper.toResponse(savedMessage);
+        response.setAttachments(savedMessage.getAttachments().stream().map(chatMessageMapper::toAttachmentInfo).toList());
+        return response;
     }
     
     /**
@@ -113,24 +150,297 @@ public class ChatService {
         Pageable pageable = PageRequest.of(page, size);
         Page<Message> messages = messageRepository.findByChatIdOrderByCreatedAtDesc(chatId, pageable);
         
-        return messages.map(chatMessageMapper::toResponse);
+        return new PageImpl<>(toResponses(messages.getContent()), pageable, messages.getTotalElements());
     }
     
+    /**
+     * Keyset page of chat history, oldest first. Without a cursor it returns the latest {@code limit}
+     * messages; {@code before} walks back through older history and {@code after} fetches what arrived
+     * after a message. Each page is one index range scan, however deep the client has scrolled. Once the
+     * hot messages run out below {@code chats.archived_until}, the page continues into archive segments,
+     * with the same cursor format.
+     */
+    @Transactional(readOnly = true)
+    public ChatMessagePageResponse getChatMessagesByCursor(UUID chatId, String before, String after, int limit) throws AppException {
+        if (before != null && after != null) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+        Chat chat = getChatById(chatId);
+        OffsetDateTime archivedUntil = chat.getArchivedUntil();
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+
+        List<ChatMessageResponse> messages;
+        boolean hasMoreBefore;
+        boolean hasMoreAfter;
+        if (after != null) {
+            Cursor cursor = Cursor.decode(after);
+            messages = new ArrayList<>();
+            // Archived messages are all older than hot ones, so the archive part of the page comes first
+            if (archivedUntil != null && cursor.createdAt().isBefore(archivedUntil)) {
+                messages.addAll(chatArchiveService.findAfter(chatId, cursor.createdAt(), cursor.id(), size + 1));
+            }
+            if (messages.size() <= size) {
+                messages.addAll(toResponses(messageRepository.findAfterCursor(chatId, cursor.createdAt(), cursor.id(),
+                        Limit.of(size + 1 - messages.size()))));
+            }
+            hasMoreBefore = true;
+            hasMoreAfter = messages.size() > size;
+            messages = messages.subList(0, Math.min(size, messages.size()));
+        } else {
+            Cursor cursor = before != null ? Cursor.decode(before) : null;
+            List<Message> hot = cursor != null
+                    ? messageRepository.findBeforeCursor(chatId, cursor.createdAt(), cursor.id(), Limit.of(size + 1))
+                    : messageRepository.findLatestByChatId(chatId, Limit.of(size + 1));
+            messages = new ArrayList<>(toResponses(hot));
+            if (messages.size() <= size && archivedUntil != null) {
+                // Continue below the oldest hot message, the request cursor, or the archive boundary
+                Cursor from = !hot.isEmpty()
+                        ? new Cursor(hot.getLast().getCreatedAt(), hot.getLast().getId())
+                        : cursor != null ? cursor : new Cursor(archivedUntil, new UUID(0, 0));
+                messages.addAll(chatArchiveService.findBefore(chatId, from.createdAt(), from.id(), size + 1 - messages.size()));
+            }
+            hasMoreBefore = messages.size() > size;
+            hasMoreAfter = before != null;
+            messages = new ArrayList<>(messages.subList(0, Math.min(size, messages.size())));
+            Collections.reverse(messages);
+        }
+
+        return ChatMessagePageResponse.builder()
+                .messages(messages)
+                .beforeCursor(hasMoreBefore && !messages.isEmpty() ? Cursor.encode(messages.get(0)) : null)
+                // Always set when there is a last message, so clients can poll for newer ones after a reconnect
+                .afterCursor(messages.isEmpty() ? after : Cursor.encode(messages.get(messages.size() - 1)))
+                .hasMoreBefore(hasMoreBefore)
+                .hasMoreAfter(hasMoreAfter)
+                .build();
+    }
+
+    /**
+     * Full-text search over the messages of every chat the user can access (or one of them when
+     * {@code chatId} is given), most relevant first. Uses the GIN index on messages.content_tsv and pages
+     * by (rank, created_at, id), so later pages cost the same as the first.
+     */
+    public ChatSearchResponse searchMessages(UUID userId, String query, UUID chatId, String cursor, int limit) throws AppException {
+        if (query == null || query.isBlank() || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+        SearchCursor after = cursor != null ? SearchCursor.decode(cursor) : SearchCursor.FIRST;
+
+        List<Object[]> rows = chatId != null
+                ? messageRepository.searchInChat(userId, chatId, query, after.rank(), after.createdAt(), after.id(), size + 1)
+                : messageRepository.search(userId, query, after.rank(), after.createdAt(), after.id(), size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ChatSearchHitResponse> hits = rows.stream().limit(size)
+                .map(row -> ChatSearchHitResponse.builder()
+                        .messageId((UUID) row[0])
+                        .chatId((UUID) row[1])
+                        .senderId((UUID) row[2])
+                        .senderName((String) row[3])
+                        .createdAt(toOffsetDateTime(row[4]))
+                        .rank(((Number) row[5]).floatValue())
+                        .snippet((String) row[6])
+                        .build())
+                .toList();
+
+        return ChatSearchResponse.builder()
+                .hits(hits)
+                .nextCursor(hasMore ? SearchCursor.encode(hits.get(hits.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime;
+        }
+        if (value instanceof Instant instant) {
+            return instant.atOffset(ZoneOffset.UTC);
+        }
+        return ((java.sql.Timestamp) value).toInstant().atOffset(ZoneOffset.UTC);
+    }
+
     /**
      * Get all messages for a chat (for smaller chats) - newest at bottom for chat app
+     *
+     * @deprecated loads the whole history; use {@link #getChatMessagesByCursor}
      */
+    @Deprecated
     public List<ChatMessageResponse> getAllChatMessages(UUID chatId) throws AppException {
         // Validate chat exists
         getChatById(chatId);
         
         // Use ascending order so newest messages appear at bottom
         List<Message> messages = messageRepository.findByChatIdOrderByCreatedAtAsc(chatId);
-        return chatMessageMapper.toResponseList(messages);
+        return toResponses(messages);
+    }
+
+    // Messages arrive with their sender already fetched; attachments for the whole list come from one query
+    private List<ChatMessageResponse> toResponses(List<Message> messages) {
+        List<ChatMessageResponse> responses = chatMessageMapper.toResponseList(messages);
+        if (responses.isEmpty()) {
+            return responses;
+        }
+        Map<UUID, List<ChatMessage.AttachmentInfo>> attachments = new HashMap<>();
+        for (Object[] row : attachmentRepository.findInfoByMessageIds(messages.stream().map(Message::getId).toList())) {
+            attachments.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add(ChatMessage.AttachmentInfo.builder()
+                    .id((UUID) row[1])
+                    .fileName((String) row[2])
+                    .fileType((String) row[3])
+                    .fileSize((Long) row[4])
+                    .filePath((String) row[5])
+                    .build());
+        }
+        responses.forEach(response -> response.setAttachments(attachments.getOrDefault(response.getId(), List.of())));
+        return responses;
     }
     
     /**
-     * Delete a message
+     * Edit a message. {@code request.version} must match the stored version, so an edit made from a stale
+     * copy (another tab, a concurrent request) fails with CONFLICT instead of overwriting the newer content.
+     */
+    @Transactional
+    public ChatMessageResponse editMessage(UUID messageId, UUID userId, ChatMessageEditRequest request) throws AppException {
+        Message message = messageRepository.findById(messageId)
+                .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
+
+        if (!message.getSender().getId().equals(userId)) {
+            log.error("User {} attempted to edit message {} they didn't send", userId, messageId);
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        if (!message.getVersion().equals(request.getVersion())) {
+            throw new AppException(ErrorCode.CONFLICT);
+        }
+        if (Objects.equals(message.getContent(), request.getContent())) {
+            return toResponses(List.of(message)).getFirst();
+        }
+
+        String previousContent = message.getContent();
+        long replacedVersion = message.getVersion();
+        message.setContent(request.getContent());
+        try {
+            // UPDATE ... WHERE version = ?; a concurrent edit that committed first leaves it matching no row
+            messageRepository.saveAndFlush(message);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new AppException(ErrorCode.CONFLICT);
+        }
+        messageEditRepository.save(MessageEdit.builder()
+                .messageId(messageId)
+                .version(replacedVersion)
+                .previousContent(previousContent)
+                .editorId(userId)
+                .editedAt(OffsetDateTime.now())
+                .build());
+        log.info("Edited message {} to version {}", messageId, message.getVersion());
+
+        UUID chatId = message.getChat().getId();
+        eventPublisher.publishEvent(new MessageEditedEvent(
+                chatId,
+                chatProjectCache.get(chatId).map(ChatProjectCache.ProjectRef::projectId).orElse(null),
+                userId,
+                ChatMessage.edited(message),
+                OffsetDateTime.now()));
+
+        return toResponses(List.of(message)).getFirst();
+    }
+
+    /**
+     * Replies of a thread, oldest first, paged forward with the same cursor format as chat history
      */
+    @Transactional(readOnly = true)
+    public ChatMessagePageResponse getReplies(UUID messageId, String after, int limit) throws AppException {
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        List<Message> replies;
+        if (after != null) {
+            Cursor cursor = Cursor.decode(after);
+            replies = messageRepository.findRepliesAfter(messageId, cursor.createdAt(), cursor.id(), Limit.of(size + 1));
+        } else {
+            replies = messageRepository.findFirstReplies(messageId, Limit.of(size + 1));
+        }
+        boolean hasMoreAfter = replies.size() > size;
+        replies = replies.subList(0, Math.min(size, replies.size()));
+
+        return ChatMessagePageResponse.builder()
+                .messages(toResponses(replies))
+                .afterCursor(replies.isEmpty() ? after : Cursor.encode(replies.getLast()))
+                .hasMoreBefore(false)
+                .hasMoreAfter(hasMoreAfter)
+                .build();
+    }
+
+    /**
+     * Toggle the user's reaction: adds it, or removes it when the user already reacted with that emoji.
+     * The per-emoji count on the message row changes in the same statement, so pages never count reactions.
+     */
+    @Transactional
+    public ChatReactionResponse toggleReaction(UUID messageId, UUID userId, String emoji) throws AppException {
+        String normalized = emoji.strip();
+        boolean added = true;
+        List<Object[]> rows = messageReactionRepository.add(messageId, userId, normalized);
+        if (rows.isEmpty()) {
+            rows = messageReactionRepository.remove(messageId, userId, normalized);
+            added = false;
+        }
+        if (rows.isEmpty()) {
+            throw new AppException(ErrorCode.NOT_FOUND);
+        }
+
+        UUID chatId = (UUID) rows.getFirst()[0];
+        Map<String, Integer> counts;
+        try {
+            counts = objectMapper.readValue((String) rows.getFirst()[1], REACTION_COUNTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new AppException(ErrorCode.UNCAGETORIZED_EXCEPTION);
+        }
+
+        eventPublisher.publishEvent(new MessageReactionEvent(
+                chatId,
+                chatProjectCache.get(chatId).map(ChatProjectCache.ProjectRef::projectId).orElse(null),
+                userId,
+                normalized,
+                added,
+                ChatMessage.builder()
+                        .type("REACTION")
+                        .messageId(messageId)
+                        .chatId(chatId)
+                        .reactionCounts(counts)
+                        .build(),
+                OffsetDateTime.now()));
+
+        return ChatReactionResponse.builder()
+                .messageId(messageId)
+                .reactionCounts(counts)
+                .reacted(added)
+                .build();
+    }
+
+    /**
+     * Get the edit history of a message, newest edit first
+     */
+    public List<MessageEditResponse> getMessageEdits(UUID messageId) {
+        return messageEditRepository.findByMessageIdOrderByVersionDesc(messageId).stream()
+                .map(edit -> MessageEditResponse.builder()
+                        .version(edit.getVersion())
+                        .previousContent(edit.getPreviousContent())
+                        .editorId(edit.getEditorId())
+                        .editedAt(edit.getEditedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Get the chat a message belongs to
+     */
+    public UUID getMessageChatId(UUID messageId) throws AppException {
+        return messageRepository.findChatIdById(messageId)
+                .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
+    }
+
+    /**
+     * Delete a message. The row, the chat and read-cursor counters and the thread bookkeeping change in one
+     * transaction; the deletion is broadcast after commit.
+     */
+    @Transactional
     public void deleteMessage(UUID messageId, UUID userId) throws AppException {
         Optional<Message> message = messageRepository.findById(messageId);
         Optional<User> user = userRepository.findById(userId);
@@ -146,19 +456,79 @@ public class ChatService {
         }
 
         UUID chatId = message.get().getChat().getId();
+        UUID parentId = message.get().getParentId();
         messageRepository.delete(message.get());
+        chatRepository.recordMessageDeleted(chatId);
+        chatReadCursorRepository.recordMessageDeleted(chatId, message.get().getCreatedAt(), messageId);
+        Integer parentReplyCount = parentId != null ? messageRepository.recordReplyDeleted(parentId) : null;
+        if (message.get().getReplyCount() != null && message.get().getReplyCount() > 0) {
+            messageRepository.detachReplies(messageId);
+        }
         log.info("Deleted message with id: {} from chat: {}", messageId, chatId);
-        
-        // Broadcast message deletion via WebSocket
-        webSocketService.broadcastChatMessageDeleted(messageId, chatId);
+
+        eventPublisher.publishEvent(new MessageDeletedEvent(
+                chatId,
+                chatProjectCache.get(chatId).map(ChatProjectCache.ProjectRef::projectId).orElse(null),
+                userId,
+                ChatMessage.deleted(messageId, chatId, parentId, parentReplyCount),
+                OffsetDateTime.now()));
     }
     
     /**
      * Get message count for a chat
      */
     public long getChatMessageCount(UUID chatId) throws AppException {
-        // Validate chat exists
-        getChatById(chatId);
-        return messageRepository.countByChatId(chatId);
+        // Counter maintained on send/delete instead of COUNT(*) over the chat's messages
+        Long count = getChatById(chatId).getMessageCount();
+        return count != null ? count : 0;
+    }
+
+    // Opaque to clients: base64url("<created_at instant>|<id>")
+    record Cursor(OffsetDateTime createdAt, UUID id) {
+
+        static String encode(Message message) {
+            return encode(message.getCreatedAt(), message.getId());
+        }
+
+        static String encode(ChatMessageResponse message) {
+            return encode(message.getCreatedAt(), message.getId());
+        }
+
+        private static String encode(OffsetDateTime createdAt, UUID id) {
+            String raw = createdAt.toInstant() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(Instant.parse(raw.substring(0, separator)).atOffset(ZoneOffset.UTC),
+                        UUID.fromString(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeException | StringIndexOutOfBoundsException e) {
+                throw new AppException(ErrorCode.BAD_REQUEST);
+            }
+        }
+    }
+
+    // base64url("<rank>|<created_at instant>|<id>"); FIRST sorts above every real hit
+    record SearchCursor(float rank, OffsetDateTime createdAt, UUID id) {
+
+        static final SearchCursor FIRST = new SearchCursor(Float.POSITIVE_INFINITY, OffsetDateTime.now(ZoneOffset.UTC), new UUID(0, 0));
+
+        static String encode(ChatSearchHitResponse hit) {
+            String raw = hit.getRank() + "|" + hit.getCreatedAt().toInstant() + "|" + hit.getMessageId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+                return new SearchCursor(Float.parseFloat(parts[0]), Instant.parse(parts[1]).atOffset(ZoneOffset.UTC),
+                        UUID.fromString(parts[2]));
+            } catch (IllegalArgumentException | DateTimeException | ArrayIndexOutOfBoundsException e) {
+                throw new AppException(ErrorCode.BAD_REQUEST);
+            }
+        }
     }
 }
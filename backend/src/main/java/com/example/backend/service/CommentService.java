@@ -1,10 +1,12 @@
 package com.example.backend.service;
 
 
+import com.example.backend.dto.websocket.CommentMessage;
 import com.example.backend.entity.Comment;
 import com.example.backend.entity.Issue;
 import com.example.backend.entity.User;
 import com.example.backend.entity.Attachment;
+import com.example.backend.event.CommentCreatedEvent;
 import com.example.backend.exception.AppException;
 import com.example.backend.exception.ErrorCode;
 import com.example.backend.repository.CommentRepository;
@@ -16,12 +18,13 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import java.util.Optional;
 
@@ -35,8 +38,9 @@ public class CommentService {
     UserRepository userRepository;
     AttachmentRepository attachmentRepository;
     WebSocketService webSocketService;
-    NotificationService notificationService;
+    ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public Comment createComment(UUID issueId, UUID userId, String content, List<AttachmentMeta> attachments) {
       Optional<Issue> issue = issueRepository.findById(issueId);
       Optional<User> user = userRepository.findById(userId);
@@ -71,24 +75,16 @@ public class CommentService {
               }
           }
           
-          // Broadcast comment creation via WebSocket
-          webSocketService.broadcastCommentCreated(savedComment);
-          
-          // Gửi notification cho assignee và reporter của issue - async để không block
-          final String commenterName = user.get().getName();
-          final String issueTitle = issue.get().getTitle();
-          CompletableFuture.runAsync(() -> {
-              try {
-                  notificationService.notifyNewComment(
-                      issueId,
-                      commenterName,
-                      issueTitle,
-                      userId
-                  );
-              } catch (Exception e) {
-                  log.warn("Failed to notify comment async: {}", e.getMessage());
-              }
-          });
+          // Broadcast + notification cho assignee và reporter chạy sau commit, không block request
+          eventPublisher.publishEvent(new CommentCreatedEvent(
+              issueId,
+              issue.get().getTitle(),
+              issue.get().getProject().getId(),
+              userId,
+              user.get().getName(),
+              CommentMessage.from(savedComment, "CREATE"),
+              OffsetDateTime.now()
+          ));
           
           return savedComment;
       } catch (Exception e) {
@@ -0,0 +1,261 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queued SMTP delivery. Each worker keeps its own connected Transport (a small connection pool)
+ * and sends drained batches over it, honouring a per-recipient-domain rate limit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailDeliveryService {
+
+    private final JavaMailSender javaMailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.delivery.connections:2}")
+    private int connections;
+    @Value("${app.mail.delivery.batch-size:50}")
+    private int batchSize;
+    @Value("${app.mail.delivery.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${app.mail.delivery.per-domain-per-second:10}")
+    private double perDomainPerSecond;
+    @Value("${app.mail.delivery.idle-close-seconds:30}")
+    private long idleCloseSeconds;
+
+    private BlockingQueue<OutgoingEmail> queue;
+    private final Map<String, DomainRateLimiter> domainLimiters = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter rateLimitedCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sentCounter = meterRegistry.counter("email.delivery.sent");
+        failedCounter = meterRegistry.counter("email.delivery.failed");
+        rateLimitedCounter = meterRegistry.counter("email.delivery.rate_limited");
+        batchTimer = meterRegistry.timer("email.delivery.batch");
+        Gauge.builder("email.delivery.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        for (int i = 0; i < connections; i++) {
+            Thread worker = Thread.ofPlatform()
+                    .name("email-delivery-" + i)
+                    .daemon(true)
+                    .start(new Worker());
+            workers.add(worker);
+        }
+        log.info("Email delivery started with {} SMTP connections, batch size {}", connections, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Enqueue a prepared message; the future completes once the message is accepted by the SMTP server.
+     */
+    public CompletableFuture<Void> enqueue(MimeMessage message, String recipient) {
+        OutgoingEmail email = new OutgoingEmail(message, domainOf(recipient), new CompletableFuture<>());
+        if (!queue.offer(email)) {
+            failedCounter.increment();
+            email.result().completeExceptionally(new MailSendException("Email delivery queue is full"));
+        }
+        return email.result();
+    }
+
+    private static String domainOf(String recipient) {
+        int at = recipient == null ? -1 : recipient.lastIndexOf('@');
+        return at < 0 ? "" : recipient.substring(at + 1).toLowerCase();
+    }
+
+    private DomainRateLimiter limiterFor(String domain) {
+        return domainLimiters.computeIfAbsent(domain, d -> new DomainRateLimiter(perDomainPerSecond));
+    }
+
+    private record OutgoingEmail(MimeMessage message, String domain, CompletableFuture<Void> result) {
+    }
+
+    private class Worker implements Runnable {
+        private Transport transport;
+        private long lastUsedAt;
+        private final Deque<OutgoingEmail> deferred = new ArrayDeque<>();
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    List<OutgoingEmail> batch = nextBatch();
+                    if (batch.isEmpty()) {
+                        closeIfIdle();
+                        continue;
+                    }
+                    sendBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("Email delivery worker error: {}", e.getMessage());
+                }
+            }
+            close();
+        }
+
+        private List<OutgoingEmail> nextBatch() throws InterruptedException {
+            List<OutgoingEmail> candidates = new ArrayList<>(batchSize);
+            // Retry rate-limited messages first, then drain fresh ones
+            while (!deferred.isEmpty() && candidates.size() < batchSize) {
+                candidates.add(deferred.poll());
+            }
+            if (candidates.isEmpty()) {
+                OutgoingEmail first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    return candidates;
+                }
+                candidates.add(first);
+            }
+            queue.drainTo(candidates, batchSize - candidates.size());
+
+            List<OutgoingEmail> batch = new ArrayList<>(candidates.size());
+            for (OutgoingEmail email : candidates) {
+                if (limiterFor(email.domain()).tryAcquire()) {
+                    batch.add(email);
+                } else {
+                    rateLimitedCounter.increment();
+                    deferred.add(email);
+                }
+            }
+            if (batch.isEmpty() && !deferred.isEmpty()) {
+                // Everything is throttled: back off briefly instead of spinning
+                Thread.sleep(50);
+            }
+            return batch;
+        }
+
+        private void sendBatch(List<OutgoingEmail> batch) {
+            long start = System.nanoTime();
+            int sent = 0;
+            for (OutgoingEmail email : batch) {
+                try {
+                    send(email.message());
+                    email.result().complete(null);
+                    sent++;
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    email.result().completeExceptionally(new MailSendException("Failed to send email", e));
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            sentCounter.increment(sent);
+            lastUsedAt = System.currentTimeMillis();
+            if (sent > 0) {
+                log.info("Sent {} emails in {} ms ({} emails/s)", sent, elapsedNanos / 1_000_000,
+                        String.format("%.1f", sent / (elapsedNanos / 1e9)));
+            }
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new java.util.Date());
+            }
+            message.saveChanges();
+            Address[] recipients = message.getAllRecipients();
+            try {
+                connectedTransport().sendMessage(message, recipients);
+            } catch (MessagingException e) {
+                // Connection may have been dropped by the server: reconnect once and retry
+                close();
+                connectedTransport().sendMessage(message, recipients);
+            }
+        }
+
+        private Transport connectedTransport() throws MessagingException {
+            if (transport != null && transport.isConnected()) {
+                return transport;
+            }
+            JavaMailSenderImpl sender = (JavaMailSenderImpl) javaMailSender;
+            transport = sender.getSession().getTransport(sender.getProtocol());
+            transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+            return transport;
+        }
+
+        private void closeIfIdle() {
+            if (transport != null && System.currentTimeMillis() - lastUsedAt > idleCloseSeconds * 1000) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP transport: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+    /** Token bucket refilled continuously at {@code permitsPerSecond}, burst of one second. */
+    private static final class DomainRateLimiter {
+        private final double permitsPerSecond;
+        private final double capacity;
+        private double tokens;
+        private long lastRefillNanos = System.nanoTime();
+
+        DomainRateLimiter(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.capacity = Math.max(1.0, permitsPerSecond);
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1e9 * permitsPerSecond);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -2,33 +2,69 @@ package com.example.backend.service;
 
 import com.example.backend.entity.Notification;
 import com.example.backend.entity.Project;
-import com.example.backend.entity.NotificationRecipient;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.utils.EmailTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class EmailService {
 
+    // Template được compile một lần, render bằng một lần duyệt StringBuilder
+    private static final EmailTemplate INVITATION_TEMPLATE = EmailTemplate.compile(
+            """
+            <html>
+            <body>
+                <h2>Bạn được mời tham gia: {{projectName}}</h2>
+                <p>Vai trò của bạn: <strong>{{role}}</strong></p>
+                <p>Nhấp vào liên kết sau để chấp nhận lời mời:</p>
+                <a href="{{link}}">Chấp nhận lời mời</a>
+                
+                <p>Lời mời này sẽ hết hạn sau 7 ngày vì lý do bảo mật.</p>
+                <p>Nếu bạn không mong đợi lời mời này, bạn có thể bỏ qua email này một cách an toàn.</p>
+            </body>
+            </html>
+            """);
+
+    private static final EmailTemplate NOTIFICATION_TEMPLATE = EmailTemplate.compile(
+            """
+            <html>
+            <body>
+                <h2>{{title}}</h2>
+                <p>{{content}}</p>
+                <p><a href="{{link}}">Xem chi tiết</a></p>
+                <p>Đây là email tự động từ Teamer. Gửi vào {{createdAt}}.</p>
+            </body>
+            </html>
+            """);
+
     JavaMailSender javaMailSender;
+    EmailDeliveryService emailDeliveryService;
 
     void sendEmailWithToken(String email, String link, Project project, String role) throws MessagingException {
         MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
 
         String subject = String.format("Bạn được mời tham gia dự án: %s", project.getName());
-        String content = createEmailTemplate(link, project, role);
+        String content = INVITATION_TEMPLATE.render(Map.of(
+                "projectName", project.getName(),
+                "role", role,
+                "link", link));
         
         helper.setSubject(subject);
         helper.setText(content, true);
@@ -43,65 +79,30 @@ public class EmailService {
         }
     }
 
-    private String createEmailTemplate(String link, Project project, String role) {
-        return String.format(
-            """
-            <html>
-            <body>
-                <h2>Bạn được mời tham gia: %s</h2>
-                <p>Vai trò của bạn: <strong>%s</strong></p>
-                <p>Nhấp vào liên kết sau để chấp nhận lời mời:</p>
-                <a href=\"%s\">Chấp nhận lời mời</a>
-                
-                <p>Lời mời này sẽ hết hạn sau 7 ngày vì lý do bảo mật.</p>
-                <p>Nếu bạn không mong đợi lời mời này, bạn có thể bỏ qua email này một cách an toàn.</p>
-            </body>
-            </html>
-            """,
-            project.getName(),
-            role,
-            link
-        );
-    }
-
-    public void sendNotificationEmail(String email, NotificationRecipient recipient) throws MessagingException {
+    /**
+     * Đưa email notification vào hàng đợi gửi; future hoàn thành khi SMTP server đã nhận email
+     */
+    public CompletableFuture<Void> sendNotificationEmail(String email, Notification notification) throws MessagingException {
         MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
 
-        String subject = recipient.getNotification().getTitle();
-        String content = createNotificationEmailTemplate(recipient);
-        
-        helper.setSubject(subject);
-        helper.setText(content, true);
-        helper.setTo(email);
+        Map<String, String> values = new HashMap<>();
+        values.put("title", notification.getTitle());
+        values.put("content", notification.getContent());
+        values.put("link", notification.getLink());
+        values.put("createdAt", String.valueOf(notification.getCreatedAt()));
 
-        try {
-            javaMailSender.send(mimeMessage);
-            log.info("Notification email sent successfully to {}: {}", email, recipient.getNotification().getTitle());
-        } catch (Exception e) {
-            log.error("Failed to send notification email to {}: {}", email, e.getMessage());
-            throw new MailSendException("Failed to send notification email", e);
-        }
-    }
+        helper.setSubject(notification.getTitle());
+        helper.setText(NOTIFICATION_TEMPLATE.render(values), true);
+        helper.setTo(email);
 
-    private String createNotificationEmailTemplate(NotificationRecipient recipient) {
-        return String.format(
-            """
-            <html>
-            <body>
-                <h2>%s</h2>
-                <p>%s</p>
-                <p><a href="%s">Xem chi tiết</a></p>
-                <p>Đây là email tự động từ Teamer. Gửi vào %s.</p>
-            </body>
-            </html>
-            """,
-            recipient.getNotification().getTitle(),
-            recipient.getNotification().getContent(),
-            recipient.getNotification().getLink(),
-            recipient.getNotification().getCreatedAt().toString()
-        );
+        return emailDeliveryService.enqueue(mimeMessage, email)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.error("Failed to send notification email to {}: {}", email, error.getMessage());
+                    } else {
+                        log.info("Notification email sent successfully to {}: {}", email, notification.getTitle());
+                    }
+                });
     }
-
-
-} 
\ No newline at end of file
+}
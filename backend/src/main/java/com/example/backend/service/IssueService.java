@@ -7,6 +7,9 @@ import com.example.backend.entity.Project;
 import com.example.backend.entity.ProjectMember;
 import com.example.backend.entity.Sprint;
 import com.example.backend.entity.User;
+import com.example.backend.event.IssueAssignedEvent;
+import com.example.backend.event.IssueChangedEvent;
+import com.example.backend.event.IssueStatusChangedEvent;
 import com.example.backend.exception.AppException;
 import com.example.backend.exception.ErrorCode;
 import com.example.backend.repository.CommentRepository;
@@ -18,9 +21,15 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,7 +45,7 @@ public class IssueService {
     ProjectMemberRepository projectMemberRepository;
     SprintRepository sprintRepository;
     CommentRepository commentRepository;
-    NotificationService notificationService;
+    ApplicationEventPublisher eventPublisher;
 
     public Issue getIssueById(UUID id) {
         return issueRepository.findById(id)
@@ -50,6 +59,7 @@ public class IssueService {
         return issueRepository.findByProjectIdWithAssigneeAndReporter(projectId);
     }
 
+    @Transactional
     public Issue createIssue(IssueRequest issueRequest, UUID projectId, UUID reporterId) {
         try {
             // Validate project exists and user has access
@@ -109,13 +119,16 @@ public class IssueService {
             String issueKey = generateIssueKey(project);
             issue.setKey(issueKey);
 
-            return issueRepository.save(issue);
+            Issue savedIssue = issueRepository.save(issue);
+            publishIssueChanged(savedIssue, "CREATED", boardFields(savedIssue), reporterId);
+            return savedIssue;
         } catch (Exception e) {
             log.error("Error creating issue: {}", e.getMessage());
             throw new AppException(ErrorCode.CREATION_FAILED);
         }
     }
 
+    @Transactional
     public void deleteIssue(UUID id, UUID userId) {
         Issue issue = getIssueById(id);
         
@@ -127,9 +140,11 @@ public class IssueService {
         }
         
         issueRepository.deleteById(id);
+        publishIssueChanged(issue, "DELETED", null, userId);
         log.info("Issue {} deleted by user {}", id, userId);
     }
 
+    @Transactional
     public Issue setAssignee(UUID issueId, UUID assigneeId, UUID userId) {
         Issue issue = getIssueById(issueId);
         
@@ -140,22 +155,28 @@ public class IssueService {
         }
         
         User assignee = userService.getUserEntity(assigneeId);
+        Map<String, Object> before = boardFields(issue);
         issue.setAssignee(assignee);
         Issue savedIssue = issueRepository.save(issue);
+        publishIssueChanged(savedIssue, "UPDATED", changedFields(before, boardFields(savedIssue)), userId);
         
-        // Gửi notification cho assignee
+        // Gửi notification cho assignee (xử lý sau commit qua event)
         if (assigneeId != null) {
-            notificationService.notifyIssueAssigned(
-                assigneeId, 
-                issue.getTitle(), 
-                issue.getId(), 
-                issue.getProject().getName()
-            );
+            eventPublisher.publishEvent(new IssueAssignedEvent(
+                issue.getId(),
+                issue.getTitle(),
+                issue.getProject().getId(),
+                issue.getProject().getName(),
+                assigneeId,
+                userId,
+                OffsetDateTime.now()
+            ));
         }
         
         return savedIssue;
     }
 
+    @Transactional
     public Issue unassignIssue(UUID issueId, UUID userId) {
         Issue issue = getIssueById(issueId);
         
@@ -165,10 +186,14 @@ public class IssueService {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
         
+        Map<String, Object> before = boardFields(issue);
         issue.setAssignee(null);
-        return issueRepository.save(issue);
+        Issue savedIssue = issueRepository.save(issue);
+        publishIssueChanged(savedIssue, "UPDATED", changedFields(before, boardFields(savedIssue)), userId);
+        return savedIssue;
     }
 
+    @Transactional
     public Issue updateIssue(UUID id, IssueRequest issueRequest, UUID userId) {
         Issue issue = getIssueById(id);
         
@@ -177,6 +202,7 @@ public class IssueService {
             log.error("User {} is not a member of project {}", userId, issue.getProject().getId());
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
+        Map<String, Object> before = boardFields(issue);
         
         if (issueRequest.getTitle() != null) {
             issue.setTitle(issueRequest.getTitle());
@@ -224,9 +250,12 @@ public class IssueService {
             issue.setParent(null);
         }
         
-        return issueRepository.save(issue);
+        Issue savedIssue = issueRepository.save(issue);
+        publishIssueChanged(savedIssue, "UPDATED", changedFields(before, boardFields(savedIssue)), userId);
+        return savedIssue;
     }
 
+    @Transactional
     public Issue updateIssueStatus(UUID id, String status, UUID userId) {
         Issue issue = getIssueById(id);
         
@@ -239,17 +268,21 @@ public class IssueService {
         String oldStatus = issue.getStatus();
         issue.setStatus(status);
         Issue savedIssue = issueRepository.save(issue);
+        if (!Objects.equals(oldStatus, status)) {
+            publishIssueChanged(savedIssue, "UPDATED", Map.of("status", status), userId);
+        }
         
         // Gửi notification cho assignee nếu có
-        if (issue.getAssignee() != null) {
-            notificationService.notifyIssueStatusChanged(
-                issue.getAssignee().getId(),
-                issue.getTitle(),
-                oldStatus,
-                status,
-                issue.getId()
-            );
-        }
+        eventPublisher.publishEvent(new IssueStatusChangedEvent(
+            issue.getId(),
+            issue.getTitle(),
+            issue.getProject().getId(),
+            issue.getAssignee() != null ? issue.getAssignee().getId() : null,
+            oldStatus,
+            status,
+            userId,
+            OffsetDateTime.now()
+        ));
         
         return savedIssue;
     }
@@ -263,6 +296,48 @@ public class IssueService {
         return parentIssue.getSubtasks();
     }
 
+    // Delta cho board (/topic/project/{id}/issues); bỏ qua khi không có field nào đổi
+    private void publishIssueChanged(Issue issue, String action, Map<String, Object> fields, UUID actorId) {
+        if ("UPDATED".equals(action) && fields.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new IssueChangedEvent(
+            issue.getId(),
+            issue.getProject().getId(),
+            action,
+            fields,
+            actorId,
+            OffsetDateTime.now()
+        ));
+    }
+
+    // Các field hiển thị trên board; description không gửi kèm vì có thể rất dài
+    static Map<String, Object> boardFields(Issue issue) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("key", issue.getKey());
+        fields.put("title", issue.getTitle());
+        fields.put("status", issue.getStatus());
+        fields.put("priority", issue.getPriority());
+        fields.put("issueType", issue.getIssueType());
+        fields.put("assigneeId", issue.getAssignee() != null ? issue.getAssignee().getId() : null);
+        fields.put("sprintId", issue.getSprint() != null ? issue.getSprint().getId() : null);
+        fields.put("parentId", issue.getParent() != null ? issue.getParent().getId() : null);
+        fields.put("storyPoints", issue.getStoryPoints());
+        fields.put("startDate", issue.getStartDate());
+        fields.put("dueDate", issue.getDueDate());
+        return fields;
+    }
+
+    private static Map<String, Object> changedFields(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        after.forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        return changed;
+    }
+
     private String generateIssueKey(Project project) {
         // Get the next issue number for this project by finding the highest existing number
         Optional<Integer> maxNumber = issueRepository.findMaxIssueNumberByProject(project.getId(), project.getKey());
@@ -0,0 +1,213 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.request.AttachmentMeta;
+import com.example.backend.entity.Message;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.service.MessageService.MessageDraft;
+import com.example.backend.service.MessageService.SendResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for chat sends. Sends are queued and a single flusher thread commits them in batches:
+ * a batch closes after {@code maxBatch} messages or {@code windowMs} after its first message, whichever
+ * comes first, and is written by {@link MessageService#sendMessages} in one transaction. Senders are
+ * acknowledged and MessageSentEvents published in arrival order, so broadcasts for a chat keep the order
+ * in which its messages were accepted. That order is per node: created_at comes from a per-JVM clock in
+ * {@link MessageService}, so sends accepted by different nodes are ordered by their nodes' clocks.
+ * <p>
+ * A send that times out may still be committed by its batch later. Clients pass a clientMessageId and
+ * reuse it when retrying; a draft whose key is already stored returns the stored message instead of
+ * creating a second one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageIngestionService {
+
+    private final MessageService messageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.ingestion.window-ms:5}")
+    private long windowMs;
+    @Value("${app.chat.ingestion.max-batch:64}")
+    private int maxBatch;
+    @Value("${app.chat.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${app.chat.ingestion.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    private BlockingQueue<PendingSend> queue;
+    private Thread flusher;
+    private volatile boolean running = true;
+
+    private Counter rejectedCounter;
+    private Counter fallbackCounter;
+    private DistributionSummary batchSizeSummary;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        rejectedCounter = meterRegistry.counter("chat.ingestion.rejected");
+        fallbackCounter = meterRegistry.counter("chat.ingestion.fallback");
+        batchSizeSummary = meterRegistry.summary("chat.ingestion.batch.size");
+        batchTimer = meterRegistry.timer("chat.ingestion.batch");
+        Gauge.builder("chat.ingestion.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        flusher = Thread.ofPlatform()
+                .name("chat-ingestion")
+                .daemon(true)
+                .start(this::run);
+        log.info("Chat ingestion started with window {} ms, max batch {}", windowMs, maxBatch);
+    }
+
+    // Not interrupted: the flusher commits what is already queued and exits once the queue is empty
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queue a message; the future completes once its batch is committed.
+     */
+    public CompletableFuture<Message> submit(MessageDraft draft) {
+        PendingSend send = new PendingSend(draft, new CompletableFuture<>());
+        if (!running || !queue.offer(send)) {
+            rejectedCounter.increment();
+            send.result().completeExceptionally(new AppException(ErrorCode.RATE_LIMITED));
+        }
+        return send.result();
+    }
+
+    /**
+     * Queue a message and wait for its batch to commit. On timeout the draft stays queued; a retry with the
+     * same {@code clientMessageId} returns that message once it is committed.
+     */
+    public Message send(UUID senderId, UUID chatId, UUID parentId, String content, List<AttachmentMeta> attachments,
+                        UUID clientMessageId) {
+        try {
+            return submit(new MessageDraft(senderId, chatId, parentId, content, attachments, clientMessageId))
+                    .get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AppException appException) {
+                throw appException;
+            }
+            log.error("Failed to send message to chat {}: {}", chatId, e.getCause().getMessage());
+            throw new AppException(ErrorCode.CREATION_FAILED);
+        } catch (TimeoutException e) {
+            log.error("Timed out waiting for message to chat {} to commit", chatId);
+            throw new AppException(ErrorCode.CREATION_FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.CREATION_FAILED);
+        }
+    }
+
+    private void run() {
+        List<PendingSend> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatch) {
+                    // Take whatever is already queued; only wait while the queue is empty
+                    if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingSend next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Chat ingestion flusher error: {}", e.getMessage());
+            } finally {
+                batch.forEach(send -> send.result().completeExceptionally(new AppException(ErrorCode.CREATION_FAILED)));
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingSend> batch) {
+        List<MessageDraft> drafts = batch.stream().map(PendingSend::draft).toList();
+        long start = System.nanoTime();
+        List<SendResult> results;
+        try {
+            results = messageService.sendMessages(drafts);
+        } catch (Exception e) {
+            // One bad row must not fail its neighbours: retry each message in its own transaction
+            log.warn("Group commit of {} messages failed, retrying one by one: {}", batch.size(), e.getMessage());
+            fallbackCounter.increment();
+            results = new ArrayList<>(batch.size());
+            for (MessageDraft draft : drafts) {
+                try {
+                    results.add(messageService.sendMessages(List.of(draft)).getFirst());
+                } catch (Exception single) {
+                    // A retry racing its original on another batch or node hits the unique key: answer with the stored one
+                    Message stored = draft.clientMessageId() != null ? findSent(draft) : null;
+                    if (stored != null) {
+                        results.add(new SendResult(stored, null));
+                        continue;
+                    }
+                    log.error("Failed to send message to chat {}: {}", draft.chatId(), single.getMessage());
+                    results.add(new SendResult(null, new AppException(ErrorCode.CREATION_FAILED)));
+                }
+            }
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            SendResult result = results.get(i);
+            if (result.error() != null) {
+                batch.get(i).result().completeExceptionally(result.error());
+            } else {
+                batch.get(i).result().complete(result.message());
+            }
+        }
+    }
+
+    private Message findSent(MessageDraft draft) {
+        try {
+            return messageService.findSent(List.of(draft)).get(List.of(draft.senderId(), draft.clientMessageId()));
+        } catch (Exception e) {
+            log.warn("Lookup of message {} from {} failed: {}", draft.clientMessageId(), draft.senderId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private record PendingSend(MessageDraft draft, CompletableFuture<Message> result) {
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.websocket.ChatMessage;
 import com.example.backend.entity.Chat;
 import com.example.backend.entity.Message;
 import com.example.backend.entity.User;
 import com.example.backend.entity.Attachment;
+import com.example.backend.event.MessageSentEvent;
 import com.example.backend.exception.AppException;
 import com.example.backend.exception.ErrorCode;
 import com.example.backend.repository.*;
 import com.example.backend.dto.request.AttachmentMeta;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -17,10 +24,18 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import com.example.backend.entity.Project;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -31,85 +46,192 @@ public class MessageService {
     MessageRepository messageRepository;
     ChatRepository chatRepository;
     AttachmentRepository attachmentRepository;
-    NotificationService notificationService;
     ProjectMemberRepository projectMemberRepository;
     ProjectRepository projectRepository;
+    ChatReadCursorRepository chatReadCursorRepository;
+    ChatProjectCache chatProjectCache;
+    ApplicationEventPublisher eventPublisher;
+    EntityManager entityManager;
+
+    AtomicReference<OffsetDateTime> lastCreatedAt = new AtomicReference<>();
+
+    // Một tin nhắn chờ ghi, do MessageIngestionService gom thành batch. clientMessageId (có thể null) là khóa
+    // idempotency của client: draft trùng khóa với tin đã lưu hoặc với draft trước trong cùng batch không tạo tin mới
+    public record MessageDraft(UUID senderId, UUID chatId, UUID parentId, String content, List<AttachmentMeta> attachments,
+                               UUID clientMessageId) {
+    }
 
+    // Tin nhắn của một draft, hoặc lỗi của riêng draft đó (các draft khác trong batch vẫn được lưu)
+    public record SendResult(Message message, AppException error) {
+    }
+
+    @Transactional
     public Message sendMessage(UUID senderId, UUID chatId, String content, List<AttachmentMeta> attachments) {
-        User sender = userRepository.findById(senderId).orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
-        Chat chat = chatRepository.findById(chatId).orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
-        Message message = new Message();
-        message.setSender(sender);
-        message.setChat(chat);
-        message.setContent(content);
-        message.setCreatedAt(OffsetDateTime.now());
-        Message savedMessage = messageRepository.save(message);
-
-        // Save attachments if provided
-        if (attachments != null && !attachments.isEmpty()) {
-            // Get project from chat
-            var projectOpt = projectRepository.findByChatId(chatId);
-            Project project = null;
-            if (projectOpt.isPresent()) {
-                project = projectOpt.get();
+        SendResult result = sendMessages(List.of(new MessageDraft(senderId, chatId, null, content, attachments, null))).getFirst();
+        if (result.error() != null) {
+            throw result.error();
+        }
+        return result.message();
+    }
+
+    // Lưu cả batch trong một transaction: user/chat lấy bằng một query mỗi loại, project từ ChatProjectCache, message và attachment
+    // ghi bằng JDBC batch, counter và read cursor cập nhật một lần cho mỗi chat / người gửi. Không đụng tới lịch sử
+    // chat nên thời gian gửi không tăng theo số tin nhắn. Event được phát theo đúng thứ tự drafts, chạy sau commit.
+    @Transactional
+    public List<SendResult> sendMessages(List<MessageDraft> drafts) {
+        Map<UUID, User> senders = userRepository.findAllById(drafts.stream().map(MessageDraft::senderId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<UUID> chatIds = drafts.stream().map(MessageDraft::chatId).collect(Collectors.toSet());
+        Map<UUID, Chat> chats = chatRepository.findAllById(chatIds)
+                .stream().collect(Collectors.toMap(Chat::getId, Function.identity()));
+        Map<UUID, ChatProjectCache.ProjectRef> projects = chatProjectCache.getAll(chatIds);
+        Set<UUID> parentIds = drafts.stream().map(MessageDraft::parentId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<UUID, Object[]> parents = new HashMap<>();
+        if (!parentIds.isEmpty()) {
+            for (Object[] row : messageRepository.findThreadInfoByIds(parentIds)) {
+                parents.put((UUID) row[0], row);
+            }
+        }
+
+        Map<List<UUID>, Message> sent = findSent(drafts);
+
+        List<SendResult> results = new ArrayList<>(drafts.size());
+        List<Message> messages = new ArrayList<>(drafts.size());
+        List<Attachment> attachments = new ArrayList<>();
+        for (MessageDraft draft : drafts) {
+            // Gửi lại sau timeout: trả tin đã lưu, không ghi, không tăng counter, không phát event lần nữa
+            Message existing = draft.clientMessageId() != null
+                    ? sent.get(List.of(draft.senderId(), draft.clientMessageId())) : null;
+            if (existing != null) {
+                results.add(new SendResult(existing, null));
+                continue;
+            }
+            User sender = senders.get(draft.senderId());
+            Chat chat = chats.get(draft.chatId());
+            if (sender == null || chat == null) {
+                results.add(new SendResult(null, new AppException(ErrorCode.NOT_FOUND)));
+                continue;
             }
-            
-            for (AttachmentMeta meta : attachments) {
-                Attachment att = Attachment.builder()
-                        .message(savedMessage)
-                        .fileName(meta.getFileName())
-                        .fileType(meta.getFileType())
-                        .fileSize(meta.getFileSize())
-                        .filePath(meta.getFilePath())
-                        .uploader(sender)
-                        .project(project) // Add project reference
-                        .build();
-                attachmentRepository.save(att);
+            UUID parentId = null;
+            if (draft.parentId() != null) {
+                Object[] parent = parents.get(draft.parentId());
+                if (parent == null || !draft.chatId().equals(parent[1])) {
+                    results.add(new SendResult(null, new AppException(parent == null ? ErrorCode.NOT_FOUND : ErrorCode.BAD_REQUEST)));
+                    continue;
+                }
+                // Thread chỉ có một cấp: trả lời một reply thì gắn vào tin gốc của reply đó
+                parentId = parent[2] != null ? (UUID) parent[2] : draft.parentId();
             }
+            Message message = new Message();
+            message.setSender(sender);
+            message.setChat(chat);
+            message.setContent(draft.content());
+            message.setParentId(parentId);
+            message.setClientMessageId(draft.clientMessageId());
+            message.setCreatedAt(nextCreatedAt());
+            messages.add(message);
+            results.add(new SendResult(message, null));
+            if (draft.clientMessageId() != null) {
+                sent.put(List.of(draft.senderId(), draft.clientMessageId()), message);
+            }
+
+            if (draft.attachments() != null) {
+                ChatProjectCache.ProjectRef project = projects.get(draft.chatId());
+                for (AttachmentMeta meta : draft.attachments()) {
+                    Attachment attachment = Attachment.builder()
+                            .message(message)
+                            .fileName(meta.getFileName())
+                            .fileType(meta.getFileType())
+                            .fileSize(meta.getFileSize())
+                            .filePath(meta.getFilePath())
+                            .uploader(sender)
+                            .project(project != null ? projectRepository.getReferenceById(project.projectId()) : null)
+                            .build();
+                    message.getAttachments().add(attachment);
+                    attachments.add(attachment);
+                }
+            }
+        }
+        if (messages.isEmpty()) {
+            return results;
+        }
+
+        // Cả batch đi trong một lần executeBatch thay vì chia theo hibernate.jdbc.batch_size
+        entityManager.unwrap(Session.class).setJdbcBatchSize(Math.max(messages.size(), attachments.size()));
+        messageRepository.saveAll(messages);
+        attachmentRepository.saveAll(attachments);
+
+        Map<UUID, List<Message>> byChat = messages.stream()
+                .collect(Collectors.groupingBy(message -> message.getChat().getId(), LinkedHashMap::new, Collectors.toList()));
+        byChat.forEach((chatId, chatMessages) ->
+                chatRepository.recordMessagesSent(chatId, chatMessages.size(), chatMessages.getLast().getCreatedAt()));
+
+        // Người gửi đã "đọc" tin nhắn của chính mình, nên badge của họ không tăng; chỉ cần tin cuối của mỗi người
+        Map<List<UUID>, UUID> lastBySender = new LinkedHashMap<>();
+        for (Message message : messages) {
+            lastBySender.put(List.of(message.getChat().getId(), message.getSender().getId()), message.getId());
         }
+        lastBySender.forEach((key, messageId) -> chatReadCursorRepository.advance(key.get(0), key.get(1), messageId));
 
-        chat.getMessages().add(savedMessage);
-        chatRepository.save(chat);
-
-        // Gửi notification cho tất cả thành viên project (trừ người gửi) - async để không block
-        try {
-            var projectOpt = projectRepository.findByChatId(chatId);
-            if (projectOpt.isPresent()) {
-                var project = projectOpt.get();
-                // Gọi async để không block việc gửi message
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        notificationService.notifyNewChatMessage(
-                                project.getId(),
-                                sender.getName(),
-                                project.getName(),
-                                senderId
-                        );
-                    } catch (Exception e) {
-                        log.warn("Failed to notify chat message async: {}", e.getMessage());
+        // Mỗi tin gốc cộng reply_count một lần cho cả batch; từng reply mang reply_count sau khi nó được thêm,
+        // để client chỉ cần gán giá trị (không cộng dồn) kể cả khi nhận lại frame cũ
+        Map<UUID, Integer> parentReplyCounts = new HashMap<>();
+        messages.stream()
+                .filter(message -> message.getParentId() != null)
+                .collect(Collectors.groupingBy(Message::getParentId, LinkedHashMap::new, Collectors.toList()))
+                .forEach((parentId, replies) -> {
+                    Integer total = messageRepository.recordRepliesSent(parentId, replies.size(), replies.getLast().getCreatedAt());
+                    int count = (total != null ? total : replies.size()) - replies.size();
+                    for (Message reply : replies) {
+                        parentReplyCounts.put(reply.getId(), ++count);
                     }
                 });
-            }
-        } catch (Exception e) {
-            log.warn("Failed to get project for chat notification: {}", e.getMessage());
+
+        // Broadcast + notification cho thành viên project (trừ người gửi) chạy sau commit, không block
+        for (Message message : messages) {
+            ChatProjectCache.ProjectRef project = projects.get(message.getChat().getId());
+            eventPublisher.publishEvent(new MessageSentEvent(
+                    message.getChat().getId(),
+                    project != null ? project.projectId() : null,
+                    project != null ? project.projectName() : null,
+                    message.getSender().getId(),
+                    message.getSender().getName(),
+                    ChatMessage.from(message, "CREATE").toBuilder()
+                            .parentReplyCount(parentReplyCounts.get(message.getId()))
+                            .build(),
+                    OffsetDateTime.now()
+            ));
         }
+        return results;
+    }
+
+    /**
+     * Messages already stored for the drafts' idempotency keys, keyed by (senderId, clientMessageId).
+     */
+    public Map<List<UUID>, Message> findSent(List<MessageDraft> drafts) {
+        Map<List<UUID>, Message> sent = new HashMap<>();
+        Set<UUID> keys = drafts.stream().map(MessageDraft::clientMessageId).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return sent;
+        }
+        Set<UUID> senderIds = drafts.stream().map(MessageDraft::senderId).collect(Collectors.toSet());
+        for (Message message : messageRepository.findByClientMessageIds(senderIds, keys)) {
+            sent.put(List.of(message.getSender().getId(), message.getClientMessageId()), message);
+        }
+        return sent;
+    }
 
-//        // Gửi notification cho các thành viên khác trong chat (trừ người gửi)
-//        List<User> chatMembers = chat.getProject().getProjectMembers().stream()
-//                .map(projectMember -> projectMember.getUser())
-//                .filter(user -> !user.getId().equals(senderId))
-//                .toList();
-//
-//        for (User member : chatMembers) {
-//            notificationService.notifyNewChatMessage(
-//                member.getId(),
-//                sender.getName(),
-//                chat.getProject().getName(),
-//                chatId
-//            );
-//        }
-//
-        return savedMessage;
+    // created_at tăng nghiêm ngặt theo thứ tự nhận (độ phân giải micro giây của Postgres), để thứ tự
+    // (created_at, id) trong một chat luôn khớp với thứ tự gửi, kể cả khi nhiều tin cùng một batch.
+    // Giới hạn: lastCreatedAt nằm trong bộ nhớ của từng JVM. Khi chạy nhiều node, thứ tự chỉ chặt chẽ cho các tin
+    // nhận trên cùng một node; tin gửi gần như đồng thời qua hai node được sắp theo đồng hồ của từng node (lệch
+    // đồng hồ giữa các node có thể đảo thứ tự), và hai node có thể sinh cùng created_at (id phân xử).
+    // (created_at, id) vẫn là thứ tự toàn phần, nên phân trang keyset và resume không mất hay lặp tin.
+    private OffsetDateTime nextCreatedAt() {
+        return lastCreatedAt.updateAndGet(last -> {
+            OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            return last == null || now.isAfter(last) ? now : last.plus(1, ChronoUnit.MICROS);
+        });
     }
 
     public List<Message> getMessagesByChatId(UUID chatId) {
@@ -0,0 +1,175 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.request.NotificationPreferenceRequest;
+import com.example.backend.dto.response.NotificationPreferenceResponse;
+import com.example.backend.entity.NotificationPreference;
+import com.example.backend.entity.NotificationPreference.Channel;
+import com.example.backend.entity.NotificationPreference.EventType;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.repository.NotificationPreferenceRepository;
+import com.example.backend.repository.ProjectMemberRepository;
+import com.example.backend.repository.ProjectRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationPreferenceService {
+
+    NotificationPreferenceRepository notificationPreferenceRepository;
+    ProjectRepository projectRepository;
+    ProjectMemberRepository projectMemberRepository;
+
+    // Thay đổi lưu ở instance khác chỉ được thấy sau khi entry hết hạn, nên TTL là độ trễ tối đa của một opt-out
+    @NonFinal
+    @Value("${app.notification.preference-cache.ttl-seconds:60}")
+    long ttlSeconds;
+
+    @NonFinal
+    @Value("${app.notification.preference-cache.max-size:100000}")
+    long maxSize;
+
+    // userId -> mask đã load; user không có dòng nào vẫn được cache (dùng DEFAULT_MASK)
+    @NonFinal
+    Cache<UUID, UserMasks> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Trả về mask hiệu lực cho từng user trong một project; chỉ query DB cho các user chưa có trong cache
+     */
+    public Map<UUID, Integer> resolveMasks(Collection<UUID> userIds, UUID projectId) {
+        Map<UUID, UserMasks> loaded = cache.getAll(new LinkedHashSet<>(userIds), this::load);
+
+        Map<UUID, Integer> masks = new HashMap<>();
+        for (UUID userId : userIds) {
+            masks.put(userId, loaded.getOrDefault(userId, UserMasks.EMPTY).maskFor(projectId));
+        }
+        return masks;
+    }
+
+    public List<NotificationPreferenceResponse> getPreferences(UUID userId) {
+        UserMasks masks = resolveUser(userId);
+        List<NotificationPreferenceResponse> responses = new ArrayList<>();
+        responses.add(toResponse(null, masks.defaultMask()));
+        masks.projectMasks().forEach((projectId, mask) -> responses.add(toResponse(projectId, mask)));
+        return responses;
+    }
+
+    public NotificationPreferenceResponse updatePreference(UUID userId, NotificationPreferenceRequest request) {
+        Channel channel;
+        EventType type;
+        try {
+            channel = Channel.valueOf(request.getChannel().toUpperCase());
+            type = EventType.valueOf(request.getType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+
+        UUID projectId = request.getProjectId();
+        if (projectId != null) {
+            if (!projectRepository.existsById(projectId)) {
+                throw new AppException(ErrorCode.NOT_FOUND);
+            }
+            if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, userId)) {
+                throw new AppException(ErrorCode.FORBIDDEN);
+            }
+        }
+        Optional<NotificationPreference> existing = projectId == null
+                ? notificationPreferenceRepository.findByUserIdAndProjectIdIsNull(userId)
+                : notificationPreferenceRepository.findByUserIdAndProjectId(userId, projectId);
+
+        // Override theo project bắt đầu từ mask mặc định hiện tại của user
+        NotificationPreference preference = existing.orElseGet(() -> NotificationPreference.builder()
+                .userId(userId)
+                .projectId(projectId)
+                .enabledMask(resolveUser(userId).defaultMask())
+                .build());
+
+        int bit = NotificationPreference.bit(channel, type);
+        int mask = Boolean.TRUE.equals(request.getEnabled())
+                ? preference.getEnabledMask() | bit
+                : preference.getEnabledMask() & ~bit;
+        preference.setEnabledMask(mask);
+        notificationPreferenceRepository.save(preference);
+
+        cache.invalidate(userId);
+        log.info("Updated notification preference for user {} (project {}): {} {} = {}",
+                userId, projectId, channel, type, request.getEnabled());
+        return toResponse(projectId, mask);
+    }
+
+    private UserMasks resolveUser(UUID userId) {
+        return cache.get(userId, id -> load(Set.of(id)).get(id));
+    }
+
+    private Map<UUID, UserMasks> load(Set<? extends UUID> userIds) {
+        Map<UUID, Integer> defaults = new HashMap<>();
+        Map<UUID, Map<UUID, Integer>> overrides = new HashMap<>();
+        for (NotificationPreference preference : notificationPreferenceRepository.findByUserIdIn(List.copyOf(userIds))) {
+            if (preference.getProjectId() == null) {
+                defaults.put(preference.getUserId(), preference.getEnabledMask());
+            } else {
+                overrides.computeIfAbsent(preference.getUserId(), id -> new HashMap<>())
+                        .put(preference.getProjectId(), preference.getEnabledMask());
+            }
+        }
+        Map<UUID, UserMasks> masks = new HashMap<>();
+        for (UUID userId : userIds) {
+            masks.put(userId, new UserMasks(
+                    defaults.getOrDefault(userId, NotificationPreference.DEFAULT_MASK),
+                    Map.copyOf(overrides.getOrDefault(userId, Map.of()))));
+        }
+        return masks;
+    }
+
+    private NotificationPreferenceResponse toResponse(UUID projectId, int mask) {
+        Map<String, Map<String, Boolean>> settings = new LinkedHashMap<>();
+        for (Channel channel : Channel.values()) {
+            Map<String, Boolean> types = new LinkedHashMap<>();
+            for (EventType type : EventType.values()) {
+                types.put(type.name(), NotificationPreference.isEnabled(mask, channel, type));
+            }
+            settings.put(channel.name(), types);
+        }
+        return NotificationPreferenceResponse.builder()
+                .projectId(projectId)
+                .enabledMask(mask)
+                .settings(settings)
+                .build();
+    }
+
+    private record UserMasks(int defaultMask, Map<UUID, Integer> projectMasks) {
+        static final UserMasks EMPTY = new UserMasks(NotificationPreference.DEFAULT_MASK, Map.of());
+
+        int maskFor(UUID projectId) {
+            if (projectId != null) {
+                Integer override = projectMasks.get(projectId);
+                if (override != null) {
+                    return override;
+                }
+            }
+            return defaultMask;
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.request.NotificationCreationRequest;
+import com.example.backend.entity.Issue;
 import com.example.backend.entity.Notification;
+import com.example.backend.entity.NotificationPreference;
+import com.example.backend.entity.NotificationPreference.Channel;
+import com.example.backend.entity.NotificationPreference.EventType;
 import com.example.backend.entity.NotificationRecipient;
 import com.example.backend.entity.User;
+import com.example.backend.event.NotificationCreatedEvent;
 import com.example.backend.repository.NotificationRecipientRepository;
 import com.example.backend.repository.NotificationRepository;
 import com.example.backend.repository.IssueRepository;
 import com.example.backend.repository.ProjectMemberRepository;
+import com.example.backend.repository.UserRepository;
 import com.example.backend.utils.JwtUtils;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -30,19 +39,41 @@ public class NotificationService {
 
     NotificationRepository notificationRepository;
     NotificationRecipientRepository notificationRecipientRepository;
-    WebSocketService webSocketService;
     EmailService emailService;
-    UserService userService;
+    UserRepository userRepository;
+    NotificationPreferenceService notificationPreferenceService;
     IssueRepository issueRepository;
     ProjectMemberRepository projectMemberRepository;
+    ApplicationEventPublisher eventPublisher;
 
     /**
-     * Tạo notification cho nhiều user và gửi real-time + email
+     * Tạo notification cho nhiều user; real-time và email được gửi sau khi transaction commit
+     * (NotificationCreatedEvent), nên người nhận không bao giờ thấy notification chưa được lưu
      */
     @Transactional
     public Notification createNotification(NotificationCreationRequest request) {
         log.info("Creating notification for {} users", request.getUserIds().size());
 
+        // 0. Lọc người nhận theo tùy chọn (mask đã cache) trước khi ghi bất kỳ dòng nào
+        EventType eventType = EventType.from(request.getType());
+        Map<UUID, Integer> masks = notificationPreferenceService.resolveMasks(request.getUserIds(), request.getProjectId());
+        List<UUID> inAppUserIds = new ArrayList<>();
+        List<UUID> emailUserIds = new ArrayList<>();
+        for (UUID userId : new LinkedHashSet<>(request.getUserIds())) {
+            int mask = masks.get(userId);
+            if (NotificationPreference.isEnabled(mask, Channel.IN_APP, eventType)) {
+                inAppUserIds.add(userId);
+            }
+            if (NotificationPreference.isEnabled(mask, Channel.EMAIL, eventType)) {
+                emailUserIds.add(userId);
+            }
+        }
+
+        if (inAppUserIds.isEmpty() && emailUserIds.isEmpty()) {
+            log.info("All recipients opted out of {} notifications, skipping", eventType);
+            return null;
+        }
+
         // 1. Tạo notification chính
         Notification unsavedNotification = Notification.builder()
                 .title(request.getTitle())
@@ -57,8 +88,9 @@ public class NotificationService {
 
         Notification notification = notificationRepository.save(unsavedNotification);
 
-        // 2. Tạo NotificationRecipient cho từng user
-        List<NotificationRecipient> recipients = request.getUserIds().stream()
+        // 2. Tạo NotificationRecipient chỉ cho user bật kênh IN_APP - user chỉ bật EMAIL không thấy
+        // notification trong danh sách / số chưa đọc
+        List<NotificationRecipient> recipients = inAppUserIds.stream()
                 .map(userId -> NotificationRecipient.builder()
                         .notification(notification)
                         .user(User.builder().id(userId).build())
@@ -69,26 +101,32 @@ public class NotificationService {
 
         notificationRecipientRepository.saveAll(recipients);
 
-        recipients.forEach(recipient -> {
-            webSocketService.broadcastNotificationToUser(recipient);
-        });
-
-        // 4. Gửi email (async) cho từng user nếu không phải COMMENT hoặc CHAT
-        if (!"COMMENT".equalsIgnoreCase(notification.getType()) && !"CHAT".equalsIgnoreCase(notification.getType())) {
-            recipients.forEach(recipient -> {
-                sendNotificationEmailAsync(recipient);
-            });
-        }
+        // 3. Real-time cho user bật kênh IN_APP và email cho user bật kênh EMAIL: sau commit
+        Map<UUID, UUID> recipientIds = recipients.stream()
+                .collect(Collectors.toMap(recipient -> recipient.getUser().getId(), NotificationRecipient::getId));
+        eventPublisher.publishEvent(new NotificationCreatedEvent(notification, inAppUserIds, emailUserIds, recipientIds));
 
         return notification;
     }
 
-    /** No state kept in service; controller should use returned Notification. */
+    /**
+     * Gửi email cho user bật kênh EMAIL - load email của tất cả người nhận bằng một query.
+     * is_email_sent chỉ được đánh dấu khi user cũng có dòng recipient (bật IN_APP)
+     */
+    public void sendNotificationEmails(NotificationCreatedEvent event) {
+        if (event.emailUserIds().isEmpty()) {
+            return;
+        }
+        userRepository.findAllById(event.emailUserIds()).stream()
+                .filter(user -> user.getEmail() != null)
+                .forEach(user -> sendNotificationEmailAsync(event.notification(), user.getEmail(),
+                        event.recipientIds().get(user.getId())));
+    }
 
     /**
      * Tạo notification cho issue được assign
      */
-    public void notifyIssueAssigned(UUID assigneeId, String issueTitle, UUID issueId, String projectName) {
+    public void notifyIssueAssigned(UUID assigneeId, String issueTitle, UUID issueId, UUID projectId, String projectName) {
         NotificationCreationRequest request = NotificationCreationRequest.builder()
                 .userIds(List.of(assigneeId))
                 .title("Issue được giao")
@@ -98,6 +136,7 @@ public class NotificationService {
                 .entityType("ISSUE")
                 .entityId(issueId)
                 .priority("NORMAL")
+                .projectId(projectId)
                 .build();
 
         createNotification(request);
@@ -106,7 +145,7 @@ public class NotificationService {
     /**
      * Tạo notification cho issue status thay đổi
      */
-    public void notifyIssueStatusChanged(UUID assigneeId, String issueTitle, String oldStatus, String newStatus, UUID issueId) {
+    public void notifyIssueStatusChanged(UUID assigneeId, String issueTitle, String oldStatus, String newStatus, UUID issueId, UUID projectId) {
         NotificationCreationRequest request = NotificationCreationRequest.builder()
                 .userIds(List.of(assigneeId))
                 .title("Trạng thái issue thay đổi")
@@ -116,6 +155,7 @@ public class NotificationService {
                 .entityType("ISSUE")
                 .entityId(issueId)
                 .priority("NORMAL")
+                .projectId(projectId)
                 .build();
 
         createNotification(request);
@@ -125,8 +165,13 @@ public class NotificationService {
      * Tạo notification cho comment mới - thông báo cho assignee, reporter và các user đã comment
      */
     public void notifyNewComment(UUID issueId, String commenterName, String issueTitle, UUID currentUserId) {
+        var optionalIssue = issueRepository.findById(issueId);
+        if (optionalIssue.isEmpty()) {
+            return;
+        }
+
         // Lấy danh sách user cần thông báo (assignee + reporter, bỏ người đang comment)
-        List<UUID> recipients = getCommentNotificationRecipients(issueId, currentUserId);
+        List<UUID> recipients = getCommentNotificationRecipients(optionalIssue.get(), currentUserId);
         
         if (recipients.isEmpty()) {
             return;
@@ -142,31 +187,7 @@ public class NotificationService {
                 .entityId(issueId)
                 .priority("LOW")
                 .createdBy(currentUserId)
-                .build();
-
-        createNotification(request);
-    }
-
-    /**
-     * Tạo notification cho chat message mới - thông báo cho tất cả member trong project
-     */
-    public void notifyNewChatMessage(UUID projectId, String senderName, String projectName, UUID currentUserId) {
-        // Lấy danh sách member trong project (trừ người gửi)
-        List<UUID> recipients = getProjectMemberIds(projectId, currentUserId);
-        
-        if (recipients.isEmpty()) {
-            return;
-        }
-
-        NotificationCreationRequest request = NotificationCreationRequest.builder()
-                .userIds(recipients)
-                .title("Tin nhắn mới")
-                .content(String.format("%s đã gửi tin nhắn trong dự án %s", senderName, projectName))
-                .link(String.format("/projects/%s/chat", projectId))
-                .type("CHAT")
-                .entityType("CHAT")
-                .entityId(projectId)
-                .priority("LOW")
+                .projectId(optionalIssue.get().getProject().getId())
                 .build();
 
         createNotification(request);
@@ -175,12 +196,9 @@ public class NotificationService {
     /**
      * Lấy danh sách user cần thông báo khi có comment mới
      */
-    private List<UUID> getCommentNotificationRecipients(UUID issueId, UUID currentUserId) {
+    private List<UUID> getCommentNotificationRecipients(Issue issue, UUID currentUserId) {
         try {
             // Lấy assignee và reporter từ Issue, thêm vào danh sách
-            var optionalIssue = issueRepository.findById(issueId);
-            if (optionalIssue.isEmpty()) return List.of();
-            var issue = optionalIssue.get();
             java.util.Set<UUID> ids = new java.util.HashSet<>();
             if (issue.getAssignee() != null) ids.add(issue.getAssignee().getId());
             if (issue.getReporter() != null) ids.add(issue.getReporter().getId());
@@ -232,6 +250,7 @@ public class NotificationService {
                 .entityType("SPRINT")
                 .entityId(projectId)
                 .priority("NORMAL")
+                .projectId(projectId)
                 .build();
 
         createNotification(request);
@@ -266,24 +285,18 @@ public class NotificationService {
     }
 
     /**
-     * Gửi email notification (async)
+     * Gửi email notification qua hàng đợi SMTP; đánh dấu đã gửi khi server nhận email
      */
-    @Async
-    public CompletableFuture<Void> sendNotificationEmailAsync(NotificationRecipient recipient) {
+    public CompletableFuture<Void> sendNotificationEmailAsync(Notification notification, String email, UUID recipientId) {
         try {
-            User user = userService.getUserEntity(recipient.getUser().getId());
-            if (user != null && user.getEmail() != null) {
-                emailService.sendNotificationEmail(user.getEmail(), recipient);
-                
-                // Update trạng thái đã gửi email
-                recipient.setIsEmailSent(true);
-                notificationRecipientRepository.save(recipient);
-                
-                log.info("Notification email sent successfully to: {}", user.getEmail());
+            CompletableFuture<Void> sent = emailService.sendNotificationEmail(email, notification);
+            if (recipientId != null) {
+                sent = sent.thenRun(() -> notificationRecipientRepository.markEmailAsSent(recipientId));
             }
+            return sent.exceptionally(e -> null);
         } catch (Exception e) {
             log.error("Failed to send notification email: {}", e.getMessage());
+            return CompletableFuture.completedFuture(null);
         }
-        return CompletableFuture.completedFuture(null);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,280 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.websocket.NotificationMessage;
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.NotificationRecipient;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.repository.NotificationRecipientRepository;
+import com.example.backend.repository.NotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events fallback for clients that cannot keep a WebSocket open. An open stream is an
+ * async servlet request, so idle clients hold no thread; writes run on virtual threads, serialized per
+ * connection. Notifications reach the registry from the same local delivery path as
+ * /user/queue/notifications, so both transports see the same events. The SSE event id is the
+ * notification id, and {@code Last-Event-ID} replays from the database everything after that notification
+ * in (created_at, id) order, so notifications sharing its timestamp are neither repeated nor skipped.
+ * {@code maxConnections} is kept below Tomcat's {@code server.tomcat.max-connections}, leaving
+ * connections for WebSocket and REST traffic.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+    private static final String USER_PREFIX = "/user/";
+    private static final String NOTIFICATION_QUEUE = "/queue/notifications";
+
+    private final NotificationRecipientRepository notificationRecipientRepository;
+    private final NotificationRepository notificationRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    @Value("${app.notifications.stream.heartbeat-ms:25000}")
+    private long heartbeatMs;
+    @Value("${app.notifications.stream.reconnect-ms:5000}")
+    private long reconnectMs;
+    @Value("${app.notifications.stream.max-connections:20000}")
+    private int maxConnections;
+    @Value("${server.tomcat.max-connections:8192}")
+    private int serverMaxConnections;
+    @Value("${app.notifications.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+    @Value("${app.notifications.stream.max-pending-events:100}")
+    private int maxPendingEvents;
+    @Value("${app.notifications.stream.resume-limit:100}")
+    private int resumeLimit;
+
+    public NotificationStreamService(NotificationRecipientRepository notificationRecipientRepository,
+                                     NotificationRepository notificationRepository,
+                                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.notificationRecipientRepository = notificationRecipientRepository;
+        this.notificationRepository = notificationRepository;
+        this.objectMapper = objectMapper;
+        Gauge.builder("notifications.stream.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (maxConnections >= serverMaxConnections) {
+            int capped = serverMaxConnections * 2 / 3;
+            log.warn("app.notifications.stream.max-connections={} is not below server.tomcat.max-connections={}, using {}",
+                    maxConnections, serverMaxConnections, capped);
+            maxConnections = capped;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(set -> set.forEach(connection -> connection.emitter.complete()));
+        writers.shutdown();
+    }
+
+    /**
+     * Opens a stream for the user. The stream ends at {@code tokenExpiresAt} at the latest; the client
+     * reconnects with a fresh token and its Last-Event-ID.
+     */
+    public SseEmitter open(UUID userId, String lastEventId, Instant tokenExpiresAt) {
+        if (connectionCount.get() >= maxConnections) {
+            throw new AppException(ErrorCode.RATE_LIMITED);
+        }
+        long timeout = timeoutMs;
+        if (tokenExpiresAt != null) {
+            timeout = Math.max(1000, Math.min(timeout, tokenExpiresAt.toEpochMilli() - System.currentTimeMillis()));
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout);
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> {
+            remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(connection));
+
+        Set<Connection> userConnections = connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+        if (userConnections.size() >= maxConnectionsPerUser) {
+            // Oldest tab loses; it reconnects on its own if it is still open
+            userConnections.stream().min((a, b) -> Long.compare(a.openedAt, b.openedAt))
+                    .ifPresent(oldest -> oldest.emitter.complete());
+        }
+        userConnections.add(connection);
+        connectionCount.incrementAndGet();
+
+        connection.enqueue(SseEmitter.event().comment("connected").reconnectTime(reconnectMs));
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            resume(connection, lastEventId);
+        }
+        return emitter;
+    }
+
+    /**
+     * Called for every locally delivered broker message; only /user/{id}/queue/notifications is streamed.
+     */
+    public void publish(String destination, byte[] json) {
+        if (!destination.startsWith(USER_PREFIX) || !destination.endsWith(NOTIFICATION_QUEUE)) {
+            return;
+        }
+        UUID userId;
+        try {
+            userId = UUID.fromString(destination.substring(USER_PREFIX.length(), destination.length() - NOTIFICATION_QUEUE.length()));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+        String data = new String(json, StandardCharsets.UTF_8);
+        String eventId;
+        try {
+            eventId = objectMapper.readTree(json).path("notificationId").asText(null);
+        } catch (IOException e) {
+            eventId = null;
+        }
+        for (Connection connection : userConnections) {
+            connection.enqueue(notificationEvent(eventId, data));
+        }
+    }
+
+    // Only connections that have been quiet for a heartbeat interval get a comment line
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long idleSince = System.currentTimeMillis() - heartbeatMs;
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                if (connection.lastSentAt < idleSince) {
+                    connection.enqueue(SseEmitter.event().comment("hb"));
+                }
+            }
+        }
+    }
+
+    private void resume(Connection connection, String lastEventId) {
+        Notification last;
+        try {
+            last = notificationRepository.findById(UUID.fromString(lastEventId)).orElse(null);
+        } catch (IllegalArgumentException e) {
+            last = null;
+        }
+        if (last == null) {
+            // Unknown resume point: the client reloads the list from GET /notifications
+            connection.enqueue(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        List<NotificationRecipient> missed = notificationRecipientRepository.findByUserIdAndNotificationAfter(
+                connection.userId, last.getCreatedAt(), last.getId(), PageRequest.of(0, resumeLimit + 1));
+        if (missed.size() > resumeLimit) {
+            connection.enqueue(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (NotificationRecipient recipient : missed) {
+            Notification notification = recipient.getNotification();
+            try {
+                String data = objectMapper.writeValueAsString(NotificationMessage.from(notification, "CREATE"));
+                connection.enqueue(notificationEvent(notification.getId().toString(), data));
+            } catch (IOException e) {
+                log.warn("Failed to encode notification {} for resume: {}", notification.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder notificationEvent(String id, String data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("notification").data(data, MediaType.APPLICATION_JSON);
+        return id != null ? event.id(id) : event;
+    }
+
+    private void remove(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Connection {
+        final UUID userId;
+        final SseEmitter emitter;
+        final long openedAt = System.currentTimeMillis();
+        final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        volatile long lastSentAt = System.currentTimeMillis();
+
+        Connection(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            // A client this far behind is stalled; closing makes it reconnect and resume from the database
+            if (pendingCount.incrementAndGet() > maxPendingEvents) {
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                    lastSentAt = System.currentTimeMillis();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports completion/error and the callbacks clean up
+                remove(this);
+            } finally {
+                draining.set(false);
+                if (!closed.get() && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                    writers.execute(this::drain);
+                }
+            }
+        }
+    }
+}
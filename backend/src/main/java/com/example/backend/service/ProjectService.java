@@ -31,6 +31,7 @@ import com.example.backend.repository.AttachmentRepository;
 public class ProjectService {
     ProjectRepository projectRepository;
     ChatService chatService;
+    ChatProjectCache chatProjectCache;
     ProjectMemberRepository projectMemberRepository;
     TeamService teamService;
     ProjectMapper projectMapper;
@@ -63,6 +64,7 @@ public class ProjectService {
         createdProject.setChat(chatProject);
 
         Project savedProject = projectRepository.save(createdProject);
+        chatProjectCache.put(savedProject);
 
         ProjectMember projectMember = new ProjectMember();
         projectMember.setProjectId(savedProject.getId());
@@ -121,6 +123,9 @@ public class ProjectService {
         
         // Delete the project (cascade will handle chat)
         projectRepository.deleteById(projectId);
+        if (project.getChat() != null) {
+            chatProjectCache.evict(project.getChat().getId());
+        }
     }
 
     public Project updateProject(Project updatedProject, UUID id) throws AppException {
@@ -148,6 +153,8 @@ public class ProjectService {
         project.setIsPublic(updatedProject.getIsPublic());
 
         Project savedProject = projectRepository.save(project);
+        // Project name goes into chat notifications
+        chatProjectCache.put(savedProject);
 
         return savedProject;
     }
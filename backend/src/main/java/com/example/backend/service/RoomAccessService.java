@@ -0,0 +1,51 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Issue;
+import com.example.backend.entity.Project;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.repository.IssueRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Access checks for real-time "rooms" (project:{id}, chat:{id}, issue:{id}): a user may join a room
+ * when they are a member of the project the room belongs to.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoomAccessService {
+
+    ProjectService projectService;
+    ChatProjectCache chatProjectCache;
+    IssueRepository issueRepository;
+
+    public boolean canAccess(UUID userId, String room) {
+        int colon = room.indexOf(':');
+        if (colon < 0) {
+            return false;
+        }
+        try {
+            UUID projectId = resolveProjectId(room.substring(0, colon), UUID.fromString(room.substring(colon + 1)));
+            return projectService.isUserProjectMember(projectId, userId);
+        } catch (AppException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public UUID resolveProjectId(String kind, UUID id) {
+        return switch (kind) {
+            case "project" -> id;
+            case "chat" -> chatProjectCache.get(id).map(ChatProjectCache.ProjectRef::projectId)
+                    .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
+            case "issue" -> issueRepository.findById(id).map(Issue::getProject).map(Project::getId)
+                    .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
+            default -> throw new AppException(ErrorCode.BAD_REQUEST);
+        };
+    }
+}
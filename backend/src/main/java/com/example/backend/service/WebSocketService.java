@@ -1,16 +1,19 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.websocket.ChatMessage;
+import com.example.backend.dto.websocket.ChatReadStateMessage;
+import com.example.backend.dto.websocket.ChatUnreadMessage;
 import com.example.backend.dto.websocket.CommentMessage;
 import com.example.backend.dto.websocket.NotificationMessage;
 import com.example.backend.entity.Comment;
 import com.example.backend.entity.Message;
 import com.example.backend.entity.Notification;
+import com.example.backend.websocket.BroadcastBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import com.example.backend.entity.NotificationRecipient;
@@ -20,40 +23,19 @@ import com.example.backend.entity.NotificationRecipient;
 @Slf4j
 public class WebSocketService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastBus broadcastBus;
 
     public void broadcastCommentCreated(Comment comment) {
-        CommentMessage message = CommentMessage.builder()
-                .type("CREATE")
-                .commentId(comment.getId())
-                .issueId(comment.getIssue().getId())
-                .content(comment.getContent())
-                .userId(comment.getUser().getId())
-                .userName(comment.getUser().getName())
-                .userEmail(comment.getUser().getEmail())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
-                .build();
-
-        messagingTemplate.convertAndSend("/topic/issue/" + comment.getIssue().getId() + "/comments", message);
-        log.info("Broadcasted comment created: {}", comment.getId());
+        broadcastComment(CommentMessage.from(comment, "CREATE"));
     }
 
     public void broadcastCommentUpdated(Comment comment) {
-        CommentMessage message = CommentMessage.builder()
-                .type("UPDATE")
-                .commentId(comment.getId())
-                .issueId(comment.getIssue().getId())
-                .content(comment.getContent())
-                .userId(comment.getUser().getId())
-                .userName(comment.getUser().getName())
-                .userEmail(comment.getUser().getEmail())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
-                .build();
+        broadcastComment(CommentMessage.from(comment, "UPDATE"));
+    }
 
-        messagingTemplate.convertAndSend("/topic/issue/" + comment.getIssue().getId() + "/comments", message);
-        log.info("Broadcasted comment updated: {}", comment.getId());
+    public void broadcastComment(CommentMessage message) {
+        broadcastBus.convertAndSend("/topic/issue/" + message.getIssueId() + "/comments", message);
+        log.info("Broadcasted comment {}: {}", message.getType(), message.getCommentId());
     }
 
     public void broadcastCommentDeleted(UUID commentId, UUID issueId) {
@@ -63,110 +45,54 @@ public class WebSocketService {
                 .issueId(issueId)
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/issue/" + issueId + "/comments", message);
+        broadcastBus.convertAndSend("/topic/issue/" + issueId + "/comments", message);
         log.info("Broadcasted comment deleted: {}", commentId);
     }
 
     // Chat message broadcasting methods
     public void broadcastChatMessageCreated(Message message) {
-        log.info("Broadcasting chat message created for messageId: {}, chatId: {}", message.getId(), message.getChat().getId());
-        
-        // Get attachments for this message
-        List<ChatMessage.AttachmentInfo> attachments = message.getAttachments() != null ? 
-                message.getAttachments().stream()
-                        .map(att -> ChatMessage.AttachmentInfo.builder()
-                                .id(att.getId())
-                                .fileName(att.getFileName())
-                                .fileType(att.getFileType())
-                                .fileSize(att.getFileSize())
-                                .filePath(att.getFilePath())
-                                .build())
-                        .toList() : 
-                List.of();
-        
-        ChatMessage chatMessage = ChatMessage.builder()
-                .type("CREATE")
-                .messageId(message.getId())
-                .chatId(message.getChat().getId())
-                .content(message.getContent())
-                .senderId(message.getSender().getId())
-                .senderName(message.getSender().getName())
-                .senderEmail(message.getSender().getEmail())
-                .senderAvatarUrl(message.getSender().getAvatarUrl())
-                .createdAt(message.getCreatedAt())
-                .updatedAt(message.getUpdatedAt())
-                .attachments(attachments)
-                .build();
-
-        String topic = "/topic/chat/" + message.getChat().getId() + "/messages";
-        log.info("Sending chat message to topic: {}", topic);
-        messagingTemplate.convertAndSend(topic, chatMessage);
-        log.info("Broadcasted chat message created: {}", message.getId());
+        broadcastChatMessage(ChatMessage.from(message, "CREATE"));
     }
 
     public void broadcastChatMessageUpdated(Message message) {
-        // Get attachments for this message
-        List<ChatMessage.AttachmentInfo> attachments = message.getAttachments() != null ? 
-                message.getAttachments().stream()
-                        .map(att -> ChatMessage.AttachmentInfo.builder()
-                                .id(att.getId())
-                                .fileName(att.getFileName())
-                                .fileType(att.getFileType())
-                                .fileSize(att.getFileSize())
-                                .filePath(att.getFilePath())
-                                .build())
-                        .toList() : 
-                List.of();
-        
-        ChatMessage chatMessage = ChatMessage.builder()
-                .type("UPDATE")
-                .messageId(message.getId())
-                .chatId(message.getChat().getId())
-                .content(message.getContent())
-                .senderId(message.getSender().getId())
-                .senderName(message.getSender().getName())
-                .senderEmail(message.getSender().getEmail())
-                .senderAvatarUrl(message.getSender().getAvatarUrl())
-                .createdAt(message.getCreatedAt())
-                .updatedAt(message.getUpdatedAt())
-                .attachments(attachments)
-                .build();
+        broadcastChatMessage(ChatMessage.edited(message));
+    }
 
-        messagingTemplate.convertAndSend("/topic/chat/" + message.getChat().getId() + "/messages", chatMessage);
-        log.info("Broadcasted chat message updated: {}", message.getId());
+    public void broadcastChatMessage(ChatMessage chatMessage) {
+        String topic = "/topic/chat/" + chatMessage.getChatId() + "/messages";
+        broadcastBus.convertAndSend(topic, chatMessage);
+        log.info("Broadcasted chat message {}: {}", chatMessage.getType(), chatMessage.getMessageId());
     }
 
-    public void broadcastChatMessageDeleted(UUID messageId, UUID chatId) {
-        ChatMessage chatMessage = ChatMessage.builder()
-                .type("DELETE")
-                .messageId(messageId)
-                .chatId(chatId)
-                .build();
+    public void broadcastChatReadState(ChatReadStateMessage readState) {
+        broadcastBus.convertAndSend("/topic/chat/" + readState.getChatId() + "/read", readState);
+    }
 
-        messagingTemplate.convertAndSend("/topic/chat/" + chatId + "/messages", chatMessage);
-        log.info("Broadcasted chat message deleted: {}", messageId);
+    public void broadcastChatUnread(Collection<UUID> userIds, ChatUnreadMessage unread) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        broadcastBus.convertAndSendToUsers(userIds.stream().map(UUID::toString).toList(), "/queue/chat-unread", unread);
     }
 
     // Notification broadcasting methods
     public void broadcastNotificationToUser(NotificationRecipient recipient) {
-        NotificationMessage message = NotificationMessage.builder()
-                .type("CREATE")
-                .notificationId(recipient.getNotification().getId())
-                .title(recipient.getNotification().getTitle())
-                .content(recipient.getNotification().getContent())
-                .link(recipient.getNotification().getLink())
-                .notificationType(recipient.getNotification().getType())
-                .priority(recipient.getNotification().getPriority())
-                .createdAt(recipient.getNotification().getCreatedAt())
-                .build();
+        broadcastNotificationToUsers(recipient.getNotification(), List.of(recipient.getUser().getId()));
+    }
 
-        // Gửi đến user cụ thể
-        messagingTemplate.convertAndSendToUser(
-            recipient.getUser().getId().toString(), 
-            "/notifications", 
+    // Payload giống nhau cho mọi người nhận: serialize một lần rồi gửi cho từng user
+    public void broadcastNotificationToUsers(Notification notification, Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        NotificationMessage message = NotificationMessage.from(notification, "CREATE");
+
+        broadcastBus.convertAndSendToUsers(
+            userIds.stream().map(UUID::toString).toList(),
+            "/queue/notifications",
             message
         );
-        
-        log.info("Broadcasted notification to user: {}", recipient.getUser().getId());
+
+        log.info("Broadcasted notification {} to {} users", notification.getId(), userIds.size());
     }
-} 
\ No newline at end of file
+}
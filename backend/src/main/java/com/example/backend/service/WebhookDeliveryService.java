@@ -0,0 +1,273 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.WebhookDelivery;
+import com.example.backend.entity.WebhookSubscription;
+import com.example.backend.exception.AppException;
+import com.example.backend.repository.WebhookDeliveryRepository;
+import com.example.backend.repository.WebhookSubscriptionRepository;
+import com.example.backend.utils.WebhookUrlGuard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the webhook_deliveries queue (the only input: rows are written by the publishing transaction,
+ * see {@link WebhookService#enqueue}). Due rows are claimed with a lease (FOR UPDATE SKIP LOCKED),
+ * grouped per subscription and POSTed as signed batches. Requests to the same host are limited by a
+ * semaphore; failures are retried with exponential backoff until {@code maxAttempts}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookDeliveryService {
+
+    static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.webhooks.claim-limit:200}")
+    private int claimLimit;
+    @Value("${app.webhooks.batch-size:20}")
+    private int batchSize;
+    @Value("${app.webhooks.lease-seconds:60}")
+    private long leaseSeconds;
+    @Value("${app.webhooks.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${app.webhooks.base-backoff-seconds:10}")
+    private long baseBackoffSeconds;
+    @Value("${app.webhooks.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+    @Value("${app.webhooks.per-host-concurrency:2}")
+    private int perHostConcurrency;
+    @Value("${app.webhooks.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+    @Value("${app.webhooks.retention-days:7}")
+    private long retentionDays;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+    private Counter deliveredCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer requestTimer;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(requestTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        deliveredCounter = meterRegistry.counter("webhook.delivery.delivered");
+        retriedCounter = meterRegistry.counter("webhook.delivery.retried");
+        failedCounter = meterRegistry.counter("webhook.delivery.failed");
+        requestTimer = meterRegistry.timer("webhook.delivery.request");
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval-ms:1000}")
+    public void poll() {
+        List<WebhookDelivery> claimed = claimDue();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, WebhookSubscription> subscriptions = subscriptionRepository
+                .findAllById(claimed.stream().map(WebhookDelivery::getSubscriptionId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(WebhookSubscription::getId, Function.identity()));
+
+        Map<UUID, List<WebhookDelivery>> bySubscription = claimed.stream()
+                .collect(Collectors.groupingBy(WebhookDelivery::getSubscriptionId, LinkedHashMap::new, Collectors.toList()));
+
+        bySubscription.forEach((subscriptionId, deliveries) -> {
+            WebhookSubscription subscription = subscriptions.get(subscriptionId);
+            if (subscription == null || !Boolean.TRUE.equals(subscription.getActive())) {
+                deliveries.forEach(delivery -> giveUp(delivery, "Subscription is inactive"));
+                deliveryRepository.saveAll(deliveries);
+                return;
+            }
+            for (int from = 0; from < deliveries.size(); from += batchSize) {
+                List<WebhookDelivery> batch = deliveries.subList(from, Math.min(from + batchSize, deliveries.size()));
+                Thread.ofVirtual().name("webhook-" + subscriptionId).start(() -> sendBatch(subscription, batch));
+            }
+        });
+    }
+
+    // Lease: next_attempt_at is pushed forward so other pollers skip these rows while they are in flight
+    private List<WebhookDelivery> claimDue() {
+        List<WebhookDelivery> claimed = transactionTemplate.execute(status -> {
+            List<WebhookDelivery> due = deliveryRepository.findDueForUpdate(claimLimit);
+            OffsetDateTime leaseUntil = OffsetDateTime.now().plusSeconds(leaseSeconds);
+            due.forEach(delivery -> delivery.setNextAttemptAt(leaseUntil));
+            return due;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void sendBatch(WebhookSubscription subscription, List<WebhookDelivery> batch) {
+        URI uri;
+        try {
+            uri = target(subscription);
+        } catch (AppException e) {
+            batch.forEach(delivery -> giveUp(delivery, "Target does not resolve to a public address"));
+            deliveryRepository.saveAll(batch);
+            log.warn("Webhook subscription {} target {} is not public, {} deliveries failed",
+                    subscription.getId(), subscription.getUrl(), batch.size());
+            return;
+        }
+        Semaphore permits = hostPermits.computeIfAbsent(uri.getHost(), host -> new Semaphore(perHostConcurrency));
+        try {
+            // Wait for a host slot, but well within the lease so the rows are not claimed twice
+            if (!permits.tryAcquire(leaseSeconds * 500, TimeUnit.MILLISECONDS)) {
+                release(batch);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(batch);
+            return;
+        }
+
+        try {
+            String body = buildBody(batch);
+            String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMillis(requestTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .header(TIMESTAMP_HEADER, timestamp)
+                    .header(SIGNATURE_HEADER, "sha256=" + sign(subscription.getSecret(), timestamp + "." + body))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            long start = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (response.statusCode() / 100 == 2) {
+                deliveryRepository.markDelivered(batch.stream().map(WebhookDelivery::getId).toList(),
+                        WebhookDelivery.Status.DELIVERED, OffsetDateTime.now());
+                deliveredCounter.increment(batch.size());
+            } else {
+                retry(batch, "HTTP " + response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            retry(batch, "Interrupted");
+        } catch (Exception e) {
+            retry(batch, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    // DNS may have changed since the subscription was validated
+    URI target(WebhookSubscription subscription) {
+        return WebhookUrlGuard.requirePublicUrl(subscription.getUrl());
+    }
+
+    private String buildBody(List<WebhookDelivery> batch) throws JsonProcessingException {
+        ArrayNode deliveries = objectMapper.createArrayNode();
+        for (WebhookDelivery delivery : batch) {
+            ObjectNode item = delivery.getPayload().deepCopy();
+            item.put("id", delivery.getId().toString());
+            item.put("attempt", delivery.getAttempts() + 1);
+            deliveries.add(item);
+        }
+        ObjectNode root = objectMapper.createObjectNode();
+        root.set("deliveries", deliveries);
+        return objectMapper.writeValueAsString(root);
+    }
+
+    private void retry(List<WebhookDelivery> batch, String error) {
+        List<WebhookDelivery> updated = new ArrayList<>(batch.size());
+        for (WebhookDelivery delivery : batch) {
+            int attempts = delivery.getAttempts() + 1;
+            delivery.setAttempts(attempts);
+            if (attempts >= maxAttempts) {
+                giveUp(delivery, error);
+            } else {
+                delivery.setLastError(error);
+                delivery.setNextAttemptAt(OffsetDateTime.now().plus(backoff(attempts)));
+                retriedCounter.increment();
+            }
+            updated.add(delivery);
+        }
+        deliveryRepository.saveAll(updated);
+        log.warn("Webhook delivery of {} events to subscription {} failed: {}",
+                batch.size(), batch.get(0).getSubscriptionId(), error);
+    }
+
+    private void giveUp(WebhookDelivery delivery, String error) {
+        delivery.setStatus(WebhookDelivery.Status.FAILED);
+        delivery.setLastError(error);
+        failedCounter.increment();
+    }
+
+    // Host slot not available: hand the rows back without counting an attempt
+    private void release(List<WebhookDelivery> batch) {
+        OffsetDateTime now = OffsetDateTime.now();
+        batch.forEach(delivery -> delivery.setNextAttemptAt(now));
+        deliveryRepository.saveAll(batch);
+    }
+
+    // base * 2^(attempts-1), capped, with +/-20% jitter so failing endpoints are not hit in lockstep
+    Duration backoff(int attempts) {
+        long seconds = Math.min(maxBackoffSeconds, baseBackoffSeconds << Math.min(attempts - 1, 20));
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (seconds * 1000 * jitter));
+    }
+
+    static String sign(String secret, String content) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Scheduled(cron = "${app.webhooks.purge-cron:0 30 3 * * *}")
+    public void purgeDelivered() {
+        int purged = deliveryRepository.purgeByStatusBefore(WebhookDelivery.Status.DELIVERED,
+                OffsetDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} delivered webhook events", purged);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.request.WebhookSubscriptionRequest;
+import com.example.backend.dto.response.WebhookDeliveryResponse;
+import com.example.backend.dto.response.WebhookSubscriptionResponse;
+import com.example.backend.entity.WebhookSubscription;
+import com.example.backend.event.DomainEvent;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.repository.WebhookDeliveryRepository;
+import com.example.backend.repository.WebhookSubscriptionRepository;
+import com.example.backend.utils.WebhookUrlGuard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Project webhook subscriptions. Matching domain events are written to the webhook_deliveries queue
+ * in the transaction of the change itself (outbox); {@link WebhookDeliveryService} sends them.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class WebhookService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    WebhookSubscriptionRepository subscriptionRepository;
+    WebhookDeliveryRepository deliveryRepository;
+    ProjectService projectService;
+    ObjectMapper objectMapper;
+
+    public List<WebhookSubscriptionResponse> getSubscriptions(UUID projectId, UUID userId) {
+        requireManager(projectId, userId);
+        return subscriptionRepository.findByProjectIdOrderByCreatedAtDesc(projectId).stream()
+                .map(subscription -> toResponse(subscription, false))
+                .toList();
+    }
+
+    public WebhookSubscriptionResponse createSubscription(UUID projectId, UUID userId, WebhookSubscriptionRequest request) {
+        requireManager(projectId, userId);
+        WebhookUrlGuard.requirePublicUrl(request.getUrl());
+
+        Set<String> groups = request.getEventTypes().stream()
+                .map(type -> type.trim().toLowerCase())
+                .collect(Collectors.toSet());
+        if (!WebhookSubscription.EVENT_GROUPS.containsAll(groups)) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+
+        String secret = request.getSecret() != null && !request.getSecret().isBlank()
+                ? request.getSecret()
+                : generateSecret();
+
+        WebhookSubscription subscription = subscriptionRepository.save(WebhookSubscription.builder()
+                .projectId(projectId)
+                .url(request.getUrl())
+                .secret(secret)
+                .eventTypes(String.join(",", groups))
+                .createdBy(userId)
+                .build());
+        log.info("Webhook {} created for project {} by user {}", subscription.getId(), projectId, userId);
+        return toResponse(subscription, true);
+    }
+
+    public void deleteSubscription(UUID projectId, UUID subscriptionId, UUID userId) {
+        requireManager(projectId, userId);
+        WebhookSubscription subscription = getProjectSubscription(projectId, subscriptionId);
+        subscriptionRepository.delete(subscription);
+        log.info("Webhook {} deleted from project {} by user {}", subscriptionId, projectId, userId);
+    }
+
+    public List<WebhookDeliveryResponse> getRecentDeliveries(UUID projectId, UUID subscriptionId, UUID userId, int limit) {
+        requireManager(projectId, userId);
+        getProjectSubscription(projectId, subscriptionId);
+        return deliveryRepository.findBySubscriptionIdOrderByCreatedAtDesc(subscriptionId, PageRequest.of(0, limit)).stream()
+                .map(delivery -> WebhookDeliveryResponse.builder()
+                        .id(delivery.getId())
+                        .eventType(delivery.getEventType())
+                        .status(delivery.getStatus().name())
+                        .attempts(delivery.getAttempts())
+                        .lastError(delivery.getLastError())
+                        .nextAttemptAt(delivery.getNextAttemptAt())
+                        .createdAt(delivery.getCreatedAt())
+                        .deliveredAt(delivery.getDeliveredAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Queue one delivery per active subscription of the event's project that accepts the event type.
+     * Runs in the caller's transaction, so the deliveries commit or roll back with the change itself.
+     */
+    public void enqueue(DomainEvent event) {
+        if (event.projectId() == null) {
+            return;
+        }
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("type", event.type());
+        payload.put("projectId", event.projectId().toString());
+        payload.put("occurredAt", event.occurredAt().toString());
+        payload.set("data", objectMapper.valueToTree(event));
+
+        int dot = event.type().indexOf('.');
+        String group = dot < 0 ? event.type() : event.type().substring(0, dot);
+        try {
+            deliveryRepository.insertForSubscribers(event.projectId(), group, event.type(), objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private WebhookSubscription getProjectSubscription(UUID projectId, UUID subscriptionId) {
+        WebhookSubscription subscription = subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
+        if (!subscription.getProjectId().equals(projectId)) {
+            throw new AppException(ErrorCode.NOT_FOUND);
+        }
+        return subscription;
+    }
+
+    private void requireManager(UUID projectId, UUID userId) {
+        if (!projectService.isUserProjectManager(projectId, userId)) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+    }
+
+    private static String generateSecret() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static WebhookSubscriptionResponse toResponse(WebhookSubscription subscription, boolean includeSecret) {
+        return WebhookSubscriptionResponse.builder()
+                .id(subscription.getId())
+                .projectId(subscription.getProjectId())
+                .url(subscription.getUrl())
+                .eventTypes(subscription.getEventGroups())
+                .active(subscription.getActive())
+                .secret(includeSecret ? subscription.getSecret() : null)
+                .createdAt(subscription.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTML template compiled once into literal fragments and placeholder names ({{name}}),
+ * so rendering is a single StringBuilder pass instead of String.format per email.
+ */
+public final class EmailTemplate {
+
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int estimatedLength;
+
+    private EmailTemplate(String[] literals, String[] placeholders, int estimatedLength) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.estimatedLength = estimatedLength;
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("{{", position);
+            if (start < 0) {
+                break;
+            }
+            int end = source.indexOf("}}", start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at " + start);
+            }
+            literals.add(source.substring(position, start));
+            placeholders.add(source.substring(start + 2, end).trim());
+            position = end + 2;
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new), source.length() + 256);
+    }
+
+    /** Renders the template; values are HTML-escaped, missing values render as empty. */
+    public String render(Map<String, String> values) {
+        StringBuilder sb = new StringBuilder(estimatedLength);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(literals[i]);
+            appendEscaped(sb, values.get(placeholders[i]));
+        }
+        sb.append(literals[literals.length - 1]);
+        return sb.toString();
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&#39;");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
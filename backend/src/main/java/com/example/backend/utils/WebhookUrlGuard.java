@@ -0,0 +1,66 @@
+package com.example.backend.utils;
+
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+
+/**
+ * Webhook targets must be public http(s) hosts: a URL whose host resolves to a loopback, link-local
+ * (cloud metadata), private, carrier-grade NAT, multicast or unspecified address is rejected, so a project
+ * admin cannot make the server call internal services. Checked when a subscription is saved and again
+ * before every delivery, since DNS can change in between.
+ */
+public final class WebhookUrlGuard {
+
+    private WebhookUrlGuard() {
+    }
+
+    /** Parses and checks a webhook URL; throws BAD_REQUEST if it is not a public http(s) target. */
+    public static URI requirePublicUrl(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+        if (uri.getHost() == null || !("https".equals(uri.getScheme()) || "http".equals(uri.getScheme()))) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+        try {
+            for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+                if (!isPublic(address)) {
+                    throw new AppException(ErrorCode.BAD_REQUEST);
+                }
+            }
+        } catch (UnknownHostException e) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+        return uri;
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            // 0.0.0.0/8, 100.64.0.0/10 (CGNAT), 198.18.0.0/15 (benchmarking)
+            return first != 0
+                    && !(first == 100 && second >= 64 && second < 128)
+                    && !(first == 198 && (second == 18 || second == 19));
+        }
+        if (address instanceof Inet6Address) {
+            // fc00::/7 unique local; fec0::/10 site-local is covered by isSiteLocalAddress
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.websocket;
+
+import java.util.Collection;
+
+/**
+ * Outbound fan-out for STOMP broadcasts. Implementations decide how a message reaches
+ * subscribers connected to other instances (see {@link BrokerMode}).
+ * Payloads are serialized once per call, however many subscribers or users receive them.
+ */
+public interface BroadcastBus {
+
+    void convertAndSend(String destination, Object payload);
+
+    void convertAndSendToUser(String user, String destination, Object payload);
+
+    void convertAndSendToUsers(Collection<String> users, String destination, Object payload);
+}
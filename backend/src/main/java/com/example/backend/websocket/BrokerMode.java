@@ -0,0 +1,10 @@
+package com.example.backend.websocket;
+
+public enum BrokerMode {
+    /** In-memory simple broker; broadcasts only reach clients of this instance. */
+    SIMPLE,
+    /** External STOMP broker (RabbitMQ, ActiveMQ); the broker fans out across instances. */
+    RELAY,
+    /** In-memory broker on every instance, fanned out through Postgres LISTEN/NOTIFY. */
+    POSTGRES
+}
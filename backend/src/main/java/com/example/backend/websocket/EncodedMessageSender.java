@@ -0,0 +1,67 @@
+package com.example.backend.websocket;
+
+import com.example.backend.service.NotificationStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Sends payloads that are already JSON-encoded. A broadcast is serialized once and the same byte[]
+ * is handed to the broker for every destination, instead of one Jackson pass per convertAndSend call.
+ */
+@RequiredArgsConstructor
+public class EncodedMessageSender {
+
+    public static final String SEQ_HEADER = "x-seq";
+    public static final String EPOCH_HEADER = "x-stream-epoch";
+
+    private static final String USER_PREFIX = "/user/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReplayBuffer replayBuffer;
+    private final NotificationStreamService notificationStreams;
+
+    public byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Failed to encode broadcast payload", e);
+        }
+    }
+
+    public void send(String destination, byte[] json) {
+        // SSE fallback streams get the same locally delivered notifications as the WebSocket sessions
+        notificationStreams.publish(destination, json);
+        if (replayBuffer.isReplayable(destination)) {
+            // Sequenced per node: every node numbers what it delivers to its own subscribers
+            replayBuffer.append(destination, json, seq -> doSend(destination, json, seq));
+        } else {
+            doSend(destination, json, null);
+        }
+    }
+
+    private void doSend(String destination, byte[] json, Long seq) {
+        // Headers must be fresh per send (the template stamps the destination on them); the payload is shared
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (seq != null) {
+            accessor.setNativeHeader(SEQ_HEADER, String.valueOf(seq));
+            accessor.setNativeHeader(EPOCH_HEADER, replayBuffer.getEpoch());
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+
+    public static String userDestination(String user, String destination) {
+        return USER_PREFIX + user + destination;
+    }
+}
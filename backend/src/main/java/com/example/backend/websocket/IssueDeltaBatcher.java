@@ -0,0 +1,108 @@
+package com.example.backend.websocket;
+
+import com.example.backend.dto.websocket.IssueDelta;
+import com.example.backend.dto.websocket.IssueDeltaBatch;
+import com.example.backend.event.IssueChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects issue changes per project and publishes them to /topic/project/{id}/issues once per window
+ * (100 ms by default). Changes to the same issue inside a window are merged into one delta, so a burst
+ * of edits on a board costs one frame per project rather than one per save.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IssueDeltaBatcher {
+
+    private static final String CREATED = "CREATED";
+    private static final String DELETED = "DELETED";
+
+    private final BroadcastBus broadcastBus;
+
+    private Map<UUID, Map<UUID, Pending>> pending = new HashMap<>();
+
+    public synchronized void add(IssueChangedEvent event) {
+        Map<UUID, Pending> project = pending.computeIfAbsent(event.projectId(), id -> new LinkedHashMap<>());
+        Pending existing = project.get(event.issueId());
+        if (existing == null) {
+            project.put(event.issueId(), new Pending(event));
+        } else {
+            existing.merge(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.issue-deltas.window-ms:100}")
+    public void flush() {
+        Map<UUID, Map<UUID, Pending>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        batch.forEach((projectId, issues) -> {
+            List<IssueDelta> deltas = new ArrayList<>(issues.size());
+            for (Pending change : issues.values()) {
+                if (change.action == null) {
+                    continue; // created and deleted inside the same window
+                }
+                deltas.add(IssueDelta.builder()
+                        .action(change.action)
+                        .issueId(change.issueId)
+                        .fields(DELETED.equals(change.action) ? null : change.fields)
+                        .updatedAt(change.updatedAt)
+                        .build());
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                broadcastBus.convertAndSend("/topic/project/" + projectId + "/issues", IssueDeltaBatch.builder()
+                        .projectId(projectId)
+                        .deltas(deltas)
+                        .timestamp(now)
+                        .build());
+            } catch (Exception e) {
+                log.warn("Failed to broadcast {} issue deltas for project {}: {}", deltas.size(), projectId, e.getMessage());
+            }
+        });
+    }
+
+    private static final class Pending {
+        final UUID issueId;
+        String action;
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        OffsetDateTime updatedAt;
+
+        Pending(IssueChangedEvent event) {
+            this.issueId = event.issueId();
+            this.action = event.action();
+            merge(event);
+        }
+
+        // CREATED stays CREATED with the later values folded in; DELETED wins, or cancels a CREATED
+        void merge(IssueChangedEvent event) {
+            if (DELETED.equals(event.action())) {
+                action = CREATED.equals(action) ? null : DELETED;
+                fields.clear();
+            } else if (!DELETED.equals(action) && event.fields() != null) {
+                fields.putAll(event.fields());
+            }
+            updatedAt = event.occurredAt();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.backend.websocket;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+
+/**
+ * Sends straight to the configured broker: the in-memory one (single instance) or the
+ * external relay, which already reaches every instance.
+ */
+@RequiredArgsConstructor
+public class LocalBroadcastBus implements BroadcastBus {
+
+    private final EncodedMessageSender sender;
+
+    @Override
+    public void convertAndSend(String destination, Object payload) {
+        sender.send(destination, sender.encode(payload));
+    }
+
+    @Override
+    public void convertAndSendToUser(String user, String destination, Object payload) {
+        sender.send(EncodedMessageSender.userDestination(user, destination), sender.encode(payload));
+    }
+
+    @Override
+    public void convertAndSendToUsers(Collection<String> users, String destination, Object payload) {
+        byte[] json = sender.encode(payload);
+        for (String user : users) {
+            sender.send(EncodedMessageSender.userDestination(user, destination), json);
+        }
+    }
+}
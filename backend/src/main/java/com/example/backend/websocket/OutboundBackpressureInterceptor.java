@@ -0,0 +1,163 @@
+package com.example.backend.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Sheds outbound frames for sessions whose WebSocket send buffer is backing up. The buffer is the one
+ * {@link ConcurrentWebSocketSessionDecorator} keeps per session (frames accepted while a previous send to
+ * the client is still in progress); sessions are registered when that decorator is created. Once a
+ * session has {@code slowSessionBufferBytes} buffered, frames for non-critical destinations (typing,
+ * presence) still queued on the client outbound channel are conflated to the latest one per destination,
+ * or dropped outright past twice that. Critical frames are never dropped here; the transport send
+ * time/buffer limits close sessions that cannot keep up at all.
+ */
+@Component
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String SEQUENCE_HEADER = "outboundSeq";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> nonCriticalPatterns;
+    private final int slowSessionBufferBytes;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    // Latest non-critical frame per "sessionId|destination"; older ones are skipped when handled
+    private final Map<String, Long> latestNonCritical = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter droppedCounter;
+    private final Counter conflatedCounter;
+
+    public OutboundBackpressureInterceptor(
+            @Value("${app.websocket.outbound.non-critical-destinations:/topic/**/typing,/topic/**/presence}") List<String> nonCriticalPatterns,
+            @Value("${app.websocket.outbound.slow-session-buffer-bytes:65536}") int slowSessionBufferBytes,
+            MeterRegistry meterRegistry) {
+        this.nonCriticalPatterns = nonCriticalPatterns;
+        this.slowSessionBufferBytes = slowSessionBufferBytes;
+        this.droppedCounter = Counter.builder("websocket.outbound.frames.dropped")
+                .tag("reason", "slow_session").register(meterRegistry);
+        this.conflatedCounter = Counter.builder("websocket.outbound.frames.dropped")
+                .tag("reason", "conflated").register(meterRegistry);
+        Gauge.builder("websocket.outbound.session.buffer.max", this, i -> i.maxBufferSize())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.sessions.slow", this, i -> i.slowSessionCount())
+                .register(meterRegistry);
+    }
+
+    /** Starts tracking the send buffer of a newly connected session. */
+    public void track(ConcurrentWebSocketSessionDecorator session) {
+        sessions.put(session.getId(), new SessionState(session));
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state == null) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        int buffered = state.session.getBufferSize();
+
+        if (buffered >= slowSessionBufferBytes && isNonCritical(destination)) {
+            if (buffered >= slowSessionBufferBytes * 2) {
+                state.dropped.incrementAndGet();
+                droppedCounter.increment();
+                return null;
+            }
+            long seq = sequence.incrementAndGet();
+            latestNonCritical.put(sessionId + "|" + destination, seq);
+            message = MessageBuilder.fromMessage(message).setHeader(SEQUENCE_HEADER, seq).build();
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Object seq = message.getHeaders().get(SEQUENCE_HEADER);
+        if (seq == null) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String key = sessionId + "|" + SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (!seq.equals(latestNonCritical.get(key))) {
+            // A newer frame for the same destination is queued behind this one
+            SessionState state = sessions.get(sessionId);
+            if (state != null) {
+                state.dropped.incrementAndGet();
+            }
+            conflatedCounter.increment();
+            return null;
+        }
+        latestNonCritical.remove(key, seq);
+        return message;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        String sessionId = event.getSessionId();
+        sessions.remove(sessionId);
+        latestNonCritical.keySet().removeIf(key -> key.startsWith(sessionId + "|"));
+    }
+
+    /** Current send buffer size (bytes) and dropped frame count per session. */
+    public Map<String, Map<String, Long>> snapshot() {
+        return sessions.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> Map.of(
+                "bufferBytes", (long) entry.getValue().session.getBufferSize(),
+                "dropped", entry.getValue().dropped.get())));
+    }
+
+    private boolean isNonCritical(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String pattern : nonCriticalPatterns) {
+            if (pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double maxBufferSize() {
+        return sessions.values().stream().mapToInt(state -> state.session.getBufferSize()).max().orElse(0);
+    }
+
+    private double slowSessionCount() {
+        return sessions.values().stream().filter(state -> state.session.getBufferSize() >= slowSessionBufferBytes).count();
+    }
+
+    private static final class SessionState {
+        final ConcurrentWebSocketSessionDecorator session;
+        final AtomicLong dropped = new AtomicLong();
+
+        SessionState(ConcurrentWebSocketSessionDecorator session) {
+            this.session = session;
+        }
+    }
+}
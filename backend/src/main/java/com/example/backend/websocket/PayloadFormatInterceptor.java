@@ -0,0 +1,145 @@
+package com.example.backend.websocket;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets clients on the raw /ws-native endpoint ask for CBOR instead of JSON by sending
+ * {@code x-payload-format: cbor} on CONNECT. JSON MESSAGE frames for those sessions are transcoded
+ * (token stream copy, no object binding) and sent as binary WebSocket frames, tagged with the same
+ * header. SockJS sessions cannot carry binary frames and always stay on JSON.
+ */
+@Slf4j
+@Component
+public class PayloadFormatInterceptor implements ChannelInterceptor, HandshakeInterceptor {
+
+    public static final String FORMAT_HEADER = "x-payload-format";
+    public static final String CBOR = "cbor";
+
+    private static final String NATIVE_TRANSPORT = "nativeTransport";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+    // Keyed by payload identity: a broadcast shares one byte[] across subscribers, so it is transcoded once
+    private final Map<byte[], byte[]> transcoded = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Counter transcodedCounter;
+
+    public PayloadFormatInterceptor(MeterRegistry meterRegistry) {
+        this.transcodedCounter = meterRegistry.counter("websocket.outbound.frames.cbor");
+    }
+
+    // Registered on /ws-native only
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        attributes.put(NATIVE_TRANSPORT, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == SimpMessageType.CONNECT) {
+            negotiate(message);
+            return message;
+        }
+        if (type != SimpMessageType.MESSAGE || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || !cborSessions.contains(sessionId) || !isJson(message)) {
+            return message;
+        }
+
+        byte[] cbor = transcoded.get(json);
+        if (cbor == null) {
+            try {
+                cbor = toCbor(json);
+            } catch (IOException e) {
+                log.warn("Failed to transcode frame for {} to CBOR, sending JSON: {}",
+                        SimpMessageHeaderAccessor.getDestination(message.getHeaders()), e.getMessage());
+                return message;
+            }
+            transcoded.put(json, cbor);
+        }
+        transcodedCounter.increment();
+
+        // Spring only writes binary WebSocket frames for application/octet-stream
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(FORMAT_HEADER, CBOR);
+        return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        cborSessions.remove(event.getSessionId());
+    }
+
+    private void negotiate(Message<?> message) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT
+                || !CBOR.equalsIgnoreCase(accessor.getFirstNativeHeader(FORMAT_HEADER))) {
+            return;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_TRANSPORT))) {
+            cborSessions.add(accessor.getSessionId());
+        }
+    }
+
+    private static boolean isJson(Message<?> message) {
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        MimeType mimeType = contentType instanceof String value ? MimeTypeUtils.parseMimeType(value) : (MimeType) contentType;
+        return mimeType != null && MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(mimeType);
+    }
+
+    private byte[] toCbor(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = cborFactory.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toByteArray();
+    }
+}
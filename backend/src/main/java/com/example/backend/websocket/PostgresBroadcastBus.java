@@ -0,0 +1,168 @@
+package com.example.backend.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cross-instance fan-out over Postgres LISTEN/NOTIFY. A broadcast is delivered to the local broker
+ * right away and published on the channel; every other instance re-delivers it to its own subscribers.
+ * Payloads above the NOTIFY limit (8000 bytes) are parked in ws_broadcast_overflow and referenced by id.
+ */
+@Slf4j
+public class PostgresBroadcastBus implements BroadcastBus {
+
+    // NOTIFY payloads must stay under 8000 bytes; leave room for the envelope
+    private static final int MAX_NOTIFY_BYTES = 7900;
+    private static final String OVERFLOW_PREFIX = "#";
+
+    private final EncodedMessageSender sender;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter overflowCounter;
+
+    private volatile boolean running = true;
+    private Thread listenerThread;
+
+    public PostgresBroadcastBus(EncodedMessageSender sender, DataSource dataSource, String channel, MeterRegistry meterRegistry) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid Postgres channel name: " + channel);
+        }
+        this.sender = sender;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = channel;
+        this.publishedCounter = meterRegistry.counter("websocket.bus.published");
+        this.receivedCounter = meterRegistry.counter("websocket.bus.received");
+        this.overflowCounter = meterRegistry.counter("websocket.bus.overflow");
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerThread = Thread.ofPlatform().name("ws-bus-listener").daemon(true).start(this::listen);
+        log.info("WebSocket broadcast bus listening on Postgres channel '{}' as node {}", channel, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void convertAndSend(String destination, Object payload) {
+        publish(List.of(destination), payload);
+    }
+
+    @Override
+    public void convertAndSendToUser(String user, String destination, Object payload) {
+        publish(List.of(EncodedMessageSender.userDestination(user, destination)), payload);
+    }
+
+    @Override
+    public void convertAndSendToUsers(Collection<String> users, String destination, Object payload) {
+        publish(users.stream().map(user -> EncodedMessageSender.userDestination(user, destination)).toList(), payload);
+    }
+
+    private void publish(List<String> destinations, Object payload) {
+        if (destinations.isEmpty()) {
+            return;
+        }
+        byte[] json = sender.encode(payload);
+        destinations.forEach(destination -> sender.send(destination, json));
+
+        // Envelope: origin node, space-separated destinations and the JSON payload on separate lines,
+        // so a whole user fan-out is a single NOTIFY
+        String envelope = nodeId + "\n" + String.join(" ", destinations) + "\n" + new String(json, StandardCharsets.UTF_8);
+        try {
+            if (envelope.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+                Long id = jdbcTemplate.queryForObject(
+                        "INSERT INTO ws_broadcast_overflow (body) VALUES (?) RETURNING id", Long.class, envelope);
+                envelope = OVERFLOW_PREFIX + id;
+                overflowCounter.increment();
+            }
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, envelope);
+            publishedCounter.increment();
+        } catch (Exception e) {
+            log.warn("Failed to publish broadcast for {} to other nodes: {}", destinations.get(0), e.getMessage());
+        }
+    }
+
+    private void listen() {
+        long lastCleanup = 0;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(500);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    if (System.currentTimeMillis() - lastCleanup > 60_000) {
+                        lastCleanup = System.currentTimeMillis();
+                        jdbcTemplate.update("DELETE FROM ws_broadcast_overflow WHERE created_at < now() - interval '5 minutes'");
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                // Broadcasts from other nodes are missed until the listener reconnects
+                log.error("WebSocket broadcast listener lost its connection, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void handle(String envelope) {
+        try {
+            if (envelope.startsWith(OVERFLOW_PREFIX)) {
+                envelope = jdbcTemplate.queryForObject("SELECT body FROM ws_broadcast_overflow WHERE id = ?",
+                        String.class, Long.parseLong(envelope.substring(OVERFLOW_PREFIX.length())));
+            }
+            int first = envelope.indexOf('\n');
+            int second = envelope.indexOf('\n', first + 1);
+            if (envelope.startsWith(nodeId)) {
+                return; // already delivered locally when published
+            }
+            receivedCounter.increment();
+            byte[] json = envelope.substring(second + 1).getBytes(StandardCharsets.UTF_8);
+            for (String destination : envelope.substring(first + 1, second).split(" ")) {
+                sender.send(destination, json);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to handle broadcast from another node: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.backend.websocket;
+
+import com.example.backend.dto.websocket.PresenceMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Node-local presence: which users have a subscription under /topic/{project|chat|issue}/{id}/..., fed
+ * by STOMP subscribe/unsubscribe/disconnect events. Changes are debounced and broadcast per room to
+ * /topic/{kind}/{id}/presence; typing to /topic/{kind}/{id}/typing. Every message carries this node's id
+ * and only this node's users, so with a cluster broker clients merge the per-node sets.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceRegistry {
+
+    private static final Pattern ROOM_DESTINATION = Pattern.compile("^/topic/(project|chat|issue)/([0-9a-fA-F-]{36})(/.*)?$");
+
+    private final BroadcastBus broadcastBus;
+
+    @Value("${app.presence.typing-ttl-ms:5000}")
+    private long typingTtlMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // sessionId -> (subscriptionId -> room)
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, String> sessionUsers = new ConcurrentHashMap<>();
+    // room -> (userId -> number of subscriptions)
+    private final Map<String, Map<String, AtomicInteger>> rooms = new ConcurrentHashMap<>();
+    // room -> (userId -> typing expiry, epoch millis)
+    private final Map<String, Map<String, Long>> typing = new ConcurrentHashMap<>();
+
+    private final Set<String> dirtyPresence = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtyTyping = ConcurrentHashMap.newKeySet();
+
+    public static String roomOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = ROOM_DESTINATION.matcher(destination);
+        return matcher.matches() ? matcher.group(1) + ":" + matcher.group(2).toLowerCase() : null;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String room = roomOf(accessor.getDestination());
+        Principal user = event.getUser();
+        if (room == null || user == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        sessionUsers.put(accessor.getSessionId(), user.getName());
+        sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), room);
+        int count = rooms.computeIfAbsent(room, r -> new ConcurrentHashMap<>())
+                .computeIfAbsent(user.getName(), u -> new AtomicInteger())
+                .incrementAndGet();
+        if (count == 1) {
+            dirtyPresence.add(room);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String room = subscriptions.remove(accessor.getSubscriptionId());
+        if (room != null) {
+            leave(room, sessionUsers.get(accessor.getSessionId()));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        String userId = sessionUsers.remove(event.getSessionId());
+        if (subscriptions != null && userId != null) {
+            subscriptions.values().forEach(room -> leave(room, userId));
+        }
+    }
+
+    public void setTyping(String room, String userId, boolean isTyping) {
+        Map<String, Long> roomTyping = typing.computeIfAbsent(room, r -> new ConcurrentHashMap<>());
+        boolean changed = isTyping
+                ? roomTyping.put(userId, System.currentTimeMillis() + typingTtlMs) == null
+                : roomTyping.remove(userId) != null;
+        if (changed) {
+            dirtyTyping.add(room);
+        }
+    }
+
+    public Set<String> getPresentUsers(String room) {
+        Map<String, AtomicInteger> users = rooms.get(room);
+        return users == null ? Set.of() : Set.copyOf(users.keySet());
+    }
+
+    public Set<String> getTypingUsers(String room) {
+        Map<String, Long> users = typing.get(room);
+        long now = System.currentTimeMillis();
+        return users == null ? Set.of() : users.entrySet().stream()
+                .filter(entry -> entry.getValue() > now)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Debounce: many joins/leaves or keystrokes within one interval produce a single broadcast per room
+    @Scheduled(fixedDelayString = "${app.presence.broadcast-interval-ms:500}")
+    public void flush() {
+        expireTyping();
+        for (String room : drain(dirtyPresence)) {
+            broadcast(room, "PRESENCE", getPresentUsers(room));
+        }
+        for (String room : drain(dirtyTyping)) {
+            broadcast(room, "TYPING", getTypingUsers(room));
+        }
+    }
+
+    // Periodic full snapshot so clients can expire the sets of nodes that went away
+    @Scheduled(fixedDelayString = "${app.presence.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        dirtyPresence.addAll(rooms.keySet());
+    }
+
+    private void leave(String room, String userId) {
+        if (userId == null) {
+            return;
+        }
+        Map<String, AtomicInteger> users = rooms.get(room);
+        if (users == null) {
+            return;
+        }
+        AtomicInteger count = users.get(userId);
+        if (count != null && count.decrementAndGet() <= 0) {
+            users.remove(userId, count);
+            dirtyPresence.add(room);
+            setTyping(room, userId, false);
+        }
+        if (users.isEmpty()) {
+            rooms.remove(room, users);
+        }
+    }
+
+    private void expireTyping() {
+        long now = System.currentTimeMillis();
+        typing.forEach((room, users) -> {
+            if (users.values().removeIf(expiry -> expiry <= now)) {
+                dirtyTyping.add(room);
+            }
+            if (users.isEmpty()) {
+                typing.remove(room, users);
+            }
+        });
+    }
+
+    private static Set<String> drain(Set<String> dirty) {
+        Set<String> drained = Set.copyOf(dirty);
+        dirty.removeAll(drained);
+        return drained;
+    }
+
+    private void broadcast(String room, String type, Set<String> userIds) {
+        int colon = room.indexOf(':');
+        String destination = "/topic/" + room.substring(0, colon) + "/" + room.substring(colon + 1)
+                + ("TYPING".equals(type) ? "/typing" : "/presence");
+        try {
+            broadcastBus.convertAndSend(destination, PresenceMessage.builder()
+                    .type(type)
+                    .room(room)
+                    .nodeId(nodeId)
+                    .userIds(userIds)
+                    .timestamp(OffsetDateTime.now())
+                    .build());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast {} for {}: {}", type, room, e.getMessage());
+        }
+    }
+}
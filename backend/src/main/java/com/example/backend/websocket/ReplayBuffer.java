@@ -0,0 +1,146 @@
+package com.example.backend.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Per-topic sequence numbers and a bounded ring buffer of the last {@code capacity} payloads, so a
+ * reconnecting client can ask for what it missed. Sequences are only meaningful within one node's
+ * {@link #getEpoch() epoch}; a client resuming against another node (or after a restart) gets a reset.
+ * A topic's sequence counter lives as long as the node: idle eviction frees the buffered payloads only,
+ * so clients that stay subscribed to a quiet topic keep receiving increasing sequences.
+ */
+@Slf4j
+@Component
+public class ReplayBuffer {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    @Value("${app.websocket.replay.capacity:256}")
+    private int capacity;
+
+    @Value("${app.websocket.replay.idle-ttl-minutes:30}")
+    private long idleTtlMinutes;
+
+    @Value("${app.websocket.replay.destinations:/topic/chat/*/messages,/topic/issue/*/comments,/topic/project/*/issues}")
+    private List<String> destinations;
+
+    public record Entry(long seq, byte[] payload) {
+        public String json() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public boolean isReplayable(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String pattern : destinations) {
+            if (pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Assigns the next sequence, stores the payload and runs {@code send} with that sequence while holding
+     * the stream lock, so subscribers see sequences in increasing order.
+     */
+    public void append(String destination, byte[] payload, LongConsumer send) {
+        Stream stream = streams.computeIfAbsent(destination, d -> new Stream(capacity));
+        synchronized (stream) {
+            if (stream.ring == null) {
+                stream.ring = new Entry[capacity];
+                stream.firstSeq = stream.nextSeq;
+            }
+            long seq = stream.nextSeq++;
+            stream.ring[(int) (seq % stream.ring.length)] = new Entry(seq, payload);
+            stream.lastAppendAt = System.currentTimeMillis();
+            send.accept(seq);
+        }
+    }
+
+    /** Latest sequence of the destination, 0 when nothing was sent yet. */
+    public long head(String destination) {
+        Stream stream = streams.get(destination);
+        if (stream == null) {
+            return 0;
+        }
+        synchronized (stream) {
+            return stream.nextSeq - 1;
+        }
+    }
+
+    /**
+     * Entries after {@code lastSeq}, or empty when they are no longer (or were never) in the buffer and
+     * the client has to reload.
+     */
+    public Optional<List<Entry>> since(String destination, long lastSeq) {
+        Stream stream = streams.get(destination);
+        if (stream == null) {
+            return lastSeq == 0 ? Optional.of(List.of()) : Optional.empty();
+        }
+        synchronized (stream) {
+            long head = stream.nextSeq - 1;
+            if (stream.ring == null) {
+                // Evicted while idle: nothing was sent since, so only an up-to-date client can resume
+                return lastSeq == head ? Optional.of(List.of()) : Optional.empty();
+            }
+            long oldest = Math.max(stream.firstSeq, stream.nextSeq - stream.ring.length);
+            if (lastSeq > head || lastSeq + 1 < oldest) {
+                return Optional.empty();
+            }
+            List<Entry> entries = new ArrayList<>((int) (head - lastSeq));
+            for (long seq = lastSeq + 1; seq <= head; seq++) {
+                entries.add(stream.ring[(int) (seq % stream.ring.length)]);
+            }
+            return Optional.of(entries);
+        }
+    }
+
+    // Idle topics give up their payloads but keep nextSeq: restarting at 1 under the same epoch would make
+    // subscribed clients (lastSeq = N) drop every new frame as a duplicate until the sequence passed N again
+    @Scheduled(fixedDelayString = "${app.websocket.replay.cleanup-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTtlMinutes * 60_000;
+        for (Stream stream : streams.values()) {
+            synchronized (stream) {
+                if (stream.ring != null && stream.lastAppendAt < cutoff) {
+                    stream.ring = null;
+                }
+            }
+        }
+    }
+
+    private static final class Stream {
+        // null once evicted while idle; reallocated by the next append
+        Entry[] ring;
+        // Lowest sequence the current ring can hold; earlier ones went with an evicted ring
+        long firstSeq = 1;
+        long nextSeq = 1;
+        long lastAppendAt = System.currentTimeMillis();
+
+        Stream(int capacity) {
+            this.ring = new Entry[capacity];
+        }
+    }
+}
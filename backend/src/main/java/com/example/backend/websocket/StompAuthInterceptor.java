@@ -0,0 +1,170 @@
+package com.example.backend.websocket;
+
+import com.example.backend.service.RoomAccessService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates the STOMP session once, on CONNECT, with the same JWT decoder as the REST API; Spring
+ * caches the resulting principal for the rest of the session. SUBSCRIBE is denied unless the destination is
+ * on the allow-list: the user's own /user/queue/** destinations, /topic/{project|chat|issue}/{id}/... for
+ * project members, and the configured public destinations. Everything else (broker-internal topics such as
+ * /topic/simp-user-registry, other sessions' /queue/... destinations) is rejected. Membership results are
+ * cached per session and room for {@code roomAccessTtlSeconds}, so a removed member cannot keep opening
+ * subscriptions on a long-lived session.
+ * <p>
+ * SEND is only accepted for the /app application prefix: a frame sent straight to /topic/..., /queue/...
+ * or /user/... would be fanned out by the broker as if the server had published it. /app destinations that
+ * name a room (/app/{project|chat|issue}/{id}/...) need the same room access as subscribing to it; handlers
+ * taking room ids in the payload (/app/resume) check each of them themselves.
+ */
+@Slf4j
+@Component
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String TOKEN_EXPIRES_AT = "tokenExpiresAt";
+    private static final String ROOM_ACCESS = "roomAccess";
+
+    private static final String USER_QUEUES = "/user/queue/**";
+    private static final String APP_PREFIX = "/app/";
+
+    private final JwtDecoder jwtDecoder;
+    private final RoomAccessService roomAccessService;
+    private final JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> publicDestinations;
+    private final long roomAccessTtlMillis;
+
+    // Lazy: both pull in the service layer, which depends on the messaging template being configured here
+    public StompAuthInterceptor(@Lazy JwtDecoder jwtDecoder, @Lazy RoomAccessService roomAccessService,
+                                @Value("${app.websocket.subscribe.public-destinations:}") List<String> publicDestinations,
+                                @Value("${app.websocket.subscribe.room-access-ttl-seconds:60}") long roomAccessTtlSeconds) {
+        this.jwtDecoder = jwtDecoder;
+        this.roomAccessService = roomAccessService;
+        this.publicDestinations = publicDestinations;
+        this.roomAccessTtlMillis = TimeUnit.SECONDS.toMillis(roomAccessTtlSeconds);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            authenticate(accessor);
+        } else if (command == StompCommand.SUBSCRIBE || command == StompCommand.SEND) {
+            requireValidSession(accessor);
+            if (command == StompCommand.SUBSCRIBE && !canSubscribe(accessor)) {
+                log.warn("User {} denied subscription to {}", accessor.getUser().getName(), accessor.getDestination());
+                return null;
+            }
+            if (command == StompCommand.SEND && !canSend(accessor)) {
+                log.warn("User {} denied send to {}", accessor.getUser().getName(), accessor.getDestination());
+                return null;
+            }
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String token = accessor.getFirstNativeHeader("Authorization");
+        if (token == null) {
+            token = accessor.getFirstNativeHeader("token");
+        }
+        if (token == null || token.isBlank()) {
+            throw new MessageDeliveryException("Missing access token");
+        }
+        try {
+            Jwt jwt = jwtDecoder.decode(token);
+            accessor.setUser(authenticationConverter.convert(jwt));
+            if (accessor.getSessionAttributes() != null && jwt.getExpiresAt() != null) {
+                accessor.getSessionAttributes().put(TOKEN_EXPIRES_AT, jwt.getExpiresAt());
+            }
+        } catch (JwtException e) {
+            throw new MessageDeliveryException("Invalid access token");
+        }
+    }
+
+    // The principal is cached for the session, so only the token expiry needs rechecking
+    private void requireValidSession(StompHeaderAccessor accessor) {
+        if (accessor.getUser() == null) {
+            throw new MessageDeliveryException("Not authenticated");
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object expiresAt = attributes != null ? attributes.get(TOKEN_EXPIRES_AT) : null;
+        if (expiresAt instanceof Instant instant && instant.isBefore(Instant.now())) {
+            throw new MessageDeliveryException("Access token expired");
+        }
+    }
+
+    private boolean canSubscribe(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return false;
+        }
+        String room = PresenceRegistry.roomOf(destination);
+        if (room != null) {
+            return canAccessRoom(accessor, room);
+        }
+        if (pathMatcher.match(USER_QUEUES, destination)) {
+            return true;
+        }
+        for (String pattern : publicDestinations) {
+            if (!pattern.isBlank() && pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canSend(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            return false;
+        }
+        // /app/chat/{id}/typing addresses the same room as /topic/chat/{id}/...
+        String room = PresenceRegistry.roomOf("/topic/" + destination.substring(APP_PREFIX.length()));
+        return room == null || canAccessRoom(accessor, room);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean canAccessRoom(StompHeaderAccessor accessor, String room) {
+        UUID userId = UUID.fromString(accessor.getUser().getName());
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null) {
+            return roomAccessService.canAccess(userId, room);
+        }
+        Map<String, RoomAccess> access = (Map<String, RoomAccess>) attributes
+                .computeIfAbsent(ROOM_ACCESS, key -> new ConcurrentHashMap<String, RoomAccess>());
+        long now = System.currentTimeMillis();
+        return access.compute(room, (r, cached) -> cached != null && cached.expiresAt() > now
+                ? cached
+                : new RoomAccess(roomAccessService.canAccess(userId, r), now + roomAccessTtlMillis)).allowed();
+    }
+
+    private record RoomAccess(boolean allowed, long expiresAt) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.backend.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Per-session send buffer size and dropped frames. Not exposed over HTTP unless added to
+ * management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "websocketsessions")
+@RequiredArgsConstructor
+public class WebSocketSessionsEndpoint {
+
+    private final OutboundBackpressureInterceptor backpressureInterceptor;
+
+    @ReadOperation
+    public Map<String, Map<String, Long>> sessions() {
+        return backpressureInterceptor.snapshot();
+    }
+}
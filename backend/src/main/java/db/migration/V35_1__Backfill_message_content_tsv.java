@@ -0,0 +1,57 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+/**
+ * Fills messages.content_tsv (added by V35) for rows that existed before the trigger. Walks the primary key
+ * in batches of {@value #BATCH_SIZE} and commits each one, so no single transaction holds row locks on the
+ * whole table and concurrent writes keep going; rows written meanwhile are already covered by the trigger.
+ * Runs outside Flyway's migration transaction, so a failure part-way leaves the finished batches in place and
+ * a re-run only touches rows that are still NULL.
+ */
+public class V35_1__Backfill_message_content_tsv extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 5000;
+
+    // Data-modifying CTE: updates the batch and returns its last id as the next keyset position
+    private static final String BACKFILL_BATCH = "WITH batch AS ("
+            + "  SELECT id FROM messages WHERE id > ? ORDER BY id LIMIT ?"
+            + "), filled AS ("
+            + "  UPDATE messages m SET content_tsv = to_tsvector('simple', coalesce(m.content, '')) "
+            + "  FROM batch b WHERE m.id = b.id AND m.content_tsv IS NULL"
+            + ") "
+            + "SELECT id FROM batch ORDER BY id DESC LIMIT 1";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (PreparedStatement statement = connection.prepareStatement(BACKFILL_BATCH)) {
+            UUID lastId = new UUID(0, 0);
+            while (true) {
+                statement.setObject(1, lastId);
+                statement.setInt(2, BATCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) {
+                        return;
+                    }
+                    lastId = rs.getObject(1, UUID.class);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
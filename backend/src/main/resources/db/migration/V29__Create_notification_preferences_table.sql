@@ -0,0 +1,20 @@
+-- Tùy chọn nhận thông báo của user: một dòng mặc định (project_id NULL) và các dòng override theo project
+-- enabled_mask: mỗi bit ứng với một cặp (kênh, loại sự kiện), xem NotificationPreference.bit()
+CREATE TABLE notification_preferences (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    project_id UUID REFERENCES projects(id) ON DELETE CASCADE,
+    enabled_mask INTEGER NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Mỗi user chỉ có một dòng mặc định và một dòng cho mỗi project
+CREATE UNIQUE INDEX uq_notification_preferences_user_default
+    ON notification_preferences(user_id) WHERE project_id IS NULL;
+CREATE UNIQUE INDEX uq_notification_preferences_user_project
+    ON notification_preferences(user_id, project_id) WHERE project_id IS NOT NULL;
+
+CREATE TRIGGER update_notification_preferences_updated_at
+    BEFORE UPDATE ON notification_preferences
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,9 @@
+-- Payload broadcast WebSocket vượt giới hạn 8000 byte của NOTIFY được lưu tạm ở đây, NOTIFY chỉ gửi id
+-- Các dòng cũ hơn 5 phút được PostgresBroadcastBus dọn định kỳ
+CREATE TABLE ws_broadcast_overflow (
+    id BIGSERIAL PRIMARY KEY,
+    body TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ws_broadcast_overflow_created_at ON ws_broadcast_overflow(created_at);
@@ -0,0 +1,13 @@
+-- Số tin nhắn và thời điểm tin nhắn cuối được lưu sẵn trên chats, cập nhật bằng một UPDATE nguyên tử mỗi lần gửi
+-- (không cần load Chat.messages hay COUNT(*) trên messages)
+ALTER TABLE chats
+    ADD COLUMN last_message_at TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN message_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE chats c
+SET message_count   = m.total,
+    last_message_at = m.last_at
+FROM (SELECT chat_id, COUNT(*) AS total, MAX(created_at) AS last_at
+      FROM messages
+      GROUP BY chat_id) m
+WHERE m.chat_id = c.id;
@@ -0,0 +1,8 @@
+-- Index phục vụ phân trang keyset lịch sử chat theo (chat_id, created_at, id).
+-- CONCURRENTLY để không khóa ghi bảng messages khi tạo index; Flyway tự chạy script này ngoài transaction
+-- (nên script chỉ chứa lệnh CONCURRENTLY). Nếu bị ngắt giữa chừng, index INVALID còn lại phải DROP tay
+-- trước khi chạy lại vì IF NOT EXISTS sẽ bỏ qua nó.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_chat_created_id ON messages (chat_id, created_at DESC, id DESC);
+
+-- Đã được index trên bao phủ (tiền tố chat_id)
+DROP INDEX CONCURRENTLY IF EXISTS idx_messages_chat;
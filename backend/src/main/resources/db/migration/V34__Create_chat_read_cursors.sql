@@ -0,0 +1,28 @@
+-- Vị trí đã đọc của từng user trong từng chat (read receipt).
+-- read_count là số tin nhắn tới và bao gồm last_read_message_id, nên unread = chats.message_count - read_count
+CREATE TABLE chat_read_cursors (
+    chat_id              UUID NOT NULL REFERENCES chats(id) ON DELETE CASCADE,
+    user_id              UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    -- Không dùng FK: tin nhắn bị xóa thì cursor vẫn giữ vị trí cũ
+    last_read_message_id UUID,
+    last_read_message_at TIMESTAMPTZ,
+    read_count           BIGINT NOT NULL DEFAULT 0,
+    updated_at           TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (chat_id, user_id)
+);
+
+CREATE INDEX idx_chat_read_cursors_user ON chat_read_cursors(user_id);
+
+-- Thành viên hiện tại coi như đã đọc hết, để badge không hiện toàn bộ lịch sử là chưa đọc sau khi deploy
+INSERT INTO chat_read_cursors (chat_id, user_id, last_read_message_id, last_read_message_at, read_count)
+SELECT p.chat_id, pm.user_id, last_message.id, last_message.created_at, c.message_count
+FROM project_members pm
+JOIN projects p ON p.id = pm.project_id
+JOIN chats c ON c.id = p.chat_id
+LEFT JOIN LATERAL (
+    SELECT m.id, m.created_at FROM messages m
+    WHERE m.chat_id = c.id
+    ORDER BY m.created_at DESC, m.id DESC
+    LIMIT 1
+) last_message ON true
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,3 @@
+-- Index GIN cho tìm kiếm, tạo sau khi backfill (V35_1) để không khóa ghi bảng messages.
+-- Flyway chạy script chỉ có lệnh CONCURRENTLY ngoài transaction; index INVALID sau lần chạy hỏng phải DROP tay trước khi chạy lại.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_content_tsv ON messages USING GIN (content_tsv);
@@ -0,0 +1,18 @@
+-- Full-text search cho lịch sử chat.
+-- Dùng cấu hình 'simple' (không stemming, không stop word) vì nội dung chủ yếu là tiếng Việt, Postgres không có
+-- dictionary tiếng Việt.
+-- Không dùng cột GENERATED ... STORED: thêm cột đó ghi lại toàn bộ bảng dưới ACCESS EXCLUSIVE lock.
+-- Cột nullable không default chỉ đổi metadata; trigger giữ cột đồng bộ với content cho dòng mới/sửa,
+-- dòng cũ được backfill theo lô ở V35_1 và index GIN tạo CONCURRENTLY ở V35_2.
+ALTER TABLE messages ADD COLUMN content_tsv tsvector;
+
+CREATE OR REPLACE FUNCTION messages_content_tsv_refresh() RETURNS trigger AS $$
+BEGIN
+    NEW.content_tsv := to_tsvector('simple', coalesce(NEW.content, ''));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_messages_content_tsv
+    BEFORE INSERT OR UPDATE OF content ON messages
+    FOR EACH ROW EXECUTE FUNCTION messages_content_tsv_refresh();
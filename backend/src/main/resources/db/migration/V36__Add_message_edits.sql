@@ -0,0 +1,13 @@
+-- Phiên bản của tin nhắn cho optimistic locking; tăng 1 mỗi lần sửa, > 0 nghĩa là đã chỉnh sửa
+ALTER TABLE messages ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Lịch sử sửa tin nhắn: mỗi lần sửa chỉ lưu nội dung cũ và phiên bản nó thay thế,
+-- không sao chép sender/attachment. Khóa chính (message_id, version) cũng chặn ghi trùng một phiên bản.
+CREATE TABLE message_edits (
+    message_id       UUID NOT NULL REFERENCES messages(id) ON DELETE CASCADE,
+    version          BIGINT NOT NULL,
+    previous_content TEXT,
+    editor_id        UUID REFERENCES users(id) ON DELETE SET NULL,
+    edited_at        TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (message_id, version)
+);
@@ -0,0 +1,21 @@
+-- Thread: reply trỏ tới tin nhắn gốc (chỉ một cấp). Reply vẫn nằm trong timeline của chat nên counter,
+-- read cursor và search không đổi. Xóa tin gốc thì reply giữ lại và thành tin nhắn thường.
+ALTER TABLE messages ADD COLUMN parent_id UUID REFERENCES messages(id) ON DELETE SET NULL;
+-- Đếm sẵn để hiển thị "N trả lời" không cần COUNT khi render
+ALTER TABLE messages ADD COLUMN reply_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE messages ADD COLUMN last_reply_at TIMESTAMPTZ;
+
+CREATE INDEX idx_messages_parent_created_id ON messages(parent_id, created_at, id) WHERE parent_id IS NOT NULL;
+
+-- Reaction: mỗi (message, user, emoji) một dòng, chỉ để chặn react trùng và cho phép bỏ react.
+-- Số lượng theo emoji được cộng/trừ sẵn trong messages.reaction_counts cùng câu lệnh ghi dòng này.
+CREATE TABLE message_reactions (
+    message_id UUID NOT NULL REFERENCES messages(id) ON DELETE CASCADE,
+    user_id    UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    emoji      VARCHAR(32) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (message_id, user_id, emoji)
+);
+
+-- {"👍": 3, "🎉": 1}; emoji về 0 thì bị xóa khỏi object
+ALTER TABLE messages ADD COLUMN reaction_counts JSONB NOT NULL DEFAULT '{}'::jsonb;
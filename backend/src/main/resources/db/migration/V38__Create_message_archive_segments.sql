@@ -0,0 +1,23 @@
+-- Lưu trữ lạnh lịch sử chat: tin nhắn cũ hơn ngưỡng được chuyển khỏi bảng messages thành từng segment
+-- theo (chat, tháng UTC). data là mảng JSON các tin nhắn (cũ nhất trước) nén gzip; segment không đổi sau khi ghi.
+CREATE TABLE message_archive_segments (
+    chat_id          UUID NOT NULL REFERENCES chats(id) ON DELETE CASCADE,
+    period_start     TIMESTAMPTZ NOT NULL,
+    period_end       TIMESTAMPTZ NOT NULL,
+    message_count    INTEGER NOT NULL,
+    -- Biên (created_at) của tin nhắn đầu/cuối trong segment, để chọn segment theo cursor mà không giải nén
+    first_created_at TIMESTAMPTZ NOT NULL,
+    last_created_at  TIMESTAMPTZ NOT NULL,
+    format_version   SMALLINT NOT NULL DEFAULT 1,
+    raw_bytes        INTEGER NOT NULL,
+    data             BYTEA NOT NULL,
+    archived_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (chat_id, period_start)
+);
+
+-- Mọi tin nhắn có created_at < archived_until đã nằm trong segment; null = chat chưa lưu trữ gì.
+-- API lịch sử chỉ đọc segment khi cursor đi qua mốc này.
+ALTER TABLE chats ADD COLUMN archived_until TIMESTAMPTZ;
+
+-- Reply mới vẫn giữ parent_id tới tin gốc đã lưu trữ; khi xóa tin gốc, ChatService tự gỡ parent_id của reply
+ALTER TABLE messages DROP CONSTRAINT IF EXISTS messages_parent_id_fkey;
@@ -0,0 +1,3 @@
+-- Khóa idempotency do client sinh cho mỗi lần gửi: gửi lại (sau timeout) với cùng khóa trả về tin đã lưu
+-- thay vì tạo bản trùng. Cột nullable không default nên chỉ đổi metadata, không ghi lại bảng.
+ALTER TABLE messages ADD COLUMN client_message_id UUID;
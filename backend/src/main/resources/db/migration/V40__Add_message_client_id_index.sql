@@ -0,0 +1,4 @@
+-- Khóa chỉ cần duy nhất theo người gửi; index partial bỏ qua tin nhắn cũ và client không gửi khóa.
+-- CONCURRENTLY như V33 (chạy ngoài transaction, index INVALID sau lần chạy hỏng phải DROP tay).
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_messages_sender_client_message_id
+    ON messages (sender_id, client_message_id) WHERE client_message_id IS NOT NULL;
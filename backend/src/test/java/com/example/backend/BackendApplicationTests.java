@@ -1,10 +1,8 @@
 package com.example.backend;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class BackendApplicationTests {
+class BackendApplicationTests extends PostgresIntegrationTest {
 
     @Test
     void contextLoads() {}
@@ -0,0 +1,44 @@
+package com.example.backend;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Inserts the minimal rows the chat tests need, straight through JDBC so ids and created_at can be chosen
+ * exactly. Messages keep chats.message_count in step, as MessageService does.
+ */
+public final class TestRows {
+
+    private TestRows() {
+    }
+
+    public static UUID user(JdbcTemplate jdbcTemplate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, email, name, provider) VALUES (?, ?, ?, 'LOCAL')",
+                id, id + "@test.local", "Test " + id);
+        return id;
+    }
+
+    public static UUID chat(JdbcTemplate jdbcTemplate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO chats (id, name) VALUES (?, 'test chat')", id);
+        return id;
+    }
+
+    // A project needs its own chat (projects.chat_id is NOT NULL); team and creator are optional
+    public static UUID project(JdbcTemplate jdbcTemplate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO projects (id, name, key, chat_id) VALUES (?, 'test project', 'TEST', ?)",
+                id, chat(jdbcTemplate));
+        return id;
+    }
+
+    public static UUID message(JdbcTemplate jdbcTemplate, UUID chatId, UUID senderId, UUID id, OffsetDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO messages (id, chat_id, sender_id, content, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, chatId, senderId, "message " + createdAt, createdAt);
+        jdbcTemplate.update("UPDATE chats SET message_count = message_count + 1 WHERE id = ?", chatId);
+        return id;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.controller;
+
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import com.example.backend.service.RoomAccessService;
+import com.example.backend.websocket.BrokerMode;
+import com.example.backend.websocket.PresenceRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PresenceControllerTest {
+
+    final PresenceRegistry presenceRegistry = mock(PresenceRegistry.class);
+    final RoomAccessService roomAccessService = mock(RoomAccessService.class);
+
+    @ParameterizedTest
+    @EnumSource(value = BrokerMode.class, names = "SIMPLE", mode = EnumSource.Mode.EXCLUDE)
+    void snapshotIsRejectedWhenPresenceIsSplitAcrossNodes(BrokerMode mode) {
+        assertThatThrownBy(() -> controller(mode).getPresence("chat", UUID.randomUUID()))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.NOT_SUPPORTED));
+        verifyNoInteractions(presenceRegistry, roomAccessService);
+    }
+
+    @Test
+    void singleNodeReturnsTheLocalSnapshot() {
+        UUID userId = UUID.randomUUID();
+        UUID chatId = UUID.randomUUID();
+        String room = "chat:" + chatId;
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject(userId.toString()).build();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(jwt, null));
+        when(roomAccessService.canAccess(userId, room)).thenReturn(true);
+        when(presenceRegistry.getPresentUsers(room)).thenReturn(Set.of(userId.toString()));
+        try {
+            assertThat(controller(BrokerMode.SIMPLE).getPresence("chat", chatId).getResult().getUserIds())
+                    .containsExactly(userId.toString());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private PresenceController controller(BrokerMode mode) {
+        PresenceController controller = new PresenceController(presenceRegistry, roomAccessService);
+        ReflectionTestUtils.setField(controller, "brokerMode", mode);
+        return controller;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.repository;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatReadCursorRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    ChatReadCursorRepository chatReadCursorRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    UUID userId;
+    UUID chatId;
+    UUID first;
+    UUID second;
+    UUID third;
+
+    // Three messages; the last two share created_at and are ordered by id
+    @BeforeEach
+    void seed() {
+        userId = TestRows.user(jdbcTemplate);
+        chatId = TestRows.chat(jdbcTemplate);
+        OffsetDateTime at = OffsetDateTime.parse("2024-06-01T12:00:00Z");
+        first = TestRows.message(jdbcTemplate, chatId, userId, UUID.randomUUID(), at.minusMinutes(1));
+        // Fresh per test (rows are not rolled back); the high bits fix which of the two sorts first
+        long low = UUID.randomUUID().getLeastSignificantBits();
+        second = TestRows.message(jdbcTemplate, chatId, userId, new UUID(0x1000000000004000L, low), at);
+        third = TestRows.message(jdbcTemplate, chatId, userId, new UUID(0xf000000000004000L, low), at);
+    }
+
+    @Test
+    void firstAdvanceInsertsTheCursorWithItsPosition() {
+        assertThat(chatReadCursorRepository.advance(chatId, userId, second)).isEqualTo(1);
+
+        assertThat(cursor()).containsEntry("last_read_message_id", second).containsEntry("read_count", 2L);
+    }
+
+    @Test
+    void cursorOnlyMovesForward() {
+        chatReadCursorRepository.advance(chatId, userId, second);
+
+        assertThat(chatReadCursorRepository.advance(chatId, userId, first)).isZero();
+        assertThat(chatReadCursorRepository.advance(chatId, userId, second)).isZero();
+        assertThat(cursor()).containsEntry("last_read_message_id", second).containsEntry("read_count", 2L);
+
+        // Same created_at as the cursor, larger id: still forward
+        assertThat(chatReadCursorRepository.advance(chatId, userId, third)).isEqualTo(1);
+        assertThat(cursor()).containsEntry("last_read_message_id", third).containsEntry("read_count", 3L);
+    }
+
+    @Test
+    void messageOfAnotherChatIsIgnored() {
+        UUID otherChat = TestRows.chat(jdbcTemplate);
+        UUID foreign = TestRows.message(jdbcTemplate, otherChat, userId, UUID.randomUUID(), OffsetDateTime.now());
+
+        assertThat(chatReadCursorRepository.advance(chatId, userId, foreign)).isZero();
+        assertThat(cursors()).isEmpty();
+    }
+
+    @Test
+    void unreadCountFollowsMessagesSentAfterTheCursor() {
+        chatReadCursorRepository.advance(chatId, userId, first);
+        TestRows.message(jdbcTemplate, chatId, userId, UUID.randomUUID(), OffsetDateTime.parse("2024-06-01T12:05:00Z"));
+
+        Long unread = jdbcTemplate.queryForObject(
+                "SELECT c.message_count - r.read_count FROM chats c JOIN chat_read_cursors r ON r.chat_id = c.id "
+                        + "WHERE c.id = ? AND r.user_id = ?", Long.class, chatId, userId);
+        assertThat(unread).isEqualTo(3);
+    }
+
+    private Map<String, Object> cursor() {
+        assertThat(cursors()).hasSize(1);
+        return cursors().getFirst();
+    }
+
+    private List<Map<String, Object>> cursors() {
+        return jdbcTemplate.queryForList("SELECT last_read_message_id, read_count FROM chat_read_cursors "
+                + "WHERE chat_id = ? AND user_id = ?", chatId, userId);
+    }
+}
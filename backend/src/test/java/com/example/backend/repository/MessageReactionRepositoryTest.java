@@ -0,0 +1,108 @@
+package com.example.backend.repository;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageReactionRepositoryTest extends PostgresIntegrationTest {
+
+    private static final String THUMBS_UP = "👍";
+    // Multi-codepoint emoji and a quote: the emoji is bound as a jsonb key, never spliced into the SQL
+    private static final String SKIN_TONE = "👍🏽";
+    private static final String QUOTE = "it's";
+
+    @Autowired
+    MessageReactionRepository messageReactionRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    UUID alice;
+    UUID bob;
+    UUID chatId;
+    UUID messageId;
+
+    @BeforeEach
+    void seed() {
+        alice = TestRows.user(jdbcTemplate);
+        bob = TestRows.user(jdbcTemplate);
+        chatId = TestRows.chat(jdbcTemplate);
+        messageId = TestRows.message(jdbcTemplate, chatId, alice, UUID.randomUUID(), OffsetDateTime.now());
+    }
+
+    @Test
+    void addCountsEachUserOncePerEmoji() throws Exception {
+        assertThat(counts(messageReactionRepository.add(messageId, alice, THUMBS_UP))).isEqualTo(Map.of(THUMBS_UP, 1));
+        assertThat(messageReactionRepository.add(messageId, alice, THUMBS_UP)).isEmpty();
+        assertThat(counts(messageReactionRepository.add(messageId, bob, THUMBS_UP))).isEqualTo(Map.of(THUMBS_UP, 2));
+        assertThat(counts(messageReactionRepository.add(messageId, alice, SKIN_TONE)))
+                .isEqualTo(Map.of(THUMBS_UP, 2, SKIN_TONE, 1));
+        assertThat(counts(messageReactionRepository.add(messageId, alice, QUOTE)))
+                .isEqualTo(Map.of(THUMBS_UP, 2, SKIN_TONE, 1, QUOTE, 1));
+
+        assertThat(storedCounts()).isEqualTo(Map.of(THUMBS_UP, 2, SKIN_TONE, 1, QUOTE, 1));
+        assertThat(reactionRows()).isEqualTo(4);
+    }
+
+    @Test
+    void addReturnsTheChatOfTheMessage() {
+        List<Object[]> rows = messageReactionRepository.add(messageId, alice, THUMBS_UP);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst()[0]).isEqualTo(chatId);
+    }
+
+    @Test
+    void removeDecrementsAndDropsTheKeyAtZero() throws Exception {
+        messageReactionRepository.add(messageId, alice, THUMBS_UP);
+        messageReactionRepository.add(messageId, bob, THUMBS_UP);
+        messageReactionRepository.add(messageId, alice, SKIN_TONE);
+
+        assertThat(counts(messageReactionRepository.remove(messageId, alice, THUMBS_UP)))
+                .isEqualTo(Map.of(THUMBS_UP, 1, SKIN_TONE, 1));
+        assertThat(counts(messageReactionRepository.remove(messageId, bob, THUMBS_UP))).isEqualTo(Map.of(SKIN_TONE, 1));
+        assertThat(counts(messageReactionRepository.remove(messageId, alice, SKIN_TONE))).isEmpty();
+
+        assertThat(storedCounts()).isEmpty();
+        assertThat(reactionRows()).isZero();
+    }
+
+    @Test
+    void removeWithoutReactionChangesNothing() throws Exception {
+        messageReactionRepository.add(messageId, alice, THUMBS_UP);
+
+        assertThat(messageReactionRepository.remove(messageId, bob, THUMBS_UP)).isEmpty();
+        assertThat(messageReactionRepository.remove(messageId, alice, SKIN_TONE)).isEmpty();
+        assertThat(storedCounts()).isEqualTo(Map.of(THUMBS_UP, 1));
+    }
+
+    private Map<String, Integer> counts(List<Object[]> rows) throws Exception {
+        assertThat(rows).hasSize(1);
+        return objectMapper.readValue((String) rows.getFirst()[1], new TypeReference<>() {
+        });
+    }
+
+    private Map<String, Integer> storedCounts() throws Exception {
+        String json = jdbcTemplate.queryForObject("SELECT CAST(reaction_counts AS text) FROM messages WHERE id = ?",
+                String.class, messageId);
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+
+    private long reactionRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM message_reactions WHERE message_id = ?", Long.class, messageId);
+    }
+}
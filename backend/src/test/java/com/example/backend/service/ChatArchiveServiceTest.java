@@ -0,0 +1,155 @@
+package com.example.backend.service;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import com.example.backend.dto.response.ChatMessagePageResponse;
+import com.example.backend.dto.response.ChatMessageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatArchiveServiceTest extends PostgresIntegrationTest {
+
+    // Same high bits except the sign bit: UUID.compareTo (signed) and Postgres (unsigned) disagree on them
+    private static final UUID LOW = UUID.fromString("7fffffff-ffff-4fff-bfff-ffffffffffff");
+    private static final UUID HIGH = UUID.fromString("80000000-0000-4000-8000-000000000000");
+
+    @Autowired
+    ChatArchiveService chatArchiveService;
+    @Autowired
+    ChatService chatService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedMessagesCompareUuidsUnsignedLikePostgres() {
+        OffsetDateTime at = OffsetDateTime.parse("2021-05-05T10:00:00Z");
+        ChatArchiveService.ArchivedMessage low = archived(LOW, at);
+        ChatArchiveService.ArchivedMessage high = archived(HIGH, at);
+
+        assertThat(LOW.compareTo(HIGH)).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT CAST(? AS uuid) < CAST(? AS uuid)", Boolean.class, LOW, HIGH)).isTrue();
+        assertThat(low.isBefore(at, HIGH)).isTrue();
+        assertThat(high.isAfter(at, LOW)).isTrue();
+        assertThat(low.isAfter(at, HIGH)).isFalse();
+        assertThat(low.isBefore(at, LOW)).isFalse();
+        assertThat(low.isAfter(at, LOW)).isFalse();
+        // Time decides before the id
+        assertThat(high.isBefore(at.plusNanos(1000), LOW)).isTrue();
+    }
+
+    @Test
+    void archivesOnlyWholeUtcMonthsBeforeTheCutoff() {
+        UUID userId = insertUser();
+        UUID chatId = insertChat();
+        UUID lastOfJanuary = insertMessage(chatId, userId, UUID.randomUUID(), "2022-01-31T23:59:59.999999Z");
+        UUID firstOfFebruary = insertMessage(chatId, userId, UUID.randomUUID(), "2022-02-01T00:00:00Z");
+        // 2022-02-28T23:30-01:00 is already March in UTC
+        UUID marchInUtc = insertMessage(chatId, userId, UUID.randomUUID(), "2022-02-28T23:30:00-01:00");
+
+        // February is not entirely before the cutoff, so only January goes
+        chatArchiveService.archiveBefore(OffsetDateTime.parse("2022-02-15T00:00:00Z"), 100);
+        assertThat(segmentPeriods(chatId)).containsExactly(OffsetDateTime.parse("2022-01-01T00:00:00Z"));
+        assertThat(hotIds(chatId)).containsExactly(firstOfFebruary, marchInUtc);
+        assertThat(archivedUntil(chatId)).isEqualTo(OffsetDateTime.parse("2022-02-01T00:00:00Z"));
+
+        chatArchiveService.archiveBefore(OffsetDateTime.parse("2022-03-01T00:00:00Z"), 100);
+        assertThat(segmentPeriods(chatId)).containsExactly(
+                OffsetDateTime.parse("2022-01-01T00:00:00Z"), OffsetDateTime.parse("2022-02-01T00:00:00Z"));
+        assertThat(hotIds(chatId)).containsExactly(marchInUtc);
+        assertThat(archivedUntil(chatId)).isEqualTo(OffsetDateTime.parse("2022-03-01T00:00:00Z"));
+
+        List<ChatMessageResponse> history = chatService.getChatMessagesByCursor(chatId, null, null, 10).getMessages();
+        assertThat(history).extracting(ChatMessageResponse::getId).containsExactly(lastOfJanuary, firstOfFebruary, marchInUtc);
+        assertThat(history).extracting(ChatMessageResponse::isArchived).containsExactly(true, true, false);
+    }
+
+    @Test
+    void cursorPagesWalkAcrossArchiveAndHotMessagesInPostgresOrder() {
+        UUID userId = insertUser();
+        UUID chatId = insertChat();
+        // Ties on created_at in an archived month and in the hot part, ordered by id
+        insertMessage(chatId, userId, UUID.randomUUID(), "2023-01-10T08:00:00Z");
+        insertMessage(chatId, userId, HIGH, "2023-01-20T08:00:00Z");
+        insertMessage(chatId, userId, LOW, "2023-01-20T08:00:00Z");
+        insertMessage(chatId, userId, UUID.randomUUID(), "2023-02-01T00:00:00Z");
+        insertMessage(chatId, userId, UUID.randomUUID(), "2023-02-28T23:59:59.999999Z");
+        OffsetDateTime hotTie = OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(5);
+        insertMessage(chatId, userId, UUID.randomUUID(), "2023-03-02T12:00:00Z");
+        insertMessage(chatId, userId, UUID.fromString("ffffffff-ffff-4fff-bfff-ffffffffffff"), hotTie.toString());
+        insertMessage(chatId, userId, UUID.fromString("00000000-0000-4000-8000-000000000001"), hotTie.toString());
+        List<UUID> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM messages WHERE chat_id = ? ORDER BY created_at, id", UUID.class, chatId);
+
+        chatArchiveService.archiveBefore(OffsetDateTime.parse("2023-03-01T00:00:00Z"), 100);
+        assertThat(segmentPeriods(chatId)).hasSize(2);
+        assertThat(hotIds(chatId)).hasSize(3);
+
+        for (int limit : new int[]{1, 2, 3, 8}) {
+            // Backwards from the latest page
+            List<UUID> backwards = new ArrayList<>();
+            ChatMessagePageResponse page = chatService.getChatMessagesByCursor(chatId, null, null, limit);
+            ChatMessagePageResponse oldest = page;
+            backwards.addAll(0, ids(page));
+            while (page.isHasMoreBefore()) {
+                page = chatService.getChatMessagesByCursor(chatId, page.getBeforeCursor(), null, limit);
+                backwards.addAll(0, ids(page));
+                oldest = page;
+            }
+            assertThat(backwards).as("backwards, limit %d", limit).isEqualTo(expected);
+
+            // Forwards again from the oldest page
+            List<UUID> forwards = new ArrayList<>(ids(oldest));
+            page = oldest;
+            do {
+                page = chatService.getChatMessagesByCursor(chatId, null, page.getAfterCursor(), limit);
+                forwards.addAll(ids(page));
+            } while (page.isHasMoreAfter());
+            assertThat(forwards).as("forwards, limit %d", limit).isEqualTo(expected);
+        }
+    }
+
+    private static ChatArchiveService.ArchivedMessage archived(UUID id, OffsetDateTime createdAt) {
+        return new ChatArchiveService.ArchivedMessage(id, UUID.randomUUID(), "", createdAt, null, 0L, null, 0, null,
+                Map.of(), List.of());
+    }
+
+    private static List<UUID> ids(ChatMessagePageResponse page) {
+        return page.getMessages().stream().map(ChatMessageResponse::getId).toList();
+    }
+
+    private UUID insertUser() {
+        return TestRows.user(jdbcTemplate);
+    }
+
+    private UUID insertChat() {
+        return TestRows.chat(jdbcTemplate);
+    }
+
+    private UUID insertMessage(UUID chatId, UUID senderId, UUID id, String createdAt) {
+        return TestRows.message(jdbcTemplate, chatId, senderId, id, OffsetDateTime.parse(createdAt));
+    }
+
+    private List<OffsetDateTime> segmentPeriods(UUID chatId) {
+        return jdbcTemplate.queryForList("SELECT period_start FROM message_archive_segments WHERE chat_id = ? ORDER BY period_start",
+                OffsetDateTime.class, chatId).stream().map(at -> at.withOffsetSameInstant(ZoneOffset.UTC)).toList();
+    }
+
+    private List<UUID> hotIds(UUID chatId) {
+        return jdbcTemplate.queryForList("SELECT id FROM messages WHERE chat_id = ? ORDER BY created_at, id", UUID.class, chatId);
+    }
+
+    private OffsetDateTime archivedUntil(UUID chatId) {
+        return jdbcTemplate.queryForObject("SELECT archived_until FROM chats WHERE id = ?", OffsetDateTime.class, chatId)
+                .withOffsetSameInstant(ZoneOffset.UTC);
+    }
+}
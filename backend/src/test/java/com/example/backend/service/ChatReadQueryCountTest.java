@@ -0,0 +1,108 @@
+package com.example.backend.service;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The chat read paths must run the same number of statements whatever the page holds: one message from
+ * one sender, or a full page from many senders with attachments (no per-message or per-sender loads).
+ */
+class ChatReadQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int SENDERS = 10;
+    private static final int MESSAGES = 50;
+    private static final int ATTACHMENTS_PER_MESSAGE = 2;
+    // Larger than both chats, so the paged read skips its count query in both cases
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    ChatService chatService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    UUID smallChat;
+    UUID fullChat;
+
+    @BeforeEach
+    void seed() {
+        List<UUID> senders = IntStream.range(0, SENDERS).mapToObj(i -> TestRows.user(jdbcTemplate)).toList();
+        smallChat = TestRows.chat(jdbcTemplate);
+        fullChat = TestRows.chat(jdbcTemplate);
+        insertMessages(smallChat, senders.subList(0, 1), 1, ATTACHMENTS_PER_MESSAGE);
+        insertMessages(fullChat, senders, MESSAGES, ATTACHMENTS_PER_MESSAGE);
+
+        // Statistics are global to the session factory; only the read under test runs while they are on
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void cursorPageDoesNotDependOnPageContent() throws Exception {
+        assertThat(statements(() -> chatService.getChatMessagesByCursor(fullChat, null, null, PAGE_SIZE)))
+                .isEqualTo(statements(() -> chatService.getChatMessagesByCursor(smallChat, null, null, PAGE_SIZE)));
+    }
+
+    @Test
+    void pagedReadDoesNotDependOnPageContent() throws Exception {
+        assertThat(statements(() -> chatService.getChatMessages(fullChat, 0, PAGE_SIZE)))
+                .isEqualTo(statements(() -> chatService.getChatMessages(smallChat, 0, PAGE_SIZE)));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    void fullHistoryDoesNotDependOnPageContent() throws Exception {
+        assertThat(statements(() -> chatService.getAllChatMessages(fullChat)))
+                .isEqualTo(statements(() -> chatService.getAllChatMessages(smallChat)));
+    }
+
+    private void insertMessages(UUID chatId, List<UUID> senders, int count, int attachments) {
+        OffsetDateTime start = OffsetDateTime.now().minusSeconds(count);
+        for (int i = 0; i < count; i++) {
+            UUID sender = senders.get(i % senders.size());
+            UUID messageId = TestRows.message(jdbcTemplate, chatId, sender, UUID.randomUUID(), start.plusSeconds(i));
+            for (int a = 0; a < attachments; a++) {
+                jdbcTemplate.update("INSERT INTO attachments (id, message_id, file_name, file_type, file_size, file_path, uploader_id) "
+                                + "VALUES (gen_random_uuid(), ?, ?, 'text/plain', 1, ?, ?)",
+                        messageId, "file-" + a + ".txt", "chat/" + messageId + "/" + a, sender);
+            }
+        }
+    }
+
+    private long statements(Read read) throws Exception {
+        // Warm up caches that are filled once, so only the read path itself is counted
+        assertThat(read.run()).isNotNull();
+        statistics.clear();
+        read.run();
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(statements).as("statements counted").isPositive();
+        return statements;
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.service;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import com.example.backend.dto.request.ChatMessageEditRequest;
+import com.example.backend.dto.response.ChatMessageResponse;
+import com.example.backend.exception.AppException;
+import com.example.backend.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatServiceEditTest extends PostgresIntegrationTest {
+
+    @Autowired
+    ChatService chatService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    DataSource dataSource;
+
+    UUID senderId;
+    UUID messageId;
+
+    @BeforeEach
+    void seed() {
+        senderId = TestRows.user(jdbcTemplate);
+        UUID chatId = TestRows.chat(jdbcTemplate);
+        messageId = TestRows.message(jdbcTemplate, chatId, senderId, UUID.randomUUID(), OffsetDateTime.now());
+        jdbcTemplate.update("UPDATE messages SET content = 'original' WHERE id = ?", messageId);
+    }
+
+    @Test
+    void editBumpsVersionAndKeepsThePreviousContent() {
+        ChatMessageResponse edited = chatService.editMessage(messageId, senderId, edit("first edit", 0L));
+
+        assertThat(edited.getContent()).isEqualTo("first edit");
+        assertThat(edited.getVersion()).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForList("SELECT version, previous_content FROM message_edits WHERE message_id = ?", messageId))
+                .containsExactly(Map.of("version", 0L, "previous_content", "original"));
+    }
+
+    @Test
+    void staleVersionIsRejectedWithConflict() {
+        chatService.editMessage(messageId, senderId, edit("first edit", 0L));
+
+        assertThatThrownBy(() -> chatService.editMessage(messageId, senderId, edit("from a stale tab", 0L)))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.CONFLICT));
+        assertThat(stored()).containsEntry("content", "first edit").containsEntry("version", 1L);
+        assertThat(editRows()).isEqualTo(1);
+    }
+
+    @Test
+    void editOfAnotherUserIsRejected() {
+        UUID other = TestRows.user(jdbcTemplate);
+
+        assertThatThrownBy(() -> chatService.editMessage(messageId, other, edit("not mine", 0L)))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.UNAUTHORIZED));
+        assertThat(stored()).containsEntry("content", "original").containsEntry("version", 0L);
+    }
+
+    // Both edits read version 0. The one holding the row lock commits first; the other's
+    // UPDATE ... WHERE version = 0 then matches nothing and must surface as CONFLICT, not overwrite
+    @Test
+    void concurrentEditThatLosesTheRaceIsRejectedWithConflict() throws Exception {
+        try (Connection winner = dataSource.getConnection()) {
+            winner.setAutoCommit(false);
+            try (PreparedStatement update = winner.prepareStatement(
+                    "UPDATE messages SET content = 'winner', version = version + 1 WHERE id = ? AND version = 0")) {
+                update.setObject(1, messageId);
+                assertThat(update.executeUpdate()).isEqualTo(1);
+            }
+
+            CompletableFuture<ChatMessageResponse> loser = CompletableFuture.supplyAsync(
+                    () -> chatService.editMessage(messageId, senderId, edit("loser", 0L)));
+            awaitBlockedOnRowLock();
+            winner.commit();
+
+            assertThatThrownBy(() -> loser.get(10, TimeUnit.SECONDS))
+                    .cause()
+                    .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.CONFLICT));
+        }
+        assertThat(stored()).containsEntry("content", "winner").containsEntry("version", 1L);
+        assertThat(editRows()).isZero();
+    }
+
+    private void awaitBlockedOnRowLock() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Long waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                    + "WHERE wait_event_type = 'Lock' AND query LIKE 'update messages%'", Long.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Edit never blocked on the message row");
+    }
+
+    private static ChatMessageEditRequest edit(String content, Long version) {
+        return ChatMessageEditRequest.builder().content(content).version(version).build();
+    }
+
+    private Map<String, Object> stored() {
+        return jdbcTemplate.queryForMap("SELECT content, version FROM messages WHERE id = ?", messageId);
+    }
+
+    private long editRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM message_edits WHERE message_id = ?", Long.class, messageId);
+    }
+}
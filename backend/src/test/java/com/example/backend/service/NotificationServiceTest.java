@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import com.example.backend.dto.request.NotificationCreationRequest;
+import com.example.backend.entity.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Real-time push and email for a new notification go out only after its rows are committed.
+ */
+class NotificationServiceTest extends PostgresIntegrationTest {
+
+    @MockitoBean
+    WebSocketService webSocketService;
+    @MockitoBean
+    EmailService emailService;
+
+    @Autowired
+    NotificationService notificationService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    UUID userId;
+    String email;
+
+    @BeforeEach
+    void seed() throws Exception {
+        userId = TestRows.user(jdbcTemplate);
+        email = userId + "@test.local";
+        when(emailService.sendNotificationEmail(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void pushAndEmailWaitForTheCommit() throws Exception {
+        Notification notification = transactionTemplate.execute(status -> {
+            Notification created = notificationService.createNotification(request());
+            verifyNoInteractions(webSocketService, emailService);
+            return created;
+        });
+
+        verify(webSocketService, timeout(5000)).broadcastNotificationToUsers(
+                argThat(sent -> sent.getId().equals(notification.getId())), eq(List.of(userId)));
+        verify(emailService, timeout(5000)).sendNotificationEmail(eq(email),
+                argThat(sent -> sent.getId().equals(notification.getId())));
+    }
+
+    @Test
+    void rolledBackNotificationIsNeverSent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.createNotification(request());
+            status.setRollbackOnly();
+        });
+
+        verify(webSocketService, after(500).never()).broadcastNotificationToUsers(any(), anyCollection());
+        verifyNoInteractions(emailService);
+    }
+
+    private NotificationCreationRequest request() {
+        return NotificationCreationRequest.builder()
+                .userIds(List.of(userId))
+                .title("Issue được giao")
+                .content("Bạn được giao một issue")
+                .type("ISSUE")
+                .priority("NORMAL")
+                .createdBy(userId)
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.backend.service;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.example.backend.TestRows;
+import com.example.backend.entity.WebhookSubscription;
+import com.example.backend.repository.WebhookDeliveryRepository;
+import com.example.backend.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the delivery worker against a local HTTP stub. The stub listens on loopback, which the URL guard
+ * rejects, so every test except the guard test resolves the target without it.
+ */
+class WebhookDeliveryServiceTest extends PostgresIntegrationTest {
+
+    private static final String SECRET = "test-secret";
+
+    @Autowired
+    WebhookDeliveryRepository deliveryRepository;
+    @Autowired
+    WebhookSubscriptionRepository subscriptionRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    HttpServer server;
+    volatile int status = 200;
+    final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    UUID projectId;
+
+    record Received(String path, String timestamp, String signature, byte[] body) {
+    }
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            received.add(new Received(exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst(WebhookDeliveryService.TIMESTAMP_HEADER),
+                    exchange.getRequestHeaders().getFirst(WebhookDeliveryService.SIGNATURE_HEADER),
+                    exchange.getRequestBody().readAllBytes()));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        projectId = TestRows.project(jdbcTemplate);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void signatureCoversTheExactBodyBytes() throws Exception {
+        UUID subscriptionId = subscription("/hook");
+        // Non-ASCII content: the signature must be computed over the UTF-8 bytes that go on the wire
+        UUID deliveryId = delivery(subscriptionId, "{\"type\":\"issue.created\",\"title\":\"Sửa lỗi đăng nhập ✓\"}");
+
+        service(20, 8, false).poll();
+        await(() -> "DELIVERED".equals(statusOf(deliveryId)));
+
+        assertThat(received).hasSize(1);
+        Received request = received.peek();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update((request.timestamp() + ".").getBytes(StandardCharsets.UTF_8));
+        assertThat(request.signature()).isEqualTo("sha256=" + HexFormat.of().formatHex(mac.doFinal(request.body())));
+
+        JsonNode item = objectMapper.readTree(request.body()).get("deliveries").get(0);
+        assertThat(item.get("id").asText()).isEqualTo(deliveryId.toString());
+        assertThat(item.get("title").asText()).isEqualTo("Sửa lỗi đăng nhập ✓");
+        assertThat(item.get("attempt").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void deliveriesAreBatchedPerSubscription() throws Exception {
+        UUID first = subscription("/first");
+        UUID second = subscription("/second");
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(delivery(first, "{\"type\":\"issue.updated\",\"n\":" + i + "}"));
+        }
+        ids.add(delivery(second, "{\"type\":\"issue.updated\",\"n\":5}"));
+
+        service(2, 8, false).poll();
+        await(() -> ids.stream().allMatch(id -> "DELIVERED".equals(statusOf(id))));
+
+        Map<String, List<Integer>> sizes = new TreeMap<>();
+        for (Received request : received) {
+            sizes.computeIfAbsent(request.path(), path -> new ArrayList<>())
+                    .add(objectMapper.readTree(request.body()).get("deliveries").size());
+        }
+        sizes.values().forEach(list -> list.sort(null));
+        assertThat(sizes).isEqualTo(Map.of("/first", List.of(1, 2, 2), "/second", List.of(1)));
+    }
+
+    @Test
+    void failuresBackOffExponentiallyThenGiveUp() {
+        status = 500;
+        UUID deliveryId = delivery(subscription("/failing"), "{\"type\":\"issue.deleted\"}");
+        WebhookDeliveryService service = service(20, 3, false);
+
+        service.poll();
+        await(() -> attemptsOf(deliveryId) == 1);
+        double firstDelay = secondsUntilNextAttempt(deliveryId);
+
+        makeDue(deliveryId);
+        service.poll();
+        await(() -> attemptsOf(deliveryId) == 2);
+        double secondDelay = secondsUntilNextAttempt(deliveryId);
+
+        // base 10s, doubled per attempt, +/-20% jitter
+        assertThat(firstDelay).isBetween(7.0, 12.5);
+        assertThat(secondDelay).isBetween(15.0, 24.5);
+        assertThat(secondDelay).isGreaterThan(firstDelay);
+        assertThat(statusOf(deliveryId)).isEqualTo("PENDING");
+
+        makeDue(deliveryId);
+        service.poll();
+        await(() -> "FAILED".equals(statusOf(deliveryId)));
+
+        assertThat(attemptsOf(deliveryId)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM webhook_deliveries WHERE id = ?",
+                String.class, deliveryId)).isEqualTo("HTTP 500");
+        assertThat(received).hasSize(3);
+    }
+
+    @Test
+    void guardedTargetIsNeverCalled() {
+        UUID deliveryId = delivery(subscription("/internal"), "{\"type\":\"issue.created\"}");
+
+        service(20, 8, true).poll();
+        await(() -> "FAILED".equals(statusOf(deliveryId)));
+
+        assertThat(received).isEmpty();
+        assertThat(attemptsOf(deliveryId)).isZero();
+    }
+
+    // A worker of its own, so the settings are the test's and the context's scheduled poller is not involved
+    private WebhookDeliveryService service(int batchSize, int maxAttempts, boolean guarded) {
+        WebhookDeliveryService service = guarded
+                ? new WebhookDeliveryService(deliveryRepository, subscriptionRepository, transactionTemplate,
+                objectMapper, new SimpleMeterRegistry())
+                : new WebhookDeliveryService(deliveryRepository, subscriptionRepository, transactionTemplate,
+                objectMapper, new SimpleMeterRegistry()) {
+            @Override
+            URI target(WebhookSubscription subscription) {
+                return URI.create(subscription.getUrl());
+            }
+        };
+        ReflectionTestUtils.setField(service, "claimLimit", 200);
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(service, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(service, "baseBackoffSeconds", 10L);
+        ReflectionTestUtils.setField(service, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(service, "perHostConcurrency", 2);
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 5000L);
+        service.init();
+        return service;
+    }
+
+    private UUID subscription(String path) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO webhook_subscriptions (id, project_id, url, secret, event_types) "
+                        + "VALUES (?, ?, ?, ?, 'issue')", id, projectId,
+                "http://127.0.0.1:" + server.getAddress().getPort() + path, SECRET);
+        return id;
+    }
+
+    private UUID delivery(UUID subscriptionId, String payload) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO webhook_deliveries (id, subscription_id, event_type, payload, next_attempt_at) "
+                + "VALUES (?, ?, 'issue.created', CAST(? AS jsonb), now())", id, subscriptionId, payload);
+        return id;
+    }
+
+    private void makeDue(UUID deliveryId) {
+        jdbcTemplate.update("UPDATE webhook_deliveries SET next_attempt_at = now() WHERE id = ?", deliveryId);
+    }
+
+    private String statusOf(UUID deliveryId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM webhook_deliveries WHERE id = ?", String.class, deliveryId);
+    }
+
+    private int attemptsOf(UUID deliveryId) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM webhook_deliveries WHERE id = ?", Integer.class, deliveryId);
+    }
+
+    private double secondsUntilNextAttempt(UUID deliveryId) {
+        return jdbcTemplate.queryForObject("SELECT EXTRACT(EPOCH FROM next_attempt_at - now()) FROM webhook_deliveries "
+                + "WHERE id = ?", Double.class, deliveryId);
+    }
+
+    // Batches are sent on virtual threads started by poll()
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+        throw new AssertionError("Webhook deliveries did not reach the expected state");
+    }
+}
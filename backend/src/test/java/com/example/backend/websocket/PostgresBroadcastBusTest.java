@@ -0,0 +1,124 @@
+package com.example.backend.websocket;
+
+import com.example.backend.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two bus instances on one database stand in for two nodes. Each node's local delivery goes to a mock
+ * sender; NOTIFYs on a channel reach listeners in publish order, so once a later marker frame has
+ * arrived, every earlier notification has been handled and duplicates would already show.
+ */
+class PostgresBroadcastBusTest extends PostgresIntegrationTest {
+
+    private static final String DESTINATION = "/topic/chat/" + UUID.randomUUID() + "/messages";
+    private static final String MARKER = "/topic/marker";
+
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    String channel;
+    EncodedMessageSender senderA;
+    EncodedMessageSender senderB;
+    PostgresBroadcastBus nodeA;
+    PostgresBroadcastBus nodeB;
+
+    @BeforeEach
+    void start() throws Exception {
+        // A channel per test, so listeners of earlier tests cannot see these frames
+        channel = "ws_bus_test_" + UUID.randomUUID().toString().replace("-", "");
+        senderA = sender();
+        senderB = sender();
+        nodeA = new PostgresBroadcastBus(senderA, dataSource, channel, new SimpleMeterRegistry());
+        nodeB = new PostgresBroadcastBus(senderB, dataSource, channel, new SimpleMeterRegistry());
+        nodeA.start();
+        nodeB.start();
+        awaitListeners(2);
+    }
+
+    @AfterEach
+    void stop() {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void frameFromOneNodeReachesTheOtherExactlyOnce() {
+        Map<String, String> payload = Map.of("content", "xin chào");
+
+        nodeA.convertAndSend(DESTINATION, payload);
+        nodeA.convertAndSend(MARKER, Map.of());
+        verify(senderB, timeout(5000)).send(eq(MARKER), any());
+
+        byte[] json = senderA.encode(payload);
+        verify(senderA, times(1)).send(DESTINATION, json);
+        verify(senderB, times(1)).send(DESTINATION, json);
+    }
+
+    @Test
+    void originatingNodeDoesNotRedeliverItsOwnNotify() {
+        nodeA.convertAndSend(DESTINATION, Map.of("content", "once"));
+        // B's marker is notified after A's frame, so A has handled its own NOTIFY by the time the marker arrives
+        nodeB.convertAndSend(MARKER, Map.of());
+        verify(senderA, timeout(5000)).send(eq(MARKER), any());
+
+        verify(senderA, times(1)).send(eq(DESTINATION), any());
+        verify(senderB, times(1)).send(eq(DESTINATION), any());
+    }
+
+    @Test
+    void payloadOverTheNotifyLimitGoesThroughTheOverflowTable() {
+        Map<String, String> payload = Map.of("content", "x".repeat(10_000));
+
+        nodeA.convertAndSendToUser("alice", "/queue/notifications", payload);
+        nodeA.convertAndSend(MARKER, Map.of());
+        verify(senderB, timeout(5000)).send(eq(MARKER), any());
+
+        String destination = EncodedMessageSender.userDestination("alice", "/queue/notifications");
+        verify(senderA, times(1)).send(destination, senderA.encode(payload));
+        verify(senderB, times(1)).send(destination, senderA.encode(payload));
+    }
+
+    private EncodedMessageSender sender() {
+        EncodedMessageSender sender = mock(EncodedMessageSender.class);
+        when(sender.encode(any())).thenAnswer(invocation -> objectMapper.writeValueAsBytes(invocation.getArgument(0)));
+        return sender;
+    }
+
+    // LISTEN runs on each bus's own thread; a NOTIFY sent before it would be lost
+    private void awaitListeners(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Long listening = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_stat_activity WHERE query = ?", Long.class, "LISTEN " + channel);
+            if (listening != null && listening >= count) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Bus listeners did not start");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplayBufferTest {
+
+    private static final String TOPIC = "/topic/chat/1/messages";
+
+    ReplayBuffer replayBuffer;
+
+    @BeforeEach
+    void setUp() {
+        replayBuffer = new ReplayBuffer();
+        ReflectionTestUtils.setField(replayBuffer, "capacity", 4);
+        // Every stream counts as idle on the next evictIdle()
+        ReflectionTestUtils.setField(replayBuffer, "idleTtlMinutes", -1L);
+    }
+
+    @Test
+    void sinceReturnsBufferedEntriesAndResetsBeyondTheRing() {
+        List<Long> sent = append(6);
+
+        assertThat(sent).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(replayBuffer.since(TOPIC, 3)).hasValueSatisfying(entries ->
+                assertThat(entries).extracting(ReplayBuffer.Entry::seq).containsExactly(4L, 5L, 6L));
+        assertThat(replayBuffer.since(TOPIC, 6)).hasValue(List.of());
+        assertThat(replayBuffer.since(TOPIC, 1)).isEmpty();
+        assertThat(replayBuffer.since(TOPIC, 7)).isEmpty();
+    }
+
+    @Test
+    void idleEvictionKeepsTheSequenceCounter() {
+        append(3);
+        replayBuffer.evictIdle();
+
+        assertThat(replayBuffer.head(TOPIC)).isEqualTo(3);
+        assertThat(replayBuffer.since(TOPIC, 3)).hasValue(List.of());
+        assertThat(replayBuffer.since(TOPIC, 2)).isEmpty();
+
+        // A subscriber still at lastSeq = 3 must see the next frame as new
+        assertThat(append(1)).containsExactly(4L);
+        assertThat(replayBuffer.since(TOPIC, 3)).hasValueSatisfying(entries ->
+                assertThat(entries).extracting(ReplayBuffer.Entry::seq).containsExactly(4L));
+        // Sequences 1-2 went with the evicted ring, even though the new ring has room for them
+        assertThat(replayBuffer.since(TOPIC, 1)).isEmpty();
+    }
+
+    @Test
+    void unknownTopicResumesOnlyFromZero() {
+        assertThat(replayBuffer.since(TOPIC, 0)).isEqualTo(Optional.of(List.of()));
+        assertThat(replayBuffer.since(TOPIC, 5)).isEmpty();
+    }
+
+    private List<Long> append(int count) {
+        List<Long> sent = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            replayBuffer.append(TOPIC, ("m" + i).getBytes(StandardCharsets.UTF_8), sent::add);
+        }
+        return sent;
+    }
+}
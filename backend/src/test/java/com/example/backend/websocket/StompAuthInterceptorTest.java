@@ -0,0 +1,92 @@
+package com.example.backend.websocket;
+
+import com.example.backend.service.RoomAccessService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StompAuthInterceptorTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID ALLOWED_CHAT = UUID.randomUUID();
+    private static final UUID OTHER_CHAT = UUID.randomUUID();
+
+    RoomAccessService roomAccessService;
+    StompAuthInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        roomAccessService = mock(RoomAccessService.class);
+        when(roomAccessService.canAccess(any(), any())).thenReturn(false);
+        when(roomAccessService.canAccess(USER, "chat:" + ALLOWED_CHAT)).thenReturn(true);
+        interceptor = new StompAuthInterceptor(mock(JwtDecoder.class), roomAccessService, List.of(), 60);
+    }
+
+    @Test
+    void sendOutsideTheApplicationPrefixIsDropped() {
+        assertThat(send("/topic/chat/" + ALLOWED_CHAT + "/messages")).isNull();
+        assertThat(send("/topic/project/" + ALLOWED_CHAT + "/issues")).isNull();
+        assertThat(send("/user/" + UUID.randomUUID() + "/queue/notifications")).isNull();
+        assertThat(send("/queue/chat")).isNull();
+        assertThat(send("/application/resume")).isNull();
+    }
+
+    @Test
+    void sendToRoomHandlerNeedsRoomAccess() {
+        assertThat(send("/app/chat/" + ALLOWED_CHAT + "/typing")).isNotNull();
+        assertThat(send("/app/chat/" + OTHER_CHAT + "/typing")).isNull();
+    }
+
+    @Test
+    void sendToHandlerWithoutRoomIsAccepted() {
+        assertThat(send("/app/resume")).isNotNull();
+    }
+
+    @Test
+    void roomAccessIsCachedPerSession() {
+        HashMap<String, Object> session = new HashMap<>();
+        preSend(StompCommand.SEND, "/app/chat/" + ALLOWED_CHAT + "/typing", session);
+        preSend(StompCommand.SUBSCRIBE, "/topic/chat/" + ALLOWED_CHAT + "/messages", session);
+
+        verify(roomAccessService, times(1)).canAccess(eq(USER), eq("chat:" + ALLOWED_CHAT));
+    }
+
+    @Test
+    void subscribeFollowsTheAllowList() {
+        assertThat(preSend(StompCommand.SUBSCRIBE, "/topic/chat/" + ALLOWED_CHAT + "/messages", new HashMap<>())).isNotNull();
+        assertThat(preSend(StompCommand.SUBSCRIBE, "/topic/chat/" + OTHER_CHAT + "/messages", new HashMap<>())).isNull();
+        assertThat(preSend(StompCommand.SUBSCRIBE, "/user/queue/replay", new HashMap<>())).isNotNull();
+        assertThat(preSend(StompCommand.SUBSCRIBE, "/topic/simp-user-registry", new HashMap<>())).isNull();
+    }
+
+    private Message<?> send(String destination) {
+        return preSend(StompCommand.SEND, destination, new HashMap<>());
+    }
+
+    private Message<?> preSend(StompCommand command, String destination, HashMap<String, Object> session) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(new TestingAuthenticationToken(USER.toString(), null));
+        accessor.setSessionAttributes(session);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return interceptor.preSend(message, null);
+    }
+}
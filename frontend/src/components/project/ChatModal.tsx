@@ -1,16 +1,19 @@
-import React, { useState, useEffect, useRef } from "react";
+import React, { useState, useEffect, useLayoutEffect, useRef } from "react";
 import { useSelector } from "react-redux";
 import { Dialog, DialogContent, DialogHeader, DialogTitle } from "@/components/ui/dialog";
 import { Button } from "@/components/ui/button";
 import { Avatar, AvatarFallback, AvatarImage } from "@/components/ui/avatar";
-import { Trash2, MessageSquare } from "lucide-react";
+import { Trash2, Pencil, MessageSquare, Search, X, Reply, SmilePlus, ArrowLeft } from "lucide-react";
+import { Input } from "@/components/ui/input";
+import { Textarea } from "@/components/ui/textarea";
 import { toastError } from "@/utils/toast";
 import chatService, { type ChatMessage } from "@/service/chatService";
-import attachmentService, { type Attachment } from "@/service/attachmentService";
+import type { Attachment } from "@/service/attachmentService";
 import { AttachmentList } from "@/components/ui/attachment-list";
 import websocketService, { type AttachmentInfo } from "@/service/websocketService";
 import { useWebSocketContext } from "@/components/WebSocketProvider";
 import type { RootState } from "@/store";
+import type { ChatSearchHit } from "@/types/chat";
 import { LoadingSpinner } from "../ui/loading-spinner";
 import MessageComposer from "@/components/ui/message-composer";
 
@@ -28,23 +31,61 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
   const [messages, setMessages] = useState<ChatMessage[]>([]);
   const [loading, setLoading] = useState(true);
   const [messageAttachments, setMessageAttachments] = useState<Record<string, Attachment[]>>({});
+  const [beforeCursor, setBeforeCursor] = useState<string | null>(null);
+  const [searchQuery, setSearchQuery] = useState("");
+  const [searchHits, setSearchHits] = useState<ChatSearchHit[] | null>(null);
+  const [searchCursor, setSearchCursor] = useState<string | null>(null);
+  const [searching, setSearching] = useState(false);
+  const [loadingOlder, setLoadingOlder] = useState(false);
+  const [editingId, setEditingId] = useState<string | null>(null);
+  const [editingContent, setEditingContent] = useState("");
+  const [savingEdit, setSavingEdit] = useState(false);
+  const [replyTo, setReplyTo] = useState<ChatMessage | null>(null);
+  const [pickerFor, setPickerFor] = useState<string | null>(null);
+  // Thread đang mở: tin gốc + reply đã tải (cũ nhất trước); null = đang xem timeline
+  const [thread, setThread] = useState<{ parent: ChatMessage; replies: ChatMessage[]; afterCursor: string | null } | null>(null);
+  const [loadingThread, setLoadingThread] = useState(false);
+  // Handler WebSocket chỉ đăng ký một lần, đọc thread đang mở qua ref
+  const openThreadIdRef = useRef<string | null>(null);
   const messagesEndRef = useRef<HTMLDivElement>(null);
   const messagesContainerRef = useRef<HTMLDivElement>(null);
+  // scrollHeight trước khi chèn trang cũ hơn lên đầu, để giữ nguyên vị trí đang đọc
+  const prependScrollHeightRef = useRef<number | null>(null);
+
+  useEffect(() => {
+    openThreadIdRef.current = thread?.parent.id ?? null;
+  }, [thread?.parent.id]);
 
   // Auto-scroll to bottom when new messages arrive
   const scrollToBottom = () => {
     messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
   };
 
-  // Scroll to bottom when messages change
+  // Chat đang mở: đánh dấu đã đọc tới tin nhắn mới nhất đang hiển thị
+  const lastMessageId = messages.length > 0 ? messages[messages.length - 1].id : null;
   useEffect(() => {
+    if (chatId && isOpen && lastMessageId) {
+      chatService.markChatRead(chatId, lastMessageId).catch(error => {
+        console.error("Error marking chat as read:", error);
+      });
+    }
+  }, [chatId, isOpen, lastMessageId]);
+
+  // Scroll to bottom when messages change (trừ khi vừa tải thêm tin nhắn cũ)
+  useLayoutEffect(() => {
+    const container = messagesContainerRef.current;
+    if (prependScrollHeightRef.current !== null && container) {
+      container.scrollTop += container.scrollHeight - prependScrollHeightRef.current;
+      prependScrollHeightRef.current = null;
+      return;
+    }
     scrollToBottom();
   }, [messages]);
 
   // WebSocket chat message handling
   useEffect(() => {
     if (chatId && isOpen && isConnected) {
-      const handleChatMessage = async (message: { type: string; messageId?: string; content?: string; chatId?: string; senderId?: string; senderName?: string; senderEmail?: string; senderAvatarUrl?: string; createdAt?: string; updatedAt?: string; attachments?: AttachmentInfo[] }) => {
+      const handleChatMessage = async (message: { type: string; messageId?: string; content?: string; chatId?: string; senderId?: string; senderName?: string; senderEmail?: string; senderAvatarUrl?: string; createdAt?: string; updatedAt?: string; version?: number; parentId?: string; parentReplyCount?: number; reactionCounts?: Record<string, number>; attachments?: AttachmentInfo[] }) => {
         if (message.type === 'CREATE') {
           const newMessage: ChatMessage = {
             id: message.messageId || '',
@@ -52,6 +93,10 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
             chatId: message.chatId || '',
             createdAt: message.createdAt || new Date().toISOString(),
             updatedAt: message.updatedAt || new Date().toISOString(),
+            version: message.version ?? 0,
+            parentId: message.parentId ?? null,
+            replyCount: 0,
+            reactionCounts: {},
             sender: {
               id: message.senderId || '',
               name: message.senderName || '',
@@ -60,6 +105,15 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
             },
           };
           setMessages(prev => [...prev, newMessage]);
+          if (message.parentId) {
+            // parentReplyCount là giá trị tuyệt đối từ server nên nhận trùng/trễ vẫn không lệch
+            setReplyCount(message.parentId, message.parentReplyCount);
+            if (openThreadIdRef.current === message.parentId) {
+              setThread(prev => prev && !prev.replies.some(msg => msg.id === newMessage.id)
+                ? { ...prev, replies: [...prev.replies, newMessage] }
+                : prev);
+            }
+          }
           
           // Handle attachments from WebSocket
           if (message.attachments && message.attachments.length > 0) {
@@ -82,34 +136,31 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
             }));
           }
         } else if (message.type === 'UPDATE') {
-          setMessages(prev => prev.map(msg => 
-            msg.id === message.messageId 
-              ? { ...msg, content: message.content || '', updatedAt: message.updatedAt || new Date().toISOString() }
-              : msg
-          ));
-          
-          // Update attachments if provided
-          if (message.attachments) {
-            const attachmentList = message.attachments.map((att: AttachmentInfo) => ({
-              id: att.id,
-              fileName: att.fileName,
-              fileType: att.fileType,
-              fileSize: att.fileSize,
-              filePath: att.filePath,
-              uploadedAt: new Date().toISOString(),
-              uploader: {
-                id: message.senderId || '',
-                name: message.senderName || '',
-                email: message.senderEmail || '',
-              },
-            }));
-            setMessageAttachments(prev => ({
-              ...prev,
-              [message.messageId || '']: attachmentList
-            }));
-          }
+          // Delta chỉ có content + version; bỏ qua nếu đang giữ bản mới hơn (vd. response của chính mình tới trước)
+          const apply = (msg: ChatMessage) =>
+            msg.id === message.messageId && (message.version ?? 0) > (msg.version ?? 0)
+              ? { ...msg, content: message.content || '', version: message.version ?? msg.version, updatedAt: message.updatedAt || new Date().toISOString() }
+              : msg;
+          setMessages(prev => prev.map(apply));
+          setThread(prev => prev && { ...prev, parent: apply(prev.parent), replies: prev.replies.map(apply) });
+        } else if (message.type === 'REACTION') {
+          const reactionCounts = message.reactionCounts || {};
+          const apply = (msg: ChatMessage) => (msg.id === message.messageId ? { ...msg, reactionCounts } : msg);
+          setMessages(prev => prev.map(apply));
+          setThread(prev => prev && { ...prev, parent: apply(prev.parent), replies: prev.replies.map(apply) });
         } else if (message.type === 'DELETE') {
-          setMessages(prev => prev.filter(msg => msg.id !== message.messageId));
+          // Xóa tin gốc: các reply còn lại thành tin nhắn thường (server đặt parent_id = NULL)
+          setMessages(prev => prev
+            .filter(msg => msg.id !== message.messageId)
+            .map(msg => (msg.parentId === message.messageId ? { ...msg, parentId: null } : msg)));
+          if (message.parentId) {
+            setReplyCount(message.parentId, message.parentReplyCount);
+          }
+          setThread(prev => {
+            if (!prev) return prev;
+            if (prev.parent.id === message.messageId) return null;
+            return { ...prev, replies: prev.replies.filter(msg => msg.id !== message.messageId) };
+          });
           // Remove attachments for deleted message
           setMessageAttachments(prev => {
             const newAttachments = { ...prev };
@@ -119,7 +170,8 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
         }
       };
       
-      websocketService.subscribeToChatMessages(chatId, handleChatMessage);
+      // Resume báo gap (phần bị lỡ không còn trên server) thì tải lại tin nhắn
+      websocketService.subscribeToChatMessages(chatId, handleChatMessage, fetchMessages);
       
       // Cleanup function
       return () => {
@@ -130,15 +182,26 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
 
   useEffect(() => {
     if (chatId && isOpen) {
+      setThread(null);
+      setReplyTo(null);
       fetchMessages();
     }
   }, [chatId, isOpen]);
 
+  const setReplyCount = (parentId: string, replyCount?: number) => {
+    if (replyCount === undefined) return;
+    const apply = (msg: ChatMessage) => (msg.id === parentId ? { ...msg, replyCount } : msg);
+    setMessages(prev => prev.map(apply));
+    setThread(prev => prev && { ...prev, parent: apply(prev.parent) });
+  };
+
   const fetchMessages = async () => {
     try {
       setLoading(true);
-      const messagesData = await chatService.getAllChatMessages(chatId);
-      setMessages(messagesData.result || []);
+      const page = await chatService.getChatMessagesByCursor(chatId);
+      setMessages(page.messages || []);
+      setMessageAttachments(toAttachmentMap(page.messages || []));
+      setBeforeCursor(page.hasMoreBefore ? page.beforeCursor : null);
     } catch (error) {
       console.error("Error fetching messages:", error);
       toastError("Không thể tải tin nhắn!");
@@ -147,26 +210,152 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
     }
   };
 
-  // Fetch attachments for messages
-  const fetchAttachmentsForMessages = async (messages: ChatMessage[]) => {
+  // Infinite scroll: cuộn lên gần đầu thì tải trang cũ hơn
+  const loadOlderMessages = async () => {
+    if (!beforeCursor || loadingOlder) return;
+    try {
+      setLoadingOlder(true);
+      const page = await chatService.getChatMessagesByCursor(chatId, { before: beforeCursor });
+      prependScrollHeightRef.current = messagesContainerRef.current?.scrollHeight ?? null;
+      setMessages(prev => {
+        const known = new Set(prev.map(msg => msg.id));
+        return [...page.messages.filter(msg => !known.has(msg.id)), ...prev];
+      });
+      setMessageAttachments(prev => ({ ...toAttachmentMap(page.messages), ...prev }));
+      setBeforeCursor(page.hasMoreBefore ? page.beforeCursor : null);
+    } catch (error) {
+      console.error("Error fetching older messages:", error);
+      toastError("Không thể tải tin nhắn cũ hơn!");
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
+  const runSearch = async (cursor?: string) => {
+    const q = searchQuery.trim();
+    if (!q) {
+      setSearchHits(null);
+      return;
+    }
+    try {
+      setSearching(true);
+      const result = await chatService.searchChatMessages(q, { chatId, cursor });
+      setSearchHits(prev => (cursor && prev ? [...prev, ...result.hits] : result.hits));
+      setSearchCursor(result.hasMore ? result.nextCursor : null);
+    } catch (error) {
+      console.error("Error searching messages:", error);
+      toastError("Không thể tìm kiếm tin nhắn!");
+    } finally {
+      setSearching(false);
+    }
+  };
+
+  const clearSearch = () => {
+    setSearchQuery("");
+    setSearchHits(null);
+    setSearchCursor(null);
+  };
+
+  // Snippet từ server: phần khớp nằm giữa \u0002 và \u0003, render bằng <mark> (không dùng HTML từ server)
+  const renderSnippet = (snippet: string) =>
+    snippet.split("\u0002").map((part, index) => {
+      if (index === 0) return <React.Fragment key={index}>{part}</React.Fragment>;
+      const [match, rest] = part.split("\u0003");
+      return (
+        <React.Fragment key={index}>
+          <mark className="bg-yellow-200 rounded px-0.5">{match}</mark>
+          {rest}
+        </React.Fragment>
+      );
+    });
+
+  const handleMessagesScroll = (event: React.UIEvent<HTMLDivElement>) => {
+    if (searchHits !== null || thread !== null) return;
+    if (event.currentTarget.scrollTop < 80) {
+      loadOlderMessages();
+    }
+  };
+
+  // Attachment đi kèm trong response của trang tin nhắn, không cần gọi API riêng cho từng tin nhắn
+  const toAttachmentMap = (pageMessages: ChatMessage[]) => {
     const result: Record<string, Attachment[]> = {};
-    for (const msg of messages) {
-      try {
-        const res = await attachmentService.getByMessageId(msg.id);
-        result[msg.id] = res;
-      } catch {
-        result[msg.id] = [];
+    for (const msg of pageMessages) {
+      result[msg.id] = (msg.attachments || []).map(att => ({
+        ...att,
+        uploadedAt: msg.createdAt,
+        uploader: { id: msg.sender.id, name: msg.sender.name, email: msg.sender.email },
+      }));
+    }
+    return result;
+  };
+
+  const startEditing = (message: ChatMessage) => {
+    setEditingId(message.id);
+    setEditingContent(message.content);
+  };
+
+  const handleSaveEdit = async (message: ChatMessage) => {
+    const content = editingContent.trim();
+    if (!content || content === message.content) {
+      setEditingId(null);
+      return;
+    }
+    setSavingEdit(true);
+    try {
+      const updated = await chatService.editChatMessage(message.id, content, message.version ?? 0);
+      setMessages(prev => prev.map(msg =>
+        msg.id === updated.id && updated.version > (msg.version ?? 0)
+          ? { ...msg, content: updated.content, version: updated.version, updatedAt: updated.updatedAt }
+          : msg
+      ));
+      setEditingId(null);
+    } catch (error: unknown) {
+      const status = error && typeof error === 'object' && 'response' in error
+        ? (error as { response?: { status?: number } }).response?.status
+        : undefined;
+      // 409: tin nhắn đã được sửa ở tab/thiết bị khác; bản mới đã tới qua WebSocket, giữ lại nội dung đang sửa
+      toastError(status === 409 ? "Tin nhắn đã được sửa ở nơi khác, hãy kiểm tra rồi lưu lại!" : "Sửa tin nhắn thất bại!");
+      console.error("Error editing message:", error);
+    } finally {
+      setSavingEdit(false);
+    }
+  };
+
+  const openThread = async (parent: ChatMessage, afterCursor?: string) => {
+    try {
+      setLoadingThread(true);
+      if (!afterCursor) {
+        setThread({ parent, replies: [], afterCursor: null });
       }
+      const page = await chatService.getReplies(parent.id, { after: afterCursor });
+      setMessageAttachments(prev => ({ ...prev, ...toAttachmentMap(page.messages) }));
+      setThread(prev => {
+        if (!prev || prev.parent.id !== parent.id) return prev;
+        const known = new Set(prev.replies.map(msg => msg.id));
+        return {
+          ...prev,
+          replies: [...prev.replies, ...page.messages.filter(msg => !known.has(msg.id))],
+          afterCursor: page.hasMoreAfter ? page.afterCursor : null,
+        };
+      });
+    } catch (error) {
+      console.error("Error fetching replies:", error);
+      toastError("Không thể tải các trả lời!");
+    } finally {
+      setLoadingThread(false);
     }
-    setMessageAttachments(result);
   };
 
-  // Fetch attachments when messages change
-  useEffect(() => {
-    if (messages.length > 0) {
-      fetchAttachmentsForMessages(messages);
+  // Số reaction mới tới qua WebSocket (REACTION), không cần cập nhật từ response
+  const handleToggleReaction = async (messageId: string, emoji: string) => {
+    setPickerFor(null);
+    try {
+      await chatService.toggleReaction(messageId, emoji);
+    } catch (error) {
+      toastError("Không thể thả cảm xúc!");
+      console.error("Error toggling reaction:", error);
     }
-  }, [messages]);
+  };
 
   const handleDeleteMessage = async (messageId: string) => {
     try {
@@ -177,6 +366,120 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
     }
   };
 
+  const QUICK_REACTIONS = ["👍", "❤️", "😂", "🎉", "😮", "😢"];
+
+  const renderMessage = (message: ChatMessage) => (
+    <div key={message.id} className="flex gap-3 p-3 border rounded-lg hover:bg-muted/50 transition-colors">
+      <Avatar className="w-8 h-8 flex-shrink-0">
+        <AvatarImage src={message.sender.avatarUrl} />
+        <AvatarFallback>{message.sender.name.charAt(0)}</AvatarFallback>
+      </Avatar>
+      <div className="flex-1 min-w-0">
+        <div className="flex items-center justify-between mb-1">
+          <div className="flex items-center gap-2 min-w-0">
+            <span className="font-medium text-sm truncate">{message.sender.name}</span>
+            <span className="text-xs text-muted-foreground flex-shrink-0">
+              {formatMessageTime(message.createdAt)}
+              {(message.version ?? 0) > 0 && " (đã chỉnh sửa)"}
+            </span>
+            {message.parentId && !thread && <span className="text-xs text-muted-foreground flex-shrink-0">↳ trả lời</span>}
+          </div>
+          {editingId !== message.id && !message.archived && (
+            <div className="relative flex items-center flex-shrink-0">
+              <Button
+                variant="ghost"
+                size="sm"
+                onClick={() => setPickerFor(pickerFor === message.id ? null : message.id)}
+                className="h-6 w-6 p-0 text-muted-foreground hover:text-foreground"
+              >
+                <SmilePlus className="h-3 w-3" />
+              </Button>
+              {pickerFor === message.id && (
+                <div className="absolute right-0 top-7 z-10 flex gap-1 rounded-md border bg-background p-1 shadow">
+                  {QUICK_REACTIONS.map(emoji => (
+                    <button key={emoji} className="px-1 text-base hover:scale-125 transition-transform" onClick={() => handleToggleReaction(message.id, emoji)}>
+                      {emoji}
+                    </button>
+                  ))}
+                </div>
+              )}
+              <Button
+                variant="ghost"
+                size="sm"
+                onClick={() => setReplyTo(message)}
+                className="h-6 w-6 p-0 text-muted-foreground hover:text-foreground"
+              >
+                <Reply className="h-3 w-3" />
+              </Button>
+              {user && message.sender.id === user.id && (
+                <>
+                  <Button
+                    variant="ghost"
+                    size="sm"
+                    onClick={() => startEditing(message)}
+                    className="h-6 w-6 p-0 text-muted-foreground hover:text-foreground"
+                  >
+                    <Pencil className="h-3 w-3" />
+                  </Button>
+                  <Button
+                    variant="ghost"
+                    size="sm"
+                    onClick={() => handleDeleteMessage(message.id)}
+                    className="h-6 w-6 p-0 text-muted-foreground hover:text-destructive"
+                  >
+                    <Trash2 className="h-3 w-3" />
+                  </Button>
+                </>
+              )}
+            </div>
+          )}
+        </div>
+        {editingId === message.id ? (
+          <div className="space-y-2">
+            <Textarea
+              value={editingContent}
+              onChange={(e) => setEditingContent(e.target.value)}
+              className="text-sm"
+              autoFocus
+            />
+            <div className="flex justify-end gap-2">
+              <Button variant="ghost" size="sm" onClick={() => setEditingId(null)} disabled={savingEdit}>
+                Hủy
+              </Button>
+              <Button size="sm" onClick={() => handleSaveEdit(message)} disabled={savingEdit}>
+                Lưu
+              </Button>
+            </div>
+          </div>
+        ) : (
+          <div className="whitespace-pre-wrap text-sm break-words">{message.content}</div>
+        )}
+        {/* Display attachments */}
+        <AttachmentList attachments={messageAttachments[message.id] || []} />
+        {Object.keys(message.reactionCounts || {}).length > 0 && (
+          <div className="flex flex-wrap gap-1 mt-2">
+            {Object.entries(message.reactionCounts || {}).map(([emoji, count]) => (
+              <button
+                key={emoji}
+                className="flex items-center gap-1 rounded-full border px-2 py-0.5 text-xs hover:bg-muted"
+                onClick={() => handleToggleReaction(message.id, emoji)}
+                disabled={message.archived}
+              >
+                <span>{emoji}</span>
+                <span className="text-muted-foreground">{count}</span>
+              </button>
+            ))}
+          </div>
+        )}
+        {!thread && (message.replyCount ?? 0) > 0 && (
+          <Button variant="link" size="sm" className="h-6 px-0 text-xs" onClick={() => openThread(message)}>
+            {message.replyCount} trả lời
+          </Button>
+        )}
+      </div>
+    </div>
+  );
+
   // Format date for display
   const formatMessageTime = (dateString: string) => {
     const date = new Date(dateString);
@@ -198,15 +501,85 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
             <MessageSquare className="w-5 h-5" />
             {chatName}
           </DialogTitle>
+          <form
+            className="flex items-center gap-2 pt-2"
+            onSubmit={(event) => {
+              event.preventDefault();
+              runSearch();
+            }}
+          >
+            <Input
+              value={searchQuery}
+              onChange={(event) => setSearchQuery(event.target.value)}
+              placeholder="Tìm trong cuộc trò chuyện..."
+              className="h-8"
+            />
+            <Button type="submit" variant="ghost" size="sm" className="h-8 w-8 p-0" disabled={searching}>
+              <Search className="h-4 w-4" />
+            </Button>
+            {searchHits !== null && (
+              <Button type="button" variant="ghost" size="sm" className="h-8 w-8 p-0" onClick={clearSearch}>
+                <X className="h-4 w-4" />
+              </Button>
+            )}
+          </form>
         </DialogHeader>
         
         <div className="flex-1 flex flex-col min-h-0">
           {/* Messages Area */}
           <div 
             ref={messagesContainerRef}
+            onScroll={handleMessagesScroll}
             className="flex-1 overflow-y-auto p-4 space-y-4 min-h-0"
           >
-            {loading ? (
+            {searchHits !== null ? (
+              searchHits.length === 0 && !searching ? (
+                <p className="text-muted-foreground text-center py-8">Không tìm thấy tin nhắn nào</p>
+              ) : (
+                <div className="space-y-3">
+                  {searchHits.map((hit) => (
+                    <div key={hit.messageId} className="p-3 border rounded-lg">
+                      <div className="flex items-center gap-2 mb-1">
+                        <span className="font-medium text-sm truncate">{hit.senderName}</span>
+                        <span className="text-xs text-muted-foreground">{formatMessageTime(hit.createdAt)}</span>
+                      </div>
+                      <div className="whitespace-pre-wrap text-sm break-words">{renderSnippet(hit.snippet)}</div>
+                    </div>
+                  ))}
+                  {searching && (
+                    <div className="flex justify-center">
+                      <LoadingSpinner />
+                    </div>
+                  )}
+                  {searchCursor && !searching && (
+                    <Button variant="ghost" size="sm" className="w-full" onClick={() => runSearch(searchCursor)}>
+                      Xem thêm kết quả
+                    </Button>
+                  )}
+                </div>
+              )
+            ) : thread !== null ? (
+              <div className="space-y-4">
+                <Button variant="ghost" size="sm" className="gap-1" onClick={() => setThread(null)}>
+                  <ArrowLeft className="h-4 w-4" />
+                  Quay lại cuộc trò chuyện
+                </Button>
+                {renderMessage(thread.parent)}
+                <div className="ml-8 space-y-3 border-l pl-4">
+                  {thread.replies.map(renderMessage)}
+                  {loadingThread && (
+                    <div className="flex justify-center">
+                      <LoadingSpinner />
+                    </div>
+                  )}
+                  {thread.afterCursor && !loadingThread && (
+                    <Button variant="ghost" size="sm" className="w-full" onClick={() => openThread(thread.parent, thread.afterCursor!)}>
+                      Xem thêm trả lời
+                    </Button>
+                  )}
+                </div>
+              </div>
+            ) : loading ? (
               <div className="flex items-center justify-center h-32">
                 <LoadingSpinner />
               </div>
@@ -214,37 +587,12 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
               <p className="text-muted-foreground text-center py-8">Chưa có tin nhắn nào</p>
             ) : (
               <div className="space-y-4">
-                {messages.map((message) => (
-                  <div key={message.id} className="flex gap-3 p-3 border rounded-lg hover:bg-muted/50 transition-colors">
-                    <Avatar className="w-8 h-8 flex-shrink-0">
-                      <AvatarImage src={message.sender.avatarUrl} />
-                      <AvatarFallback>{message.sender.name.charAt(0)}</AvatarFallback>
-                    </Avatar>
-                    <div className="flex-1 min-w-0">
-                      <div className="flex items-center justify-between mb-1">
-                        <div className="flex items-center gap-2 min-w-0">
-                          <span className="font-medium text-sm truncate">{message.sender.name}</span>
-                          <span className="text-xs text-muted-foreground flex-shrink-0">
-                            {formatMessageTime(message.createdAt)}
-                          </span>
-                        </div>
-                        {user && message.sender.id === user.id && (
-                          <Button
-                            variant="ghost"
-                            size="sm"
-                            onClick={() => handleDeleteMessage(message.id)}
-                            className="h-6 w-6 p-0 text-muted-foreground hover:text-destructive flex-shrink-0"
-                          >
-                            <Trash2 className="h-3 w-3" />
-                          </Button>
-                        )}
-                      </div>
-                      <div className="whitespace-pre-wrap text-sm break-words">{message.content}</div>
-                      {/* Display attachments */}
-                      <AttachmentList attachments={messageAttachments[message.id] || []} />
-                    </div>
+                {loadingOlder && (
+                  <div className="flex justify-center">
+                    <LoadingSpinner />
                   </div>
-                ))}
+                )}
+                {messages.map(renderMessage)}
                 {/* Invisible div for auto-scroll */}
                 <div ref={messagesEndRef} />
               </div>
@@ -253,15 +601,31 @@ const ChatModal: React.FC<ChatModalProps> = ({ isOpen, onClose, chatId, chatName
           
           {/* Message Input - reused */}
           <div className="border-t p-4">
+            {(replyTo || thread) && (
+              <div className="flex items-center justify-between mb-2 rounded-md bg-muted px-3 py-1 text-xs">
+                <span className="truncate">
+                  Trả lời <span className="font-medium">{(replyTo ?? thread!.parent).sender.name}</span>: {(replyTo ?? thread!.parent).content}
+                </span>
+                {replyTo && (
+                  <Button variant="ghost" size="sm" className="h-5 w-5 p-0" onClick={() => setReplyTo(null)}>
+                    <X className="h-3 w-3" />
+                  </Button>
+                )}
+              </div>
+            )}
             <MessageComposer
               placeholder="Nhập tin nhắn..."
               submitLabel="Gửi"
               onSubmit={async ({ content, attachments }) => {
+                // Đang mở thread thì mặc định trả lời tin gốc của thread
+                const parentId = replyTo?.id ?? thread?.parent.id;
                 await chatService.createChatMessage({
                   content,
                   chatId,
+                  parentId,
                   attachments,
                 });
+                setReplyTo(null);
               }}
             />
           </div>
@@ -40,18 +40,12 @@ export const useWebSocket = (issueId?: string) => {
     };
   }, [connect, disconnect]);
 
+  // Presence trong phòng issue lấy từ subscription /topic/issue/{id}/..., không cần gửi join/leave
   useEffect(() => {
-    if (issueId) {
-      websocketService.joinCommentRoom(issueId);
-    }
-
     return () => {
-      if (issueId) {
-        websocketService.leaveCommentRoom(issueId);
-        unsubscribeFromComments();
-      }
+      unsubscribeFromComments();
     };
-  }, [issueId, unsubscribeFromComments]);
+  }, [unsubscribeFromComments]);
 
   return {
     isConnected: websocketService.isConnectedToWebSocket(),
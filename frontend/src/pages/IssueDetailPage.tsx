@@ -116,8 +116,14 @@ const IssueDetailPage: React.FC = () => {
         }
       };
       
+      // Resume báo gap (phần bị lỡ không còn trên server) thì tải lại danh sách comment
+      const reloadComments = async () => {
+        const commentsRes = await commentService.getCommentsByIssueId(issueId);
+        setComments(commentsRes.result || []);
+      };
+
       websocketService.onConnect(() => {
-        websocketService.subscribeToIssueComments(issueId, handleCommentMessage);
+        websocketService.subscribeToIssueComments(issueId, handleCommentMessage, reloadComments);
       });
       
       // Cleanup function
@@ -1,4 +1,4 @@
-import React, { useState, useEffect, useCallback } from "react";
+import React, { useState, useEffect, useCallback, useRef } from "react";
 import { useParams } from "react-router-dom";
 import KanbanBoard from "@/components/project/KanbanBoard";
 import sprintService from "@/service/sprintService";
@@ -15,6 +15,8 @@ import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card";
 import { Badge } from "@/components/ui/badge";
 import { getCurrentUserRole, isCurrentUserManager } from "@/utils/projectHelpers";
 import { mapIssue, handleStatusChange as handleStatusChangeHelper } from "@/utils/issueHelpers";
+import { useWebSocketContext } from "@/components/WebSocketProvider";
+import websocketService, { type IssueDeltaBatch } from "@/service/websocketService";
 
 
 const ProjectKanbanPage: React.FC = () => {
@@ -25,6 +27,9 @@ const ProjectKanbanPage: React.FC = () => {
   const [kanbanIssues, setKanbanIssues] = useState<Issue[]>([]);
   const [projectMembers, setProjectMembers] = useState<ProjectMember[]>([]);
   const { user } = useSelector((state: RootState) => state.auth);
+  const { isConnected } = useWebSocketContext();
+  // Danh sách mới nhất cho handler delta (nhiều batch có thể tới trước khi render lại)
+  const kanbanIssuesRef = useRef<Issue[]>([]);
 
   const fetchProject = useCallback(async () => {
     try {
@@ -89,6 +94,83 @@ const ProjectKanbanPage: React.FC = () => {
     fetchKanbanIssues();
   }, [fetchKanbanIssues]);
 
+  useEffect(() => {
+    kanbanIssuesRef.current = kanbanIssues;
+  }, [kanbanIssues]);
+
+  // Delta realtime của board: field trên card được cập nhật tại chỗ; issue mới vào phạm vi đang xem
+  // (tạo mới, chuyển sprint) hoặc assignee chưa có trong danh sách thành viên thì tải lại cả board
+  useEffect(() => {
+    if (!projectId || !isConnected) return;
+
+    const inScope = (sprintId: unknown) =>
+      selectedScope === "BACKLOG" ? !sprintId : sprintId === selectedScope;
+
+    // null: không dựng lại được card từ delta, cần tải lại
+    const applyFields = (issue: Issue, fields: Record<string, unknown>): Issue | null => {
+      const updated: Issue = { ...issue };
+      for (const [field, value] of Object.entries(fields)) {
+        if (field === "assigneeId") {
+          if (!value) {
+            updated.assignee = undefined;
+            continue;
+          }
+          const member = projectMembers.find(m => m.userId === value);
+          if (!member?.user) return null;
+          updated.assignee = { id: member.user.id, name: member.user.name, email: member.user.email };
+        } else {
+          (updated as unknown as Record<string, unknown>)[field] = value ?? undefined;
+        }
+      }
+      return updated;
+    };
+
+    const handleBatch = (batch: IssueDeltaBatch) => {
+      let next = kanbanIssuesRef.current;
+      let reload = false;
+      for (const delta of batch.deltas) {
+        const fields = delta.fields ?? {};
+        const current = next.find(issue => issue.id === delta.issueId);
+        if (delta.action === "DELETED") {
+          next = next.filter(issue => issue.id !== delta.issueId);
+          continue;
+        }
+        if (!current) {
+          const entersScope = delta.action === "CREATED" || "sprintId" in fields;
+          if (entersScope && inScope(fields.sprintId) && fields.issueType !== "SUBTASK" && fields.issueType !== "EPIC") {
+            reload = true;
+          }
+          continue;
+        }
+        const leavesScope = ("sprintId" in fields && !inScope(fields.sprintId))
+          || fields.issueType === "SUBTASK" || fields.issueType === "EPIC";
+        if (leavesScope) {
+          next = next.filter(issue => issue.id !== delta.issueId);
+          continue;
+        }
+        const updated = applyFields(current, fields);
+        if (!updated) {
+          reload = true;
+          continue;
+        }
+        updated.updatedAt = delta.updatedAt;
+        next = next.map(issue => (issue.id === delta.issueId ? updated : issue));
+      }
+      kanbanIssuesRef.current = next;
+      setKanbanIssues(next);
+      if (reload) {
+        fetchKanbanIssues();
+      }
+    };
+
+    // Resume báo gap thì tải lại board
+    websocketService.subscribeToProjectIssues(projectId, handleBatch, fetchKanbanIssues);
+
+    return () => {
+      websocketService.unsubscribeFromProjectIssues(projectId);
+    };
+  }, [projectId, isConnected, selectedScope, projectMembers, fetchKanbanIssues]);
+
   
 
   const canCreateIssue = () => {
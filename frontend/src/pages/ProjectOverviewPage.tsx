@@ -21,6 +21,9 @@ import {toastSuccess} from "@/utils/toast";
 import ChatModal from "@/components/project/ChatModal";
 import {MessageSquare, FileText} from "lucide-react";
 import {LoadingSpinner} from "@/components/ui/loading-spinner";
+import chatService from "@/service/chatService";
+import websocketService from "@/service/websocketService";
+import {useWebSocketContext} from "@/components/WebSocketProvider";
 
 const ProjectOverviewPage: React.FC = () => {
     const {projectId} = useParams<{ projectId: string }>();
@@ -32,6 +35,8 @@ const ProjectOverviewPage: React.FC = () => {
     const [isChatModalOpen, setIsChatModalOpen] = useState(false);
     const [chatId, setChatId] = useState<string>("");
     const [chatName, setChatName] = useState<string>("");
+    const [unreadCount, setUnreadCount] = useState(0);
+    const {isConnected} = useWebSocketContext();
 
     useEffect(() => {
         if (projectId) {
@@ -41,6 +46,24 @@ const ProjectOverviewPage: React.FC = () => {
 
 
 
+    // Badge chưa đọc: lấy số ban đầu từ server, sau đó tăng theo /user/queue/chat-unread
+    useEffect(() => {
+        if (!project?.chatId) return;
+        chatService.getUnreadCounts()
+            .then(counts => setUnreadCount(counts.find(c => c.chatId === project.chatId)?.unreadCount ?? 0))
+            .catch(error => console.error("Error fetching unread counts:", error));
+    }, [project?.chatId]);
+
+    useEffect(() => {
+        if (!project?.chatId || !isConnected) return;
+        websocketService.subscribeToChatUnread((event) => {
+            if (event.chatId === project.chatId && !isChatModalOpen) {
+                setUnreadCount(count => count + 1);
+            }
+        });
+        return () => websocketService.unsubscribeFromChatUnread();
+    }, [project?.chatId, isConnected, isChatModalOpen]);
+
     const fetchProject = async () => {
         try {
             const response = await ProjectService.getProjectById(projectId!);
@@ -61,6 +84,7 @@ const ProjectOverviewPage: React.FC = () => {
             setChatId(chatResponse.result.id);
             setChatName(chatResponse.result.name);
             setIsChatModalOpen(true);
+            setUnreadCount(0);
         } catch (error) {
             console.error("Error fetching chat:", error);
             toastError("Không thể tải thông tin chat!");
@@ -198,6 +222,11 @@ const ProjectOverviewPage: React.FC = () => {
                             >
                                 <MessageSquare className="w-4 h-4 mr-2"/>
                                 Chat dự án
+                                {unreadCount > 0 && (
+                                    <span className="ml-2 rounded-full bg-destructive px-2 text-xs text-destructive-foreground">
+                                        {unreadCount > 99 ? "99+" : unreadCount}
+                                    </span>
+                                )}
                             </Button>
                         )
                     }
@@ -1,7 +1,7 @@
 import axios from "axios";
 import addReqToken from "@/utils/addReqToken";
 import { config } from "@/config/env";
-import type { Chat, ChatMessage, CreateChatMessageRequest } from "@/types/chat";
+import type { Chat, ChatMessage, ChatMessagePage, ChatReaction, ChatSearchResult, ChatUnread, CreateChatMessageRequest, MessageEdit } from "@/types/chat";
 
 const baseUrl = `${config.getApiBaseUrl()}/chats`;
 
@@ -23,9 +23,84 @@ export const getAllChatMessages = async (chatId: string): Promise<{ result: Chat
   return res.data;
 };
 
-// Create a new message
+// Keyset pagination: không truyền cursor = trang mới nhất; before = trang cũ hơn; after = tin nhắn mới hơn
+export const getChatMessagesByCursor = async (
+  chatId: string,
+  params: { before?: string; after?: string; limit?: number } = {}
+): Promise<ChatMessagePage> => {
+  const res = await axios.get(`${baseUrl}/${chatId}/messages/cursor`, {
+    ...addReqToken(localStorage.getItem("token")),
+    params,
+  });
+  return res.data.result;
+};
+
+// Tìm kiếm full-text trong các chat của user (hoặc một chat nếu truyền chatId); cursor lấy từ nextCursor
+export const searchChatMessages = async (
+  q: string,
+  params: { chatId?: string; cursor?: string; limit?: number } = {}
+): Promise<ChatSearchResult> => {
+  const res = await axios.get(`${baseUrl}/search`, {
+    ...addReqToken(localStorage.getItem("token")),
+    params: { q, ...params },
+  });
+  return res.data.result;
+};
+
+// Số tin nhắn chưa đọc của mọi chat mà user là thành viên
+export const getUnreadCounts = async (): Promise<ChatUnread[]> => {
+  const res = await axios.get(`${baseUrl}/unread`, addReqToken(localStorage.getItem("token")));
+  return res.data.result;
+};
+
+// Đánh dấu đã đọc tới messageId (server chỉ cho cursor tiến lên)
+export const markChatRead = async (chatId: string, messageId: string): Promise<void> => {
+  await axios.post(`${baseUrl}/${chatId}/read`, { messageId }, addReqToken(localStorage.getItem("token")));
+};
+
+// Create a new message. Mỗi lần gửi có một clientMessageId; lỗi mạng/5xx (kể cả server timeout trong khi tin
+// vẫn được lưu sau đó) được gửi lại một lần với cùng khóa, server trả về tin đã lưu thay vì tạo bản trùng
 export const createChatMessage = async (request: CreateChatMessageRequest): Promise<ChatMessage> => {
-  const res = await axios.post(`${baseUrl}/messages`, request, addReqToken(localStorage.getItem("token")));
+  const body = { ...request, clientMessageId: request.clientMessageId ?? crypto.randomUUID() };
+  try {
+    const res = await axios.post(`${baseUrl}/messages`, body, addReqToken(localStorage.getItem("token")));
+    return res.data.result;
+  } catch (error) {
+    if (!axios.isAxiosError(error) || (error.response && error.response.status < 500)) {
+      throw error;
+    }
+    const res = await axios.post(`${baseUrl}/messages`, body, addReqToken(localStorage.getItem("token")));
+    return res.data.result;
+  }
+};
+
+// Sửa tin nhắn; version là phiên bản đang hiển thị, lệch với server thì nhận 409
+export const editChatMessage = async (messageId: string, content: string, version: number): Promise<ChatMessage> => {
+  const res = await axios.put(`${baseUrl}/messages/${messageId}`, { content, version }, addReqToken(localStorage.getItem("token")));
+  return res.data.result;
+};
+
+// Lịch sử sửa của tin nhắn, mới nhất trước
+export const getMessageEdits = async (messageId: string): Promise<MessageEdit[]> => {
+  const res = await axios.get(`${baseUrl}/messages/${messageId}/edits`, addReqToken(localStorage.getItem("token")));
+  return res.data.result;
+};
+
+// Thả/bỏ một emoji; server trả về số reaction mới của tin nhắn
+export const toggleReaction = async (messageId: string, emoji: string): Promise<ChatReaction> => {
+  const res = await axios.post(`${baseUrl}/messages/${messageId}/reactions`, { emoji }, addReqToken(localStorage.getItem("token")));
+  return res.data.result;
+};
+
+// Reply của một thread, cũ nhất trước; after = afterCursor của trang trước
+export const getReplies = async (
+  messageId: string,
+  params: { after?: string; limit?: number } = {}
+): Promise<ChatMessagePage> => {
+  const res = await axios.get(`${baseUrl}/messages/${messageId}/replies`, {
+    ...addReqToken(localStorage.getItem("token")),
+    params,
+  });
   return res.data.result;
 };
 
@@ -44,7 +119,15 @@ export default {
   getAllChats,
   getChatById,
   getAllChatMessages,
+  getChatMessagesByCursor,
+  searchChatMessages,
+  getUnreadCounts,
+  markChatRead,
   createChatMessage,
+  editChatMessage,
+  getMessageEdits,
   deleteChatMessage,
+  toggleReaction,
+  getReplies,
   getChatMessages,
 }; 
\ No newline at end of file
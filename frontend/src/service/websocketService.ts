@@ -1,6 +1,6 @@
 import SockJS from 'sockjs-client';
 import { Client } from '@stomp/stompjs';
-import type { StompSubscription } from '@stomp/stompjs';
+import type { IMessage, StompSubscription } from '@stomp/stompjs';
 import { config } from "@/config/env";
 
 export interface CommentMessage {
@@ -17,7 +17,7 @@ export interface CommentMessage {
 }
 
 export interface ChatMessage {
-  type: 'CREATE' | 'UPDATE' | 'DELETE';
+  type: 'CREATE' | 'UPDATE' | 'DELETE' | 'REACTION';
   messageId: string;
   chatId: string;
   content?: string;
@@ -27,6 +27,10 @@ export interface ChatMessage {
   senderAvatarUrl?: string;
   createdAt?: string;
   updatedAt?: string;
+  version?: number; // UPDATE chỉ mang content + version, không kèm sender/attachments
+  parentId?: string; // CREATE/DELETE của reply trong thread
+  parentReplyCount?: number; // reply_count của tin gốc sau thay đổi này (gán, không cộng dồn)
+  reactionCounts?: Record<string, number>; // REACTION: toàn bộ số reaction của tin nhắn
   attachments?: AttachmentInfo[];
 }
 
@@ -38,6 +42,36 @@ export interface AttachmentInfo {
   filePath: string;
 }
 
+export interface IssueDelta {
+  action: 'CREATED' | 'UPDATED' | 'DELETED';
+  issueId: string;
+  // Chỉ các field đã đổi (CREATED: toàn bộ field của card trên board)
+  fields?: Record<string, unknown> | null;
+  updatedAt: string;
+}
+
+export interface IssueDeltaBatch {
+  projectId: string;
+  deltas: IssueDelta[];
+  timestamp: string;
+}
+
+export interface ChatReadState {
+  chatId: string;
+  userId: string;
+  lastReadMessageId: string;
+  lastReadMessageAt: string;
+  readAt: string;
+}
+
+// Server gửi cho các thành viên (trừ người gửi) mỗi khi có tin nhắn mới; client tăng badge chưa đọc
+export interface ChatUnreadEvent {
+  chatId: string;
+  messageId: string;
+  senderId: string;
+  createdAt: string;
+}
+
 export interface NotificationMessage {
   type: 'CREATE' | 'UPDATE' | 'DELETE';
   notificationId: string;
@@ -49,14 +83,35 @@ export interface NotificationMessage {
   createdAt: string;
 }
 
+// Câu trả lời của /app/resume (gửi về /user/queue/replay), một phần tử cho mỗi topic được resume
+interface ReplayAnswer {
+  destination: string;
+  status: 'REPLAY' | 'RESET'; // RESET = gap: phần bị lỡ không còn trong buffer của server, phải tải lại
+  epoch: string;
+  headSeq: number;
+  messages: { seq: number; payload: unknown }[];
+}
+
+interface TopicStream {
+  handler: (data: unknown) => void;
+  onGap?: () => void; // gọi khi resume trả về gap; không có thì chỉ log
+  lastSeq?: number; // x-seq cuối cùng đã xử lý
+  pending: { seq: number; data: unknown }[] | null; // frame mới nhận trong lúc chờ câu trả lời resume
+}
+
+const REPLAY_QUEUE = '/user/queue/replay';
+
 class WebSocketService {
   private stompClient: Client | null = null;
   private commentSubscriptions: Map<string, (message: CommentMessage) => void> = new Map();
   private chatSubscriptions: Map<string, (message: ChatMessage) => void> = new Map();
   private notificationSubscriptions: Map<string, (message: NotificationMessage) => void> = new Map();
   private stompSubscriptions: Map<string, StompSubscription> = new Map();
+  private streams: Map<string, TopicStream> = new Map();
+  private streamEpoch: string | null = null;
   private processedMessages: Set<string> = new Set();
   private isConnected = false;
+  private hasConnected = false;
   private reconnectAttempts = 0;
   private maxReconnectAttempts = 5;
   private onConnectCallbacks: (() => void)[] = [];
@@ -79,6 +134,14 @@ class WebSocketService {
         const baseUrl = config.getWsBaseUrl();
         this.stompClient = new Client({
           webSocketFactory: () => new SockJS(`${baseUrl}`),
+          // Server xác thực JWT một lần trên frame CONNECT; đọc lại token mỗi lần (re)connect
+          beforeConnect: () => {
+            if (this.stompClient) {
+              this.stompClient.connectHeaders = {
+                Authorization: `Bearer ${localStorage.getItem("token") ?? ""}`,
+              };
+            }
+          },
           debug: () => {
             // Disable debug logging
           },
@@ -90,6 +153,11 @@ class WebSocketService {
         this.stompClient.onConnect = () => {
           this.isConnected = true;
           this.reconnectAttempts = 0;
+          // Subscription không tự khôi phục sau reconnect: subscribe lại và xin phần bị lỡ
+          if (this.hasConnected) {
+            this.resubscribeAndResume();
+          }
+          this.hasConnected = true;
           this.onConnectCallbacks.forEach(cb => cb());
           this.onConnectCallbacks = [];
           resolve();
@@ -150,12 +218,117 @@ class WebSocketService {
       this.chatSubscriptions.clear();
       this.notificationSubscriptions.clear();
       this.stompSubscriptions.clear();
+      this.streams.clear();
+      this.streamEpoch = null;
+      this.hasConnected = false;
       this.processedMessages.clear();
     }
   }
 
+  // Subscribe và ghi nhớ topic để subscribe lại sau reconnect; frame có x-seq được theo dõi để resume
+  private subscribeTopic(topic: string, handler: (data: unknown) => void, onGap?: () => void): void {
+    this.streams.set(topic, { handler, onGap, pending: null });
+    const subscription = this.stompClient!.subscribe(topic, (message) => this.receive(topic, message));
+    this.stompSubscriptions.set(topic, subscription);
+  }
+
+  private unsubscribeTopic(topic: string): void {
+    this.streams.delete(topic);
+    const stompSubscription = this.stompSubscriptions.get(topic);
+    if (stompSubscription) {
+      stompSubscription.unsubscribe();
+      this.stompSubscriptions.delete(topic);
+    }
+  }
+
+  private receive(topic: string, message: IMessage): void {
+    const stream = this.streams.get(topic);
+    if (!stream) {
+      return;
+    }
+    let data: unknown;
+    try {
+      data = JSON.parse(message.body);
+    } catch (error) {
+      console.error('Error parsing WebSocket message:', error);
+      return;
+    }
+    const seq = message.headers['x-seq'];
+    if (seq === undefined) {
+      stream.handler(data);
+      return;
+    }
+    this.streamEpoch = message.headers['x-stream-epoch'] ?? this.streamEpoch;
+    if (stream.pending) {
+      stream.pending.push({ seq: Number(seq), data });
+      return;
+    }
+    this.deliver(stream, Number(seq), data);
+  }
+
+  // Bỏ qua seq đã xử lý (frame vừa replay vừa nhận qua subscription mới)
+  private deliver(stream: TopicStream, seq: number, data: unknown): void {
+    if (stream.lastSeq !== undefined && seq <= stream.lastSeq) {
+      return;
+    }
+    stream.lastSeq = seq;
+    stream.handler(data);
+  }
+
+  private resubscribeAndResume(): void {
+    const client = this.stompClient!;
+    const resume: Record<string, number> = {};
+    this.stompSubscriptions.clear();
+    this.streams.forEach((stream, topic) => {
+      if (stream.lastSeq !== undefined) {
+        resume[topic] = stream.lastSeq;
+        stream.pending = [];
+      }
+      this.stompSubscriptions.set(topic, client.subscribe(topic, (message) => this.receive(topic, message)));
+    });
+    if (Object.keys(resume).length === 0) {
+      return;
+    }
+    const replay = client.subscribe(REPLAY_QUEUE, (message) => {
+      replay.unsubscribe();
+      try {
+        this.applyReplay(JSON.parse(message.body) as ReplayAnswer[]);
+      } catch (error) {
+        console.error('Error parsing WebSocket replay:', error);
+        this.applyReplay([]);
+      }
+    });
+    client.publish({
+      destination: '/app/resume',
+      body: JSON.stringify({ epoch: this.streamEpoch, streams: resume }),
+    });
+  }
+
+  private applyReplay(answers: ReplayAnswer[]): void {
+    answers.forEach((answer) => {
+      const stream = this.streams.get(answer.destination);
+      if (!stream || !stream.pending) {
+        return;
+      }
+      if (answer.status === 'RESET') {
+        console.warn('WebSocket resume gap, reloading:', answer.destination);
+        stream.lastSeq = undefined;
+        stream.onGap?.();
+      } else {
+        answer.messages.forEach((entry) => this.deliver(stream, entry.seq, entry.payload));
+      }
+      this.streamEpoch = answer.epoch;
+    });
+    // Topic không có trong câu trả lời (mất quyền truy cập, ...) cũng nhận tiếp các frame đã giữ lại
+    this.streams.forEach((stream) => {
+      const pending = stream.pending;
+      stream.pending = null;
+      pending?.forEach((frame) => this.deliver(stream, frame.seq, frame.data));
+    });
+  }
+
   // Comment subscription methods
-  subscribeToIssueComments(issueId: string, callback: (message: CommentMessage) => void): void {
+  subscribeToIssueComments(issueId: string, callback: (message: CommentMessage) => void, onGap?: () => void): void {
     if (!this.stompClient || !this.isConnected) {
       console.error('WebSocket not connected, cannot subscribe');
       return;
@@ -167,47 +340,37 @@ class WebSocketService {
       this.unsubscribeFromIssueComments(issueId);
     }
     
-    const subscription = this.stompClient.subscribe(topic, (message) => {
-      try {
-        const data = JSON.parse(message.body);
-        const messageId = `${data.commentId || 'unknown'}-${data.type || 'unknown'}`;
-        if (this.processedMessages.has(messageId)) {
-          return;
-        }
-        
-        this.processedMessages.add(messageId);
-        
-        if (this.processedMessages.size > 100) {
-          const firstKey = this.processedMessages.values().next().value;
-          if (firstKey) {
-            this.processedMessages.delete(firstKey);
-          }
+    this.subscribeTopic(topic, (payload) => {
+      const data = payload as CommentMessage;
+      const messageId = `${data.commentId || 'unknown'}-${data.type || 'unknown'}`;
+      if (this.processedMessages.has(messageId)) {
+        return;
+      }
+      
+      this.processedMessages.add(messageId);
+      
+      if (this.processedMessages.size > 100) {
+        const firstKey = this.processedMessages.values().next().value;
+        if (firstKey) {
+          this.processedMessages.delete(firstKey);
         }
-        
-        callback(data as CommentMessage);
-      } catch (error) {
-        console.error('Error parsing WebSocket message:', error);
       }
-    });
+      
+      callback(data);
+    }, onGap);
     
     this.commentSubscriptions.set(topic, callback);
-    this.stompSubscriptions.set(topic, subscription);
   }
 
   unsubscribeFromIssueComments(issueId: string): void {
     const topic = `/topic/issue/${issueId}/comments`;
     
     this.commentSubscriptions.delete(topic);
-    
-    const stompSubscription = this.stompSubscriptions.get(topic);
-    if (stompSubscription) {
-      stompSubscription.unsubscribe();
-      this.stompSubscriptions.delete(topic);
-    }
+    this.unsubscribeTopic(topic);
   }
 
   // Chat subscription methods
-  subscribeToChatMessages(chatId: string, callback: (message: ChatMessage) => void): void {
+  subscribeToChatMessages(chatId: string, callback: (message: ChatMessage) => void, onGap?: () => void): void {
     console.log('Attempting to subscribe to chat messages for chatId:', chatId);
     console.log('WebSocket connected:', this.isConnected);
     
@@ -224,34 +387,29 @@ class WebSocketService {
       this.unsubscribeFromChatMessages(chatId);
     }
     
-    const subscription = this.stompClient.subscribe(topic, (message) => {
-      console.log('Received chat message:', message.body);
-      try {
-        const data = JSON.parse(message.body);
-        const messageId = `${data.messageId || 'unknown'}-${data.type || 'unknown'}`;
-        if (this.processedMessages.has(messageId)) {
-          console.log('Message already processed, skipping:', messageId);
-          return;
-        }
-        
-        this.processedMessages.add(messageId);
-        
-        if (this.processedMessages.size > 100) {
-          const firstKey = this.processedMessages.values().next().value;
-          if (firstKey) {
-            this.processedMessages.delete(firstKey);
-          }
+    this.subscribeTopic(topic, (payload) => {
+      const data = payload as ChatMessage;
+      console.log('Received chat message:', data);
+      const messageId = `${data.messageId || 'unknown'}-${data.type || 'unknown'}`;
+      if (this.processedMessages.has(messageId)) {
+        console.log('Message already processed, skipping:', messageId);
+        return;
+      }
+      
+      this.processedMessages.add(messageId);
+      
+      if (this.processedMessages.size > 100) {
+        const firstKey = this.processedMessages.values().next().value;
+        if (firstKey) {
+          this.processedMessages.delete(firstKey);
         }
-        
-        console.log('Calling chat message callback with data:', data);
-        callback(data as ChatMessage);
-      } catch (error) {
-        console.error('Error parsing WebSocket message:', error);
       }
-    });
+      
+      console.log('Calling chat message callback with data:', data);
+      callback(data);
+    }, onGap);
     
     this.chatSubscriptions.set(topic, callback);
-    this.stompSubscriptions.set(topic, subscription);
     console.log('Successfully subscribed to chat messages for chatId:', chatId);
   }
 
@@ -259,12 +417,61 @@ class WebSocketService {
     const topic = `/topic/chat/${chatId}/messages`;
     
     this.chatSubscriptions.delete(topic);
-    
-    const stompSubscription = this.stompSubscriptions.get(topic);
-    if (stompSubscription) {
-      stompSubscription.unsubscribe();
-      this.stompSubscriptions.delete(topic);
+    this.unsubscribeTopic(topic);
+  }
+
+  // Issue board subscription: server gộp thay đổi mỗi 100ms thành một batch cho từng project
+  subscribeToProjectIssues(projectId: string, callback: (batch: IssueDeltaBatch) => void, onGap?: () => void): void {
+    if (!this.stompClient || !this.isConnected) {
+      console.error('WebSocket not connected, cannot subscribe');
+      return;
+    }
+
+    const topic = `/topic/project/${projectId}/issues`;
+
+    this.unsubscribeFromProjectIssues(projectId);
+
+    this.subscribeTopic(topic, (payload) => callback(payload as IssueDeltaBatch), onGap);
+  }
+
+  unsubscribeFromProjectIssues(projectId: string): void {
+    this.unsubscribeTopic(`/topic/project/${projectId}/issues`);
+  }
+
+  // Read receipts của các thành viên trong chat
+  subscribeToChatReadState(chatId: string, callback: (state: ChatReadState) => void): void {
+    if (!this.stompClient || !this.isConnected) {
+      console.error('WebSocket not connected, cannot subscribe');
+      return;
+    }
+
+    const topic = `/topic/chat/${chatId}/read`;
+
+    this.unsubscribeFromChatReadState(chatId);
+
+    this.subscribeTopic(topic, (payload) => callback(payload as ChatReadState));
+  }
+
+  unsubscribeFromChatReadState(chatId: string): void {
+    this.unsubscribeTopic(`/topic/chat/${chatId}/read`);
+  }
+
+  // Badge chưa đọc: một sự kiện cho mỗi tin nhắn mới trong các chat của user
+  subscribeToChatUnread(callback: (event: ChatUnreadEvent) => void): void {
+    if (!this.stompClient || !this.isConnected) {
+      console.error('WebSocket not connected, cannot subscribe');
+      return;
     }
+
+    const topic = `/user/queue/chat-unread`;
+
+    this.unsubscribeFromChatUnread();
+
+    this.subscribeTopic(topic, (payload) => callback(payload as ChatUnreadEvent));
+  }
+
+  unsubscribeFromChatUnread(): void {
+    this.unsubscribeTopic(`/user/queue/chat-unread`);
   }
 
   // Notification subscription methods
@@ -274,72 +481,44 @@ class WebSocketService {
       return;
     }
 
-    const topic = `/user/${userId}/notifications`;
+    const topic = `/user/queue/notifications`;
     
     if (this.notificationSubscriptions.has(topic)) {
       this.unsubscribeFromUserNotifications(userId);
     }
     
-    const subscription = this.stompClient.subscribe(topic, (message) => {
-      try {
-        const data = JSON.parse(message.body);
-        const messageId = `${data.notificationId || 'unknown'}-${data.type || 'unknown'}`;
-        if (this.processedMessages.has(messageId)) {
-          return;
-        }
-        
-        this.processedMessages.add(messageId);
-        
-        if (this.processedMessages.size > 100) {
-          const firstKey = this.processedMessages.values().next().value;
-          if (firstKey) {
-            this.processedMessages.delete(firstKey);
-          }
+    this.subscribeTopic(topic, (payload) => {
+      const data = payload as NotificationMessage;
+      const messageId = `${data.notificationId || 'unknown'}-${data.type || 'unknown'}`;
+      if (this.processedMessages.has(messageId)) {
+        return;
+      }
+      
+      this.processedMessages.add(messageId);
+      
+      if (this.processedMessages.size > 100) {
+        const firstKey = this.processedMessages.values().next().value;
+        if (firstKey) {
+          this.processedMessages.delete(firstKey);
         }
-        
-        callback(data as NotificationMessage);
-      } catch (error) {
-        console.error('Error parsing WebSocket notification message:', error);
       }
+      
+      callback(data);
     });
     
     this.notificationSubscriptions.set(topic, callback);
-    this.stompSubscriptions.set(topic, subscription);
   }
 
   unsubscribeFromUserNotifications(userId: string): void {
-    const topic = `/user/${userId}/notifications`;
+    const topic = `/user/queue/notifications`;
     
     this.notificationSubscriptions.delete(topic);
-    
-    const stompSubscription = this.stompSubscriptions.get(topic);
-    if (stompSubscription) {
-      stompSubscription.unsubscribe();
-      this.stompSubscriptions.delete(topic);
-    }
+    this.unsubscribeTopic(topic);
   }
 
   isConnectedToWebSocket(): boolean {
     return this.isConnected;
   }
-
-  joinCommentRoom(issueId: string): void {
-    if (this.stompClient && this.isConnected) {
-      this.stompClient.publish({
-        destination: '/app/comment/join',
-        body: JSON.stringify({ issueId })
-      });
-    }
-  }
-
-  leaveCommentRoom(issueId: string): void {
-    if (this.stompClient && this.isConnected) {
-      this.stompClient.publish({
-        destination: '/app/comment/leave',
-        body: JSON.stringify({ issueId })
-      });
-    }
-  }
 }
 
 export const websocketService = new WebSocketService();
@@ -17,9 +17,68 @@ export interface ChatMessage {
   };
   createdAt: string;
   updatedAt: string;
+  version: number; // > 0: đã chỉnh sửa; gửi kèm khi sửa tiếp
+  parentId?: string | null; // tin gốc khi đây là reply trong thread
+  replyCount?: number;
+  lastReplyAt?: string | null;
+  reactionCounts?: Record<string, number>; // emoji -> số lượng, server đếm sẵn
+  archived?: boolean; // đọc từ segment lưu trữ: chỉ xem
+  attachments?: {
+    id: string;
+    fileName: string;
+    fileType: string;
+    fileSize: number;
+    filePath: string;
+  }[];
+}
+
+export interface MessageEdit {
+  version: number; // phiên bản bị thay thế bởi lần sửa này
+  previousContent: string;
+  editorId: string | null;
+  editedAt: string;
+}
+
+export interface ChatReaction {
+  messageId: string;
+  reactionCounts: Record<string, number>;
+  reacted: boolean; // true: vừa thêm, false: vừa bỏ
+}
+
+export interface ChatMessagePage {
+  messages: ChatMessage[]; // cũ nhất ở đầu
+  beforeCursor: string | null;
+  afterCursor: string | null;
+  hasMoreBefore: boolean;
+  hasMoreAfter: boolean;
+}
+
+export interface ChatSearchHit {
+  messageId: string;
+  chatId: string;
+  senderId: string;
+  senderName: string | null;
+  createdAt: string;
+  snippet: string; // từ khớp nằm giữa \u0002 và \u0003
+  rank: number;
+}
+
+export interface ChatSearchResult {
+  hits: ChatSearchHit[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export interface ChatUnread {
+  chatId: string;
+  unreadCount: number;
+  lastReadMessageId: string | null;
 }
 
 export interface CreateChatMessageRequest {
   content: string;
   chatId: string;
+  parentId?: string;
+  // Khóa idempotency; createChatMessage tự sinh nếu không truyền
+  clientMessageId?: string;
 } 
\ No newline at end of file